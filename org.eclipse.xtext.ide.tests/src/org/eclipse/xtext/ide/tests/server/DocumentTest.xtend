@@ -107,6 +107,21 @@ class DocumentTest {
         ]
     }
     
+    @Test def void testUpdate_lineOffsets() {
+        val document = new Document(1, '''
+            hello world
+            foo
+            bar
+        '''.normalize)
+        assertLineOffsets("hello world\nfx\ny\nzbar\n", document.applyChanges(#[
+            change(position(1,1), position(2,0), "x\ny\nz")
+        ]))
+        assertLineOffsets("hi world\nfoo\nbaz\nqux\n", document.applyChanges(#[
+            change(position(2,0), position(2,3), "baz\nqux"),
+            change(position(0,0), position(0,5), "hi")
+        ]))
+    }
+    
     @Test(expected=IndexOutOfBoundsException) def void testGetLineContent_negative() {
         new Document(1, '').getLineContent(-1);
     }
@@ -144,6 +159,20 @@ class DocumentTest {
         ccc''').lineCount);
     }
 
+    private def void assertLineOffsets(String expectedContents, Document document) {
+        assertEquals(expectedContents, document.contents)
+        val expected = new Document(1, expectedContents)
+        assertEquals(expected.lineCount, document.lineCount)
+        for (var i = 0; i <= expectedContents.length; i++) {
+            val position = expected.getPosition(i)
+            assertEquals(position, document.getPosition(i))
+            assertEquals(i, document.getOffSet(position))
+        }
+        for (var i = 0; i < expected.lineCount; i++) {
+            assertEquals(expected.getLineContent(i), document.getLineContent(i))
+        }
+    }
+
     private def change(Position startPos, Position endPos, String newText) {
         new TextEdit => [
               if (startPos !== null) {
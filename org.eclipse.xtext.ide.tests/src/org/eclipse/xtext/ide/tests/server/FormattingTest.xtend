@@ -106,6 +106,23 @@ class FormattingTest extends AbstractTestLangLanguageServerTest {
 		]
 	}
 	
+	@Test def void testRangeFormattingMisindentedElement() {
+		testRangeFormatting [
+			model = '''
+				type Foo{
+				  int bar
+				}'''
+			range = new Range => [
+				start = new Position(0,9)
+				end = new Position(1,9)
+			]
+			expectedText = '''
+				type Foo{
+					int bar
+				}'''
+		]
+	}
+	
 	@Inject
 	Provider<XtextResourceSet> rsp
 	
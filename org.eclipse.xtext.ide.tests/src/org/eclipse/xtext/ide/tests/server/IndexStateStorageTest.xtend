@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.tests.server
+
+import java.io.File
+import java.io.RandomAccessFile
+import java.nio.file.Files
+import java.util.Arrays
+import java.util.concurrent.TimeUnit
+import org.eclipse.xtext.ide.server.IndexStateStorage
+import org.eclipse.xtext.util.Modules2
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import static org.junit.Assert.*
+
+class IndexStateStorageTest extends AbstractTestLangLanguageServerTest {
+
+	@Rule public TemporaryFolder cacheFolder = new TemporaryFolder
+	
+	String languageVersion = '1'
+	
+	long snapshotInterval = TimeUnit.MINUTES.toMillis(5)
+
+	override protected getServerModule() {
+		Modules2.mixin(super.getServerModule, [
+			bind(IndexStateStorage).toInstance(new IndexStateStorage {
+				override protected getCacheDirectory() {
+					return cacheFolder.root
+				}
+				
+				override protected getLanguageVersion() {
+					return languageVersion
+				}
+				
+				override getSnapshotInterval() {
+					return snapshotInterval
+				}
+			})
+		])
+	}
+
+	@Test
+	def void testRestoresSnapshot() {
+		val a = 'A.testlang'.writeFile('''
+			type A {
+			}
+		''')
+		val b = 'B.testlang'.writeFile('''
+			type B {
+				A a
+			}
+		''')
+		initialize
+		assertEquals(#{a, b}, diagnostics.keySet)
+		assertNotNull(snapshotFile)
+
+		shutdownServer
+		restartServer
+		assertTrue(diagnostics.toString, diagnostics.empty)
+
+		'B.testlang'.writeFile('''
+			type B {
+				A a
+				A b
+			}
+		''')
+		didCreateWatchedFiles(b)
+		assertEquals(#{b}, diagnostics.keySet)
+		assertTrue(diagnostics.get(b).toString, diagnostics.get(b).empty)
+	}
+
+	@Test
+	def void testBuildsChangedAndDeletedFiles() {
+		'A.testlang'.writeFile('''
+			type A {
+			}
+		''')
+		val b = 'B.testlang'.writeFile('''
+			type B {
+				C c
+			}
+		''')
+		'C.testlang'.writeFile('''
+			type C {
+			}
+		''')
+		val d = 'D.testlang'.writeFile('''
+			type D {
+				A a
+			}
+		''')
+		initialize
+		assertTrue(diagnostics.values.forall[empty])
+
+		shutdownServer
+		'A.testlang'.deleteFile
+		'B.testlang'.writeFile('''
+			type B {
+				C c
+				C c2
+			}
+		''')
+		restartServer
+		assertFalse(diagnostics.containsKey(getVirtualFile('C.testlang')))
+		assertTrue(diagnostics.get(b).toString, diagnostics.get(b).empty)
+		assertEquals("Couldn't resolve reference to TypeDeclaration 'A'.", diagnostics.get(d).head.message)
+	}
+
+	@Test
+	def void testRevalidatesFilesWithIssues() {
+		val a = 'A.testlang'.writeFile('''
+			type A {
+				Missing m
+			}
+		''')
+		'B.testlang'.writeFile('''
+			type B {
+			}
+		''')
+		initialize
+		assertEquals("Couldn't resolve reference to TypeDeclaration 'Missing'.", diagnostics.get(a).head.message)
+
+		shutdownServer
+		restartServer
+		assertEquals(#{a}, diagnostics.keySet)
+		assertEquals("Couldn't resolve reference to TypeDeclaration 'Missing'.", diagnostics.get(a).head.message)
+	}
+
+	@Test
+	def void testIgnoresCorruptSnapshot() {
+		val a = 'A.testlang'.writeFile('''
+			type A {
+			}
+		''')
+		val b = 'B.testlang'.writeFile('''
+			type B {
+				A a
+			}
+		''')
+		initialize
+		shutdownServer
+		val file = new RandomAccessFile(snapshotFile, "rw")
+		try {
+			file.length = file.length / 2
+		} finally {
+			file.close
+		}
+		restartServer
+		assertEquals(#{a, b}, diagnostics.keySet)
+		assertTrue(diagnostics.values.forall[empty])
+	}
+
+	@Test
+	def void testIgnoresOutdatedSnapshot() {
+		val a = 'A.testlang'.writeFile('''
+			type A {
+			}
+		''')
+		val b = 'B.testlang'.writeFile('''
+			type B {
+				A a
+			}
+		''')
+		initialize
+		shutdownServer
+		val file = new RandomAccessFile(snapshotFile, "rw")
+		try {
+			// the format version is stored first
+			val version = file.readInt
+			file.seek(0)
+			file.writeInt(version + 1)
+		} finally {
+			file.close
+		}
+		restartServer
+		assertEquals(#{a, b}, diagnostics.keySet)
+		assertTrue(diagnostics.values.forall[empty])
+	}
+
+	@Test
+	def void testRebuildsFilesChangedAfterTheBuild() {
+		'A.testlang'.writeFile('''
+			type A {
+			}
+		''')
+		val b = 'B.testlang'.writeFile('''
+			type B {
+			}
+		''')
+		initialize
+		// the server is not notified about this change
+		'B.testlang'.writeFile('''
+			type B {
+				Missing m
+			}
+		''')
+		shutdownServer
+		restartServer
+		assertEquals("Couldn't resolve reference to TypeDeclaration 'Missing'.", diagnostics.get(b).head.message)
+	}
+
+	@Test
+	def void testIgnoresSnapshotOfOtherLanguageVersion() {
+		val a = 'A.testlang'.writeFile('''
+			type A {
+			}
+		''')
+		val b = 'B.testlang'.writeFile('''
+			type B {
+				A a
+			}
+		''')
+		initialize
+		shutdownServer
+		languageVersion = '2'
+		restartServer
+		assertEquals(#{a, b}, diagnostics.keySet)
+	}
+
+	@Test
+	def void testWritesSnapshotAfterBuild() {
+		snapshotInterval = 0
+		'A.testlang'.writeFile('''
+			type A {
+			}
+		''')
+		initialize
+		val before = Files.readAllBytes(snapshotFile.toPath)
+		val b = 'B.testlang'.writeFile('''
+			type B {
+				A a
+			}
+		''')
+		didCreateWatchedFiles(b)
+		assertFalse(Arrays.equals(before, Files.readAllBytes(snapshotFile.toPath)))
+	}
+
+	protected def File getSnapshotFile() {
+		val files = cacheFolder.root.listFiles[ dir, name | name.endsWith('.index') ]
+		assertEquals(1, files.length)
+		return files.get(0)
+	}
+
+	protected def void shutdownServer() {
+		languageServer.shutdown.get
+	}
+
+	protected def void restartServer() {
+		notifications.clear
+		setup
+		initialize
+	}
+
+}
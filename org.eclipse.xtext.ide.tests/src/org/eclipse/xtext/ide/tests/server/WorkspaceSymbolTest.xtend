@@ -7,8 +7,12 @@
  *******************************************************************************/
 package org.eclipse.xtext.ide.tests.server
 
+import java.util.List
+import org.eclipse.lsp4j.WorkspaceSymbolParams
 import org.junit.Test
 
+import static org.junit.Assert.*
+
 /**
  * @author kosyakov - Initial contribution and API
  */
@@ -31,6 +35,10 @@ class WorkspaceSymbolTest extends AbstractTestLangLanguageServerTest {
 					kind: 7
 					location: MyModel.testlang [[0, 5] .. [0, 8]]
 				}
+				symbol "Bar.foo" {
+					kind: 7
+					location: MyModel.testlang [[4, 5] .. [4, 8]]
+				}
 				symbol "Foo.bar" {
 					kind: 7
 					location: MyModel.testlang [[1, 5] .. [1, 8]]
@@ -39,10 +47,6 @@ class WorkspaceSymbolTest extends AbstractTestLangLanguageServerTest {
 					kind: 7
 					location: MyModel.testlang [[1, 1] .. [1, 4]]
 				}
-				symbol "Bar.foo" {
-					kind: 7
-					location: MyModel.testlang [[4, 5] .. [4, 8]]
-				}
 			'''
 		]
 	}
@@ -79,5 +83,58 @@ class WorkspaceSymbolTest extends AbstractTestLangLanguageServerTest {
 			'''
 		]
 	}
-	
-}
\ No newline at end of file
+
+	@Test
+	def void testSymbol_03() {
+		testSymbol[
+			model = '''
+				type Foo {
+					int bar
+				}
+				type Bar {
+					Foo foo
+				}
+			'''
+			query = 'r.i'
+			expectedSymbols = '''
+				symbol "Foo.bar.int" {
+					kind: 7
+					location: MyModel.testlang [[1, 1] .. [1, 4]]
+				}
+			'''
+		]
+	}
+
+	@Test
+	def void testSymbolsAreUpdatedAfterBuild() {
+		val uri = 'MyModel.testlang'.writeFile('''
+			type Foo {
+			}
+		''')
+		initialize
+		assertEquals(#['Foo'], getSymbolNames('Foo'))
+		open(uri, '''
+			type Bar {
+			}
+		''')
+		assertEquals(#[], getSymbolNames('Foo'))
+		assertEquals(#['Bar'], getSymbolNames('Bar'))
+	}
+
+	@Test
+	def void testSymbolsAreNotMatchedFuzzilyByDefault() {
+		'MyModel.testlang'.writeFile('''
+			type Foo {
+				int bar
+			}
+		''')
+		initialize
+		assertEquals(#['Foo.bar.int'], getSymbolNames('bar.int'))
+		assertEquals(#[], getSymbolNames('fbi'))
+	}
+
+	protected def List<String> getSymbolNames(String query) {
+		return languageServer.symbol(new WorkspaceSymbolParams(query)).get.map[name]
+	}
+
+}
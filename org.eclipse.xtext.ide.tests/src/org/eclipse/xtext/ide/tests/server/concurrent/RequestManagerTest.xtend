@@ -9,6 +9,7 @@ package org.eclipse.xtext.ide.tests.server.concurrent
 
 import com.google.inject.Guice
 import com.google.inject.Inject
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicBoolean
 import java.util.concurrent.atomic.AtomicInteger
 import org.eclipse.xtext.ide.server.ServerModule
@@ -110,6 +111,66 @@ class RequestManagerTest {
 		assertEquals(2, sharedState.get)
 	}
 
+	@Test(timeout = 1000)
+	def void testQueueStatistics() {
+		requestManager.runWrite([], [
+			sharedState.incrementAndGet
+			while (sharedState.get == 1) {
+				Thread.sleep(10)
+			}
+			sharedState.get
+		])
+		while (sharedState.get == 0) {
+			Thread.sleep(10)
+		}
+		val future = requestManager.runRead [
+			sharedState.get
+		]
+		assertEquals(1, requestManager.queueSize)
+		sharedState.incrementAndGet
+		assertEquals(2, future.get)
+		assertEquals(0, requestManager.queueSize)
+		assertTrue(requestManager.getMaxWaitTime(TimeUnit.NANOSECONDS) > 0)
+	}
+
+	@Test(timeout = 1000)
+	def void testInteractiveReadIsNotCancelledByWrite() {
+		val future = requestManager.runInteractiveRead [ cancelIndicator |
+			while (sharedState.get == 0) {
+				Thread.sleep(10)
+			}
+			return cancelIndicator.isCanceled
+		]
+		val write = requestManager.runWrite([], [
+			sharedState.get
+		])
+		sharedState.incrementAndGet
+		assertFalse(future.get)
+		assertEquals(1, write.get)
+	}
+
+	@Test(timeout = 1000)
+	def void testQueuedWritesAreCoalesced() {
+		val nonCancellable = new AtomicInteger
+		val cancellable = new AtomicInteger
+		requestManager.runWrite([], [
+			sharedState.incrementAndGet
+			while (sharedState.get == 1) {
+				Thread.sleep(10)
+			}
+			return null
+		])
+		while (sharedState.get == 0) {
+			Thread.sleep(10)
+		}
+		requestManager.runWrite([nonCancellable.incrementAndGet], [cancellable.incrementAndGet])
+		val last = requestManager.runWrite([nonCancellable.incrementAndGet], [cancellable.incrementAndGet])
+		sharedState.incrementAndGet
+		last.join
+		assertEquals(2, nonCancellable.get)
+		assertEquals(1, cancellable.get)
+	}
+
 	@Test(timeout = 1000)
 	def void testCancelRead() {
 		val isCanceled = new AtomicBoolean(false)
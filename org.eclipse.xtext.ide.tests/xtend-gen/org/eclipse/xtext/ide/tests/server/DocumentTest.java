@@ -161,6 +161,25 @@ public class DocumentTest {
     ObjectExtensions.<Document>operator_doubleArrow(_document, _function);
   }
   
+  @Test
+  public void testUpdate_lineOffsets() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("hello world");
+    _builder.newLine();
+    _builder.append("foo");
+    _builder.newLine();
+    _builder.append("bar");
+    _builder.newLine();
+    final Document document = new Document(Integer.valueOf(1), this.normalize(_builder));
+    TextEdit _change = this.change(this.position(1, 1), this.position(2, 0), "x\ny\nz");
+    this.assertLineOffsets("hello world\nfx\ny\nzbar\n", document.applyChanges(
+      Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_change))));
+    TextEdit _change_1 = this.change(this.position(2, 0), this.position(2, 3), "baz\nqux");
+    TextEdit _change_2 = this.change(this.position(0, 0), this.position(0, 5), "hi");
+    this.assertLineOffsets("hi world\nfoo\nbaz\nqux\n", document.applyChanges(
+      Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_change_1, _change_2))));
+  }
+  
   @Test(expected = IndexOutOfBoundsException.class)
   public void testGetLineContent_negative() {
     new Document(Integer.valueOf(1), "").getLineContent((-1));
@@ -214,6 +233,22 @@ public class DocumentTest {
     Assert.assertEquals(3, new Document(Integer.valueOf(1), _builder.toString()).getLineCount());
   }
   
+  private void assertLineOffsets(final String expectedContents, final Document document) {
+    Assert.assertEquals(expectedContents, document.getContents());
+    final Document expected = new Document(Integer.valueOf(1), expectedContents);
+    Assert.assertEquals(expected.getLineCount(), document.getLineCount());
+    for (int i = 0; (i <= expectedContents.length()); i++) {
+      {
+        final Position position = expected.getPosition(i);
+        Assert.assertEquals(position, document.getPosition(i));
+        Assert.assertEquals(i, document.getOffSet(position));
+      }
+    }
+    for (int i = 0; (i < expected.getLineCount()); i++) {
+      Assert.assertEquals(expected.getLineContent(i), document.getLineContent(i));
+    }
+  }
+  
   private TextEdit change(final Position startPos, final Position endPos, final String newText) {
     TextEdit _textEdit = new TextEdit();
     final Procedure1<TextEdit> _function = (TextEdit it) -> {
@@ -203,6 +203,38 @@ public class FormattingTest extends AbstractTestLangLanguageServerTest {
     this.testRangeFormatting(_function, _function_1);
   }
   
+  @Test
+  public void testRangeFormattingMisindentedElement() {
+    final Procedure1<RangeFormattingConfiguration> _function = (RangeFormattingConfiguration it) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type Foo{");
+      _builder.newLine();
+      _builder.append("  ");
+      _builder.append("int bar");
+      _builder.newLine();
+      _builder.append("}");
+      it.setModel(_builder.toString());
+      Range _range = new Range();
+      final Procedure1<Range> _function_1 = (Range it_1) -> {
+        Position _position = new Position(0, 9);
+        it_1.setStart(_position);
+        Position _position_1 = new Position(1, 9);
+        it_1.setEnd(_position_1);
+      };
+      Range _doubleArrow = ObjectExtensions.<Range>operator_doubleArrow(_range, _function_1);
+      it.setRange(_doubleArrow);
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("type Foo{");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("int bar");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      it.setExpectedText(_builder_1.toString());
+    };
+    this.testRangeFormatting(_function);
+  }
+  
   @Inject
   private Provider<XtextResourceSet> rsp;
   
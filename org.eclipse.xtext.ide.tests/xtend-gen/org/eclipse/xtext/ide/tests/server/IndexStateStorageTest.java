@@ -0,0 +1,374 @@
+/**
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.tests.server;
+
+import com.google.inject.Binder;
+import com.google.inject.Module;
+import com.google.inject.binder.AnnotatedBindingBuilder;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.xtend2.lib.StringConcatenation;
+import org.eclipse.xtext.ide.server.IndexStateStorage;
+import org.eclipse.xtext.ide.tests.server.AbstractTestLangLanguageServerTest;
+import org.eclipse.xtext.util.Modules2;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings("all")
+public class IndexStateStorageTest extends AbstractTestLangLanguageServerTest {
+  @Rule
+  public TemporaryFolder cacheFolder = new TemporaryFolder();
+  
+  private String languageVersion = "1";
+  
+  private long snapshotInterval = TimeUnit.MINUTES.toMillis(5);
+
+  @Override
+  protected Module getServerModule() {
+    Module _serverModule = super.getServerModule();
+    final Module _function = (Binder it) -> {
+      AnnotatedBindingBuilder<IndexStateStorage> _bind = it.<IndexStateStorage>bind(IndexStateStorage.class);
+      _bind.toInstance(new IndexStateStorage() {
+        @Override
+        protected File getCacheDirectory() {
+          return IndexStateStorageTest.this.cacheFolder.getRoot();
+        }
+        
+        @Override
+        protected String getLanguageVersion() {
+          return IndexStateStorageTest.this.languageVersion;
+        }
+        
+        @Override
+        public long getSnapshotInterval() {
+          return IndexStateStorageTest.this.snapshotInterval;
+        }
+      });
+    };
+    return Modules2.mixin(_serverModule, _function);
+  }
+
+  @Test
+  public void testRestoresSnapshot() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type A {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final String a = this.writeFile("A.testlang", _builder);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type B {");
+    _builder_1.newLine();
+    _builder_1.append("\t");
+    _builder_1.append("A a");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    final String b = this.writeFile("B.testlang", _builder_1);
+    this.initialize();
+    Assert.assertEquals(Collections.<String>unmodifiableSet(CollectionLiterals.<String>newHashSet(a, b)), this.getDiagnostics().keySet());
+    Assert.assertNotNull(this.getSnapshotFile());
+    this.shutdownServer();
+    this.restartServer();
+    Assert.assertTrue(this.getDiagnostics().toString(), this.getDiagnostics().isEmpty());
+    StringConcatenation _builder_2 = new StringConcatenation();
+    _builder_2.append("type B {");
+    _builder_2.newLine();
+    _builder_2.append("\t");
+    _builder_2.append("A a");
+    _builder_2.newLine();
+    _builder_2.append("\t");
+    _builder_2.append("A b");
+    _builder_2.newLine();
+    _builder_2.append("}");
+    _builder_2.newLine();
+    this.writeFile("B.testlang", _builder_2);
+    this.didCreateWatchedFiles(b);
+    Assert.assertEquals(Collections.<String>unmodifiableSet(CollectionLiterals.<String>newHashSet(b)), this.getDiagnostics().keySet());
+    Assert.assertTrue(this.getDiagnostics().get(b).toString(), this.getDiagnostics().get(b).isEmpty());
+  }
+
+  @Test
+  public void testBuildsChangedAndDeletedFiles() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type A {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    this.writeFile("A.testlang", _builder);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type B {");
+    _builder_1.newLine();
+    _builder_1.append("\t");
+    _builder_1.append("C c");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    final String b = this.writeFile("B.testlang", _builder_1);
+    StringConcatenation _builder_2 = new StringConcatenation();
+    _builder_2.append("type C {");
+    _builder_2.newLine();
+    _builder_2.append("}");
+    _builder_2.newLine();
+    this.writeFile("C.testlang", _builder_2);
+    StringConcatenation _builder_3 = new StringConcatenation();
+    _builder_3.append("type D {");
+    _builder_3.newLine();
+    _builder_3.append("\t");
+    _builder_3.append("A a");
+    _builder_3.newLine();
+    _builder_3.append("}");
+    _builder_3.newLine();
+    final String d = this.writeFile("D.testlang", _builder_3);
+    this.initialize();
+    final Function1<List<Diagnostic>, Boolean> _function = (List<Diagnostic> it) -> {
+      return Boolean.valueOf(it.isEmpty());
+    };
+    Assert.assertTrue(IterableExtensions.<List<Diagnostic>>forall(this.getDiagnostics().values(), _function));
+    this.shutdownServer();
+    this.deleteFile("A.testlang");
+    StringConcatenation _builder_4 = new StringConcatenation();
+    _builder_4.append("type B {");
+    _builder_4.newLine();
+    _builder_4.append("\t");
+    _builder_4.append("C c");
+    _builder_4.newLine();
+    _builder_4.append("\t");
+    _builder_4.append("C c2");
+    _builder_4.newLine();
+    _builder_4.append("}");
+    _builder_4.newLine();
+    this.writeFile("B.testlang", _builder_4);
+    this.restartServer();
+    Assert.assertFalse(this.getDiagnostics().containsKey(this.getVirtualFile("C.testlang")));
+    Assert.assertTrue(this.getDiagnostics().get(b).toString(), this.getDiagnostics().get(b).isEmpty());
+    Assert.assertEquals("Couldn\'t resolve reference to TypeDeclaration \'A\'.", IterableExtensions.<Diagnostic>head(this.getDiagnostics().get(d)).getMessage());
+  }
+
+  @Test
+  public void testRevalidatesFilesWithIssues() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type A {");
+    _builder.newLine();
+    _builder.append("\t");
+    _builder.append("Missing m");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final String a = this.writeFile("A.testlang", _builder);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type B {");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    this.writeFile("B.testlang", _builder_1);
+    this.initialize();
+    Assert.assertEquals("Couldn\'t resolve reference to TypeDeclaration \'Missing\'.", IterableExtensions.<Diagnostic>head(this.getDiagnostics().get(a)).getMessage());
+    this.shutdownServer();
+    this.restartServer();
+    Assert.assertEquals(Collections.<String>unmodifiableSet(CollectionLiterals.<String>newHashSet(a)), this.getDiagnostics().keySet());
+    Assert.assertEquals("Couldn\'t resolve reference to TypeDeclaration \'Missing\'.", IterableExtensions.<Diagnostic>head(this.getDiagnostics().get(a)).getMessage());
+  }
+
+  @Test
+  public void testIgnoresCorruptSnapshot() {
+    try {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type A {");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      final String a = this.writeFile("A.testlang", _builder);
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("type B {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("A a");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      final String b = this.writeFile("B.testlang", _builder_1);
+      this.initialize();
+      this.shutdownServer();
+      File _snapshotFile = this.getSnapshotFile();
+      final RandomAccessFile file = new RandomAccessFile(_snapshotFile, "rw");
+      try {
+        long _length = file.length();
+        long _divide = (_length / 2);
+        file.setLength(_divide);
+      } finally {
+        file.close();
+      }
+      this.restartServer();
+      Assert.assertEquals(Collections.<String>unmodifiableSet(CollectionLiterals.<String>newHashSet(a, b)), this.getDiagnostics().keySet());
+      final Function1<List<Diagnostic>, Boolean> _function = (List<Diagnostic> it) -> {
+        return Boolean.valueOf(it.isEmpty());
+      };
+      Assert.assertTrue(IterableExtensions.<List<Diagnostic>>forall(this.getDiagnostics().values(), _function));
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+
+  @Test
+  public void testIgnoresOutdatedSnapshot() {
+    try {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type A {");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      final String a = this.writeFile("A.testlang", _builder);
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("type B {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("A a");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      final String b = this.writeFile("B.testlang", _builder_1);
+      this.initialize();
+      this.shutdownServer();
+      File _snapshotFile = this.getSnapshotFile();
+      final RandomAccessFile file = new RandomAccessFile(_snapshotFile, "rw");
+      try {
+        final int version = file.readInt();
+        file.seek(0);
+        file.writeInt((version + 1));
+      } finally {
+        file.close();
+      }
+      this.restartServer();
+      Assert.assertEquals(Collections.<String>unmodifiableSet(CollectionLiterals.<String>newHashSet(a, b)), this.getDiagnostics().keySet());
+      final Function1<List<Diagnostic>, Boolean> _function = (List<Diagnostic> it) -> {
+        return Boolean.valueOf(it.isEmpty());
+      };
+      Assert.assertTrue(IterableExtensions.<List<Diagnostic>>forall(this.getDiagnostics().values(), _function));
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+
+  @Test
+  public void testRebuildsFilesChangedAfterTheBuild() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type A {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    this.writeFile("A.testlang", _builder);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type B {");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    final String b = this.writeFile("B.testlang", _builder_1);
+    this.initialize();
+    StringConcatenation _builder_2 = new StringConcatenation();
+    _builder_2.append("type B {");
+    _builder_2.newLine();
+    _builder_2.append("\t");
+    _builder_2.append("Missing m");
+    _builder_2.newLine();
+    _builder_2.append("}");
+    _builder_2.newLine();
+    this.writeFile("B.testlang", _builder_2);
+    this.shutdownServer();
+    this.restartServer();
+    Assert.assertEquals("Couldn\'t resolve reference to TypeDeclaration \'Missing\'.", IterableExtensions.<Diagnostic>head(this.getDiagnostics().get(b)).getMessage());
+  }
+  
+  @Test
+  public void testIgnoresSnapshotOfOtherLanguageVersion() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type A {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final String a = this.writeFile("A.testlang", _builder);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type B {");
+    _builder_1.newLine();
+    _builder_1.append("\t");
+    _builder_1.append("A a");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    final String b = this.writeFile("B.testlang", _builder_1);
+    this.initialize();
+    this.shutdownServer();
+    this.languageVersion = "2";
+    this.restartServer();
+    Assert.assertEquals(Collections.<String>unmodifiableSet(CollectionLiterals.<String>newHashSet(a, b)), this.getDiagnostics().keySet());
+  }
+  
+  @Test
+  public void testWritesSnapshotAfterBuild() {
+    try {
+      this.snapshotInterval = 0;
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type A {");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      this.writeFile("A.testlang", _builder);
+      this.initialize();
+      final byte[] before = Files.readAllBytes(this.getSnapshotFile().toPath());
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("type B {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("A a");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      final String b = this.writeFile("B.testlang", _builder_1);
+      this.didCreateWatchedFiles(b);
+      Assert.assertFalse(Arrays.equals(before, Files.readAllBytes(this.getSnapshotFile().toPath())));
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  protected File getSnapshotFile() {
+    final FilenameFilter _function = (File dir, String name) -> {
+      return name.endsWith(".index");
+    };
+    final File[] files = this.cacheFolder.getRoot().listFiles(_function);
+    Assert.assertEquals(1, files.length);
+    return files[0];
+  }
+
+  protected void shutdownServer() {
+    try {
+      this.languageServer.shutdown().get();
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+
+  protected void restartServer() {
+    this.notifications.clear();
+    this.setup();
+    this.initialize();
+  }
+}
@@ -7,10 +7,19 @@
  */
 package org.eclipse.xtext.ide.tests.server;
 
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.WorkspaceSymbolParams;
 import org.eclipse.xtend2.lib.StringConcatenation;
 import org.eclipse.xtext.ide.tests.server.AbstractTestLangLanguageServerTest;
 import org.eclipse.xtext.testing.WorkspaceSymbolConfiguration;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.junit.Assert;
 import org.junit.Test;
 
 /**
@@ -49,33 +58,33 @@ public class WorkspaceSymbolTest extends AbstractTestLangLanguageServerTest {
       _builder_1.newLine();
       _builder_1.append("}");
       _builder_1.newLine();
-      _builder_1.append("symbol \"Foo.bar\" {");
+      _builder_1.append("symbol \"Bar.foo\" {");
       _builder_1.newLine();
       _builder_1.append("\t");
       _builder_1.append("kind: 7");
       _builder_1.newLine();
       _builder_1.append("\t");
-      _builder_1.append("location: MyModel.testlang [[1, 5] .. [1, 8]]");
+      _builder_1.append("location: MyModel.testlang [[4, 5] .. [4, 8]]");
       _builder_1.newLine();
       _builder_1.append("}");
       _builder_1.newLine();
-      _builder_1.append("symbol \"Foo.bar.int\" {");
+      _builder_1.append("symbol \"Foo.bar\" {");
       _builder_1.newLine();
       _builder_1.append("\t");
       _builder_1.append("kind: 7");
       _builder_1.newLine();
       _builder_1.append("\t");
-      _builder_1.append("location: MyModel.testlang [[1, 1] .. [1, 4]]");
+      _builder_1.append("location: MyModel.testlang [[1, 5] .. [1, 8]]");
       _builder_1.newLine();
       _builder_1.append("}");
       _builder_1.newLine();
-      _builder_1.append("symbol \"Bar.foo\" {");
+      _builder_1.append("symbol \"Foo.bar.int\" {");
       _builder_1.newLine();
       _builder_1.append("\t");
       _builder_1.append("kind: 7");
       _builder_1.newLine();
       _builder_1.append("\t");
-      _builder_1.append("location: MyModel.testlang [[4, 5] .. [4, 8]]");
+      _builder_1.append("location: MyModel.testlang [[1, 1] .. [1, 4]]");
       _builder_1.newLine();
       _builder_1.append("}");
       _builder_1.newLine();
@@ -149,4 +158,87 @@ public class WorkspaceSymbolTest extends AbstractTestLangLanguageServerTest {
     };
     this.testSymbol(_function);
   }
+  
+  @Test
+  public void testSymbol_03() {
+    final Procedure1<WorkspaceSymbolConfiguration> _function = (WorkspaceSymbolConfiguration it) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type Foo {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("int bar");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      _builder.append("type Bar {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("Foo foo");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      it.setModel(_builder.toString());
+      it.setQuery("r.i");
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("symbol \"Foo.bar.int\" {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("kind: 7");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("location: MyModel.testlang [[1, 1] .. [1, 4]]");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      it.setExpectedSymbols(_builder_1.toString());
+    };
+    this.testSymbol(_function);
+  }
+  
+  @Test
+  public void testSymbolsAreUpdatedAfterBuild() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Foo {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final String uri = this.writeFile("MyModel.testlang", _builder);
+    this.initialize();
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("Foo")), this.getSymbolNames("Foo"));
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Bar {");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    this.open(uri, _builder_1.toString());
+    Assert.assertEquals(Collections.<Object>unmodifiableList(CollectionLiterals.<Object>newArrayList()), this.getSymbolNames("Foo"));
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("Bar")), this.getSymbolNames("Bar"));
+  }
+  
+  @Test
+  public void testSymbolsAreNotMatchedFuzzilyByDefault() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Foo {");
+    _builder.newLine();
+    _builder.append("\t");
+    _builder.append("int bar");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    this.writeFile("MyModel.testlang", _builder);
+    this.initialize();
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("Foo.bar.int")), this.getSymbolNames("bar.int"));
+    Assert.assertEquals(Collections.<Object>unmodifiableList(CollectionLiterals.<Object>newArrayList()), this.getSymbolNames("fbi"));
+  }
+  
+  protected List<String> getSymbolNames(final String query) {
+    try {
+      final Function1<SymbolInformation, String> _function = (SymbolInformation it) -> {
+        return it.getName();
+      };
+      return ListExtensions.map(this.languageServer.symbol(new WorkspaceSymbolParams(query)).get(), _function);
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
 }
@@ -10,6 +10,7 @@ package org.eclipse.xtext.ide.tests.server.concurrent;
 import com.google.inject.Guice;
 import com.google.inject.Inject;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.xtext.ide.server.ServerModule;
@@ -167,6 +168,122 @@ public class RequestManagerTest {
     Assert.assertEquals(2, this.sharedState.get());
   }
   
+  @Test(timeout = 1000)
+  public void testQueueStatistics() {
+    try {
+      final Function0<Object> _function = () -> {
+        return null;
+      };
+      final Function2<CancelIndicator, Object, Integer> _function_1 = (CancelIndicator $0, Object $1) -> {
+        try {
+          int _xblockexpression = (int) 0;
+          {
+            this.sharedState.incrementAndGet();
+            while ((this.sharedState.get() == 1)) {
+              Thread.sleep(10);
+            }
+            _xblockexpression = this.sharedState.get();
+          }
+          return Integer.valueOf(_xblockexpression);
+        } catch (Throwable _e) {
+          throw Exceptions.sneakyThrow(_e);
+        }
+      };
+      this.requestManager.<Object, Integer>runWrite(_function, _function_1);
+      while ((this.sharedState.get() == 0)) {
+        Thread.sleep(10);
+      }
+      final Function1<CancelIndicator, Integer> _function_2 = (CancelIndicator it) -> {
+        return Integer.valueOf(this.sharedState.get());
+      };
+      final CompletableFuture<Integer> future = this.requestManager.<Integer>runRead(_function_2);
+      Assert.assertEquals(1, this.requestManager.getQueueSize());
+      this.sharedState.incrementAndGet();
+      Assert.assertEquals(2, (future.get()).intValue());
+      Assert.assertEquals(0, this.requestManager.getQueueSize());
+      long _maxWaitTime = this.requestManager.getMaxWaitTime(TimeUnit.NANOSECONDS);
+      boolean _greaterThan = (_maxWaitTime > 0);
+      Assert.assertTrue(_greaterThan);
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test(timeout = 1000)
+  public void testInteractiveReadIsNotCancelledByWrite() {
+    try {
+      final Function1<CancelIndicator, Boolean> _function = (CancelIndicator cancelIndicator) -> {
+        try {
+          while ((this.sharedState.get() == 0)) {
+            Thread.sleep(10);
+          }
+          return Boolean.valueOf(cancelIndicator.isCanceled());
+        } catch (Throwable _e) {
+          throw Exceptions.sneakyThrow(_e);
+        }
+      };
+      final CompletableFuture<Boolean> future = this.requestManager.<Boolean>runInteractiveRead(_function);
+      final Function0<Object> _function_1 = () -> {
+        return null;
+      };
+      final Function2<CancelIndicator, Object, Integer> _function_2 = (CancelIndicator $0, Object $1) -> {
+        return Integer.valueOf(this.sharedState.get());
+      };
+      final CompletableFuture<Integer> write = this.requestManager.<Object, Integer>runWrite(_function_1, _function_2);
+      this.sharedState.incrementAndGet();
+      Assert.assertFalse((future.get()).booleanValue());
+      Assert.assertEquals(1, (write.get()).intValue());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test(timeout = 1000)
+  public void testQueuedWritesAreCoalesced() {
+    try {
+      final AtomicInteger nonCancellable = new AtomicInteger();
+      final AtomicInteger cancellable = new AtomicInteger();
+      final Function0<Object> _function = () -> {
+        return null;
+      };
+      final Function2<CancelIndicator, Object, Object> _function_1 = (CancelIndicator $0, Object $1) -> {
+        try {
+          this.sharedState.incrementAndGet();
+          while ((this.sharedState.get() == 1)) {
+            Thread.sleep(10);
+          }
+          return null;
+        } catch (Throwable _e) {
+          throw Exceptions.sneakyThrow(_e);
+        }
+      };
+      this.requestManager.<Object, Object>runWrite(_function, _function_1);
+      while ((this.sharedState.get() == 0)) {
+        Thread.sleep(10);
+      }
+      final Function0<Integer> _function_2 = () -> {
+        return Integer.valueOf(nonCancellable.incrementAndGet());
+      };
+      final Function2<CancelIndicator, Integer, Integer> _function_3 = (CancelIndicator $0, Integer $1) -> {
+        return Integer.valueOf(cancellable.incrementAndGet());
+      };
+      this.requestManager.<Integer, Integer>runWrite(_function_2, _function_3);
+      final Function0<Integer> _function_4 = () -> {
+        return Integer.valueOf(nonCancellable.incrementAndGet());
+      };
+      final Function2<CancelIndicator, Integer, Integer> _function_5 = (CancelIndicator $0, Integer $1) -> {
+        return Integer.valueOf(cancellable.incrementAndGet());
+      };
+      final CompletableFuture<Integer> last = this.requestManager.<Integer, Integer>runWrite(_function_4, _function_5);
+      this.sharedState.incrementAndGet();
+      last.join();
+      Assert.assertEquals(2, nonCancellable.get());
+      Assert.assertEquals(1, cancellable.get());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
   @Test(timeout = 1000)
   public void testCancelRead() {
     try {
@@ -56,7 +56,7 @@ class BuildManager {
         val sortedDescriptions = sortByDependencies(projects)
         val result = newArrayList
         for(description : sortedDescriptions) {
-            val partialresult = workspaceManager.getProjectManager(description.name).doInitialBuild(indicator)
+            val partialresult = workspaceManager.getProjectManager(description.name).doInitialBuild(result, indicator)
             result.addAll(partialresult.affectedResources)
         }
         return result
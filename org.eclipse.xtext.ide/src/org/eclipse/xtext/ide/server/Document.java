@@ -0,0 +1,261 @@
+/*******************************************************************************
+ * Copyright (c) 2016, 2017 TypeFox GmbH (http://www.typefox.io) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextEdit;
+import org.eclipse.xtext.xbase.lib.util.ToStringBuilder;
+
+/**
+ * The content of a text document.
+ *
+ * The offsets of the line starts are computed once and kept up to date when edits are applied, so converting between
+ * offsets and positions is a binary search.
+ *
+ * @author Sven Efftinge - Initial contribution and API
+ * @since 2.11
+ */
+public class Document {
+
+	private static final char NL = '\n';
+
+	private final Integer version;
+
+	private final String contents;
+
+	private final boolean printSourceOnError;
+
+	/**
+	 * The offsets at which the lines start. Computed lazily, since many documents are never asked for positions.
+	 */
+	private volatile int[] lineOffsets;
+
+	public Document(Integer version, String contents) {
+		this(version, contents, true);
+	}
+
+	/**
+	 * @since 2.15
+	 */
+	public Document(Integer version, String contents, boolean printSourceOnError) {
+		this.version = version;
+		this.contents = contents;
+		this.printSourceOnError = printSourceOnError;
+	}
+
+	private Document(Integer version, String contents, int[] lineOffsets) {
+		this(version, contents);
+		this.lineOffsets = lineOffsets;
+	}
+
+	public int getOffSet(Position position) throws IndexOutOfBoundsException {
+		int[] offsets = getLineOffsets();
+		int line = position.getLine();
+		int character = position.getCharacter();
+		if (line >= 0 && line < offsets.length && character >= 0 && character <= getLineLength(offsets, line)) {
+			return offsets[line] + character;
+		}
+		throw new IndexOutOfBoundsException(position.toString() + getErrorSuffix());
+	}
+
+	public Position getPosition(int offset) throws IndexOutOfBoundsException {
+		if (offset < 0 || offset > contents.length()) {
+			throw new IndexOutOfBoundsException(offset + getErrorSuffix());
+		}
+		int[] offsets = getLineOffsets();
+		int line = getLine(offsets, offset);
+		return new Position(line, offset - offsets[line]);
+	}
+
+	/**
+	 * Returns with the text for a certain line without the trailing LF. Throws an {@link IndexOutOfBoundsException} if
+	 * the zero-based {@code lineNumber} argument is negative or exceeds the number of lines in the document.
+	 */
+	public String getLineContent(int lineNumber) throws IndexOutOfBoundsException {
+		int[] offsets = getLineOffsets();
+		if (lineNumber < 0 || lineNumber >= offsets.length) {
+			throw new IndexOutOfBoundsException(lineNumber + getErrorSuffix());
+		}
+		int start = offsets[lineNumber];
+		return contents.substring(start, start + getLineLength(offsets, lineNumber));
+	}
+
+	/**
+	 * Get the number of lines in the document. Empty document has line count: {@code 1}.
+	 */
+	public int getLineCount() {
+		return getLineOffsets().length;
+	}
+
+	public String getSubstring(Range range) {
+		int start = getOffSet(range.getStart());
+		int end = getOffSet(range.getEnd());
+		return contents.substring(start, end);
+	}
+
+	/**
+	 * Applies the given edits one after another. The ranges of all edits are resolved against this document.
+	 */
+	public Document applyChanges(Iterable<? extends TextEdit> changes) {
+		Iterator<? extends TextEdit> iterator = changes.iterator();
+		if (!iterator.hasNext()) {
+			return new Document(version != null ? version + 1 : null, contents, lineOffsets);
+		}
+		StringBuilder newContent = new StringBuilder(contents);
+		int[] newLineOffsets = lineOffsets;
+		while (iterator.hasNext()) {
+			TextEdit change = iterator.next();
+			if (change.getRange() == null) {
+				newContent.setLength(0);
+				newContent.append(change.getNewText());
+				newLineOffsets = null;
+			} else {
+				int start = getOffSet(change.getRange().getStart());
+				int end = getOffSet(change.getRange().getEnd());
+				if (start > newContent.length() || end > newContent.length() || start > end) {
+					throw new StringIndexOutOfBoundsException("Cannot replace " + start + ".." + end);
+				}
+				newContent.replace(start, end, change.getNewText());
+				if (newLineOffsets != null) {
+					newLineOffsets = updateLineOffsets(newLineOffsets, start, end, change.getNewText());
+				}
+			}
+		}
+		return new Document(version != null ? version + 1 : null, newContent.toString(), newLineOffsets);
+	}
+
+	/**
+	 * @since 2.15
+	 */
+	public boolean isPrintSourceOnError() {
+		return printSourceOnError;
+	}
+
+	public Integer getVersion() {
+		return version;
+	}
+
+	public String getContents() {
+		return contents;
+	}
+
+	private String getErrorSuffix() {
+		return printSourceOnError ? "" : " text was : " + contents;
+	}
+
+	private int[] getLineOffsets() {
+		int[] result = lineOffsets;
+		if (result == null) {
+			result = computeLineOffsets(contents);
+			lineOffsets = result;
+		}
+		return result;
+	}
+
+	/**
+	 * The length of the given line without the trailing line feed.
+	 */
+	private int getLineLength(int[] offsets, int line) {
+		int end = line + 1 < offsets.length ? offsets[line + 1] - 1 : contents.length();
+		return end - offsets[line];
+	}
+
+	/**
+	 * The index of the last line that starts at or before the given offset.
+	 */
+	private static int getLine(int[] offsets, int offset) {
+		int index = Arrays.binarySearch(offsets, offset);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	private static int[] computeLineOffsets(CharSequence text) {
+		int count = 1;
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(i) == NL) {
+				count++;
+			}
+		}
+		int[] result = new int[count];
+		int line = 1;
+		for (int i = 0; i < length; i++) {
+			if (text.charAt(i) == NL) {
+				result[line++] = i + 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the line offsets after the range {@code [start, end)} has been replaced by the given text. Lines
+	 * before the range are kept, lines after it are shifted.
+	 */
+	private static int[] updateLineOffsets(int[] offsets, int start, int end, String newText) {
+		// lines that start after an LF in the replaced range are removed
+		int keep = getLine(offsets, start) + 1;
+		int removeEnd = getLine(offsets, end) + 1;
+		int[] inserted = computeLineOffsets(newText);
+		int delta = newText.length() - (end - start);
+		int insertedCount = inserted.length - 1;
+		int[] result = new int[keep + insertedCount + offsets.length - removeEnd];
+		System.arraycopy(offsets, 0, result, 0, keep);
+		for (int i = 0; i < insertedCount; i++) {
+			result[keep + i] = start + inserted[i + 1];
+		}
+		for (int i = removeEnd; i < offsets.length; i++) {
+			result[keep + insertedCount + i - removeEnd] = offsets[i] + delta;
+		}
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((version == null) ? 0 : version.hashCode());
+		result = prime * result + ((contents == null) ? 0 : contents.hashCode());
+		return prime * result + (printSourceOnError ? 1231 : 1237);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		Document other = (Document) obj;
+		if (version == null) {
+			if (other.version != null)
+				return false;
+		} else if (!version.equals(other.version))
+			return false;
+		if (contents == null) {
+			if (other.contents != null)
+				return false;
+		} else if (!contents.equals(other.contents))
+			return false;
+		if (other.printSourceOnError != printSourceOnError)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		ToStringBuilder b = new ToStringBuilder(this);
+		b.add("version", version);
+		b.add("contents", contents);
+		b.add("printSourceOnError", printSourceOnError);
+		return b.toString();
+	}
+}
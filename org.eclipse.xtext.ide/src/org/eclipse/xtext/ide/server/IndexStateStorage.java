@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.build.IndexState;
+import org.eclipse.xtext.IGrammarAccess;
+import org.eclipse.xtext.build.Source2GeneratedMapping;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.impl.ProjectDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.BinaryResourceDescriptionFormat;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.eclipse.xtext.util.ParallelFileSystemScanner.ScannedFile;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+
+/**
+ * Persists the {@link IndexState} of a project to a cache directory, such that the language server only has to
+ * rebuild the files that have been changed since the last session.
+ *
+ * The cache directory is taken from the system property {@value #CACHE_DIRECTORY_PROPERTY}. If it is not set, snapshots
+ * are neither written nor read. Subclasses may override {@link #getCacheDirectory()} to enable the cache by other
+ * means and {@link #getFingerprint(URI)} to detect changes by content instead of time stamps.
+ *
+ * A snapshot is only restored if it was written for the same {@link #getLanguageVersion() version} of the registered
+ * languages.
+ *
+ * @since 2.18
+ */
+public class IndexStateStorage {
+
+	public static final String CACHE_DIRECTORY_PROPERTY = "xtext.ls.indexCache";
+
+	private static final int VERSION = 2;
+
+	private static final Logger LOG = Logger.getLogger(IndexStateStorage.class);
+
+	/**
+	 * The persisted state of a project.
+	 */
+	public static class Snapshot {
+
+		private final IndexState indexState;
+
+		private final Map<URI, String> fingerprints;
+
+		private final Set<URI> urisWithIssues;
+
+		public Snapshot(IndexState indexState, Map<URI, String> fingerprints, Set<URI> urisWithIssues) {
+			this.indexState = indexState;
+			this.fingerprints = fingerprints;
+			this.urisWithIssues = urisWithIssues;
+		}
+
+		public IndexState getIndexState() {
+			return indexState;
+		}
+
+		/**
+		 * The fingerprints of the source files at the time they were indexed. Files that were indexed with unsaved
+		 * changes of an editor do not have a fingerprint.
+		 */
+		public Map<URI, String> getFingerprints() {
+			return fingerprints;
+		}
+
+		/**
+		 * The source files that had issues. They have to be validated again to report the issues to the client.
+		 */
+		public Set<URI> getUrisWithIssues() {
+			return urisWithIssues;
+		}
+	}
+
+	@Inject(optional = true)
+	private IResourceServiceProvider.Registry languagesRegistry;
+
+	/**
+	 * @return the directory of the snapshots or <code>null</code> if snapshots are disabled.
+	 */
+	protected File getCacheDirectory() {
+		String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+		if (directory == null || directory.isEmpty()) {
+			return null;
+		}
+		return new File(directory);
+	}
+
+	public boolean isEnabled() {
+		return getCacheDirectory() != null;
+	}
+
+	/**
+	 * @return the minimum time in milliseconds between two snapshots that are written after a build. Snapshots are
+	 *         also written after the initial build and on shutdown.
+	 */
+	public long getSnapshotInterval() {
+		return TimeUnit.MINUTES.toMillis(5);
+	}
+
+	/**
+	 * @return a string that changes whenever one of the registered languages is updated. By default, it consists of
+	 *         the grammar and the {@link #getImplementationVersion(Class) implementation version} of each language.
+	 */
+	protected String getLanguageVersion() {
+		if (languagesRegistry == null) {
+			return "";
+		}
+		List<String> versions = Lists.newArrayList();
+		for (String extension : languagesRegistry.getExtensionToFactoryMap().keySet()) {
+			IResourceServiceProvider provider = languagesRegistry
+					.getResourceServiceProvider(URI.createURI("synthetic:/index." + extension));
+			if (provider != null) {
+				IGrammarAccess grammarAccess = provider.get(IGrammarAccess.class);
+				if (grammarAccess != null) {
+					versions.add(extension + "=" + grammarAccess.getGrammar().getName() + "@"
+							+ getImplementationVersion(grammarAccess.getClass()));
+				} else {
+					versions.add(extension + "=" + provider.getClass().getName() + "@"
+							+ getImplementationVersion(provider.getClass()));
+				}
+			}
+		}
+		Collections.sort(versions);
+		return Joiner.on(',').join(versions);
+	}
+
+	/**
+	 * @return the implementation version of the package of the given class or, if there is none, the time stamp of
+	 *         the jar or the directory that the class was loaded from.
+	 */
+	protected String getImplementationVersion(Class<?> clazz) {
+		Package pack = clazz.getPackage();
+		if (pack != null && pack.getImplementationVersion() != null) {
+			return pack.getImplementationVersion();
+		}
+		try {
+			CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+			if (codeSource != null && codeSource.getLocation() != null
+					&& "file".equals(codeSource.getLocation().getProtocol())) {
+				return String.valueOf(new File(codeSource.getLocation().toURI()).lastModified());
+			}
+		} catch (URISyntaxException | SecurityException | IllegalArgumentException e) {
+			// no time stamp
+		}
+		return "";
+	}
+
+	protected File getSnapshotFile(ProjectDescription project, URI baseDir) {
+		File directory = getCacheDirectory();
+		if (directory == null) {
+			return null;
+		}
+		String hash = Hashing.murmur3_32().hashUnencodedChars(String.valueOf(baseDir)).toString();
+		String name = project.getName().replaceAll("[^\\w.-]", "_");
+		return new File(directory, name + "-" + hash + ".index");
+	}
+
+	/**
+	 * @return a fingerprint of the current content of the given file or <code>null</code> if it cannot be computed.
+	 */
+	public String getFingerprint(URI uri) {
+		if (!uri.isFile()) {
+			return null;
+		}
+		File file = new File(uri.toFileString());
+		if (!file.isFile()) {
+			return null;
+		}
+		return file.lastModified() + "/" + file.length();
+	}
+
+	/**
+	 * @return a fingerprint of the given file that was computed from the attributes that have been read while scanning
+	 *         the file system. Subclasses that override {@link #getFingerprint(URI)} should override this method, too.
+	 */
+	public String getFingerprint(ScannedFile file) {
+		return file.getLastModified() + "/" + file.getSize();
+	}
+
+	/**
+	 * @return the snapshot of the given project or <code>null</code> if there is none or if it cannot be read.
+	 */
+	public Snapshot load(ProjectDescription project, URI baseDir) {
+		File file = getSnapshotFile(project, baseDir);
+		if (file == null || !file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION || !String.valueOf(baseDir).equals(in.readUTF())
+					|| !getLanguageVersion().equals(in.readUTF())) {
+				return null;
+			}
+			int fingerprintCount = in.readInt();
+			Map<URI, String> fingerprints = new HashMap<URI, String>(fingerprintCount);
+			for (int i = 0; i < fingerprintCount; i++) {
+				fingerprints.put(URI.createURI(in.readUTF()), in.readUTF());
+			}
+			int issueCount = in.readInt();
+			Set<URI> urisWithIssues = new HashSet<URI>(issueCount);
+			for (int i = 0; i < issueCount; i++) {
+				urisWithIssues.add(URI.createURI(in.readUTF()));
+			}
+			BinaryResourceDescriptionFormat format = new BinaryResourceDescriptionFormat();
+			int descriptionCount = in.readInt();
+			List<IResourceDescription> descriptions = Lists.newArrayListWithCapacity(descriptionCount);
+			for (int i = 0; i < descriptionCount; i++) {
+				descriptions.add(format.read(in));
+			}
+			Source2GeneratedMapping fileMappings = new Source2GeneratedMapping();
+			fileMappings.readExternal(new ObjectInputStream(in));
+			IndexState indexState = new IndexState(new ResourceDescriptionsData(descriptions), fileMappings);
+			return new Snapshot(indexState, fingerprints, urisWithIssues);
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
+			LOG.warn("Cannot read index snapshot " + file + ". Doing a full build.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the snapshot of the given project. The file is replaced atomically, so a snapshot that is being written
+	 * is never read.
+	 */
+	public void save(ProjectDescription project, URI baseDir, Snapshot snapshot) {
+		File file = getSnapshotFile(project, baseDir);
+		if (file == null) {
+			return;
+		}
+		File tempFile = null;
+		try {
+			file.getParentFile().mkdirs();
+			tempFile = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(VERSION);
+				out.writeUTF(String.valueOf(baseDir));
+				out.writeUTF(getLanguageVersion());
+				out.writeInt(snapshot.getFingerprints().size());
+				for (Map.Entry<URI, String> entry : snapshot.getFingerprints().entrySet()) {
+					out.writeUTF(entry.getKey().toString());
+					out.writeUTF(entry.getValue());
+				}
+				out.writeInt(snapshot.getUrisWithIssues().size());
+				for (URI uri : snapshot.getUrisWithIssues()) {
+					out.writeUTF(uri.toString());
+				}
+				BinaryResourceDescriptionFormat format = new BinaryResourceDescriptionFormat();
+				List<IResourceDescription> descriptions = Lists
+						.newArrayList(snapshot.getIndexState().getResourceDescriptions().getAllResourceDescriptions());
+				out.writeInt(descriptions.size());
+				for (IResourceDescription description : descriptions) {
+					format.write(SerializableResourceDescription.createCopy(description), out);
+				}
+				ObjectOutputStream objectOut = new ObjectOutputStream(out);
+				snapshot.getIndexState().getFileMappings().writeExternal(objectOut);
+				objectOut.flush();
+			}
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			LOG.warn("Cannot write index snapshot " + file, e);
+			if (tempFile != null) {
+				tempFile.delete();
+			}
+		}
+	}
+}
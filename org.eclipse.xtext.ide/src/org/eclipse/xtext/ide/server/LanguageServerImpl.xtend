@@ -205,6 +205,7 @@ import static org.eclipse.xtext.diagnostics.Severity.*
 		result.capabilities = capabilities
 		
 		access.addBuildListener(this);
+		access.addBuildListener(workspaceSymbolService);
 		
 		return requestManager.runWrite([
 			workspaceManager.initialize(baseDir, [this.publishDiagnostics($0, $1)], CancelIndicator.NullImpl)
@@ -243,8 +244,11 @@ import static org.eclipse.xtext.diagnostics.Severity.*
 	}
 
 	override CompletableFuture<Object> shutdown() {
-		shutdownAndExitHandler.shutdown()
-		return CompletableFuture.completedFuture(new Object());
+		return requestManager.runWrite([
+			workspaceManager.persistIndexState
+			shutdownAndExitHandler.shutdown()
+			return new Object
+		], [cancelIndicator, result | result])
 	}
 
 	override TextDocumentService getTextDocumentService() {
@@ -371,7 +375,7 @@ import static org.eclipse.xtext.diagnostics.Severity.*
 	}
 	// completion stuff
 	override completion(CompletionParams params) {
-		return requestManager.runRead[cancelIndicator | completion(cancelIndicator, params)]
+		return requestManager.runInteractiveRead[cancelIndicator | completion(cancelIndicator, params)]
 	}
 	
 	protected def Either<List<CompletionItem>, CompletionList> completion(CancelIndicator originalCancelIndicator,
@@ -468,7 +472,7 @@ import static org.eclipse.xtext.diagnostics.Severity.*
 	// hover
 	
 	override hover(TextDocumentPositionParams params) {
-		return requestManager.runRead[ cancelIndicator |
+		return requestManager.runInteractiveRead[ cancelIndicator |
 			val uri = params.textDocument.uri.toUri
 			val resourceServiceProvider = uri.resourceServiceProvider
 			val hoverService = resourceServiceProvider?.get(IHoverService)
@@ -488,7 +492,7 @@ import static org.eclipse.xtext.diagnostics.Severity.*
 	}
 
 	override signatureHelp(TextDocumentPositionParams params) {
-		return requestManager.runRead [ cancelIndicator |
+		return requestManager.runInteractiveRead [ cancelIndicator |
 			val uri = params.textDocument.uri.toUri;
 			val serviceProvider = uri.resourceServiceProvider;
 			val helper = serviceProvider?.get(ISignatureHelpService);
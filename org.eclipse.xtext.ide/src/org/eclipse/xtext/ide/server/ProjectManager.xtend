@@ -9,8 +9,10 @@ package org.eclipse.xtext.ide.server
 
 import com.google.inject.Inject
 import com.google.inject.Provider
+import java.util.ArrayList
 import java.util.List
 import java.util.Map
+import java.util.Set
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.xtend.lib.annotations.Accessors
@@ -28,6 +30,7 @@ import org.eclipse.xtext.resource.impl.ProjectDescription
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
 import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.util.IFileSystemScanner
+import org.eclipse.xtext.util.ParallelFileSystemScanner
 import org.eclipse.xtext.validation.Issue
 import org.eclipse.xtext.workspace.IProjectConfig
 import org.eclipse.xtext.workspace.ProjectConfigAdapter
@@ -44,6 +47,8 @@ class ProjectManager {
     @Inject protected IResourceServiceProvider.Registry languagesRegistry
     @Inject protected IFileSystemScanner fileSystemScanner
     @Inject protected IExternalContentSupport externalContentSupport
+    /** @since 2.18 */
+    @Inject protected IndexStateStorage indexStateStorage
     
     @Accessors(PUBLIC_GETTER)
     IndexState indexState = new IndexState
@@ -62,6 +67,16 @@ class ProjectManager {
     ProjectDescription projectDescription
     IProjectConfig projectConfig
     
+    val Set<URI> urisWithIssues = newHashSet
+    
+    /**
+     * The fingerprints of the indexed files. They are taken before the build reads a file, so a file that is changed
+     * afterwards does not match its fingerprint anymore.
+     */
+    val Map<URI, String> indexedFingerprints = newHashMap
+    
+    long lastPersisted
+    
     def void initialize(ProjectDescription description, IProjectConfig projectConfig, (URI, Iterable<Issue>)=>void acceptor, IExternalContentProvider openedDocumentsContentProvider, Provider<Map<String, ResourceDescriptionsData>> indexProvider, CancelIndicator cancelIndicator) {
         this.projectDescription = description
         this.projectConfig = projectConfig
@@ -72,21 +87,129 @@ class ProjectManager {
     }
     
     def Result doInitialBuild(CancelIndicator cancelIndicator) {
-        val uris = newArrayList
-        projectConfig.sourceFolders.forEach [
-            fileSystemScanner.scan(path) [uris += it]
-        ] 
-        return doBuild(uris, emptyList, emptyList, cancelIndicator)        
-    } 
+        return doInitialBuild(emptyList, cancelIndicator)
+    }
+    
+    /**
+     * Builds all source files of this project. If the {@link IndexStateStorage} has a snapshot from a previous
+     * session, the snapshot is restored and only the files that have been changed since then are built.
+     * 
+     * @since 2.18
+     */
+    def Result doInitialBuild(List<IResourceDescription.Delta> externalDeltas, CancelIndicator cancelIndicator) {
+        val scannedFiles = scanSourceFolders
+        val uris = new ArrayList(scannedFiles.keySet)
+        // the snapshot is written once the initial build is done
+        lastPersisted = System.currentTimeMillis
+        val snapshot = indexStateStorage.load(projectDescription, baseDir)
+        if (snapshot === null) {
+            val result = doBuild(uris, emptyList, externalDeltas, scannedFiles, cancelIndicator)
+            persistIndexState
+            return result
+        }
+        indexState = snapshot.indexState
+        urisWithIssues += snapshot.urisWithIssues
+        indexedFingerprints.putAll(snapshot.fingerprints)
+        val dirtyFiles = uris.filter [
+            val fingerprint = scannedFiles.get(it) ?: indexStateStorage.getFingerprint(it)
+            return fingerprint === null || fingerprint != snapshot.fingerprints.get(it) || urisWithIssues.contains(it)
+        ].toList
+        val existingFiles = newHashSet(uris)
+        val deletedFiles = indexState.resourceDescriptions.allURIs.filter[!existingFiles.contains(it)].toList
+        val result = doBuild(dirtyFiles, deletedFiles, externalDeltas, scannedFiles, cancelIndicator)
+        if (!dirtyFiles.empty || !deletedFiles.empty) {
+            persistIndexState
+        }
+        return result
+    }
+    
+    /**
+     * Scans the source folders of this project. If the {@link IFileSystemScanner} is a {@link ParallelFileSystemScanner},
+     * only files with the extension of a registered language are collected and their fingerprints are computed from
+     * the attributes that were read during the scan.
+     * 
+     * @return the URIs of the scanned files mapped to their fingerprint or <code>null</code> if it was not computed.
+     * @since 2.18
+     */
+    protected def Map<URI, String> scanSourceFolders() {
+        val result = <URI, String>newLinkedHashMap
+        val scanner = fileSystemScanner
+        if (scanner instanceof ParallelFileSystemScanner) {
+            val registeredExtensions = languagesRegistry.extensionToFactoryMap.keySet
+            val fileExtensions = if (registeredExtensions.contains(Resource.Factory.Registry.DEFAULT_EXTENSION)) null else registeredExtensions
+            projectConfig.sourceFolders.forEach [
+                scanner.scan(path, fileExtensions) [ file |
+                    result.put(file.getURI, indexStateStorage.getFingerprint(file))
+                ]
+            ]
+        } else {
+            projectConfig.sourceFolders.forEach [
+                scanner.scan(path) [result.put(it, null)]
+            ]
+        }
+        return result
+    }
+    
+    /**
+     * Writes the current index state to the {@link IndexStateStorage} together with the fingerprints that the files
+     * had when they were built. Files that were built from unsaved changes in an open document are recorded as
+     * modified.
+     * 
+     * @since 2.18
+     */
+    def void persistIndexState() {
+        if (!indexStateStorage.enabled) {
+            return
+        }
+        val fingerprints = <URI, String>newHashMap
+        for (uri : indexState.resourceDescriptions.allURIs) {
+            val fingerprint = indexedFingerprints.get(uri)
+            if (fingerprint !== null) {
+                fingerprints.put(uri, fingerprint)
+            }
+        }
+        indexStateStorage.save(projectDescription, baseDir,
+            new IndexStateStorage.Snapshot(indexState, fingerprints, newHashSet(urisWithIssues)))
+        lastPersisted = System.currentTimeMillis
+    }
 
     def Result doBuild(List<URI> dirtyFiles, List<URI> deletedFiles, List<IResourceDescription.Delta> externalDeltas, CancelIndicator cancelIndicator) {
+        return doBuild(dirtyFiles, deletedFiles, externalDeltas, emptyMap, cancelIndicator)
+    }
+
+    /**
+     * Builds the given files. The fingerprints of the dirty files are recorded before the build reads them, either
+     * from the given fingerprints that were computed while scanning or from the {@link IndexStateStorage}. Once the
+     * {@link IndexStateStorage#getSnapshotInterval() snapshot interval} has passed, the index state is persisted.
+     * 
+     * @since 2.18
+     */
+    protected def Result doBuild(List<URI> dirtyFiles, List<URI> deletedFiles, List<IResourceDescription.Delta> externalDeltas, Map<URI, String> scannedFingerprints, CancelIndicator cancelIndicator) {
+        val fingerprints = <URI, String>newHashMap
+        if (indexStateStorage.enabled) {
+            for (uri : dirtyFiles) {
+                if (!openedDocumentsContentProvider.hasContent(uri)) {
+                    val fingerprint = scannedFingerprints.get(uri) ?: indexStateStorage.getFingerprint(uri)
+                    if (fingerprint !== null) {
+                        fingerprints.put(uri, fingerprint)
+                    }
+                }
+            }
+        }
         val request = newBuildRequest(dirtyFiles, deletedFiles, externalDeltas, cancelIndicator)
         val result = incrementalBuilder.build(request, [
             languagesRegistry.getResourceServiceProvider(it)
         ])
         indexState = result.indexState
         resourceSet = request.resourceSet
+        urisWithIssues -= deletedFiles
+        indexedFingerprints.keySet -= dirtyFiles
+        indexedFingerprints.keySet -= deletedFiles
+        indexedFingerprints.putAll(fingerprints)
         indexProvider.get.put(projectDescription.name, indexState.resourceDescriptions)
+        if (indexStateStorage.enabled && System.currentTimeMillis - lastPersisted >= indexStateStorage.snapshotInterval) {
+            persistIndexState
+        }
         return result;
     }
 
@@ -100,6 +223,11 @@ class ProjectManager {
             it.externalDeltas = externalDeltas
             afterValidate = [ uri, issues |
                 issueAcceptor.apply(uri, issues)
+                if (issues.empty) {
+                    urisWithIssues.remove(uri)
+                } else {
+                    urisWithIssues.add(uri)
+                }
                 return true
             ]
             it.cancelIndicator = cancelIndicator
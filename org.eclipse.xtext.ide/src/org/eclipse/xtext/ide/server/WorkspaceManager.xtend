@@ -27,6 +27,7 @@ import org.eclipse.xtext.resource.IResourceDescription.Delta
 import org.eclipse.xtext.resource.IResourceDescriptions
 import org.eclipse.xtext.resource.XtextResource
 import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
 import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.util.internal.Log
@@ -112,12 +113,20 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 				newProjects.add(projectDescription)
 			}
 		]
+		val List<Delta> removedDeltas = newArrayList
 		for (deletedProject : remainingProjectNames) {
 			projectName2ProjectManager.remove(deletedProject)
-			fullIndex.remove(deletedProject)
+			val removedIndex = fullIndex.remove(deletedProject)
+			if (removedIndex !== null) {
+				// let the build listeners forget the resources of the removed project
+				for (description : removedIndex.allResourceDescriptions) {
+					removedDeltas += new DefaultResourceDescriptionDelta(description, null)
+				}
+			}
 		}
 		val result = buildManager.doInitialBuild(newProjects, cancelIndicator)
-		afterBuild(result)
+		removedDeltas += result
+		afterBuild(removedDeltas)
 	}
 
 	protected def IWorkspaceConfig getWorkspaceConfig() {
@@ -175,6 +184,17 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 		new ArrayList(projectName2ProjectManager.values)
 	}
 
+	/**
+	 * Writes the index state of all projects to the {@link IndexStateStorage}.
+	 * 
+	 * @since 2.18
+	 */
+	def void persistIndexState() {
+		for (projectManager : projectManagers) {
+			projectManager.persistIndexState
+		}
+	}
+
 	def didChange(URI uri, Integer version, Iterable<TextEdit> changes, CancelIndicator cancelIndicator) {
 		didChange(uri, version, changes).build(cancelIndicator)
 	}
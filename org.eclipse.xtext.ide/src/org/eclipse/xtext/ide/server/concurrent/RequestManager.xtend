@@ -13,11 +13,19 @@ import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CompletionException
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import org.eclipse.xtext.service.OperationCanceledManager
 import org.eclipse.xtext.util.CancelIndicator
 
 /**
+ * Runs the requests of the language server one after another. Read requests that follow each other are executed
+ * concurrently. A write request cancels all requests that have been submitted before, except for
+ * {@link #runInteractiveRead interactive reads}: those complete against the state they were submitted for
+ * while the write waits for them. Since a write request is only cancelled after its non-cancellable part, queued writes
+ * are coalesced: only the cancellable part of the last one is executed.
  * 
  * @author kosyakov - Initial contribution and API
  * @since 2.11
@@ -34,6 +42,11 @@ class RequestManager {
 	)
 	var requests = <AbstractRequest<?>>newArrayList
 
+	val pendingRequests = new AtomicInteger
+	val startedRequests = new AtomicLong
+	val totalWaitTime = new AtomicLong
+	val maxWaitTime = new AtomicLong
+
 	def void shutdown() {
 		queue.shutdown()
 		parallel.shutdown()
@@ -46,6 +59,19 @@ class RequestManager {
 		)
 	}
 
+	/**
+	 * Runs a latency sensitive read request, e.g. completion, hover or signature help. Unlike other reads, it is not
+	 * cancelled by subsequent write requests, so typing does not throw away its result. It can still be cancelled by
+	 * the client.
+	 * 
+	 * @since 2.18
+	 */
+	def <V> CompletableFuture<V> runInteractiveRead((CancelIndicator)=>V cancellable) {
+		return submit(
+			new InteractiveReadRequest(cancellable, parallel)
+		)
+	}
+
 	def <U, V> CompletableFuture<V> runWrite(()=>U nonCancellable, (CancelIndicator, U)=>V cancellable) {
 		val cancelFuture = cancel()
 		return submit(
@@ -54,18 +80,72 @@ class RequestManager {
 	}
 
 	protected def <V> CompletableFuture<V> submit(AbstractRequest<V> request) {
+		// finished requests don't need to be cancelled anymore
+		requests.removeIf[get.done]
 		requests += request
-		queue.submit(request)
+		pendingRequests.incrementAndGet
+		val submissionTime = System.nanoTime
+		queue.submit [
+			pendingRequests.decrementAndGet
+			recordWaitTime(System.nanoTime - submissionTime)
+			request.run
+		]
 		return request.get
 	}
 
+	/**
+	 * @since 2.18
+	 */
+	protected def void recordWaitTime(long nanos) {
+		startedRequests.incrementAndGet
+		totalWaitTime.addAndGet(nanos)
+		maxWaitTime.accumulateAndGet(nanos)[a, b|Math.max(a, b)]
+	}
+
+	/**
+	 * Returns the number of requests that have been submitted but are not started yet.
+	 * 
+	 * @since 2.18
+	 */
+	def int getQueueSize() {
+		return pendingRequests.get
+	}
+
+	/**
+	 * Returns the average time that the started requests had to wait in the queue.
+	 * 
+	 * @since 2.18
+	 */
+	def long getAverageWaitTime(TimeUnit unit) {
+		val started = startedRequests.get
+		if (started == 0) {
+			return 0
+		}
+		return unit.convert(totalWaitTime.get / started, TimeUnit.NANOSECONDS)
+	}
+
+	/**
+	 * Returns the longest time that a request had to wait in the queue.
+	 * 
+	 * @since 2.18
+	 */
+	def long getMaxWaitTime(TimeUnit unit) {
+		return unit.convert(maxWaitTime.get, TimeUnit.NANOSECONDS)
+	}
+
+	/**
+	 * Cancels the submitted requests that are {@link AbstractRequest#isCancelledByWrites() cancelled by writes}.
+	 * Returns a future that completes when all submitted requests are finished.
+	 */
 	protected def CompletableFuture<Void> cancel() {
 		val localRequests = requests
 		requests = newArrayList
 
 		val cfs = newArrayList
 		for (request : localRequests) {
-			request.cancel
+			if (request.cancelledByWrites) {
+				request.cancel
+			}
 			cfs += request.get
 		}
 		return CompletableFuture.allOf(cfs)
@@ -99,6 +179,23 @@ class ReadRequest<V> extends AbstractRequest<V> {
 
 }
 
+/**
+ * A read request that is not cancelled by subsequent write requests.
+ * 
+ * @since 2.18
+ */
+class InteractiveReadRequest<V> extends ReadRequest<V> {
+
+	new((CancelIndicator)=>V cancellable, ExecutorService executor) {
+		super(cancellable, executor)
+	}
+
+	override isCancelledByWrites() {
+		return false
+	}
+
+}
+
 @FinalFieldsConstructor
 class WriteRequest<U, V> extends AbstractRequest<V> {
 
@@ -133,6 +230,15 @@ abstract class AbstractRequest<V> implements Runnable, Cancellable {
 		cancelIndicator.cancel
 	}
 
+	/**
+	 * Whether this request is cancelled when a write request is submitted.
+	 * 
+	 * @since 2.18
+	 */
+	def boolean isCancelledByWrites() {
+		return true
+	}
+
 	def CompletableFuture<V> get() {
 		return result
 	}
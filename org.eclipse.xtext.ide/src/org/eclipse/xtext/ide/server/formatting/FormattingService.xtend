@@ -127,12 +127,27 @@ class FormattingService {
 		if (preferences !== null) {
 			request.preferences = preferences
 		}
-		val regionAccess = regionBuilder.forNodeModel(resource).create()
+		val regionAccess = if (selection !== null && formattingSubtreeOnly)
+				regionBuilder.forNodeModel(resource, selection).create()
+			else
+				regionBuilder.forNodeModel(resource).create()
 		request.textRegionAccess = regionAccess
 		val formatter2 = formatter2Provider.get();
 		val replacements = formatter2.format(request)
 		return replacements
 	}
+
+	/**
+	 * Whether range formatting only builds the region access for the smallest subtree that covers the selection and
+	 * formats that subtree. This is faster for large documents, but the enclosing objects are not formatted: the
+	 * indentation is taken from the line the subtree starts in, and formatters that access the regions of enclosing
+	 * objects do not find them. Disabled by default.
+	 * 
+	 * @since 2.18
+	 */
+	protected def boolean isFormattingSubtreeOnly() {
+		return false
+	}
 	
 	private static class OverrideChecker {
 		static val Map<Class<?>, Boolean> CLASSES_WITH_OVERRIDES = new ConcurrentHashMap<Class<?>, Boolean>()
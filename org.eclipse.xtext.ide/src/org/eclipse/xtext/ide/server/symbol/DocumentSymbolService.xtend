@@ -262,8 +262,37 @@ class DocumentSymbolService implements IDocumentSymbolService {
 		return symbols
 	}
 
+	/**
+	 * Whether the description matches the query of a workspace symbol request. By default, the qualified name has to
+	 * contain the query, ignoring case. If {@link #isFuzzyMatching() fuzzy matching} is enabled, the characters of the
+	 * query only have to occur in the qualified name in the same order.
+	 */
 	protected def boolean filter(IEObjectDescription description, String query) {
-		return description.qualifiedName.toLowerCase.toString.contains(query.toLowerCase)
+		if (!fuzzyMatching) {
+			return description.qualifiedName.toLowerCase.toString.contains(query.toLowerCase)
+		}
+		val name = description.qualifiedName.toString
+		var nameIndex = 0
+		for (var i = 0; i < query.length; i++) {
+			val c = Character.toLowerCase(query.charAt(i))
+			while (nameIndex < name.length && Character.toLowerCase(name.charAt(nameIndex)) != c) {
+				nameIndex++
+			}
+			if (nameIndex == name.length) {
+				return false
+			}
+			nameIndex++
+		}
+		return true
+	}
+
+	/**
+	 * Whether workspace symbol queries match the qualified names fuzzily. Disabled by default.
+	 * 
+	 * @since 2.18
+	 */
+	protected def boolean isFuzzyMatching() {
+		return false
 	}
 
 	protected def void createSymbol(
@@ -0,0 +1,640 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server.symbol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
+import org.eclipse.xtext.findReferences.IReferenceFinder.IResourceAccess;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.service.OperationCanceledManager;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+
+import com.google.inject.Inject;
+
+/**
+ * An index of the symbols that are exported by the resources of a workspace. It supports ranked queries.
+ *
+ * The symbols of a resource are created by {@link DocumentSymbolService#createSymbol(IEObjectDescription)} when the
+ * resource is indexed and matched against a query with {@link DocumentSymbolService#filter(IEObjectDescription,
+ * String)}. If a language overrides
+ * {@link DocumentSymbolService#getSymbols(IResourceDescription, String, IResourceAccess, CancelIndicator)}, the
+ * symbols of its resources are not indexed but requested from the service for each query.
+ *
+ * Resources of languages that use the default filter are looked up in an n-gram index of the lower case qualified
+ * names: the characters and trigrams for substring matching, the characters for {@link
+ * DocumentSymbolService#isFuzzyMatching() fuzzy matching}. Only the symbols of resources that contain all n-grams of
+ * the query are filtered. Resources of languages with a custom filter are filtered for each query.
+ *
+ * The index is either updated from the deltas of each build or synchronized with the resource descriptions of the
+ * workspace. The location of a symbol is computed when it is part of a result for the first time and kept until the
+ * resource changes.
+ *
+ * @since 2.18
+ */
+public class WorkspaceSymbolIndex {
+
+	/**
+	 * An indexed symbol.
+	 */
+	public static class Symbol {
+
+		private final IEObjectDescription description;
+
+		private final DocumentSymbolService documentSymbolService;
+
+		private final String name;
+
+		private final SymbolKind kind;
+
+		private final String lowerCaseName;
+
+		private final int simpleNameStart;
+
+		private volatile Location location;
+
+		private volatile boolean locationComputed;
+
+		protected Symbol(IEObjectDescription description, DocumentSymbolService documentSymbolService, String name,
+				SymbolKind kind) {
+			this.description = description;
+			this.documentSymbolService = documentSymbolService;
+			this.name = name;
+			this.kind = kind;
+			this.lowerCaseName = name.toLowerCase();
+			this.simpleNameStart = getSimpleNameStart(name, description != null ? description.getQualifiedName() : null);
+		}
+
+		/**
+		 * Creates a symbol that has been provided by a {@link DocumentSymbolService} together with its location.
+		 */
+		protected Symbol(SymbolInformation symbol) {
+			this(null, null, symbol.getName(), symbol.getKind());
+			this.location = symbol.getLocation();
+			this.locationComputed = true;
+		}
+
+		/**
+		 * @return the description of this symbol or <code>null</code> if the symbol has not been indexed.
+		 */
+		public IEObjectDescription getDescription() {
+			return description;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public SymbolKind getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the location of this symbol or <code>null</code> if it has none.
+		 */
+		public Location getLocation(IResourceAccess resourceAccess) {
+			if (!locationComputed) {
+				final List<Location> result = new ArrayList<Location>(1);
+				documentSymbolService.getSymbolLocation(description, resourceAccess, new Procedure1<Location>() {
+					@Override
+					public void apply(Location it) {
+						result.add(it);
+					}
+				});
+				location = result.isEmpty() ? null : result.get(0);
+				locationComputed = true;
+			}
+			return location;
+		}
+	}
+
+	private static class ResourceEntry {
+
+		private final IResourceDescription description;
+
+		private final DocumentSymbolService documentSymbolService;
+
+		/**
+		 * The indexed symbols or <code>null</code> if the service provides the symbols for each query.
+		 */
+		private final Symbol[] symbols;
+
+		/**
+		 * The n-grams of the qualified names of the symbols or <code>null</code> if the resource is not part of the
+		 * n-gram index.
+		 */
+		private final String[] grams;
+
+		private final boolean fuzzy;
+
+		/**
+		 * The position of this entry in the order of indexing.
+		 */
+		private final int order;
+
+		private ResourceEntry(IResourceDescription description, DocumentSymbolService documentSymbolService,
+				Symbol[] symbols, String[] grams, boolean fuzzy, int order) {
+			this.description = description;
+			this.documentSymbolService = documentSymbolService;
+			this.symbols = symbols;
+			this.grams = grams;
+			this.fuzzy = fuzzy;
+			this.order = order;
+		}
+	}
+
+	private static class Match {
+
+		private final Symbol symbol;
+
+		private final int score;
+
+		private final int order;
+
+		private final int ordinal;
+
+		private Match(Symbol symbol, int score, int order, int ordinal) {
+			this.symbol = symbol;
+			this.score = score;
+			this.order = order;
+			this.ordinal = ordinal;
+		}
+	}
+
+	private static final Comparator<Match> BY_RANK = new Comparator<Match>() {
+		@Override
+		public int compare(Match m1, Match m2) {
+			int result = Integer.compare(m2.score, m1.score);
+			if (result == 0) {
+				result = Integer.compare(m1.order, m2.order);
+			}
+			if (result == 0) {
+				result = Integer.compare(m1.ordinal, m2.ordinal);
+			}
+			return result;
+		}
+	};
+
+	private static final Comparator<ResourceEntry> BY_ORDER = new Comparator<ResourceEntry>() {
+		@Override
+		public int compare(ResourceEntry e1, ResourceEntry e2) {
+			return Integer.compare(e1.order, e2.order);
+		}
+	};
+
+	private static final int GRAM_LENGTH = 3;
+
+	private static final int OTHER = 0;
+
+	private static final int SUBSEQUENCE = 1;
+
+	private static final int WORD_STARTS = 2;
+
+	private static final int SUBSTRING = 3;
+
+	private static final int PREFIX = 4;
+
+	private static final int SIMPLE_NAME_PREFIX = 5;
+
+	private static final int SIMPLE_NAME = 6;
+
+	@Inject
+	private OperationCanceledManager operationCanceledManager;
+
+	private final Map<URI, ResourceEntry> resources = new HashMap<URI, ResourceEntry>();
+
+	/**
+	 * Maps the characters and trigrams of the lower case qualified names to the resources that are matched by
+	 * substring.
+	 */
+	private final Map<String, Set<URI>> substringGrams = new HashMap<String, Set<URI>>();
+
+	/**
+	 * Maps the lower case characters of the qualified names to the resources that are matched fuzzily.
+	 */
+	private final Map<String, Set<URI>> fuzzyGrams = new HashMap<String, Set<URI>>();
+
+	/**
+	 * The resources that are not part of the n-gram index and have to be visited for each query.
+	 */
+	private final Set<URI> unindexedResources = new HashSet<URI>();
+
+	private final Map<Class<?>, Boolean> providesSymbols = new HashMap<Class<?>, Boolean>();
+
+	private final Map<Class<?>, Boolean> customFilters = new HashMap<Class<?>, Boolean>();
+
+	private int nextOrder = 0;
+
+	private boolean initialized = false;
+
+	/**
+	 * Brings this index in sync with the given resource descriptions. Only resources whose description has been
+	 * replaced since the last update are indexed again.
+	 *
+	 * @param documentSymbolServices
+	 *            provides the language specific symbol service for a resource URI or <code>null</code> if the resource
+	 *            does not provide symbols.
+	 */
+	public synchronized void update(IResourceDescriptions index,
+			Function<? super URI, ? extends DocumentSymbolService> documentSymbolServices,
+			CancelIndicator cancelIndicator) {
+		Set<URI> uris = new HashSet<URI>();
+		for (IResourceDescription description : index.getAllResourceDescriptions()) {
+			operationCanceledManager.checkCanceled(cancelIndicator);
+			URI uri = description.getURI();
+			uris.add(uri);
+			ResourceEntry entry = resources.get(uri);
+			if (entry == null || entry.description != description) {
+				putEntry(uri, createEntry(description, documentSymbolServices.apply(uri)));
+			}
+		}
+		if (uris.size() != resources.size()) {
+			for (URI uri : new ArrayList<URI>(resources.keySet())) {
+				if (!uris.contains(uri)) {
+					removeEntry(uri);
+				}
+			}
+		}
+		initialized = true;
+	}
+
+	/**
+	 * Updates this index with the deltas of a build. The deltas are ignored until the index has been
+	 * {@link #update(IResourceDescriptions, Function, CancelIndicator) synchronized} with the resource descriptions of
+	 * the workspace for the first time.
+	 */
+	public synchronized void update(List<IResourceDescription.Delta> deltas,
+			Function<? super URI, ? extends DocumentSymbolService> documentSymbolServices) {
+		if (!initialized) {
+			return;
+		}
+		for (IResourceDescription.Delta delta : deltas) {
+			URI uri = delta.getUri();
+			IResourceDescription description = delta.getNew();
+			if (description == null) {
+				removeEntry(uri);
+			} else {
+				ResourceEntry entry = resources.get(uri);
+				if (entry == null || entry.description != description) {
+					putEntry(uri, createEntry(description, documentSymbolServices.apply(uri)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return whether this index has been synchronized with the resource descriptions of the workspace.
+	 */
+	public synchronized boolean isInitialized() {
+		return initialized;
+	}
+
+	private ResourceEntry createEntry(IResourceDescription description, DocumentSymbolService documentSymbolService) {
+		int order = nextOrder++;
+		if (documentSymbolService != null && providesSymbols(documentSymbolService)) {
+			return new ResourceEntry(description, documentSymbolService, null, null, false, order);
+		}
+		Symbol[] symbols = createSymbols(description, documentSymbolService);
+		if (documentSymbolService != null && hasCustomFilter(documentSymbolService)) {
+			return new ResourceEntry(description, documentSymbolService, symbols, null, false, order);
+		}
+		boolean fuzzy = documentSymbolService != null && documentSymbolService.isFuzzyMatching();
+		return new ResourceEntry(description, documentSymbolService, symbols, getGrams(symbols, fuzzy), fuzzy, order);
+	}
+
+	private void putEntry(URI uri, ResourceEntry entry) {
+		removeEntry(uri);
+		resources.put(uri, entry);
+		if (entry.grams == null) {
+			unindexedResources.add(uri);
+			return;
+		}
+		Map<String, Set<URI>> index = entry.fuzzy ? fuzzyGrams : substringGrams;
+		for (String gram : entry.grams) {
+			Set<URI> uris = index.get(gram);
+			if (uris == null) {
+				uris = new HashSet<URI>();
+				index.put(gram, uris);
+			}
+			uris.add(uri);
+		}
+	}
+
+	private void removeEntry(URI uri) {
+		ResourceEntry entry = resources.remove(uri);
+		if (entry == null) {
+			return;
+		}
+		if (entry.grams == null) {
+			unindexedResources.remove(uri);
+			return;
+		}
+		Map<String, Set<URI>> index = entry.fuzzy ? fuzzyGrams : substringGrams;
+		for (String gram : entry.grams) {
+			Set<URI> uris = index.get(gram);
+			if (uris != null) {
+				uris.remove(uri);
+				if (uris.isEmpty()) {
+					index.remove(gram);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The n-grams of the qualified names as they are compared by the default
+	 * {@link DocumentSymbolService#filter(IEObjectDescription, String) filter}.
+	 */
+	private static String[] getGrams(Symbol[] symbols, boolean fuzzy) {
+		Set<String> result = new HashSet<String>();
+		for (Symbol symbol : symbols) {
+			QualifiedName qualifiedName = symbol.description.getQualifiedName();
+			if (qualifiedName == null) {
+				continue;
+			}
+			if (fuzzy) {
+				String name = qualifiedName.toString();
+				for (int i = 0; i < name.length(); i++) {
+					result.add(String.valueOf(Character.toLowerCase(name.charAt(i))));
+				}
+			} else {
+				addSubstringGrams(qualifiedName.toLowerCase().toString(), result);
+			}
+		}
+		return result.toArray(new String[result.size()]);
+	}
+
+	private static void addSubstringGrams(String lowerCaseName, Set<String> result) {
+		for (int i = 0; i < lowerCaseName.length(); i++) {
+			result.add(lowerCaseName.substring(i, i + 1));
+			if (i + GRAM_LENGTH <= lowerCaseName.length()) {
+				result.add(lowerCaseName.substring(i, i + GRAM_LENGTH));
+			}
+		}
+	}
+
+	protected Symbol[] createSymbols(IResourceDescription description, DocumentSymbolService documentSymbolService) {
+		if (documentSymbolService == null) {
+			return new Symbol[0];
+		}
+		List<Symbol> result = new ArrayList<Symbol>();
+		for (IEObjectDescription object : description.getExportedObjects()) {
+			SymbolInformation symbol = documentSymbolService.createSymbol(object);
+			if (symbol != null) {
+				result.add(new Symbol(object, documentSymbolService, symbol.getName(), symbol.getKind()));
+			}
+		}
+		return result.toArray(new Symbol[result.size()]);
+	}
+
+	/**
+	 * Whether the given service overrides
+	 * {@link DocumentSymbolService#getSymbols(IResourceDescription, String, IResourceAccess, CancelIndicator)}. The
+	 * symbols of such a service are requested for each query instead of being indexed.
+	 */
+	protected boolean providesSymbols(DocumentSymbolService documentSymbolService) {
+		Class<?> serviceClass = documentSymbolService.getClass();
+		Boolean result = providesSymbols.get(serviceClass);
+		if (result == null) {
+			result = isOverridden(serviceClass, "getSymbols", IResourceDescription.class, String.class,
+					IResourceAccess.class, CancelIndicator.class);
+			providesSymbols.put(serviceClass, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Whether the given service overrides {@link DocumentSymbolService#filter(IEObjectDescription, String)}. The
+	 * symbols of such a service are filtered for each query instead of being looked up in the n-gram index.
+	 */
+	protected boolean hasCustomFilter(DocumentSymbolService documentSymbolService) {
+		Class<?> serviceClass = documentSymbolService.getClass();
+		Boolean result = customFilters.get(serviceClass);
+		if (result == null) {
+			result = isOverridden(serviceClass, "filter", IEObjectDescription.class, String.class);
+			customFilters.put(serviceClass, result);
+		}
+		return result;
+	}
+
+	private static boolean isOverridden(Class<?> serviceClass, String name, Class<?>... parameterTypes) {
+		for (Class<?> c = serviceClass; c != null && c != DocumentSymbolService.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod(name, parameterTypes);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// continue with the super class
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds the symbols that match the query. A symbol matches if the {@link DocumentSymbolService#filter(
+	 * IEObjectDescription, String) filter} of its language accepts it. By default, the qualified name has to contain
+	 * the query, ignoring case. The result is ranked: exact matches of the simple name come first, followed by prefix
+	 * matches of the simple name and of the qualified name, substring matches, camel case matches and other matches.
+	 * Symbols with the same rank are returned in the order of the index.
+	 */
+	public synchronized List<Symbol> find(String query, int limit, IResourceAccess resourceAccess,
+			CancelIndicator cancelIndicator) {
+		String lowerCaseQuery = query.toLowerCase();
+		List<Match> matches = new ArrayList<Match>();
+		for (ResourceEntry entry : getCandidates(query, lowerCaseQuery)) {
+			operationCanceledManager.checkCanceled(cancelIndicator);
+			int ordinal = 0;
+			if (entry.symbols == null) {
+				for (SymbolInformation provided : entry.documentSymbolService.getSymbols(entry.description, query,
+						resourceAccess, cancelIndicator)) {
+					Symbol symbol = new Symbol(provided);
+					matches.add(new Match(symbol, getScore(symbol, lowerCaseQuery), entry.order, ordinal++));
+				}
+			} else {
+				for (Symbol symbol : entry.symbols) {
+					if (symbol.documentSymbolService.filter(symbol.description, query)) {
+						matches.add(new Match(symbol, getScore(symbol, lowerCaseQuery), entry.order, ordinal));
+					}
+					ordinal++;
+				}
+			}
+		}
+		Collections.sort(matches, BY_RANK);
+		int size = Math.min(limit, matches.size());
+		List<Symbol> result = new ArrayList<Symbol>(size);
+		for (int i = 0; i < size; i++) {
+			result.add(matches.get(i).symbol);
+		}
+		return result;
+	}
+
+	/**
+	 * The resources that may contain matches of the query in the order of indexing.
+	 */
+	private List<ResourceEntry> getCandidates(String query, String lowerCaseQuery) {
+		List<ResourceEntry> result;
+		if (query.isEmpty()) {
+			result = new ArrayList<ResourceEntry>(resources.values());
+		} else {
+			Set<URI> uris = new HashSet<URI>(unindexedResources);
+			Set<String> grams = new HashSet<String>();
+			if (lowerCaseQuery.length() < GRAM_LENGTH) {
+				for (int i = 0; i < lowerCaseQuery.length(); i++) {
+					grams.add(lowerCaseQuery.substring(i, i + 1));
+				}
+			} else {
+				for (int i = 0; i + GRAM_LENGTH <= lowerCaseQuery.length(); i++) {
+					grams.add(lowerCaseQuery.substring(i, i + GRAM_LENGTH));
+				}
+			}
+			addIntersection(substringGrams, grams, uris);
+			grams.clear();
+			for (int i = 0; i < query.length(); i++) {
+				grams.add(String.valueOf(Character.toLowerCase(query.charAt(i))));
+			}
+			addIntersection(fuzzyGrams, grams, uris);
+			result = new ArrayList<ResourceEntry>(uris.size());
+			for (URI uri : uris) {
+				result.add(resources.get(uri));
+			}
+		}
+		Collections.sort(result, BY_ORDER);
+		return result;
+	}
+
+	/**
+	 * Adds the resources that are indexed for all the given n-grams to the result.
+	 */
+	private static void addIntersection(Map<String, Set<URI>> index, Set<String> grams, Set<URI> result) {
+		List<Set<URI>> postings = new ArrayList<Set<URI>>(grams.size());
+		Set<URI> smallest = null;
+		for (String gram : grams) {
+			Set<URI> uris = index.get(gram);
+			if (uris == null) {
+				return;
+			}
+			postings.add(uris);
+			if (smallest == null || uris.size() < smallest.size()) {
+				smallest = uris;
+			}
+		}
+		if (smallest == null) {
+			return;
+		}
+		for (URI uri : smallest) {
+			boolean containsAll = true;
+			for (Set<URI> uris : postings) {
+				if (uris != smallest && !uris.contains(uri)) {
+					containsAll = false;
+					break;
+				}
+			}
+			if (containsAll) {
+				result.add(uri);
+			}
+		}
+	}
+
+	protected int getScore(Symbol symbol, String lowerCaseQuery) {
+		String name = symbol.lowerCaseName;
+		if (lowerCaseQuery.isEmpty()) {
+			return SUBSTRING;
+		}
+		if (name.startsWith(lowerCaseQuery, symbol.simpleNameStart)) {
+			if (name.length() - symbol.simpleNameStart == lowerCaseQuery.length()) {
+				return SIMPLE_NAME;
+			}
+			return SIMPLE_NAME_PREFIX;
+		}
+		if (name.startsWith(lowerCaseQuery)) {
+			return PREFIX;
+		}
+		if (name.contains(lowerCaseQuery)) {
+			return SUBSTRING;
+		}
+		if (matchesWordStarts(symbol.name, name, lowerCaseQuery)) {
+			return WORD_STARTS;
+		}
+		if (isSubsequence(name, lowerCaseQuery)) {
+			return SUBSEQUENCE;
+		}
+		return OTHER;
+	}
+
+	/**
+	 * Whether the query can be split into parts such that each part is the prefix of a word in the name, e.g.
+	 * {@code fBaBa} matches {@code FooBar.baz}.
+	 */
+	private static boolean matchesWordStarts(String name, String lowerCaseName, String lowerCaseQuery) {
+		int nameIndex = 0;
+		int length = name.length();
+		for (int i = 0; i < lowerCaseQuery.length(); i++) {
+			char c = lowerCaseQuery.charAt(i);
+			if (i > 0 && nameIndex < length && !isWordStart(name, nameIndex) && lowerCaseName.charAt(nameIndex) == c) {
+				nameIndex++;
+				continue;
+			}
+			while (nameIndex < length && !(isWordStart(name, nameIndex) && lowerCaseName.charAt(nameIndex) == c)) {
+				nameIndex++;
+			}
+			if (nameIndex == length) {
+				return false;
+			}
+			nameIndex++;
+		}
+		return true;
+	}
+
+	private static boolean isWordStart(String name, int index) {
+		char c = name.charAt(index);
+		if (index == 0) {
+			return true;
+		}
+		char previous = name.charAt(index - 1);
+		if (Character.isUpperCase(c)) {
+			return !Character.isUpperCase(previous);
+		}
+		return Character.isLetterOrDigit(c) && !Character.isLetterOrDigit(previous);
+	}
+
+	private static boolean isSubsequence(String lowerCaseName, String lowerCaseQuery) {
+		int nameIndex = 0;
+		for (int i = 0; i < lowerCaseQuery.length(); i++) {
+			nameIndex = lowerCaseName.indexOf(lowerCaseQuery.charAt(i), nameIndex) + 1;
+			if (nameIndex == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int getSimpleNameStart(String name, QualifiedName qualifiedName) {
+		if (qualifiedName == null || qualifiedName.isEmpty()) {
+			return 0;
+		}
+		String simpleName = qualifiedName.getLastSegment();
+		if (name.endsWith(simpleName)) {
+			return name.length() - simpleName.length();
+		}
+		return 0;
+	}
+}
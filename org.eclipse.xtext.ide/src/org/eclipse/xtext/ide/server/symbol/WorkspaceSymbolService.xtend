@@ -10,19 +10,27 @@ package org.eclipse.xtext.ide.server.symbol
 import com.google.inject.Inject
 import com.google.inject.Singleton
 import java.util.List
+import org.eclipse.emf.common.util.URI
 import org.eclipse.lsp4j.SymbolInformation
 import org.eclipse.xtext.findReferences.IReferenceFinder.IResourceAccess
+import org.eclipse.xtext.ide.server.ILanguageServerAccess.IBuildListener
+import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.IResourceDescriptions
 import org.eclipse.xtext.resource.IResourceServiceProvider
 import org.eclipse.xtext.service.OperationCanceledManager
 import org.eclipse.xtext.util.CancelIndicator
 
 /**
+ * Provides the workspace symbols that match a query. The symbols are looked up in a {@link WorkspaceSymbolIndex}, so
+ * resources are only loaded to compute the locations of the symbols in the result. The language server passes the
+ * deltas of its builds to this service. Without them the symbol index is synchronized with the index of the workspace
+ * on each query.
+ * 
  * @author kosyakov - Initial contribution and API
  * @since 2.11
  */
 @Singleton
-class WorkspaceSymbolService {
+class WorkspaceSymbolService implements IBuildListener {
 
 	@Inject
 	extension IResourceServiceProvider.Registry
@@ -30,22 +38,56 @@ class WorkspaceSymbolService {
 	@Inject
 	OperationCanceledManager operationCanceledManager
 
+	@Inject
+	WorkspaceSymbolIndex symbolIndex
+
+	volatile boolean updatedByDeltas = false
+
 	def List<? extends SymbolInformation> getSymbols(
 		String query,
 		IResourceAccess resourceAccess,
 		IResourceDescriptions indexData,
 		CancelIndicator cancelIndicator
 	) {
-		val result = newLinkedList
-		for (resourceDescription : indexData.allResourceDescriptions) {
+		if (!updatedByDeltas || !symbolIndex.initialized) {
+			symbolIndex.update(indexData, [uri|uri.documentSymbolService], cancelIndicator)
+		}
+		val result = newArrayList
+		for (symbol : symbolIndex.find(query, maxResults, resourceAccess, cancelIndicator)) {
 			operationCanceledManager.checkCanceled(cancelIndicator)
-			val resourceServiceProvider = resourceDescription.URI.resourceServiceProvider
-			val documentSymbolService = resourceServiceProvider?.get(DocumentSymbolService)
-			if (documentSymbolService !== null) {
-				result += documentSymbolService.getSymbols(resourceDescription, query, resourceAccess, cancelIndicator)
+			val location = symbol.getLocation(resourceAccess)
+			if (location !== null) {
+				result += new SymbolInformation(symbol.name, symbol.kind, location)
 			}
 		}
 		return result
 	}
 
+	/**
+	 * Updates the symbol index with the deltas of a build. Once deltas have been received, the index of the workspace
+	 * is no longer walked for each query.
+	 * 
+	 * @since 2.18
+	 */
+	override afterBuild(List<IResourceDescription.Delta> deltas) {
+		updatedByDeltas = true
+		symbolIndex.update(deltas, [uri|uri.documentSymbolService])
+	}
+
+	/**
+	 * @since 2.18
+	 */
+	protected def DocumentSymbolService getDocumentSymbolService(URI uri) {
+		return uri.resourceServiceProvider?.get(DocumentSymbolService)
+	}
+
+	/**
+	 * The maximum number of symbols that are returned for a query.
+	 * 
+	 * @since 2.18
+	 */
+	protected def int getMaxResults() {
+		return 1000
+	}
+
 }
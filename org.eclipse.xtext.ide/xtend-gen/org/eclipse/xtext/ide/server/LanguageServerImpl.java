@@ -353,6 +353,7 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
     }
     result.setCapabilities(capabilities);
     this.access.addBuildListener(this);
+    this.access.addBuildListener(this.workspaceSymbolService);
     final Function0<Object> _function_1 = () -> {
       final Procedure2<URI, Iterable<Issue>> _function_2 = (URI $0, Iterable<Issue> $1) -> {
         this.publishDiagnostics($0, $1);
@@ -406,9 +407,15 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
   
   @Override
   public CompletableFuture<Object> shutdown() {
-    this.shutdownAndExitHandler.shutdown();
-    Object _object = new Object();
-    return CompletableFuture.<Object>completedFuture(_object);
+    final Function0<Object> _function = () -> {
+      this.workspaceManager.persistIndexState();
+      this.shutdownAndExitHandler.shutdown();
+      return new Object();
+    };
+    final Function2<CancelIndicator, Object, Object> _function_1 = (CancelIndicator cancelIndicator, Object result) -> {
+      return result;
+    };
+    return this.requestManager.<Object, Object>runWrite(_function, _function_1);
   }
   
   @Override
@@ -603,7 +610,7 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
     final Function1<CancelIndicator, Either<List<CompletionItem>, CompletionList>> _function = (CancelIndicator cancelIndicator) -> {
       return this.completion(cancelIndicator, params);
     };
-    return this.requestManager.<Either<List<CompletionItem>, CompletionList>>runRead(_function);
+    return this.requestManager.<Either<List<CompletionItem>, CompletionList>>runInteractiveRead(_function);
   }
   
   protected Either<List<CompletionItem>, CompletionList> completion(final CancelIndicator originalCancelIndicator, final CompletionParams params) {
@@ -761,7 +768,7 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
       };
       return this.workspaceManager.<Hover>doRead(uri, _function_1);
     };
-    return this.requestManager.<Hover>runRead(_function);
+    return this.requestManager.<Hover>runInteractiveRead(_function);
   }
   
   @Override
@@ -787,7 +794,7 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
       };
       return this.workspaceManager.<SignatureHelp>doRead(uri, _function_1);
     };
-    return this.requestManager.<SignatureHelp>runRead(_function);
+    return this.requestManager.<SignatureHelp>runInteractiveRead(_function);
   }
   
   @Override
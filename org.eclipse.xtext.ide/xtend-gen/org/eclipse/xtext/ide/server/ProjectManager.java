@@ -7,10 +7,15 @@
  */
 package org.eclipse.xtext.ide.server;
 
+import com.google.common.base.Objects;
+import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -34,12 +39,16 @@ import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.IAcceptor;
 import org.eclipse.xtext.util.IFileSystemScanner;
+import org.eclipse.xtext.util.ParallelFileSystemScanner;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.workspace.IProjectConfig;
 import org.eclipse.xtext.workspace.ISourceFolder;
 import org.eclipse.xtext.workspace.ProjectConfigAdapter;
+import org.eclipse.xtext.xbase.lib.CollectionExtensions;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Conversions;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
@@ -66,6 +75,12 @@ public class ProjectManager {
   @Inject
   protected IExternalContentSupport externalContentSupport;
   
+  /**
+   * @since 2.18
+   */
+  @Inject
+  protected IndexStateStorage indexStateStorage;
+  
   @Accessors(AccessorType.PUBLIC_GETTER)
   private IndexState indexState = new IndexState();
   
@@ -86,6 +101,16 @@ public class ProjectManager {
   
   private IProjectConfig projectConfig;
   
+  private final Set<URI> urisWithIssues = CollectionLiterals.<URI>newHashSet();
+  
+  /**
+   * The fingerprints of the indexed files. They are taken before the build reads a file, so a file that is changed
+   * afterwards does not match its fingerprint anymore.
+   */
+  private final Map<URI, String> indexedFingerprints = CollectionLiterals.<URI, String>newHashMap();
+  
+  private long lastPersisted;
+  
   public void initialize(final ProjectDescription description, final IProjectConfig projectConfig, final Procedure2<? super URI, ? super Iterable<Issue>> acceptor, final IExternalContentSupport.IExternalContentProvider openedDocumentsContentProvider, final Provider<Map<String, ResourceDescriptionsData>> indexProvider, final CancelIndicator cancelIndicator) {
     this.projectDescription = description;
     this.projectConfig = projectConfig;
@@ -96,18 +121,159 @@ public class ProjectManager {
   }
   
   public IncrementalBuilder.Result doInitialBuild(final CancelIndicator cancelIndicator) {
-    final ArrayList<URI> uris = CollectionLiterals.<URI>newArrayList();
-    final Consumer<ISourceFolder> _function = (ISourceFolder it) -> {
-      final IAcceptor<URI> _function_1 = (URI it_1) -> {
-        uris.add(it_1);
-      };
-      this.fileSystemScanner.scan(it.getPath(), _function_1);
+    return this.doInitialBuild(CollectionLiterals.<IResourceDescription.Delta>emptyList(), cancelIndicator);
+  }
+  
+  /**
+   * Builds all source files of this project. If the {@link IndexStateStorage} has a snapshot from a previous
+   * session, the snapshot is restored and only the files that have been changed since then are built.
+   * 
+   * @since 2.18
+   */
+  public IncrementalBuilder.Result doInitialBuild(final List<IResourceDescription.Delta> externalDeltas, final CancelIndicator cancelIndicator) {
+    final Map<URI, String> scannedFiles = this.scanSourceFolders();
+    Set<URI> _keySet = scannedFiles.keySet();
+    final ArrayList<URI> uris = new ArrayList<URI>(_keySet);
+    this.lastPersisted = System.currentTimeMillis();
+    final IndexStateStorage.Snapshot snapshot = this.indexStateStorage.load(this.projectDescription, this.baseDir);
+    if ((snapshot == null)) {
+      final IncrementalBuilder.Result result = this.doBuild(uris, CollectionLiterals.<URI>emptyList(), externalDeltas, scannedFiles, cancelIndicator);
+      this.persistIndexState();
+      return result;
+    }
+    this.indexState = snapshot.getIndexState();
+    Set<URI> _urisWithIssues = snapshot.getUrisWithIssues();
+    Iterables.<URI>addAll(this.urisWithIssues, _urisWithIssues);
+    this.indexedFingerprints.putAll(snapshot.getFingerprints());
+    final Function1<URI, Boolean> _function = (URI it) -> {
+      String _elvis = null;
+      String _get = scannedFiles.get(it);
+      if (_get != null) {
+        _elvis = _get;
+      } else {
+        String _fingerprint = this.indexStateStorage.getFingerprint(it);
+        _elvis = _fingerprint;
+      }
+      final String fingerprint = _elvis;
+      return Boolean.valueOf((((fingerprint == null) || (!Objects.equal(fingerprint, snapshot.getFingerprints().get(it)))) || this.urisWithIssues.contains(it)));
     };
-    this.projectConfig.getSourceFolders().forEach(_function);
-    return this.doBuild(uris, CollectionLiterals.<URI>emptyList(), CollectionLiterals.<IResourceDescription.Delta>emptyList(), cancelIndicator);
+    final List<URI> dirtyFiles = IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(uris, _function));
+    final HashSet<URI> existingFiles = CollectionLiterals.<URI>newHashSet(((URI[])Conversions.unwrapArray(uris, URI.class)));
+    final Function1<URI, Boolean> _function_1 = (URI it) -> {
+      boolean _contains = existingFiles.contains(it);
+      return Boolean.valueOf((!_contains));
+    };
+    final List<URI> deletedFiles = IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(this.indexState.getResourceDescriptions().getAllURIs(), _function_1));
+    final IncrementalBuilder.Result result_1 = this.doBuild(dirtyFiles, deletedFiles, externalDeltas, scannedFiles, cancelIndicator);
+    if (((!dirtyFiles.isEmpty()) || (!deletedFiles.isEmpty()))) {
+      this.persistIndexState();
+    }
+    return result_1;
+  }
+  
+  /**
+   * Scans the source folders of this project. If the {@link IFileSystemScanner} is a {@link ParallelFileSystemScanner},
+   * only files with the extension of a registered language are collected and their fingerprints are computed from
+   * the attributes that were read during the scan.
+   * 
+   * @return the URIs of the scanned files mapped to their fingerprint or <code>null</code> if it was not computed.
+   * @since 2.18
+   */
+  protected Map<URI, String> scanSourceFolders() {
+    final LinkedHashMap<URI, String> result = CollectionLiterals.<URI, String>newLinkedHashMap();
+    final IFileSystemScanner scanner = this.fileSystemScanner;
+    if ((scanner instanceof ParallelFileSystemScanner)) {
+      final Set<String> registeredExtensions = this.languagesRegistry.getExtensionToFactoryMap().keySet();
+      Set<String> _xifexpression = null;
+      boolean _contains = registeredExtensions.contains(Resource.Factory.Registry.DEFAULT_EXTENSION);
+      if (_contains) {
+        _xifexpression = null;
+      } else {
+        _xifexpression = registeredExtensions;
+      }
+      final Set<String> fileExtensions = _xifexpression;
+      final Consumer<ISourceFolder> _function = (ISourceFolder it) -> {
+        final IAcceptor<ParallelFileSystemScanner.ScannedFile> _function_1 = (ParallelFileSystemScanner.ScannedFile file) -> {
+          result.put(file.getURI(), this.indexStateStorage.getFingerprint(file));
+        };
+        ((ParallelFileSystemScanner)scanner).scan(it.getPath(), fileExtensions, _function_1);
+      };
+      this.projectConfig.getSourceFolders().forEach(_function);
+    } else {
+      final Consumer<ISourceFolder> _function_1 = (ISourceFolder it) -> {
+        final IAcceptor<URI> _function_2 = (URI it_1) -> {
+          result.put(it_1, null);
+        };
+        scanner.scan(it.getPath(), _function_2);
+      };
+      this.projectConfig.getSourceFolders().forEach(_function_1);
+    }
+    return result;
+  }
+  
+  /**
+   * Writes the current index state to the {@link IndexStateStorage} together with the fingerprints that the files
+   * had when they were built. Files that were built from unsaved changes in an open document are recorded as
+   * modified.
+   * 
+   * @since 2.18
+   */
+  public void persistIndexState() {
+    boolean _isEnabled = this.indexStateStorage.isEnabled();
+    boolean _not = (!_isEnabled);
+    if (_not) {
+      return;
+    }
+    final HashMap<URI, String> fingerprints = CollectionLiterals.<URI, String>newHashMap();
+    Set<URI> _allURIs = this.indexState.getResourceDescriptions().getAllURIs();
+    for (final URI uri : _allURIs) {
+      {
+        final String fingerprint = this.indexedFingerprints.get(uri);
+        if ((fingerprint != null)) {
+          fingerprints.put(uri, fingerprint);
+        }
+      }
+    }
+    HashSet<URI> _newHashSet = CollectionLiterals.<URI>newHashSet(((URI[])Conversions.unwrapArray(this.urisWithIssues, URI.class)));
+    IndexStateStorage.Snapshot _snapshot = new IndexStateStorage.Snapshot(this.indexState, fingerprints, _newHashSet);
+    this.indexStateStorage.save(this.projectDescription, this.baseDir, _snapshot);
+    this.lastPersisted = System.currentTimeMillis();
   }
   
   public IncrementalBuilder.Result doBuild(final List<URI> dirtyFiles, final List<URI> deletedFiles, final List<IResourceDescription.Delta> externalDeltas, final CancelIndicator cancelIndicator) {
+    return this.doBuild(dirtyFiles, deletedFiles, externalDeltas, CollectionLiterals.<URI, String>emptyMap(), cancelIndicator);
+  }
+  
+  /**
+   * Builds the given files. The fingerprints of the dirty files are recorded before the build reads them, either
+   * from the given fingerprints that were computed while scanning or from the {@link IndexStateStorage}. Once the
+   * {@link IndexStateStorage#getSnapshotInterval() snapshot interval} has passed, the index state is persisted.
+   * 
+   * @since 2.18
+   */
+  protected IncrementalBuilder.Result doBuild(final List<URI> dirtyFiles, final List<URI> deletedFiles, final List<IResourceDescription.Delta> externalDeltas, final Map<URI, String> scannedFingerprints, final CancelIndicator cancelIndicator) {
+    final HashMap<URI, String> fingerprints = CollectionLiterals.<URI, String>newHashMap();
+    boolean _isEnabled = this.indexStateStorage.isEnabled();
+    if (_isEnabled) {
+      for (final URI uri : dirtyFiles) {
+        boolean _hasContent = this.openedDocumentsContentProvider.hasContent(uri);
+        boolean _not = (!_hasContent);
+        if (_not) {
+          String _elvis = null;
+          String _get = scannedFingerprints.get(uri);
+          if (_get != null) {
+            _elvis = _get;
+          } else {
+            String _fingerprint = this.indexStateStorage.getFingerprint(uri);
+            _elvis = _fingerprint;
+          }
+          final String fingerprint = _elvis;
+          if ((fingerprint != null)) {
+            fingerprints.put(uri, fingerprint);
+          }
+        }
+      }
+    }
     final BuildRequest request = this.newBuildRequest(dirtyFiles, deletedFiles, externalDeltas, cancelIndicator);
     final Function1<URI, IResourceServiceProvider> _function = (URI it) -> {
       return this.languagesRegistry.getResourceServiceProvider(it);
@@ -115,7 +281,16 @@ public class ProjectManager {
     final IncrementalBuilder.Result result = this.incrementalBuilder.build(request, _function);
     this.indexState = result.getIndexState();
     this.resourceSet = request.getResourceSet();
+    CollectionExtensions.<URI>removeAll(this.urisWithIssues, deletedFiles);
+    Set<URI> _keySet = this.indexedFingerprints.keySet();
+    CollectionExtensions.<URI>removeAll(_keySet, dirtyFiles);
+    Set<URI> _keySet_1 = this.indexedFingerprints.keySet();
+    CollectionExtensions.<URI>removeAll(_keySet_1, deletedFiles);
+    this.indexedFingerprints.putAll(fingerprints);
     this.indexProvider.get().put(this.projectDescription.getName(), this.indexState.getResourceDescriptions());
+    if ((this.indexStateStorage.isEnabled() && ((System.currentTimeMillis() - this.lastPersisted) >= this.indexStateStorage.getSnapshotInterval()))) {
+      this.persistIndexState();
+    }
     return result;
   }
   
@@ -133,6 +308,12 @@ public class ProjectManager {
       it.setExternalDeltas(externalDeltas);
       final BuildRequest.IPostValidationCallback _function_1 = (URI uri, Iterable<Issue> issues) -> {
         this.issueAcceptor.apply(uri, issues);
+        boolean _isEmpty = IterableExtensions.isEmpty(issues);
+        if (_isEmpty) {
+          this.urisWithIssues.remove(uri);
+        } else {
+          this.urisWithIssues.add(uri);
+        }
         return true;
       };
       it.setAfterValidate(_function_1);
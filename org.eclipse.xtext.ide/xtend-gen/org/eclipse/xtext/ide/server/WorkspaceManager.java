@@ -7,6 +7,7 @@
  */
 package org.eclipse.xtext.ide.server;
 
+import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import java.util.ArrayList;
@@ -36,6 +37,7 @@ import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
 import org.eclipse.xtext.resource.impl.ProjectDescription;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.util.CancelIndicator;
@@ -148,14 +150,23 @@ public class WorkspaceManager {
       }
     };
     this.getWorkspaceConfig().getProjects().forEach(_function);
+    final List<IResourceDescription.Delta> removedDeltas = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
     for (final String deletedProject : remainingProjectNames) {
       {
         this.projectName2ProjectManager.remove(deletedProject);
-        this.fullIndex.remove(deletedProject);
+        final ResourceDescriptionsData removedIndex = this.fullIndex.remove(deletedProject);
+        if ((removedIndex != null)) {
+          Iterable<IResourceDescription> _allResourceDescriptions = removedIndex.getAllResourceDescriptions();
+          for (final IResourceDescription description : _allResourceDescriptions) {
+            DefaultResourceDescriptionDelta _defaultResourceDescriptionDelta = new DefaultResourceDescriptionDelta(description, null);
+            removedDeltas.add(_defaultResourceDescriptionDelta);
+          }
+        }
       }
     }
     final List<IResourceDescription.Delta> result = this.buildManager.doInitialBuild(newProjects, cancelIndicator);
-    this.afterBuild(result);
+    Iterables.<IResourceDescription.Delta>addAll(removedDeltas, result);
+    this.afterBuild(removedDeltas);
   }
   
   protected IWorkspaceConfig getWorkspaceConfig() {
@@ -222,6 +233,18 @@ public class WorkspaceManager {
     return new ArrayList<ProjectManager>(_values);
   }
   
+  /**
+   * Writes the index state of all projects to the {@link IndexStateStorage}.
+   * 
+   * @since 2.18
+   */
+  public void persistIndexState() {
+    List<ProjectManager> _projectManagers = this.getProjectManagers();
+    for (final ProjectManager projectManager : _projectManagers) {
+      projectManager.persistIndexState();
+    }
+  }
+  
   public List<IResourceDescription.Delta> didChange(final URI uri, final Integer version, final Iterable<TextEdit> changes, final CancelIndicator cancelIndicator) {
     return this.didChange(uri, version, changes).build(cancelIndicator);
   }
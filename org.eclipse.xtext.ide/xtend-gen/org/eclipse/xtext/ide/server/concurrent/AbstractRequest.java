@@ -22,6 +22,15 @@ public abstract class AbstractRequest<V extends Object> implements Runnable, Can
     this.cancelIndicator.cancel();
   }
   
+  /**
+   * Whether this request is cancelled when a write request is submitted.
+   * 
+   * @since 2.18
+   */
+  public boolean isCancelledByWrites() {
+    return true;
+  }
+  
   public CompletableFuture<V> get() {
     return this.result;
   }
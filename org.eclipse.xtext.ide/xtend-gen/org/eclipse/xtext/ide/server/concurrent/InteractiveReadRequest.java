@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) 2016, 2017, 2018 TypeFox GmbH (http://www.typefox.io) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.server.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import org.eclipse.xtext.ide.server.concurrent.ReadRequest;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+
+/**
+ * A read request that is not cancelled by subsequent write requests.
+ * 
+ * @since 2.18
+ */
+@SuppressWarnings("all")
+public class InteractiveReadRequest<V extends Object> extends ReadRequest<V> {
+  public InteractiveReadRequest(final Function1<? super CancelIndicator, ? extends V> cancellable, final ExecutorService executor) {
+    super(cancellable, executor);
+  }
+  
+  @Override
+  public boolean isCancelledByWrites() {
+    return false;
+  }
+}
@@ -14,7 +14,13 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Predicate;
 import org.eclipse.xtext.ide.server.concurrent.AbstractRequest;
+import org.eclipse.xtext.ide.server.concurrent.InteractiveReadRequest;
 import org.eclipse.xtext.ide.server.concurrent.ReadRequest;
 import org.eclipse.xtext.ide.server.concurrent.WriteRequest;
 import org.eclipse.xtext.service.OperationCanceledManager;
@@ -26,6 +32,12 @@ import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.Functions.Function2;
 
 /**
+ * Runs the requests of the language server one after another. Read requests that follow each other are executed
+ * concurrently. A write request cancels all requests that have been submitted before, except for
+ * {@link #runInteractiveRead interactive reads}: those complete against the state they were submitted for
+ * while the write waits for them. Since a write request is only cancelled after its non-cancellable part, queued writes
+ * are coalesced: only the cancellable part of the last one is executed.
+ * 
  * @author kosyakov - Initial contribution and API
  * @since 2.11
  */
@@ -42,6 +54,14 @@ public class RequestManager {
   
   private ArrayList<AbstractRequest<?>> requests = CollectionLiterals.<AbstractRequest<?>>newArrayList();
   
+  private final AtomicInteger pendingRequests = new AtomicInteger();
+  
+  private final AtomicLong startedRequests = new AtomicLong();
+  
+  private final AtomicLong totalWaitTime = new AtomicLong();
+  
+  private final AtomicLong maxWaitTime = new AtomicLong();
+  
   public void shutdown() {
     this.queue.shutdown();
     this.parallel.shutdown();
@@ -53,6 +73,18 @@ public class RequestManager {
     return this.<V>submit(_readRequest);
   }
   
+  /**
+   * Runs a latency sensitive read request, e.g. completion, hover or signature help. Unlike other reads, it is not
+   * cancelled by subsequent write requests, so typing does not throw away its result. It can still be cancelled by
+   * the client.
+   * 
+   * @since 2.18
+   */
+  public <V extends Object> CompletableFuture<V> runInteractiveRead(final Function1<? super CancelIndicator, ? extends V> cancellable) {
+    InteractiveReadRequest<V> _interactiveReadRequest = new InteractiveReadRequest<V>(cancellable, this.parallel);
+    return this.<V>submit(_interactiveReadRequest);
+  }
+  
   public <U extends Object, V extends Object> CompletableFuture<V> runWrite(final Function0<? extends U> nonCancellable, final Function2<? super CancelIndicator, ? super U, ? extends V> cancellable) {
     final CompletableFuture<Void> cancelFuture = this.cancel();
     WriteRequest<U, V> _writeRequest = new WriteRequest<U, V>(nonCancellable, cancellable, cancelFuture);
@@ -60,18 +92,83 @@ public class RequestManager {
   }
   
   protected <V extends Object> CompletableFuture<V> submit(final AbstractRequest<V> request) {
+    final Predicate<AbstractRequest<?>> _function = (AbstractRequest<?> it) -> {
+      return it.get().isDone();
+    };
+    this.requests.removeIf(_function);
     this.requests.add(request);
-    this.queue.submit(request);
+    this.pendingRequests.incrementAndGet();
+    final long submissionTime = System.nanoTime();
+    final Runnable _function_1 = () -> {
+      this.pendingRequests.decrementAndGet();
+      long _nanoTime = System.nanoTime();
+      long _minus = (_nanoTime - submissionTime);
+      this.recordWaitTime(_minus);
+      request.run();
+    };
+    this.queue.submit(_function_1);
     return request.get();
   }
   
+  /**
+   * @since 2.18
+   */
+  protected void recordWaitTime(final long nanos) {
+    this.startedRequests.incrementAndGet();
+    this.totalWaitTime.addAndGet(nanos);
+    final LongBinaryOperator _function = (long a, long b) -> {
+      return Math.max(a, b);
+    };
+    this.maxWaitTime.accumulateAndGet(nanos, _function);
+  }
+  
+  /**
+   * Returns the number of requests that have been submitted but are not started yet.
+   * 
+   * @since 2.18
+   */
+  public int getQueueSize() {
+    return this.pendingRequests.get();
+  }
+  
+  /**
+   * Returns the average time that the started requests had to wait in the queue.
+   * 
+   * @since 2.18
+   */
+  public long getAverageWaitTime(final TimeUnit unit) {
+    final long started = this.startedRequests.get();
+    if ((started == 0)) {
+      return 0;
+    }
+    long _get = this.totalWaitTime.get();
+    long _divide = (_get / started);
+    return unit.convert(_divide, TimeUnit.NANOSECONDS);
+  }
+  
+  /**
+   * Returns the longest time that a request had to wait in the queue.
+   * 
+   * @since 2.18
+   */
+  public long getMaxWaitTime(final TimeUnit unit) {
+    return unit.convert(this.maxWaitTime.get(), TimeUnit.NANOSECONDS);
+  }
+  
+  /**
+   * Cancels the submitted requests that are {@link AbstractRequest#isCancelledByWrites() cancelled by writes}.
+   * Returns a future that completes when all submitted requests are finished.
+   */
   protected CompletableFuture<Void> cancel() {
     final ArrayList<AbstractRequest<?>> localRequests = this.requests;
     this.requests = CollectionLiterals.<AbstractRequest<?>>newArrayList();
     final ArrayList<CompletableFuture<?>> cfs = CollectionLiterals.<CompletableFuture<?>>newArrayList();
     for (final AbstractRequest<?> request : localRequests) {
       {
-        request.cancel();
+        boolean _isCancelledByWrites = request.isCancelledByWrites();
+        if (_isCancelledByWrites) {
+          request.cancel();
+        }
         CompletableFuture<?> _get = request.get();
         cfs.add(_get);
       }
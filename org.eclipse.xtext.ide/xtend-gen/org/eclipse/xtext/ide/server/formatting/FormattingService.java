@@ -178,10 +178,28 @@ public class FormattingService {
     if ((preferences != null)) {
       request.setPreferences(preferences);
     }
-    final ITextRegionAccess regionAccess = this.regionBuilder.forNodeModel(resource).create();
+    ITextRegionAccess _xifexpression = null;
+    if (((selection != null) && this.isFormattingSubtreeOnly())) {
+      _xifexpression = this.regionBuilder.forNodeModel(resource, selection).create();
+    } else {
+      _xifexpression = this.regionBuilder.forNodeModel(resource).create();
+    }
+    final ITextRegionAccess regionAccess = _xifexpression;
     request.setTextRegionAccess(regionAccess);
     final IFormatter2 formatter2 = this.formatter2Provider.get();
     final List<ITextReplacement> replacements = formatter2.format(request);
     return replacements;
   }
+  
+  /**
+   * Whether range formatting only builds the region access for the smallest subtree that covers the selection and
+   * formats that subtree. This is faster for large documents, but the enclosing objects are not formatted: the
+   * indentation is taken from the line the subtree starts in, and formatters that access the regions of enclosing
+   * objects do not find them. Disabled by default.
+   * 
+   * @since 2.18
+   */
+  protected boolean isFormattingSubtreeOnly() {
+    return false;
+  }
 }
@@ -288,8 +288,43 @@ public class DocumentSymbolService implements IDocumentSymbolService {
     return symbols;
   }
   
+  /**
+   * Whether the description matches the query of a workspace symbol request. By default, the qualified name has to
+   * contain the query, ignoring case. If {@link #isFuzzyMatching() fuzzy matching} is enabled, the characters of the
+   * query only have to occur in the qualified name in the same order.
+   */
   protected boolean filter(final IEObjectDescription description, final String query) {
-    return description.getQualifiedName().toLowerCase().toString().contains(query.toLowerCase());
+    boolean _isFuzzyMatching = this.isFuzzyMatching();
+    boolean _not = (!_isFuzzyMatching);
+    if (_not) {
+      return description.getQualifiedName().toLowerCase().toString().contains(query.toLowerCase());
+    }
+    final String name = description.getQualifiedName().toString();
+    int nameIndex = 0;
+    for (int i = 0; (i < query.length()); i++) {
+      {
+        final char c = Character.toLowerCase(query.charAt(i));
+        while (((nameIndex < name.length()) && (Character.toLowerCase(name.charAt(nameIndex)) != c))) {
+          nameIndex++;
+        }
+        int _length = name.length();
+        boolean _equals = (nameIndex == _length);
+        if (_equals) {
+          return false;
+        }
+        nameIndex++;
+      }
+    }
+    return true;
+  }
+  
+  /**
+   * Whether workspace symbol queries match the qualified names fuzzily. Disabled by default.
+   * 
+   * @since 2.18
+   */
+  protected boolean isFuzzyMatching() {
+    return false;
   }
   
   protected void createSymbol(final IEObjectDescription description, final IReferenceFinder.IResourceAccess resourceAccess, final Procedure1<? super SymbolInformation> acceptor) {
@@ -7,14 +7,19 @@
  */
 package org.eclipse.xtext.ide.server.symbol;
 
-import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.SymbolKind;
 import org.eclipse.xtext.findReferences.IReferenceFinder;
+import org.eclipse.xtext.ide.server.ILanguageServerAccess;
 import org.eclipse.xtext.ide.server.symbol.DocumentSymbolService;
+import org.eclipse.xtext.ide.server.symbol.WorkspaceSymbolIndex;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
@@ -24,12 +29,17 @@ import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Extension;
 
 /**
+ * Provides the workspace symbols that match a query. The symbols are looked up in a {@link WorkspaceSymbolIndex}, so
+ * resources are only loaded to compute the locations of the symbols in the result. The language server passes the
+ * deltas of its builds to this service. Without them the symbol index is synchronized with the index of the workspace
+ * on each query.
+ * 
  * @author kosyakov - Initial contribution and API
  * @since 2.11
  */
 @Singleton
 @SuppressWarnings("all")
-public class WorkspaceSymbolService {
+public class WorkspaceSymbolService implements ILanguageServerAccess.IBuildListener {
   @Inject
   @Extension
   private IResourceServiceProvider.Registry _registry;
@@ -37,24 +47,68 @@ public class WorkspaceSymbolService {
   @Inject
   private OperationCanceledManager operationCanceledManager;
   
+  @Inject
+  private WorkspaceSymbolIndex symbolIndex;
+  
+  private volatile boolean updatedByDeltas = false;
+  
   public List<? extends SymbolInformation> getSymbols(final String query, final IReferenceFinder.IResourceAccess resourceAccess, final IResourceDescriptions indexData, final CancelIndicator cancelIndicator) {
-    final LinkedList<SymbolInformation> result = CollectionLiterals.<SymbolInformation>newLinkedList();
-    Iterable<IResourceDescription> _allResourceDescriptions = indexData.getAllResourceDescriptions();
-    for (final IResourceDescription resourceDescription : _allResourceDescriptions) {
+    if (((!this.updatedByDeltas) || (!this.symbolIndex.isInitialized()))) {
+      final Function<URI, DocumentSymbolService> _function = (URI uri) -> {
+        return this.getDocumentSymbolService(uri);
+      };
+      this.symbolIndex.update(indexData, _function, cancelIndicator);
+    }
+    final ArrayList<SymbolInformation> result = CollectionLiterals.<SymbolInformation>newArrayList();
+    List<WorkspaceSymbolIndex.Symbol> _find = this.symbolIndex.find(query, this.getMaxResults(), resourceAccess, cancelIndicator);
+    for (final WorkspaceSymbolIndex.Symbol symbol : _find) {
       {
         this.operationCanceledManager.checkCanceled(cancelIndicator);
-        final IResourceServiceProvider resourceServiceProvider = this._registry.getResourceServiceProvider(resourceDescription.getURI());
-        DocumentSymbolService _get = null;
-        if (resourceServiceProvider!=null) {
-          _get=resourceServiceProvider.<DocumentSymbolService>get(DocumentSymbolService.class);
-        }
-        final DocumentSymbolService documentSymbolService = _get;
-        if ((documentSymbolService != null)) {
-          List<? extends SymbolInformation> _symbols = documentSymbolService.getSymbols(resourceDescription, query, resourceAccess, cancelIndicator);
-          Iterables.<SymbolInformation>addAll(result, _symbols);
+        final Location location = symbol.getLocation(resourceAccess);
+        if ((location != null)) {
+          String _name = symbol.getName();
+          SymbolKind _kind = symbol.getKind();
+          SymbolInformation _symbolInformation = new SymbolInformation(_name, _kind, location);
+          result.add(_symbolInformation);
         }
       }
     }
     return result;
   }
+  
+  /**
+   * Updates the symbol index with the deltas of a build. Once deltas have been received, the index of the workspace
+   * is no longer walked for each query.
+   * 
+   * @since 2.18
+   */
+  @Override
+  public void afterBuild(final List<IResourceDescription.Delta> deltas) {
+    this.updatedByDeltas = true;
+    final Function<URI, DocumentSymbolService> _function = (URI uri) -> {
+      return this.getDocumentSymbolService(uri);
+    };
+    this.symbolIndex.update(deltas, _function);
+  }
+  
+  /**
+   * @since 2.18
+   */
+  protected DocumentSymbolService getDocumentSymbolService(final URI uri) {
+    IResourceServiceProvider _resourceServiceProvider = this._registry.getResourceServiceProvider(uri);
+    DocumentSymbolService _get = null;
+    if (_resourceServiceProvider!=null) {
+      _get=_resourceServiceProvider.<DocumentSymbolService>get(DocumentSymbolService.class);
+    }
+    return _get;
+  }
+  
+  /**
+   * The maximum number of symbols that are returned for a query.
+   * 
+   * @since 2.18
+   */
+  protected int getMaxResults() {
+    return 1000;
+  }
 }
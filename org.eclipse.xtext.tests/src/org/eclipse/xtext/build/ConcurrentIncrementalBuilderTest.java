@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.build;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.index.IndexTestLanguageInjectorProvider;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.SynchronizedXtextResourceSet;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.eclipse.xtext.testing.InjectWith;
+import org.eclipse.xtext.testing.XtextRunner;
+import org.eclipse.xtext.testing.builder.AbstractIncrementalBuilderTest;
+import org.eclipse.xtext.validation.Issue;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+@RunWith(XtextRunner.class)
+@InjectWith(IndexTestLanguageInjectorProvider.class)
+public class ConcurrentIncrementalBuilderTest extends AbstractIncrementalBuilderTest {
+
+	@Inject
+	private IResourceServiceProvider.Registry resourceServiceProviderFactory;
+
+	@Inject
+	private Provider<SynchronizedXtextResourceSet> synchronizedResourceSetProvider;
+
+	@Override
+	protected IResourceServiceProvider.Registry getLanguages() {
+		return resourceServiceProviderFactory;
+	}
+
+	@Before
+	public void useSynchronizedResourceSet() {
+		// the generator stage is only used with a synchronized resource set
+		resourceSetProvider = new Provider<XtextResourceSet>() {
+			@Override
+			public XtextResourceSet get() {
+				return synchronizedResourceSetProvider.get();
+			}
+		};
+	}
+
+	private List<URI> createFiles() {
+		return ImmutableList.of(
+				operator_minus("src/A.indextestlanguage", "foo { entity A { foo.B b } }"),
+				operator_minus("src/B.indextestlanguage", "foo { entity B { foo.C c } }"),
+				operator_minus("src/C.indextestlanguage", "foo { entity C { foo.A a } }"),
+				operator_minus("src/D.indextestlanguage", "foo { entity D { foo.A a foo.B b } }"));
+	}
+
+	@Test
+	public void testGeneratorStageReadsStableIndex() {
+		final List<URI> files = createFiles();
+		final AtomicBoolean indexChanged = new AtomicBoolean(false);
+		BuildRequest request = newBuildRequest(new Procedure1<BuildRequest>() {
+			@Override
+			public void apply(final BuildRequest it) {
+				it.setDirtyFiles(files);
+				it.setGeneratorQueueSize(2);
+				final List<IResourceDescription> seen = Lists.newArrayList();
+				it.setAfterGenerateFile(new Procedure2<URI, URI>() {
+					@Override
+					public void apply(URI source, URI target) {
+						generated.put(source, target);
+						List<IResourceDescription> current = Lists
+								.newArrayList(it.getState().getResourceDescriptions().getAllResourceDescriptions());
+						if (seen.isEmpty()) {
+							seen.addAll(current);
+						} else if (seen.size() != current.size()) {
+							indexChanged.set(true);
+						} else {
+							for (int i = 0; i < seen.size(); i++) {
+								if (seen.get(i) != current.get(i)) {
+									indexChanged.set(true);
+								}
+							}
+						}
+					}
+				});
+			}
+		});
+		build(request);
+		Assert.assertTrue(issues.toString(), issues.isEmpty());
+		Assert.assertFalse("the index was modified while the generators were running", indexChanged.get());
+		Assert.assertEquals(4, generated.size());
+		for (IResourceDescription description : indexState.getResourceDescriptions().getAllResourceDescriptions()) {
+			Assert.assertTrue(description instanceof SerializableResourceDescription);
+			Assert.assertTrue(description.getReferenceDescriptions().iterator().hasNext());
+		}
+	}
+
+	@Test
+	public void testGeneratorStageProducesSameOutput() {
+		final List<URI> files = createFiles();
+		build(newBuildRequest(new Procedure1<BuildRequest>() {
+			@Override
+			public void apply(BuildRequest it) {
+				it.setDirtyFiles(files);
+			}
+		}));
+		Set<URI> expected = ImmutableSet.copyOf(generated.values());
+		indexState = new IndexState();
+		build(newBuildRequest(new Procedure1<BuildRequest>() {
+			@Override
+			public void apply(BuildRequest it) {
+				it.setDirtyFiles(files);
+				it.setGeneratorQueueSize(2);
+			}
+		}));
+		Assert.assertTrue(issues.toString(), issues.isEmpty());
+		Assert.assertEquals(expected, ImmutableSet.copyOf(generated.values()));
+	}
+
+	@Test
+	public void testParallelBuildIsEquivalentToSequentialBuild() throws IOException {
+		final List<URI> files = Lists.newArrayList();
+		int count = 20;
+		for (int i = 0; i < count; i++) {
+			String next = "foo.E" + ((i + 1) % count);
+			files.add(operator_minus("src/E" + i + ".indextestlanguage",
+					"foo { entity E" + i + " { " + next + " next foo.E0 first } }"));
+		}
+		files.add(operator_minus("src/Broken.indextestlanguage", "foo { entity Broken { foo.Missing missing foo.E1 e } }"));
+		String sequential = buildAndDescribe(null, files);
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		try {
+			for (int i = 0; i < 3; i++) {
+				Assert.assertEquals(sequential, buildAndDescribe(executorService, files));
+			}
+		} finally {
+			executorService.shutdown();
+		}
+		Assert.assertTrue(sequential, sequential.contains("Couldn't resolve reference to Type 'foo.Missing'"));
+	}
+
+	private String buildAndDescribe(final ExecutorService executorService, final List<URI> files) throws IOException {
+		indexState = new IndexState();
+		IndexState result = build(newBuildRequest(new Procedure1<BuildRequest>() {
+			@Override
+			public void apply(BuildRequest it) {
+				it.setDirtyFiles(files);
+				it.setExecutorService(executorService);
+			}
+		}));
+		List<String> lines = Lists.newArrayList();
+		for (IResourceDescription description : result.getResourceDescriptions().getAllResourceDescriptions()) {
+			List<String> entries = Lists.newArrayList();
+			for (IEObjectDescription exported : description.getExportedObjects()) {
+				entries.add("exports " + exported.getName());
+			}
+			for (QualifiedName imported : description.getImportedNames()) {
+				entries.add("imports " + imported);
+			}
+			for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+				entries.add("refers to " + reference.getTargetEObjectUri());
+			}
+			Collections.sort(entries);
+			lines.add(description.getURI() + ": " + entries);
+		}
+		for (Issue issue : issues) {
+			lines.add("issue " + issue.getUriToProblem() + ": " + issue.getMessage());
+		}
+		for (Map.Entry<URI, URI> entry : generated.entries()) {
+			try (InputStream in = inMemoryURIHandler.createInputStream(entry.getValue(), Collections.emptyMap())) {
+				lines.add("generated " + entry.getValue() + " from " + entry.getKey() + ": "
+						+ new String(ByteStreams.toByteArray(in), "UTF-8"));
+			}
+		}
+		Collections.sort(lines);
+		return Joiner.on('\n').join(lines);
+	}
+
+}
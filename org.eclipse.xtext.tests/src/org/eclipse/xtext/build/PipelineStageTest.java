@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.build;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class PipelineStageTest extends Assert {
+
+	@Test
+	public void testTasksAreExecutedInOrder() {
+		final List<Integer> executed = Lists.newArrayList();
+		try (PipelineStage stage = new PipelineStage("PipelineStageTest-%d", 2)) {
+			for (int i = 0; i < 10; i++) {
+				final int value = i;
+				stage.submit(new Runnable() {
+					@Override
+					public void run() {
+						executed.add(value);
+					}
+				});
+			}
+			stage.awaitCompletion();
+		}
+		assertEquals(Lists.newArrayList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), executed);
+	}
+
+	@Test
+	public void testFailureIsRethrown() {
+		final List<Integer> executed = Lists.newArrayList();
+		try (PipelineStage stage = new PipelineStage("PipelineStageTest-%d", 1)) {
+			stage.submit(new Runnable() {
+				@Override
+				public void run() {
+					throw new IllegalStateException("expected");
+				}
+			});
+			try {
+				stage.awaitCompletion();
+				fail("exception expected");
+			} catch (IllegalStateException e) {
+				assertEquals("expected", e.getMessage());
+			}
+			try {
+				stage.submit(new Runnable() {
+					@Override
+					public void run() {
+						executed.add(1);
+					}
+				});
+				fail("exception expected");
+			} catch (IllegalStateException e) {
+				assertEquals("expected", e.getMessage());
+			}
+		}
+		assertTrue(executed.isEmpty());
+	}
+}
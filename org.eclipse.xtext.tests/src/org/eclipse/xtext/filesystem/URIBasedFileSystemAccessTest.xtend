@@ -9,6 +9,7 @@ package org.eclipse.xtext.filesystem
 
 import com.google.common.base.StandardSystemProperty
 import com.google.inject.Inject
+import java.io.File
 import java.nio.file.Files
 import java.nio.file.Paths
 import java.util.UUID
@@ -70,4 +71,16 @@ class URIBasedFileSystemAccessTest {
 		assertTrue(fsa.isFile(EXISTING_RESOURCE_NAME));
 	}
 
+	@Test
+	def void testSkipUnchangedWrites() {
+		fsa.skipUnchangedWrites = true
+		fsa.generateFile(EXISTING_RESOURCE_NAME, 'foo')
+		val file = new File(fsa.getURI(EXISTING_RESOURCE_NAME).toFileString)
+		assertTrue(file.setLastModified(1000))
+		fsa.generateFile(EXISTING_RESOURCE_NAME, 'foo')
+		assertEquals(1000, file.lastModified)
+		fsa.generateFile(EXISTING_RESOURCE_NAME, 'foobar')
+		assertEquals('foobar', fsa.readTextFile(EXISTING_RESOURCE_NAME).toString)
+	}
+
 }
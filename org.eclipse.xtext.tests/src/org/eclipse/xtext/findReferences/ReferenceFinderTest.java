@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.findReferences;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.SerializableReferenceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+public class ReferenceFinderTest extends Assert {
+
+	private final ReferenceFinder referenceFinder = new ReferenceFinder();
+
+	private SerializableResourceDescription createDescription(String uri, String... targets) {
+		SerializableResourceDescription result = new SerializableResourceDescription();
+		result.setURI(URI.createURI(uri));
+		result.setDescriptions(Collections.emptyList());
+		result.setImportedNames(Collections.emptyList());
+		List<SerializableReferenceDescription> references = Lists.newArrayList();
+		for (String target : targets) {
+			SerializableReferenceDescription reference = new SerializableReferenceDescription();
+			reference.setSourceEObjectUri(URI.createURI(uri + "#/"));
+			reference.setTargetEObjectUri(URI.createURI(target));
+			reference.setEReference(EcorePackage.Literals.ECLASS__ESUPER_TYPES);
+			reference.setIndexInList(-1);
+			references.add(reference);
+		}
+		result.setReferences(references);
+		return result;
+	}
+
+	private TargetURIs targetURIs(String... uris) {
+		TargetURISet result = new TargetURISet();
+		for (String uri : uris) {
+			result.addURI(URI.createURI(uri));
+		}
+		return result;
+	}
+
+	private List<String> getCandidateURIs(TargetURIs targetURIs, ResourceDescriptionsData... containers) {
+		List<String> result = Lists.newArrayList();
+		ImmutableMap.Builder<String, ResourceDescriptionsData> chunks = ImmutableMap.builder();
+		for (int i = 0; i < containers.length; i++) {
+			chunks.put("chunk" + i, containers[i]);
+		}
+		for (IResourceDescription description : referenceFinder.getCandidateDescriptions(targetURIs,
+				new ChunkedResourceDescriptions(chunks.build()))) {
+			result.add(description.getURI().toString());
+		}
+		// the order of the chunks is not specified
+		Collections.sort(result);
+		return result;
+	}
+
+	@Test
+	public void testCandidatesFromReverseIndex() {
+		ResourceDescriptionsData first = new ResourceDescriptionsData(Lists.<IResourceDescription>newArrayList(
+				createDescription("a.ecore", "b.ecore#//B"),
+				createDescription("b.ecore"),
+				createDescription("c.ecore", "d.ecore#//D"),
+				createDescription("d.ecore", "b.ecore#//Other")));
+		ResourceDescriptionsData second = new ResourceDescriptionsData(Lists.<IResourceDescription>newArrayList(
+				createDescription("e.ecore", "b.ecore#//B", "d.ecore#//D")));
+		assertEquals("[a.ecore, b.ecore, d.ecore, e.ecore]", getCandidateURIs(targetURIs("b.ecore#//B"), first, second).toString());
+		assertEquals("[c.ecore, d.ecore, e.ecore]", getCandidateURIs(targetURIs("d.ecore#//D"), first, second).toString());
+		assertEquals("[]", getCandidateURIs(targetURIs("x.ecore#//X"), first, second).toString());
+	}
+
+	@Test
+	public void testCandidatesAfterUpdate() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(Lists.<IResourceDescription>newArrayList(
+				createDescription("a.ecore", "b.ecore#//B"),
+				createDescription("b.ecore")));
+		assertEquals("[a.ecore, b.ecore]", getCandidateURIs(targetURIs("b.ecore#//B"), data).toString());
+		data.addDescription(URI.createURI("a.ecore"), createDescription("a.ecore"));
+		data.addDescription(URI.createURI("c.ecore"), createDescription("c.ecore", "b.ecore#//B"));
+		assertEquals("[b.ecore, c.ecore]", getCandidateURIs(targetURIs("b.ecore#//B"), data).toString());
+	}
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.formatting2.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.xtext.formatting2.regionaccess.ITextSegment;
+import org.eclipse.xtext.formatting2.regionaccess.internal.TextSegment;
+import org.junit.Test;
+
+import com.google.common.base.Functions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+public class TreeSetRegionSetTest extends RegionSetTest {
+
+	@Override
+	protected TextSegmentSet<ITextSegment> createTextSegmentSet() {
+		return new TreeSetTextSegmentSet<ITextSegment>(Functions.<ITextSegment>identity(), Functions.toStringFunction(), true);
+	}
+
+	@Test
+	public void testIteration() {
+		TextSegmentSet<ITextSegment> set = createTextSegmentSet();
+		List<ITextSegment> segments = Lists.newArrayList();
+		for (int i = 0; i < 100; i++) {
+			segments.add(new TextSegment(null, i * 2, 1));
+		}
+		for (ITextSegment segment : Lists.reverse(segments)) {
+			set.add(segment);
+		}
+		assertEquals(segments, ImmutableList.copyOf(set));
+		assertEquals(Lists.reverse(segments), ImmutableList.copyOf(set.reverseIterable()));
+		assertSame(segments.get(10), set.get(new TextSegment(null, 20, 1)));
+		assertNull(set.get(new TextSegment(null, 20, 0)));
+		Iterator<ITextSegment> after = set.iteratorAfter(new TextSegment(null, 196, 1));
+		assertSame(segments.get(99), after.next());
+		assertFalse(after.hasNext());
+		assertFalse(set.iteratorAfter(new TextSegment(null, 197, 1)).hasNext());
+	}
+
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.formatting2.regionaccess.internal;
+
+import org.eclipse.xtext.formatting2.regionaccess.IEObjectRegion;
+import org.eclipse.xtext.formatting2.regionaccess.TextRegionAccessBuilder;
+import org.eclipse.xtext.formatting2.regionaccess.internal.regionaccesstestlanguage.Mixed;
+import org.eclipse.xtext.formatting2.regionaccess.internal.regionaccesstestlanguage.Root;
+import org.eclipse.xtext.formatting2.regionaccess.internal.tests.RegionAccessTestLanguageInjectorProvider;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.testing.InjectWith;
+import org.eclipse.xtext.testing.XtextRunner;
+import org.eclipse.xtext.testing.util.ParseHelper;
+import org.eclipse.xtext.testing.validation.ValidationTestHelper;
+import org.eclipse.xtext.util.TextRegion;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+@RunWith(XtextRunner.class)
+@InjectWith(RegionAccessTestLanguageInjectorProvider.class)
+public class NodeModelBasedRegionAccessBuilderTest extends Assert {
+
+	@Inject
+	private ParseHelper<Root> parseHelper;
+
+	@Inject
+	private Provider<TextRegionAccessBuilder> textRegionAccessBuilder;
+
+	@Inject
+	private ValidationTestHelper validationTestHelper;
+
+	private static final String TEXT = "6 (child  (foo))";
+
+	private Mixed parse() throws Exception {
+		Mixed root = (Mixed) parseHelper.parse(TEXT);
+		validationTestHelper.assertNoErrors(root);
+		return root;
+	}
+
+	private NodeModelBasedRegionAccess create(Mixed root, int offset, int length) {
+		XtextResource resource = (XtextResource) root.eResource();
+		return (NodeModelBasedRegionAccess) textRegionAccessBuilder.get()
+				.forNodeModel(resource, new TextRegion(offset, length)).create();
+	}
+
+	@Test
+	public void testSubtree() throws Exception {
+		Mixed root = parse();
+		NodeModelBasedRegionAccess access = create(root, TEXT.indexOf("foo"), 3);
+		assertTrue(access.isSubtree());
+		IEObjectRegion region = access.regionForRootEObject();
+		assertSame(root.getEobj(), region.getSemanticElement());
+		assertEquals("(foo)", region.getText());
+		assertEquals("  ", region.getPreviousHiddenRegion().getText());
+		assertNull(region.getPreviousHiddenRegion().getPreviousSemanticRegion());
+		assertEquals("", region.getNextHiddenRegion().getText());
+		assertNull(region.getNextHiddenRegion().getNextSemanticRegion());
+		assertNull(access.regionForEObject(root));
+	}
+
+	@Test
+	public void testSurroundingHiddenRegionIsCovered() throws Exception {
+		Mixed root = parse();
+		NodeModelBasedRegionAccess access = create(root, TEXT.indexOf("child") + 5, 2);
+		assertSame(root, access.regionForRootEObject().getSemanticElement());
+		assertNotNull(access.regionForEObject(root.getEobj()));
+	}
+
+	@Test
+	public void testWholeDocument() throws Exception {
+		Mixed root = parse();
+		NodeModelBasedRegionAccess access = create(root, 0, TEXT.length());
+		assertFalse(access.isSubtree());
+		assertSame(root, access.regionForRootEObject().getSemanticElement());
+		assertEquals(TEXT, access.regionForRootEObject().getText());
+	}
+
+}
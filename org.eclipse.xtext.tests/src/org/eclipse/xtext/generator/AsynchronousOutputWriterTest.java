@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.generator.AsynchronousOutputWriter.ContentWriter;
+import org.eclipse.xtext.util.Exceptions;
+import org.eclipse.xtext.util.RuntimeIOException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsynchronousOutputWriterTest extends Assert {
+
+	private final Map<URI, String> written = new ConcurrentHashMap<URI, String>();
+
+	private final ContentWriter contentWriter = new ContentWriter() {
+		@Override
+		public void write(URI uri, byte[] content) throws IOException {
+			written.put(uri, new String(content, StandardCharsets.UTF_8));
+		}
+	};
+
+	private static byte[] bytes(String string) {
+		return string.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testAllFilesAreWrittenOnFlush() {
+		try (AsynchronousOutputWriter writer = new AsynchronousOutputWriter("AsynchronousOutputWriterTest-%d", 3, 5)) {
+			for (int i = 0; i < 100; i++) {
+				writer.write(URI.createURI("file:/" + i + ".txt"), bytes("content" + i), contentWriter);
+			}
+			writer.flush();
+			assertEquals(100, written.size());
+			for (int i = 0; i < 100; i++) {
+				assertEquals("content" + i, written.get(URI.createURI("file:/" + i + ".txt")));
+			}
+		}
+	}
+
+	@Test
+	public void testPendingWritesAreCoalesced() throws InterruptedException {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final URI blocker = URI.createURI("file:/blocker.txt");
+		final URI uri = URI.createURI("file:/foo.txt");
+		final int[] writes = new int[1];
+		try (AsynchronousOutputWriter writer = new AsynchronousOutputWriter("AsynchronousOutputWriterTest-%d", 1, 10)) {
+			writer.write(blocker, bytes(""), new ContentWriter() {
+				@Override
+				public void write(URI uri, byte[] content) throws IOException {
+					blocked.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Exceptions.throwUncheckedException(e);
+					}
+				}
+			});
+			blocked.await();
+			ContentWriter counting = new ContentWriter() {
+				@Override
+				public void write(URI uri, byte[] content) throws IOException {
+					writes[0]++;
+					contentWriter.write(uri, content);
+				}
+			};
+			writer.write(uri, bytes("first"), counting);
+			writer.write(uri, bytes("second"), counting);
+			assertEquals("second", new String(writer.getPendingContent(uri), StandardCharsets.UTF_8));
+			release.countDown();
+			writer.flush();
+		}
+		assertEquals(1, writes[0]);
+		assertEquals("second", written.get(uri));
+	}
+
+	@Test
+	public void testContentIsVisibleWhileWriting() throws InterruptedException {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final URI uri = URI.createURI("file:/foo.txt");
+		try (AsynchronousOutputWriter writer = new AsynchronousOutputWriter("AsynchronousOutputWriterTest-%d", 1, 10)) {
+			writer.write(uri, bytes("foo"), new ContentWriter() {
+				@Override
+				public void write(URI uri, byte[] content) throws IOException {
+					blocked.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Exceptions.throwUncheckedException(e);
+					}
+					contentWriter.write(uri, content);
+				}
+			});
+			blocked.await();
+			assertNull(written.get(uri));
+			assertEquals("foo", new String(writer.getPendingContent(uri), StandardCharsets.UTF_8));
+			release.countDown();
+			writer.flush();
+			assertNull(writer.getPendingContent(uri));
+		}
+		assertEquals("foo", written.get(uri));
+	}
+
+	@Test
+	public void testCancel() throws InterruptedException {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final URI blocker = URI.createURI("file:/blocker.txt");
+		final URI uri = URI.createURI("file:/foo.txt");
+		try (AsynchronousOutputWriter writer = new AsynchronousOutputWriter("AsynchronousOutputWriterTest-%d", 1, 10)) {
+			writer.write(blocker, bytes(""), new ContentWriter() {
+				@Override
+				public void write(URI uri, byte[] content) throws IOException {
+					blocked.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Exceptions.throwUncheckedException(e);
+					}
+				}
+			});
+			blocked.await();
+			writer.write(uri, bytes("foo"), contentWriter);
+			writer.cancel(uri);
+			assertNull(writer.getPendingContent(uri));
+			release.countDown();
+			writer.flush();
+		}
+		assertNull(written.get(uri));
+	}
+
+	@Test
+	public void testFailureIsRethrownOnFlush() {
+		try (AsynchronousOutputWriter writer = new AsynchronousOutputWriter("AsynchronousOutputWriterTest-%d", 2, 2)) {
+			writer.write(URI.createURI("file:/bar.txt"), bytes("bar"), contentWriter);
+			writer.write(URI.createURI("file:/foo.txt"), bytes("foo"), new ContentWriter() {
+				@Override
+				public void write(URI uri, byte[] content) throws IOException {
+					throw new IOException("expected");
+				}
+			});
+			try {
+				writer.flush();
+				fail("exception expected");
+			} catch (RuntimeIOException e) {
+				assertEquals("expected", e.getCause().getMessage());
+			}
+			assertEquals("bar", written.get(URI.createURI("file:/bar.txt")));
+			writer.flush();
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.linking;
+
+import java.util.List;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.parser.ParseResult;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.testlanguages.ReferenceGrammarTestLanguageStandaloneSetup;
+import org.eclipse.xtext.tests.AbstractXtextTests;
+import org.junit.Test;
+
+public class PartialLinkingPreservedModelTest extends AbstractXtextTests {
+
+	private String modelAsText;
+
+	private XtextResource resource;
+
+	private EObject model;
+
+	private EObject familie;
+
+	private EReference kinder;
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(ReferenceGrammarTestLanguageStandaloneSetup.class);
+		modelAsText =
+			"spielplatz 1 {\n" +
+			"  kind( Bommel1 1)\n" +
+			"  kind( Bommel2 2)\n" +
+			"  erwachsener( Bob 4)\n" +
+			"  erwachsener( Joe 5)\n" +
+			"  familie( Familienname Bob Joe Bommel2 )\n" +
+			"}";
+		resource = getResourceFromString(modelAsText);
+		assertTrue(resource.getErrors().toString(), resource.getErrors().isEmpty());
+		model = resource.getParseResult().getRootASTElement();
+		familie = model.eContents().get(model.eContents().size() - 1);
+		kinder = (EReference) familie.eClass().getEStructuralFeature("kinder");
+	}
+
+	@Test public void testWhitespaceChangePreservesModel() {
+		EObject kind = getKinder().get(0);
+		assertFalse(kind.eIsProxy());
+		int offset = modelAsText.indexOf("Bob Joe") + 3;
+		resource.update(offset, 0, "  ");
+		assertSame(familie, ((ParseResult) resource.getParseResult()).getPreservedSemanticElement());
+		assertSame(model, resource.getParseResult().getRootASTElement());
+		assertSame(familie, model.eContents().get(model.eContents().size() - 1));
+		assertEquals("familie( Familienname Bob   Joe Bommel2 )", NodeModelUtils.getNode(familie).getText().trim());
+		assertSame(kind, getKinder().get(0));
+		assertTrue(resource.getErrors().toString(), resource.getErrors().isEmpty());
+	}
+
+	@Test public void testUnresolvedLinksAreReinstalled() {
+		int offset = modelAsText.indexOf("familie(") + 8;
+		resource.update(offset, 0, " /* comment */");
+		assertSame(familie, ((ParseResult) resource.getParseResult()).getPreservedSemanticElement());
+		EObject kind = getKinder().get(0);
+		assertFalse(kind.eIsProxy());
+		assertEquals("Bommel2", kind.eGet(kind.eClass().getEStructuralFeature("name")));
+		EObject vater = (EObject) familie.eGet(familie.eClass().getEStructuralFeature("vater"));
+		assertEquals("Joe", vater.eGet(vater.eClass().getEStructuralFeature("name")));
+	}
+
+	@Test public void testTokenChangeRecreatesModel() {
+		int offset = modelAsText.indexOf("Bob Joe");
+		resource.update(offset, 3, "Joe");
+		assertNull(((ParseResult) resource.getParseResult()).getPreservedSemanticElement());
+		assertTrue(familie.eIsProxy());
+	}
+
+	@Test public void testRelinkLinksCompleteModel() {
+		int offset = modelAsText.indexOf("Bob Joe") + 3;
+		resource.update(offset, 0, " ");
+		resource.relink();
+		assertNull(((ParseResult) resource.getParseResult()).getPreservedSemanticElement());
+		EObject kind = getKinder().get(0);
+		assertFalse(kind.eIsProxy());
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<EObject> getKinder() {
+		return (List<EObject>) familie.eGet(kinder);
+	}
+
+}
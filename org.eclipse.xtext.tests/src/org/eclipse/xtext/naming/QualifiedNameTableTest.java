@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.naming;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QualifiedNameTableTest extends Assert {
+
+	private final QualifiedNameTable table = new QualifiedNameTable();
+
+	@Test public void testCanonicalize() {
+		QualifiedName name = QualifiedName.create("org", "example", "Foo");
+		QualifiedName canonical = table.canonicalize(name);
+		assertEquals(name, canonical);
+		assertEquals(name.hashCode(), canonical.hashCode());
+		assertSame(canonical, table.canonicalize(QualifiedName.create("org", "example", "Foo")));
+		assertSame(canonical, table.canonicalize(canonical));
+	}
+
+	@Test public void testEmpty() {
+		assertSame(QualifiedName.EMPTY, table.canonicalize(QualifiedName.EMPTY));
+		assertSame(QualifiedName.EMPTY, table.canonicalize(QualifiedName.create()));
+	}
+
+	@Test public void testSharedPrefix() {
+		QualifiedName foo = table.canonicalize(QualifiedName.create("org", "example", "Foo"));
+		QualifiedName bar = table.canonicalize(QualifiedName.create("org", "example", "Bar"));
+		QualifiedName prefix = table.canonicalize(QualifiedName.create("org", "example"));
+		assertSame(foo, table.append(prefix, "Foo"));
+		assertSame(bar, table.append(prefix, new String("Bar")));
+		assertSame(foo.getSegment(0), bar.getSegment(0));
+		assertSame(foo.getSegment(1), prefix.getSegment(1));
+	}
+
+	@Test public void testSharedSegments() {
+		QualifiedName first = table.canonicalize(QualifiedName.create(new String("a"), new String("b")));
+		QualifiedName second = table.canonicalize(QualifiedName.create(new String("b"), new String("a")));
+		assertSame(first.getSegment(0), second.getSegment(1));
+		assertSame(first.getSegment(1), second.getSegment(0));
+		assertSame(first.getSegment(0), table.internSegment(new String("a")));
+	}
+
+	@Test public void testLowerCase() {
+		QualifiedName mixedCase = table.canonicalize(QualifiedName.create("org", "Foo"));
+		assertTrue(mixedCase.hasLowerCase());
+		assertSame(mixedCase.toLowerCase(), table.canonicalize(QualifiedName.create("org", "Foo")).toLowerCase());
+		QualifiedName lowerCase = table.canonicalize(mixedCase.toLowerCase());
+		assertEquals(QualifiedName.create("org", "foo"), lowerCase);
+		assertSame(lowerCase, lowerCase.toLowerCase());
+		assertSame(lowerCase, table.canonicalize(QualifiedName.create("org", "foo")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullSegment() {
+		table.append(QualifiedName.EMPTY, null);
+	}
+
+}
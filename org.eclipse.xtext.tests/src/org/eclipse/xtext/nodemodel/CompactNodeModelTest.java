@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.xtext.nodemodel.impl.CompactCompositeNode;
+import org.eclipse.xtext.nodemodel.impl.CompactNode;
+import org.eclipse.xtext.nodemodel.impl.CompactNodeModelBuilder;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.testlanguages.SimpleExpressionsTestLanguageStandaloneSetup;
+import org.eclipse.xtext.tests.AbstractXtextTests;
+import org.eclipse.xtext.util.StringInputStream;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+
+public class CompactNodeModelTest extends AbstractXtextTests {
+
+	private static final String MODEL = "a + b * (c - d)\n  / e\nf  g";
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(SimpleExpressionsTestLanguageStandaloneSetup.class);
+	}
+
+	@Test public void testSameTree() throws Exception {
+		XtextResource resource = getResourceFromString(MODEL);
+		ICompositeNode rootNode = resource.getParseResult().getRootNode();
+		List<List<Object>> expected = describe(rootNode.getAsTreeIterable());
+		List<List<Object>> expectedReverse = describe(rootNode.getAsTreeIterable().reverse());
+		CompactCompositeNode compactRootNode = new CompactNodeModelBuilder().compact(rootNode);
+		assertEquals(expected, describe(compactRootNode.getAsTreeIterable()));
+		assertEquals(expectedReverse, describe(compactRootNode.getAsTreeIterable().reverse()));
+		assertSame(compactRootNode, compactRootNode.getFirstChild().getRootNode());
+	}
+
+	@Test public void testCompactNodeModelIsKeptIfOptionIsMissing() throws Exception {
+		XtextResource resource = (XtextResource) getResourceFactory().createResource(
+				URI.createURI("mytestmodel." + getCurrentFileExtension()));
+		get(XtextResourceSet.class).getResources().add(resource);
+		resource.setCompactNodeModel(true);
+		resource.load(new StringInputStream(MODEL), Collections.emptyMap());
+		assertTrue(resource.getParseResult().getRootNode() instanceof CompactCompositeNode);
+	}
+
+	@Test public void testSemanticElements() throws Exception {
+		XtextResource resource = getResourceFromString(MODEL);
+		Map<EObject, List<Object>> expected = new HashMap<EObject, List<Object>>();
+		for (TreeIterator<EObject> iterator = resource.getAllContents(); iterator.hasNext();) {
+			EObject object = iterator.next();
+			expected.put(object, describe(NodeModelUtils.getNode(object)));
+		}
+		new CompactNodeModelBuilder().compact(resource.getParseResult().getRootNode());
+		for (Map.Entry<EObject, List<Object>> entry : expected.entrySet()) {
+			INode node = NodeModelUtils.getNode(entry.getKey());
+			assertTrue(node instanceof CompactNode);
+			assertSame(node, NodeModelUtils.getNode(entry.getKey()));
+			assertEquals(entry.getValue(), describe(node));
+			assertSame(entry.getKey(), NodeModelUtils.findActualSemanticObjectFor(node));
+		}
+	}
+
+	@Test public void testFindNodesForFeature() throws Exception {
+		XtextResource resource = getResourceFromString(MODEL);
+		Map<List<Object>, List<List<Object>>> expected = new HashMap<List<Object>, List<List<Object>>>();
+		List<EObject> objects = new ArrayList<EObject>();
+		for (TreeIterator<EObject> iterator = resource.getAllContents(); iterator.hasNext();) {
+			EObject object = iterator.next();
+			objects.add(object);
+			for (EStructuralFeature feature : object.eClass().getEAllStructuralFeatures()) {
+				expected.put(Arrays.<Object>asList(object, feature),
+						describe(NodeModelUtils.findNodesForFeature(object, feature)));
+			}
+		}
+		new CompactNodeModelBuilder().compact(resource.getParseResult().getRootNode());
+		for (EObject object : objects) {
+			for (EStructuralFeature feature : object.eClass().getEAllStructuralFeatures()) {
+				assertEquals(expected.get(Arrays.<Object>asList(object, feature)),
+						describe(NodeModelUtils.findNodesForFeature(object, feature)));
+			}
+		}
+	}
+
+	@Test public void testFindLeafNodeAtOffset() throws Exception {
+		XtextResource resource = getResourceFromString(MODEL);
+		ICompositeNode rootNode = resource.getParseResult().getRootNode();
+		List<List<Object>> expected = new ArrayList<List<Object>>();
+		for (int i = 0; i <= MODEL.length(); i++) {
+			expected.add(describe(NodeModelUtils.findLeafNodeAtOffset(rootNode, i)));
+		}
+		CompactCompositeNode compactRootNode = new CompactNodeModelBuilder().compact(rootNode);
+		for (int i = 0; i <= MODEL.length(); i++) {
+			assertEquals(expected.get(i), describe(NodeModelUtils.findLeafNodeAtOffset(compactRootNode, i)));
+		}
+	}
+
+	@Test public void testSyntaxErrors() throws Exception {
+		XtextResource resource = getResourceFromStringAndExpect("a + (b", EXPECT_ERRORS);
+		List<List<Object>> expected = describeSyntaxErrors(resource);
+		int expectedErrors = resource.getErrors().size();
+		resource.setCompactNodeModel(true);
+		resource.reparse("a + (b");
+		assertTrue(resource.getParseResult().getRootNode() instanceof CompactNode);
+		assertEquals(expectedErrors, resource.getErrors().size());
+		assertEquals(expected, describeSyntaxErrors(resource));
+	}
+
+	@Test public void testUpdate() throws Exception {
+		XtextResource resource = getResourceFromString(MODEL);
+		resource.setCompactNodeModel(true);
+		resource.reparse(MODEL);
+		assertTrue(resource.getParseResult().getRootNode() instanceof CompactNode);
+		resource.update(MODEL.indexOf('e'), 1, "(x * y)");
+		ICompositeNode rootNode = resource.getParseResult().getRootNode();
+		assertTrue(rootNode instanceof CompactNode);
+		assertEquals("a + b * (c - d)\n  / (x * y)\nf  g", rootNode.getText());
+		assertTrue(resource.getErrors().isEmpty());
+		ILeafNode leaf = NodeModelUtils.findLeafNodeAtOffset(rootNode, rootNode.getText().indexOf('x'));
+		assertEquals("x", leaf.getText());
+		assertSame(leaf.getParent(), NodeModelUtils.getNode(leaf.getSemanticElement()));
+	}
+
+	private List<List<Object>> describeSyntaxErrors(XtextResource resource) {
+		List<List<Object>> result = new ArrayList<List<Object>>();
+		for (INode node : resource.getParseResult().getSyntaxErrors()) {
+			result.add(Arrays.<Object>asList(node.getText(), node.getTotalOffset(), node.getSyntaxErrorMessage().getMessage()));
+		}
+		return result;
+	}
+
+	private List<List<Object>> describe(Iterable<INode> nodes) {
+		List<List<Object>> result = new ArrayList<List<Object>>();
+		for (INode node : nodes) {
+			result.add(describe(node));
+		}
+		return result;
+	}
+
+	private List<Object> describe(INode node) {
+		if (node == null) {
+			return null;
+		}
+		ICompositeNode parent = node.getParent();
+		return Arrays.<Object>asList(
+				node instanceof ILeafNode,
+				node.getText(),
+				node.getTotalOffset(),
+				node.getTotalLength(),
+				node.getOffset(),
+				node.getLength(),
+				node.getEndOffset(),
+				node.getTotalStartLine(),
+				node.getStartLine(),
+				node.getEndLine(),
+				node.getTotalEndLine(),
+				node.getTextRegionWithLineInformation(),
+				node.getGrammarElement(),
+				node.getSemanticElement(),
+				node.hasDirectSemanticElement(),
+				node instanceof ILeafNode ? ((ILeafNode) node).isHidden() : ((ICompositeNode) node).getLookAhead(),
+				node.getSyntaxErrorMessage() != null,
+				node.hasPreviousSibling(),
+				node.hasNextSibling(),
+				parent != null ? parent.getGrammarElement() : null,
+				parent != null ? parent.getTotalOffset() : null,
+				Iterables.size(node.getLeafNodes()));
+	}
+
+}
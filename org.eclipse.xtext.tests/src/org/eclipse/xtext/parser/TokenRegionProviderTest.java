@@ -15,11 +15,13 @@ import java.util.List;
 import org.antlr.runtime.ANTLRStringStream;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.parser.antlr.Lexer;
 import org.eclipse.xtext.parser.impl.TokenRegionProvider;
 import org.eclipse.xtext.testlanguages.SimpleExpressionsTestLanguageStandaloneSetup;
 import org.eclipse.xtext.tests.AbstractXtextTests;
 import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ReplaceRegion;
 import org.eclipse.xtext.util.TextRegion;
 import org.junit.Before;
 import org.junit.Test;
@@ -99,6 +101,86 @@ public class TokenRegionProviderTest extends AbstractXtextTests {
 		assertEquals(1, tokenRegion.getLength());
 	}
 	
+	@Test 
+	public void testIncrementalTokenReplaceRegion() throws Exception {
+		String model = "a1 / /* comment */ b2 + c";
+		ICompositeNode rootNode = getResourceFromString(model).getParseResult().getRootNode();
+		for (String text : new String[] { "", "x", " ", "/*", "*/", " + d" }) {
+			for (int length = 0; length < model.length(); ++length) {
+				for (int offset = 0; offset + length <= model.length(); ++offset) {
+					ReplaceRegion changedRegion = new ReplaceRegion(offset, length, text);
+					ReplaceRegion tokenRegion = tokenRegionProvider.getTokenReplaceRegion(rootNode, changedRegion);
+					assertTrue(tokenRegion.getOffset() <= offset);
+					assertTrue(tokenRegion.getEndOffset() >= offset + length);
+					StringBuilder expected = new StringBuilder(model);
+					changedRegion.applyTo(expected);
+					StringBuilder actual = new StringBuilder(model);
+					tokenRegion.applyTo(actual);
+					assertEquals(expected.toString(), actual.toString());
+					List<CommonToken> tokens = getTokens(actual.toString());
+					if (tokenRegion.getOffset() != 0)
+						assertNotNull(findTokenStartingAt(tokenRegion.getOffset(), tokens));
+					int newEndOffset = tokenRegion.getOffset() + tokenRegion.getText().length();
+					if (newEndOffset != 0 && newEndOffset < actual.length())
+						assertNotNull(findTokenStartingAt(newEndOffset, tokens));
+				}
+			}
+		}
+	}
+	
+	@Test 
+	public void testIncrementalTokenReplaceRegionResynchronizes() throws Exception {
+		String model = "a / b /* c */ + d";
+		ICompositeNode rootNode = getResourceFromString(model).getParseResult().getRootNode();
+		ReplaceRegion tokenRegion = tokenRegionProvider.getTokenReplaceRegion(rootNode, new ReplaceRegion(4, 0, "/*"));
+		assertEquals(4, tokenRegion.getOffset());
+		assertEquals(9, tokenRegion.getLength());
+		assertEquals("/*b /* c */", tokenRegion.getText());
+	}
+	
+	@Test 
+	public void testIncrementalTokenReplaceRegionUsesOverriddenMethod() throws Exception {
+		String model = "a / b + c";
+		ICompositeNode rootNode = getResourceFromString(model).getParseResult().getRootNode();
+		final List<String> changedTexts = newArrayList();
+		TokenRegionProvider customProvider = new TokenRegionProvider() {
+			@Override
+			public ReplaceRegion getTokenReplaceRegion(String changedText, ReplaceRegion replaceRegion) {
+				changedTexts.add(changedText);
+				return super.getTokenReplaceRegion(changedText, replaceRegion);
+			}
+		};
+		injectMembers(customProvider);
+		ReplaceRegion tokenRegion = customProvider.getTokenReplaceRegion(rootNode, new ReplaceRegion(4, 1, "bb"));
+		assertEquals(newArrayList("a / bb + c"), changedTexts);
+		assertEquals(4, tokenRegion.getOffset());
+		assertEquals(1, tokenRegion.getLength());
+		assertEquals("bb", tokenRegion.getText());
+	}
+	
+	@Test 
+	public void testIncrementalTokenReplaceRegionFallsBackForStatefulLexer() throws Exception {
+		String model = "a / b + c";
+		ICompositeNode rootNode = getResourceFromString(model).getParseResult().getRootNode();
+		final List<String> changedTexts = newArrayList();
+		TokenRegionProvider customProvider = new TokenRegionProvider() {
+			@Override
+			protected boolean canLexFromCheckpoint(Lexer lexer) {
+				return false;
+			}
+			
+			@Override
+			public ReplaceRegion getTokenReplaceRegion(String changedText, ReplaceRegion replaceRegion) {
+				changedTexts.add(changedText);
+				return super.getTokenReplaceRegion(changedText, replaceRegion);
+			}
+		};
+		injectMembers(customProvider);
+		ReplaceRegion tokenRegion = customProvider.getTokenReplaceRegion(rootNode, new ReplaceRegion(4, 1, "bb"));
+		assertEquals(newArrayList("a / bb + c"), changedTexts);
+		assertEquals("bb", tokenRegion.getText());
+	}
+	
 	protected CommonToken findTokenStartingAt(final int offset, List<CommonToken> tokens) {
 		return find(tokens, new Predicate<CommonToken>() {
 			@Override
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public class ChunkedResourceDescriptionsTest extends Assert {
+
+	private final URI a = URI.createURI("file:/a.ext");
+	private final URI b = URI.createURI("file:/b.ext");
+
+	private IResourceDescription description(final URI uri) {
+		return new AbstractResourceDescription() {
+			@Override
+			protected List<IEObjectDescription> computeExportedObjects() {
+				return Collections.emptyList();
+			}
+
+			@Override
+			public Iterable<QualifiedName> getImportedNames() {
+				return Collections.emptyList();
+			}
+
+			@Override
+			public Iterable<IReferenceDescription> getReferenceDescriptions() {
+				return Collections.emptyList();
+			}
+
+			@Override
+			public URI getURI() {
+				return uri;
+			}
+		};
+	}
+
+	@Test
+	public void testGetContainer() {
+		ResourceDescriptionsData first = new ResourceDescriptionsData(ImmutableList.of(description(a)));
+		ResourceDescriptionsData second = new ResourceDescriptionsData(ImmutableList.of(description(b)));
+		ChunkedResourceDescriptions descriptions = new ChunkedResourceDescriptions(ImmutableMap.of("first", first, "second", second));
+		assertSame(first, descriptions.getContainer(a));
+		assertSame(second, descriptions.getContainer(b));
+		assertSame(first, descriptions.getContainer(a));
+		assertSame(first.getResourceDescription(a), descriptions.getResourceDescription(a));
+		assertNull(descriptions.getContainer(URI.createURI("file:/c.ext")));
+	}
+
+	@Test
+	public void testContainersAreModifiedInPlace() {
+		ResourceDescriptionsData first = new ResourceDescriptionsData(ImmutableList.of(description(a)));
+		ResourceDescriptionsData second = new ResourceDescriptionsData(ImmutableList.<IResourceDescription>of());
+		ChunkedResourceDescriptions descriptions = new ChunkedResourceDescriptions(ImmutableMap.of("first", first, "second", second));
+		assertSame(first, descriptions.getContainer(a));
+		first.removeDescription(a);
+		assertNull(descriptions.getContainer(a));
+		IResourceDescription moved = description(a);
+		second.addDescription(a, moved);
+		assertSame(second, descriptions.getContainer(a));
+		assertSame(moved, descriptions.getResourceDescription(a));
+	}
+
+	@Test
+	public void testSetAndRemoveContainer() {
+		ResourceDescriptionsData first = new ResourceDescriptionsData(ImmutableList.of(description(a)));
+		ChunkedResourceDescriptions descriptions = new ChunkedResourceDescriptions();
+		descriptions.setContainer("first", first);
+		assertSame(first, descriptions.getContainer(a));
+		ResourceDescriptionsData replacement = new ResourceDescriptionsData(ImmutableList.of(description(a), description(b)));
+		assertSame(first, descriptions.setContainer("first", replacement));
+		assertSame(replacement, descriptions.getContainer(a));
+		assertSame(replacement, descriptions.getContainer(b));
+		assertSame(replacement, descriptions.removeContainer("first"));
+		assertNull(descriptions.getContainer(a));
+		assertNull(descriptions.getResourceDescription(b));
+	}
+
+	@Test
+	public void testStaleChunkNamesArePruned() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(ImmutableList.<IResourceDescription>of());
+		ChunkedResourceDescriptions descriptions = new ChunkedResourceDescriptions(ImmutableMap.of("chunk", data));
+		for (int i = 0; i < 1000; i++) {
+			URI uri = URI.createURI("file:/old" + i + ".ext");
+			data.addDescription(uri, description(uri));
+			assertSame(data, descriptions.getContainer(uri));
+		}
+		for (int i = 0; i < 1000; i++) {
+			data.removeDescription(URI.createURI("file:/old" + i + ".ext"));
+		}
+		for (int i = 0; i < 1000; i++) {
+			URI uri = URI.createURI("file:/new" + i + ".ext");
+			data.addDescription(uri, description(uri));
+			assertSame(data, descriptions.getContainer(uri));
+		}
+		assertEquals(1000, descriptions.uri2chunk.size());
+		assertEquals(data.getAllURIs(), descriptions.uri2chunk.keySet());
+	}
+
+}
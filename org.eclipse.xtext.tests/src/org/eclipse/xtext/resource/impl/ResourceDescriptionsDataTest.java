@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.EObjectDescription;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+public class ResourceDescriptionsDataTest extends Assert {
+
+	private static class TestDescription extends AbstractResourceDescription {
+		private final URI uri;
+		private final List<QualifiedName> importedNames;
+		private final List<IReferenceDescription> references;
+		private final List<IEObjectDescription> exportedObjects;
+
+		TestDescription(URI uri, List<QualifiedName> importedNames, List<URI> referencedResources) {
+			this(uri, importedNames, referencedResources, Collections.<IEObjectDescription>emptyList());
+		}
+
+		TestDescription(URI uri, List<QualifiedName> importedNames, List<URI> referencedResources, List<IEObjectDescription> exportedObjects) {
+			this.uri = uri;
+			this.importedNames = importedNames;
+			this.exportedObjects = exportedObjects;
+			this.references = Lists.newArrayList();
+			for (URI referenced : referencedResources) {
+				references.add(new DefaultReferenceDescription(uri.appendFragment("/"), referenced.appendFragment("/"),
+						EcorePackage.Literals.ECLASS__ESUPER_TYPES, 0, uri.appendFragment("/")));
+			}
+		}
+
+		@Override
+		protected List<IEObjectDescription> computeExportedObjects() {
+			return exportedObjects;
+		}
+
+		@Override
+		public Iterable<QualifiedName> getImportedNames() {
+			return importedNames;
+		}
+
+		@Override
+		public Iterable<IReferenceDescription> getReferenceDescriptions() {
+			return references;
+		}
+
+		@Override
+		public URI getURI() {
+			return uri;
+		}
+	}
+
+	private final URI a = URI.createURI("file:/a.ext");
+	private final URI b = URI.createURI("file:/b.ext");
+	private final URI c = URI.createURI("file:/c.ext");
+
+	private IResourceDescription description(URI uri, String importedName, URI... referenced) {
+		return new TestDescription(uri, ImmutableList.of(QualifiedName.create(importedName)), ImmutableList.copyOf(referenced));
+	}
+
+	private IResourceDescription exporting(URI uri, String... exportedNames) {
+		List<IEObjectDescription> exported = Lists.newArrayList();
+		for (String name : exportedNames) {
+			exported.add(EObjectDescription.create(QualifiedName.create(name), EcorePackage.Literals.ECLASS,
+					Collections.singletonMap("resource", uri.toString())));
+		}
+		return new TestDescription(uri, ImmutableList.<QualifiedName>of(), ImmutableList.<URI>of(), exported);
+	}
+
+	private List<URI> getExportingURIs(ResourceDescriptionsData data, String name, boolean ignoreCase) {
+		List<URI> result = Lists.newArrayList();
+		for (IEObjectDescription description : data.getExportedObjects(EcorePackage.Literals.EOBJECT, QualifiedName.create(name), ignoreCase)) {
+			result.add(URI.createURI(description.getUserData("resource")));
+		}
+		return result;
+	}
+
+	@Test
+	public void testDependentURIs() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(ImmutableList.of(
+				description(a, "x"),
+				description(b, "y", a)));
+		assertEquals(ImmutableSet.of(a), data.getDependentURIs(ImmutableList.of(QualifiedName.create("x")), ImmutableList.<URI>of()));
+		assertEquals(ImmutableSet.of(b), data.getDependentURIs(ImmutableList.<QualifiedName>of(), ImmutableList.of(a)));
+		assertEquals(ImmutableSet.of(a, b), data.getDependentURIs(ImmutableList.of(QualifiedName.create("x"), QualifiedName.create("y")), ImmutableList.<URI>of()));
+		assertTrue(data.getDependentURIs(ImmutableList.of(QualifiedName.create("z")), ImmutableList.of(c)).isEmpty());
+	}
+
+	@Test
+	public void testDependentURIsAreMaintained() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(ImmutableList.of(description(a, "x")));
+		assertEquals(ImmutableSet.of(a), data.getDependentURIs(ImmutableList.of(QualifiedName.create("x")), ImmutableList.<URI>of()));
+		data.addDescription(c, description(c, "x", b));
+		data.addDescription(a, description(a, "y"));
+		assertEquals(ImmutableSet.of(c), data.getDependentURIs(ImmutableList.of(QualifiedName.create("x")), ImmutableList.<URI>of()));
+		assertEquals(ImmutableSet.of(c), data.getDependentURIs(ImmutableList.<QualifiedName>of(), ImmutableList.of(b)));
+		data.removeDescription(c);
+		assertTrue(data.getDependentURIs(ImmutableList.of(QualifiedName.create("x")), ImmutableList.of(b)).isEmpty());
+		assertEquals(ImmutableSet.of(a), data.copy().getDependentURIs(ImmutableList.of(QualifiedName.create("y")), ImmutableList.<URI>of()));
+	}
+
+	@Test
+	public void testDependentURIsOfCopy() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(ImmutableList.of(
+				description(a, "x"),
+				description(b, "x", c)));
+		assertEquals(ImmutableSet.of(a, b), data.getDependentURIs(ImmutableList.of(QualifiedName.create("x")), ImmutableList.<URI>of()));
+		ResourceDescriptionsData copy = data.copy();
+		copy.removeDescription(a);
+		copy.addDescription(c, description(c, "x", c));
+		data.addDescription(a, description(a, "y", c));
+		assertEquals(ImmutableSet.of(b, c), copy.getDependentURIs(ImmutableList.of(QualifiedName.create("x")), ImmutableList.<URI>of()));
+		assertEquals(ImmutableSet.of(b, c), copy.getDependentURIs(ImmutableList.<QualifiedName>of(), ImmutableList.of(c)));
+		assertTrue(copy.getDependentURIs(ImmutableList.of(QualifiedName.create("y")), ImmutableList.<URI>of()).isEmpty());
+		assertEquals(ImmutableSet.of(b), data.getDependentURIs(ImmutableList.of(QualifiedName.create("x")), ImmutableList.<URI>of()));
+		assertEquals(ImmutableSet.of(a, b), data.getDependentURIs(ImmutableList.<QualifiedName>of(), ImmutableList.of(c)));
+		assertEquals(ImmutableSet.of(a), data.getDependentURIs(ImmutableList.of(QualifiedName.create("y")), ImmutableList.<URI>of()));
+	}
+
+	@Test
+	public void testURIsByFileExtension() {
+		URI d = URI.createURI("file:/d.other");
+		ResourceDescriptionsData data = new ResourceDescriptionsData(ImmutableList.of(description(a, "x"), description(d, "x")));
+		data.addDescription(b, description(b, "x"));
+		assertEquals(ImmutableSet.of("ext", "other"), data.getFileExtensions());
+		assertEquals(ImmutableSet.of(a, b), data.getAllURIs("ext"));
+		ResourceDescriptionsData copy = data.copy();
+		data.removeDescription(d);
+		assertEquals(ImmutableSet.of("ext"), data.getFileExtensions());
+		assertTrue(data.getAllURIs("other").isEmpty());
+		assertEquals(ImmutableSet.of(d), copy.getAllURIs("other"));
+	}
+
+	@Test
+	public void testDependentURIsIgnoreCase() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(ImmutableList.of(
+				description(a, "Foo"),
+				description(b, "Foo")));
+		assertEquals(ImmutableSet.of(a, b), data.getDependentURIs(ImmutableList.of(QualifiedName.create("foo")), ImmutableList.<URI>of()));
+		data.removeDescription(a);
+		assertEquals(ImmutableSet.of(b), data.getDependentURIs(ImmutableList.of(QualifiedName.create("foo")), ImmutableList.<URI>of()));
+		data.removeDescription(b);
+		assertTrue(data.getDependentURIs(ImmutableList.of(QualifiedName.create("foo")), ImmutableList.<URI>of()).isEmpty());
+	}
+
+	@Test
+	public void testExportedObjects() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(ImmutableList.of(
+				exporting(a, "Foo", "Bar"),
+				exporting(b, "foo", "Baz")));
+		assertEquals(ImmutableList.of(a, b), getExportingURIs(data, "FOO", true));
+		assertEquals(ImmutableList.of(a), getExportingURIs(data, "Foo", false));
+		assertEquals(ImmutableList.of(b), getExportingURIs(data, "Baz", false));
+		assertTrue(getExportingURIs(data, "baz", false).isEmpty());
+		assertTrue(getExportingURIs(data, "Zonk", true).isEmpty());
+	}
+
+	@Test
+	public void testExportedObjectsAreMaintained() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(ImmutableList.of(exporting(a, "Foo")));
+		data.addDescription(b, exporting(b, "Foo", "Bar"));
+		data.addDescription(c, exporting(c, "Foo", "Foo"));
+		assertEquals(ImmutableList.of(a, b, c, c), getExportingURIs(data, "Foo", false));
+		ResourceDescriptionsData copy = data.copy();
+		data.removeDescription(b);
+		assertEquals(ImmutableList.of(a, c, c), getExportingURIs(data, "Foo", false));
+		assertTrue(getExportingURIs(data, "Bar", false).isEmpty());
+		data.addDescription(a, exporting(a, "Bar"));
+		assertEquals(ImmutableList.of(c, c), getExportingURIs(data, "Foo", false));
+		assertEquals(ImmutableList.of(a), getExportingURIs(data, "Bar", false));
+		data.removeDescription(c);
+		assertTrue(getExportingURIs(data, "Foo", false).isEmpty());
+		assertEquals(ImmutableList.of(a, b, c, c), getExportingURIs(copy, "Foo", false));
+		assertEquals(ImmutableList.of(b), getExportingURIs(copy, "Bar", false));
+	}
+
+	@Test
+	public void testManyExportersOfTheSameName() {
+		ResourceDescriptionsData data = new ResourceDescriptionsData(Collections.<IResourceDescription>emptyList());
+		List<URI> expected = Lists.newArrayList();
+		for (int i = 0; i < 100; i++) {
+			URI uri = URI.createURI("file:/" + i + ".ext");
+			data.addDescription(uri, exporting(uri, "Foo"));
+			expected.add(uri);
+		}
+		assertEquals(expected, getExportingURIs(data, "Foo", false));
+		ResourceDescriptionsData copy = data.copy();
+		List<URI> expectedCopy = Lists.newArrayList(expected);
+		for (int i = 0; i < 100; i += 3) {
+			URI uri = URI.createURI("file:/" + i + ".ext");
+			data.removeDescription(uri);
+			expected.remove(uri);
+		}
+		assertEquals(expected, getExportingURIs(data, "Foo", false));
+		assertEquals(expectedCopy, getExportingURIs(copy, "Foo", false));
+		for (URI uri : Lists.newArrayList(expected.subList(2, expected.size()))) {
+			data.removeDescription(uri);
+		}
+		assertEquals(expected.subList(0, 2), getExportingURIs(data, "Foo", false));
+		assertEquals(expectedCopy, getExportingURIs(copy, "Foo", false));
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class BinaryResourceDescriptionFormatTest extends Assert {
+
+	private final BinaryResourceDescriptionFormat format = new BinaryResourceDescriptionFormat();
+
+	private SerializableResourceDescription createDescription() {
+		URI uri = URI.createURI("file:/foo/bar.baz.foo");
+		SerializableResourceDescription result = new SerializableResourceDescription();
+		result.setURI(uri);
+		SerializableReferenceDescription ref1 = new SerializableReferenceDescription();
+		ref1.setSourceEObjectUri(uri.appendFragment("foo"));
+		ref1.setTargetEObjectUri(URI.createURI("file:/other.foo#/0/@bar.1"));
+		ref1.setContainerEObjectURI(null);
+		ref1.setEReference(EcorePackage.Literals.EANNOTATION__CONTENTS);
+		ref1.setIndexInList(-1);
+		SerializableReferenceDescription ref2 = new SerializableReferenceDescription();
+		ref2.setSourceEObjectUri(null);
+		ref2.setTargetEObjectUri(uri.appendFragment("hubble"));
+		ref2.setContainerEObjectURI(uri.appendFragment("baz"));
+		ref2.setEReference(EcorePackage.Literals.EANNOTATION__REFERENCES);
+		ref2.setIndexInList(1000);
+		result.setReferences(Lists.newArrayList(ref1, ref2));
+		SerializableEObjectDescription desc1 = new SerializableEObjectDescription();
+		desc1.setEObjectURI(uri.appendFragment("baz"));
+		desc1.setQualifiedName(QualifiedName.create("foo", "baz"));
+		desc1.setEClass(EcorePackage.Literals.EATTRIBUTE);
+		HashMap<String, String> userData = new HashMap<String, String>();
+		userData.put("myKey", "myValue\u00e4");
+		userData.put("nullValue", null);
+		desc1.setUserData(userData);
+		SerializableEObjectDescription desc2 = new SerializableEObjectDescription();
+		desc2.setEObjectURI(uri.appendFragment("/"));
+		desc2.setQualifiedName(QualifiedName.create("foo"));
+		desc2.setEClass(EcorePackage.Literals.ECLASS);
+		result.setDescriptions(Lists.newArrayList(desc1, desc2));
+		result.setImportedNames(Lists.newArrayList(QualifiedName.create("foo"), QualifiedName.create("foo", "bar"),
+				QualifiedName.EMPTY));
+		return result;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		SerializableResourceDescription before = createDescription();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		format.write(before, out);
+		byte[] bytes = out.toByteArray();
+		assertTrue(format.isCompatible(bytes));
+		SerializableResourceDescription after = format.read(new ByteArrayInputStream(bytes));
+
+		assertEquals(before.getURI(), after.getURI());
+		assertEquals(before.getImportedNames(), after.getImportedNames());
+		assertEquals(before.getReferences().size(), after.getReferences().size());
+		for (int i = 0; i < before.getReferences().size(); i++) {
+			SerializableReferenceDescription beforeRef = before.getReferences().get(i);
+			SerializableReferenceDescription afterRef = after.getReferences().get(i);
+			assertEquals(beforeRef.getSourceEObjectUri(), afterRef.getSourceEObjectUri());
+			assertEquals(beforeRef.getTargetEObjectUri(), afterRef.getTargetEObjectUri());
+			assertEquals(beforeRef.getContainerEObjectURI(), afterRef.getContainerEObjectURI());
+			assertSame(beforeRef.getEReference(), afterRef.getEReference());
+			assertEquals(beforeRef.getIndexInList(), afterRef.getIndexInList());
+		}
+		assertEquals(before.getDescriptions().size(), after.getDescriptions().size());
+		for (int i = 0; i < before.getDescriptions().size(); i++) {
+			SerializableEObjectDescription beforeDesc = before.getDescriptions().get(i);
+			SerializableEObjectDescription afterDesc = after.getDescriptions().get(i);
+			assertEquals(beforeDesc.getEObjectURI(), afterDesc.getEObjectURI());
+			assertEquals(beforeDesc.getQualifiedName(), afterDesc.getQualifiedName());
+			assertSame(beforeDesc.getEClass(), afterDesc.getEClass());
+			assertEquals(beforeDesc.getUserData(), afterDesc.getUserData());
+		}
+	}
+
+	@Test
+	public void testSmallerThanJavaSerialization() throws IOException {
+		SerializableResourceDescription description = createDescription();
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		format.write(description, binary);
+		ByteArrayOutputStream java = new ByteArrayOutputStream();
+		ObjectOutputStream objectOut = new ObjectOutputStream(java);
+		objectOut.writeObject(description);
+		objectOut.flush();
+		assertFalse(format.isCompatible(java.toByteArray()));
+		assertTrue(binary.size() < java.size());
+	}
+}
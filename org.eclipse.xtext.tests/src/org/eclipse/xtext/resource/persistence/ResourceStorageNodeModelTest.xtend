@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence
+
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.nio.file.Files
+import org.eclipse.emf.common.util.URI
+import org.eclipse.xtext.linking.LangATestLanguageStandaloneSetup
+import org.eclipse.xtext.linking.langATestLanguage.Main
+import org.eclipse.xtext.nodemodel.INode
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils
+import org.eclipse.xtext.resource.XtextResource
+import org.eclipse.xtext.resource.XtextResourceSet
+import org.eclipse.xtext.tests.AbstractXtextTests
+import org.junit.Test
+
+class ResourceStorageNodeModelTest extends AbstractXtextTests {
+
+	override setUp() throws Exception {
+		super.setUp();
+		with(new LangATestLanguageStandaloneSetup());
+	}
+
+	@Test def void testNodeModelIsLoadedOnDemand() {
+		val file = File.createTempFile("ResourceStorageNodeModelTest", ".langatestlanguage")
+		file.deleteOnExit
+		Files.write(file.toPath, '''
+			type A
+			type B extends A
+		'''.toString.bytes)
+		val uri = URI.createFileURI(file.absolutePath)
+		val resource = get(XtextResourceSet).getResource(uri, true) as StorageAwareResource
+		val bout = new ByteArrayOutputStream
+		new ResourceStorageWritable(bout, true).writeResource(resource)
+
+		val loaded = get(XtextResourceSet).createResource(uri) as StorageAwareResource
+		loaded.loadFromStorage(new ResourceStorageLoadable(new ByteArrayInputStream(bout.toByteArray), true))
+		val main = loaded.contents.head as Main
+		assertTrue(main.eAdapters.filter(INode).empty)
+		val node = NodeModelUtils.getNode(main.types.last)
+		assertEquals('type B extends A', node.text.trim)
+		assertSame(node.rootNode, loaded.parseResult.rootNode)
+		assertEquals(resource.parseResult.rootNode.text, loaded.parseResult.rootNode.text)
+		assertFalse(loaded.loadNodeModel)
+	}
+
+	@Test def void testNodeModelIsLoadedForTheStoredText() {
+		val file = File.createTempFile("ResourceStorageNodeModelTest", ".langatestlanguage")
+		file.deleteOnExit
+		Files.write(file.toPath, '''
+			type A
+			type B extends A
+		'''.toString.bytes)
+		val uri = URI.createFileURI(file.absolutePath)
+		val resource = get(XtextResourceSet).getResource(uri, true) as StorageAwareResource
+		val bout = new ByteArrayOutputStream
+		new ResourceStorageWritable(bout, true).writeResource(resource)
+		Files.write(file.toPath, '''
+			type Changed
+		'''.toString.bytes)
+
+		val loaded = get(XtextResourceSet).createResource(uri) as StorageAwareResource
+		loaded.loadFromStorage(new ResourceStorageLoadable(new ByteArrayInputStream(bout.toByteArray), true))
+		val main = loaded.contents.head as Main
+		assertEquals('type B extends A', NodeModelUtils.getNode(main.types.last).text.trim)
+	}
+
+	@Test def void testCompactNodeModelIsNotStored() {
+		val file = File.createTempFile("ResourceStorageNodeModelTest", ".langatestlanguage")
+		file.deleteOnExit
+		Files.write(file.toPath, '''
+			type A
+			type B extends A
+		'''.toString.bytes)
+		val uri = URI.createFileURI(file.absolutePath)
+		val resourceSet = get(XtextResourceSet)
+		resourceSet.loadOptions.put(XtextResource.OPTION_COMPACT_NODE_MODEL, true)
+		val resource = resourceSet.getResource(uri, true) as StorageAwareResource
+		assertTrue(resource.compactNodeModel)
+		val bout = new ByteArrayOutputStream
+		new ResourceStorageWritable(bout, true).writeResource(resource)
+
+		val loaded = get(XtextResourceSet).createResource(uri) as StorageAwareResource
+		loaded.loadFromStorage(new ResourceStorageLoadable(new ByteArrayInputStream(bout.toByteArray), true))
+		assertEquals(2, (loaded.contents.head as Main).types.size)
+		assertFalse(loaded.loadNodeModel)
+	}
+
+	@Test def void testLoaderIsClearedAfterLoading() {
+		val resource = get(XtextResourceSet).createResource(URI.createURI('dummy.langatestlanguage')) as StorageAwareResource
+		val calls = newArrayList
+		resource.nodeModelLoader = [
+			calls += 'load'
+			// the loading thread does not wait for itself
+			assertFalse(resource.loadNodeModel)
+			assertNull(resource.parseResult)
+		]
+		assertTrue(resource.loadNodeModel)
+		assertFalse(resource.loadNodeModel)
+		assertEquals(#['load'], calls)
+	}
+
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.eclipse.xtext.AbstractElement;
+import org.eclipse.xtext.Grammar;
+import org.eclipse.xtext.RuleCall;
+import org.eclipse.xtext.XtextStandaloneSetup;
+import org.eclipse.xtext.grammaranalysis.impl.GrammarElementTitleSwitch;
+import org.eclipse.xtext.serializer.analysis.ContextTypePDAStorage;
+import org.eclipse.xtext.serializer.analysis.IContextTypePDAProvider;
+import org.eclipse.xtext.serializer.analysis.ISerState;
+import org.eclipse.xtext.serializer.analysis.SerializationContextMap;
+import org.eclipse.xtext.serializer.analysis.SerializationContextMap.Entry;
+import org.eclipse.xtext.tests.AbstractXtextTests;
+import org.eclipse.xtext.util.formallang.Pda;
+import org.eclipse.xtext.util.formallang.PdaListFormatter;
+import org.junit.Test;
+
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+
+public class ContextTypePDAStorageTest extends AbstractXtextTests {
+
+	private static class ToStr implements Function<ISerState, String> {
+		private Function<AbstractElement, String> ts = new GrammarElementTitleSwitch()
+				.showAssignments().hideCardinality().showQualified();
+
+		@Override
+		public String apply(ISerState from) {
+			switch (from.getType()) {
+				case START:
+					return "start";
+				case STOP:
+					return "stop";
+				default:
+					return ts.apply(from.getGrammarElement());
+			}
+		}
+	}
+
+	final static String HEADER = "grammar org.eclipse.xtext.serializer.ContextTypePDAStorageTestLanguage"
+			+ " with org.eclipse.xtext.common.Terminals "
+			+ "generate contextTypePDAStorageTest \"http://www.eclipse.org/2019/tmf/xtext/ContextTypePDAStorage\"  ";
+
+	final static String RULES = "Model: 'model' elements+=Element*; "
+			+ "Element: Named | Ref; "
+			+ "Named: 'named' name=ID ({Named.left=current} op='+' right=Named)?; "
+			+ "Ref: 'ref' ref=[Named] ('x' x+=ID*)*; "
+			+ "Param<P>: <P> 'p' p=ID | <!P> 'q' q=ID; "
+			+ "ParamRef: 'pr' a=Param<true> b=Param<false>;";
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(XtextStandaloneSetup.class);
+	}
+
+	private String format(SerializationContextMap<Pda<ISerState, RuleCall>> pdas) {
+		List<String> result = Lists.newArrayList();
+		PdaListFormatter<ISerState, RuleCall> formatter = new PdaListFormatter<ISerState, RuleCall>();
+		formatter.setStateFormatter(new ToStr());
+		formatter.setStackitemFormatter(new GrammarElementTitleSwitch().showAssignments().hideCardinality());
+		formatter.sortFollowers();
+		for (Entry<Pda<ISerState, RuleCall>> ctx : pdas.sortedCopy().values()) {
+			result.add(Joiner.on(", ").join(ctx.getContexts()) + ":");
+			result.add("  " + formatter.format(ctx.getValue()).replace("\n", "\n  "));
+		}
+		return Joiner.on("\n").join(result);
+	}
+
+	private byte[] write(ContextTypePDAStorage storage, Grammar grammar) throws IOException {
+		SerializationContextMap<Pda<ISerState, RuleCall>> pdas = get(IContextTypePDAProvider.class)
+				.getContextTypePDAs(grammar);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		storage.write(grammar, pdas, out);
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Grammar grammar = (Grammar) getModel(HEADER + RULES);
+		ContextTypePDAStorage storage = get(ContextTypePDAStorage.class);
+		byte[] bytes = write(storage, grammar);
+		SerializationContextMap<Pda<ISerState, RuleCall>> expected = get(IContextTypePDAProvider.class)
+				.getContextTypePDAs(grammar);
+		SerializationContextMap<Pda<ISerState, RuleCall>> actual = storage.read(grammar,
+				new ByteArrayInputStream(bytes));
+		assertEquals(expected.values().size(), actual.values().size());
+		assertEquals(format(expected), format(actual));
+	}
+
+	private void assertRejected(String rules, String changedRules) throws Exception {
+		Grammar grammar = (Grammar) getModel(HEADER + rules);
+		ContextTypePDAStorage storage = get(ContextTypePDAStorage.class);
+		byte[] bytes = write(storage, grammar);
+		Grammar changed = (Grammar) getModel(HEADER + changedRules);
+		try {
+			storage.read(changed, new ByteArrayInputStream(bytes));
+			fail("expected the file to be rejected");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testChangedGrammarIsRejected() throws Exception {
+		assertRejected(RULES, RULES.replace("'named'", "'name'"));
+	}
+
+	@Test
+	public void testChangedRuleCallIsRejected() throws Exception {
+		assertRejected(RULES, RULES.replace("Element: Named | Ref;", "Element: Ref | Named;"));
+	}
+
+	@Test
+	public void testChangedGuardIsRejected() throws Exception {
+		String rules = "Model: 'model' p=Param<true, false>; Param<P, Q>: <P> 'p' p=ID | <Q> 'q' q=ID;";
+		assertRejected(rules, rules.replace("<P> 'p' p=ID | <Q> 'q' q=ID", "<Q> 'p' p=ID | <P> 'q' q=ID"));
+	}
+
+	@Test
+	public void testChangedArgumentIsRejected() throws Exception {
+		assertRejected(RULES, RULES.replace("a=Param<true> b=Param<false>", "a=Param<false> b=Param<true>"));
+	}
+
+	@Test
+	public void testChangedCrossReferenceTerminalIsRejected() throws Exception {
+		assertRejected(RULES, RULES.replace("ref=[Named]", "ref=[Named|STRING]"));
+	}
+
+}
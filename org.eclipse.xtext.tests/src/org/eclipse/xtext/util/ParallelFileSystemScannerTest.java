@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.tests.TemporaryFolder;
+import org.eclipse.xtext.util.ParallelFileSystemScanner.ScannedFile;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.inject.Guice;
+
+public class ParallelFileSystemScannerTest extends Assert {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ParallelFileSystemScanner scanner;
+
+	private File root;
+
+	@Before
+	public void setUp() throws IOException {
+		scanner = Guice.createInjector().getInstance(ParallelFileSystemScanner.class);
+		root = temporaryFolder.newFolder();
+		createFile("a/b/x.mydsl", "x");
+		createFile("a/y.mydsl", "yy");
+		createFile("a/z.txt", "z");
+		createFile("node_modules/lib/n.mydsl", "n");
+		createFile("build/gen/g.mydsl", "g");
+		createFile("c/build.mydsl", "c");
+	}
+
+	private void createFile(String path, String content) throws IOException {
+		File file = new File(root, path);
+		file.getParentFile().mkdirs();
+		Files.writeStringIntoFile(file.getPath(), content);
+	}
+
+	private void createLink(String path, File target) throws IOException {
+		File link = new File(root, path);
+		link.getParentFile().mkdirs();
+		try {
+			java.nio.file.Files.createSymbolicLink(link.toPath(), target.toPath());
+		} catch (UnsupportedOperationException | IOException e) {
+			Assume.assumeNoException(e);
+		}
+	}
+
+	private List<String> scan(Set<String> fileExtensions) {
+		final List<String> result = Lists.newArrayList();
+		final Path rootPath = root.toPath().toAbsolutePath();
+		scanner.scan(URI.createFileURI(root.getAbsolutePath()), fileExtensions, new IAcceptor<ScannedFile>() {
+			@Override
+			public void accept(ScannedFile file) {
+				Path path = Paths.get(file.getURI().toFileString());
+				result.add(rootPath.relativize(path).toString().replace(File.separatorChar, '/'));
+			}
+		});
+		return result;
+	}
+
+	@Test
+	public void testScan() {
+		assertEquals(ImmutableList.of("a/b/x.mydsl", "a/y.mydsl", "a/z.txt", "build/gen/g.mydsl", "c/build.mydsl"), scan(null));
+	}
+
+	@Test
+	public void testFileExtensions() {
+		assertEquals(ImmutableList.of("a/b/x.mydsl", "a/y.mydsl", "build/gen/g.mydsl", "c/build.mydsl"), scan(ImmutableSet.of("mydsl")));
+		assertEquals(ImmutableList.of("a/z.txt"), scan(ImmutableSet.of("txt")));
+	}
+
+	@Test
+	public void testExcludes() {
+		scanner.setExcludes(ImmutableList.of("*.txt", "build/**"));
+		assertEquals(ImmutableList.of("a/b/x.mydsl", "a/y.mydsl", "c/build.mydsl", "node_modules/lib/n.mydsl"), scan(null));
+	}
+
+	@Test
+	public void testAttributes() {
+		File file = new File(root, "a/y.mydsl");
+		final List<ScannedFile> result = Lists.newArrayList();
+		scanner.scan(URI.createFileURI(file.getAbsolutePath()), null, new IAcceptor<ScannedFile>() {
+			@Override
+			public void accept(ScannedFile scanned) {
+				result.add(scanned);
+			}
+		});
+		assertEquals(1, result.size());
+		assertEquals(2, result.get(0).getSize());
+		assertEquals(file.lastModified(), result.get(0).getLastModified());
+	}
+
+	@Test
+	public void testLinksIntoTheRootAreSkipped() throws IOException {
+		createLink("d/link", new File(root, "a"));
+		createLink("a/b/loop", root);
+		assertEquals(ImmutableList.of("a/b/x.mydsl", "a/y.mydsl", "build/gen/g.mydsl", "c/build.mydsl"), scan(ImmutableSet.of("mydsl")));
+	}
+
+	@Test
+	public void testLinksOutOfTheRootAreFollowed() throws IOException {
+		File external = temporaryFolder.newFolder();
+		createLink("d/link", external);
+		File nested = new File(external, "nested");
+		nested.mkdirs();
+		Files.writeStringIntoFile(new File(nested, "e.mydsl").getPath(), "e");
+		java.nio.file.Files.createSymbolicLink(new File(nested, "loop").toPath(), external.toPath());
+		assertEquals(ImmutableList.of("a/b/x.mydsl", "a/y.mydsl", "build/gen/g.mydsl", "c/build.mydsl", "d/link/nested/e.mydsl"), scan(ImmutableSet.of("mydsl")));
+	}
+
+}
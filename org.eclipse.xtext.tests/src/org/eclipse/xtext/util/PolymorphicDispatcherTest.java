@@ -168,6 +168,34 @@ public class PolymorphicDispatcherTest extends Assert {
 		assertEquals("Number_3_foo", dispatcher.invoke(BigInteger.valueOf(3), "foo"));
 	}
 
+	@Test public void testExceptionIsPassedToHandler() throws Exception {
+		Object o1 = new Object() {
+			String label(String s) {
+				throw new IllegalArgumentException(s);
+			}
+
+			String label(Integer i) {
+				return "Integer_" + i;
+			}
+		};
+		final List<Throwable> handled = new ArrayList<>();
+		PolymorphicDispatcher<String> dispatcher = new PolymorphicDispatcher<String>("label", 1, 1,
+				Lists.newArrayList(o1), new PolymorphicDispatcher.ErrorHandler<String>() {
+					@Override
+					public String handle(Object[] params, Throwable throwable) {
+						handled.add(throwable);
+						return "handled";
+					}
+				});
+		assertEquals("handled", dispatcher.invoke("foo"));
+		assertEquals(1, handled.size());
+		assertTrue(handled.get(0) instanceof IllegalArgumentException);
+		assertEquals("foo", handled.get(0).getMessage());
+		assertEquals("Integer_3", dispatcher.invoke(3));
+		assertEquals("Integer_4", dispatcher.invoke(4));
+		assertEquals(1, handled.size());
+	}
+
 	@Test public void testAmbiguous() throws Exception {
 		Object o1 = new Object() {
 
@@ -7,8 +7,10 @@
  *******************************************************************************/
 package org.eclipse.xtext.validation;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.emf.common.util.BasicDiagnostic;
@@ -27,6 +29,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.Ordering;
+
 /**
  * @author Sven Efftinge - Initial contribution and API
  * @author Michael Clay
@@ -383,4 +387,37 @@ public class DeclarativeValidatorTest extends Assert {
 			; // this is expected
 		}
 	}
+
+	@Test public void testCheckModesOnSameType() {
+		AbstractDeclarativeValidator test = new AbstractDeclarativeValidator() {
+			@Check(CheckType.FAST)
+			public void fast(EClass x) {
+				warning("fast", EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+			}
+			@Check(CheckType.NORMAL)
+			public void normal(EObject x) {
+				warning("normal", EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+			}
+			@Check(CheckType.EXPENSIVE)
+			public void expensive(Object x) {
+				warning("expensive", EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+			}
+		};
+		assertEquals("[fast]", validateMessages(test, CheckMode.FAST_ONLY));
+		assertEquals("[expensive]", validateMessages(test, CheckMode.EXPENSIVE_ONLY));
+		assertEquals("[fast, normal, expensive]", validateMessages(test, CheckMode.ALL));
+		assertEquals("[fast, normal]", validateMessages(test, CheckMode.NORMAL_AND_FAST));
+		assertEquals("[fast]", validateMessages(test, CheckMode.FAST_ONLY));
+	}
+
+	private String validateMessages(AbstractDeclarativeValidator validator, CheckMode checkMode) {
+		BasicDiagnostic chain = new BasicDiagnostic();
+		validator.validate(EcorePackage.eINSTANCE.getEClass(), chain, Collections.<Object, Object>singletonMap(CheckMode.KEY, checkMode));
+		List<String> messages = new ArrayList<String>();
+		for (Diagnostic diagnostic : chain.getChildren()) {
+			messages.add(diagnostic.getMessage());
+		}
+		Collections.sort(messages, Ordering.explicit("fast", "normal", "expensive"));
+		return messages.toString();
+	}
 }
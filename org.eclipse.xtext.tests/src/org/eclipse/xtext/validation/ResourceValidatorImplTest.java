@@ -9,6 +9,8 @@ package org.eclipse.xtext.validation;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.eclipse.emf.common.util.BasicDiagnostic;
 import org.eclipse.emf.common.util.Diagnostic;
@@ -93,6 +95,25 @@ public class ResourceValidatorImplTest extends AbstractXtextTests {
 		assertEquals(Severity.WARNING, list.get(0).getSeverity());
 	}
 	
+	@Test public void testParallelValidation() throws Exception {
+		StringBuilder model = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			model.append("type Foo type Bar type Baz").append(i).append(" type Bar extends Zonk").append(i).append("\n");
+		}
+		XtextResource resource = getResourceAndExpect(new StringInputStream(model.toString()), 100);
+		List<Issue> expected = getValidator().validate(resource, CheckMode.NORMAL_AND_FAST, null);
+		assertEquals(400, expected.size());
+		ResourceValidatorImpl validator = (ResourceValidatorImpl) getValidator();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			validator.setExecutor(executor);
+			List<Issue> actual = validator.validate(resource, CheckMode.NORMAL_AND_FAST, null);
+			assertEquals(expected.toString(), actual.toString());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
 	private IResourceValidator getValidator() {
 		return get(IResourceValidator.class);
 	}
@@ -9,6 +9,7 @@ package org.eclipse.xtext.filesystem;
 
 import com.google.common.base.StandardSystemProperty;
 import com.google.inject.Inject;
+import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -84,4 +85,17 @@ public class URIBasedFileSystemAccessTest {
   public void testTrueOnPresent() {
     Assert.assertTrue(this.fsa.isFile(URIBasedFileSystemAccessTest.EXISTING_RESOURCE_NAME));
   }
+  
+  @Test
+  public void testSkipUnchangedWrites() {
+    this.fsa.setSkipUnchangedWrites(true);
+    this.fsa.generateFile(URIBasedFileSystemAccessTest.EXISTING_RESOURCE_NAME, "foo");
+    String _fileString = this.fsa.getURI(URIBasedFileSystemAccessTest.EXISTING_RESOURCE_NAME).toFileString();
+    final File file = new File(_fileString);
+    Assert.assertTrue(file.setLastModified(1000));
+    this.fsa.generateFile(URIBasedFileSystemAccessTest.EXISTING_RESOURCE_NAME, "foo");
+    Assert.assertEquals(1000, file.lastModified());
+    this.fsa.generateFile(URIBasedFileSystemAccessTest.EXISTING_RESOURCE_NAME, "foobar");
+    Assert.assertEquals("foobar", this.fsa.readTextFile(URIBasedFileSystemAccessTest.EXISTING_RESOURCE_NAME).toString());
+  }
 }
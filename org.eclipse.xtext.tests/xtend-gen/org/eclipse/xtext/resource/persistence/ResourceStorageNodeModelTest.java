@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.resource.persistence;
+
+import com.google.common.collect.Iterables;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtend2.lib.StringConcatenation;
+import org.eclipse.xtext.linking.LangATestLanguageStandaloneSetup;
+import org.eclipse.xtext.linking.langATestLanguage.Main;
+import org.eclipse.xtext.linking.langATestLanguage.Type;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.persistence.ResourceStorageLoadable;
+import org.eclipse.xtext.resource.persistence.ResourceStorageWritable;
+import org.eclipse.xtext.resource.persistence.StorageAwareResource;
+import org.eclipse.xtext.tests.AbstractXtextTests;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("all")
+public class ResourceStorageNodeModelTest extends AbstractXtextTests {
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    LangATestLanguageStandaloneSetup _langATestLanguageStandaloneSetup = new LangATestLanguageStandaloneSetup();
+    this.with(_langATestLanguageStandaloneSetup);
+  }
+  
+  @Test
+  public void testNodeModelIsLoadedOnDemand() {
+    try {
+      final File file = File.createTempFile("ResourceStorageNodeModelTest", ".langatestlanguage");
+      file.deleteOnExit();
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type A");
+      _builder.newLine();
+      _builder.append("type B extends A");
+      _builder.newLine();
+      Files.write(file.toPath(), _builder.toString().getBytes());
+      final URI uri = URI.createFileURI(file.getAbsolutePath());
+      Resource _resource = this.<XtextResourceSet>get(XtextResourceSet.class).getResource(uri, true);
+      final StorageAwareResource resource = ((StorageAwareResource) _resource);
+      final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+      new ResourceStorageWritable(bout, true).writeResource(resource);
+      Resource _createResource = this.<XtextResourceSet>get(XtextResourceSet.class).createResource(uri);
+      final StorageAwareResource loaded = ((StorageAwareResource) _createResource);
+      byte[] _byteArray = bout.toByteArray();
+      ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(_byteArray);
+      ResourceStorageLoadable _resourceStorageLoadable = new ResourceStorageLoadable(_byteArrayInputStream, true);
+      loaded.loadFromStorage(_resourceStorageLoadable);
+      EObject _head = IterableExtensions.<EObject>head(loaded.getContents());
+      final Main main = ((Main) _head);
+      Assert.assertTrue(IterableExtensions.isEmpty(Iterables.<INode>filter(main.eAdapters(), INode.class)));
+      final ICompositeNode node = NodeModelUtils.getNode(IterableExtensions.<Type>last(main.getTypes()));
+      Assert.assertEquals("type B extends A", node.getText().trim());
+      Assert.assertSame(node.getRootNode(), loaded.getParseResult().getRootNode());
+      Assert.assertEquals(resource.getParseResult().getRootNode().getText(), loaded.getParseResult().getRootNode().getText());
+      Assert.assertFalse(loaded.loadNodeModel());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test
+  public void testNodeModelIsLoadedForTheStoredText() {
+    try {
+      final File file = File.createTempFile("ResourceStorageNodeModelTest", ".langatestlanguage");
+      file.deleteOnExit();
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type A");
+      _builder.newLine();
+      _builder.append("type B extends A");
+      _builder.newLine();
+      Files.write(file.toPath(), _builder.toString().getBytes());
+      final URI uri = URI.createFileURI(file.getAbsolutePath());
+      Resource _resource = this.<XtextResourceSet>get(XtextResourceSet.class).getResource(uri, true);
+      final StorageAwareResource resource = ((StorageAwareResource) _resource);
+      final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+      new ResourceStorageWritable(bout, true).writeResource(resource);
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("type Changed");
+      _builder_1.newLine();
+      Files.write(file.toPath(), _builder_1.toString().getBytes());
+      Resource _createResource = this.<XtextResourceSet>get(XtextResourceSet.class).createResource(uri);
+      final StorageAwareResource loaded = ((StorageAwareResource) _createResource);
+      byte[] _byteArray = bout.toByteArray();
+      ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(_byteArray);
+      ResourceStorageLoadable _resourceStorageLoadable = new ResourceStorageLoadable(_byteArrayInputStream, true);
+      loaded.loadFromStorage(_resourceStorageLoadable);
+      EObject _head = IterableExtensions.<EObject>head(loaded.getContents());
+      final Main main = ((Main) _head);
+      Assert.assertEquals("type B extends A", NodeModelUtils.getNode(IterableExtensions.<Type>last(main.getTypes())).getText().trim());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test
+  public void testCompactNodeModelIsNotStored() {
+    try {
+      final File file = File.createTempFile("ResourceStorageNodeModelTest", ".langatestlanguage");
+      file.deleteOnExit();
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type A");
+      _builder.newLine();
+      _builder.append("type B extends A");
+      _builder.newLine();
+      Files.write(file.toPath(), _builder.toString().getBytes());
+      final URI uri = URI.createFileURI(file.getAbsolutePath());
+      final XtextResourceSet resourceSet = this.<XtextResourceSet>get(XtextResourceSet.class);
+      resourceSet.getLoadOptions().put(XtextResource.OPTION_COMPACT_NODE_MODEL, Boolean.valueOf(true));
+      Resource _resource = resourceSet.getResource(uri, true);
+      final StorageAwareResource resource = ((StorageAwareResource) _resource);
+      Assert.assertTrue(resource.isCompactNodeModel());
+      final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+      new ResourceStorageWritable(bout, true).writeResource(resource);
+      Resource _createResource = this.<XtextResourceSet>get(XtextResourceSet.class).createResource(uri);
+      final StorageAwareResource loaded = ((StorageAwareResource) _createResource);
+      byte[] _byteArray = bout.toByteArray();
+      ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(_byteArray);
+      ResourceStorageLoadable _resourceStorageLoadable = new ResourceStorageLoadable(_byteArrayInputStream, true);
+      loaded.loadFromStorage(_resourceStorageLoadable);
+      EObject _head = IterableExtensions.<EObject>head(loaded.getContents());
+      Assert.assertEquals(2, ((Main) _head).getTypes().size());
+      Assert.assertFalse(loaded.loadNodeModel());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test
+  public void testLoaderIsClearedAfterLoading() {
+    Resource _createResource = this.<XtextResourceSet>get(XtextResourceSet.class).createResource(URI.createURI("dummy.langatestlanguage"));
+    final StorageAwareResource resource = ((StorageAwareResource) _createResource);
+    final ArrayList<String> calls = CollectionLiterals.<String>newArrayList();
+    final Procedure0 _function = () -> {
+      calls.add("load");
+      Assert.assertFalse(resource.loadNodeModel());
+      Assert.assertNull(resource.getParseResult());
+    };
+    resource.setNodeModelLoader(_function);
+    Assert.assertTrue(resource.loadNodeModel());
+    Assert.assertFalse(resource.loadNodeModel());
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("load")), calls);
+  }
+}
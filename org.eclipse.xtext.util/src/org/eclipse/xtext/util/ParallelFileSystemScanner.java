@@ -0,0 +1,328 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.util;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+
+/**
+ * A {@link IFileSystemScanner} that traverses the directories in parallel using {@link java.nio.file NIO}.
+ *
+ * Unlike the {@link IFileSystemScanner.JavaIoFileSystemScanner JavaIoFileSystemScanner} it only reports regular files,
+ * it skips {@link #setExcludes(Collection) excluded} files and directories, and it can
+ * {@link #scan(URI, Set, IAcceptor) filter by file extension} before any URI is created. The scanned files are
+ * reported with their size and time stamp so clients don't have to access the file system again to detect changes.
+ *
+ * The acceptor is always invoked from the calling thread, in the lexical order of the paths.
+ *
+ * Symbolic links to directories inside the scanned root are skipped, since the files are reported under the path of
+ * the directory itself. Links to directories outside of the root are followed unless they point to a directory that is
+ * currently being scanned or to one of its parents, so the result only depends on the file system and not on the scheduling of the threads.
+ *
+ * @since 2.18
+ */
+public class ParallelFileSystemScanner implements IFileSystemScanner {
+
+	private static final Logger LOG = Logger.getLogger(ParallelFileSystemScanner.class);
+
+	/**
+	 * The excludes that are used by default: version control metadata and the dependencies of node packages.
+	 */
+	public static final List<String> DEFAULT_EXCLUDES = ImmutableList.of(".git", ".svn", ".hg", "node_modules");
+
+	/**
+	 * A file that was found by the scanner.
+	 */
+	public static class ScannedFile {
+
+		private final URI uri;
+
+		private final long size;
+
+		private final long lastModified;
+
+		public ScannedFile(URI uri, long size, long lastModified) {
+			this.uri = uri;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		public URI getURI() {
+			return uri;
+		}
+
+		/**
+		 * @return the size of the file in bytes.
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * @return the time of the last modification in milliseconds since the epoch.
+		 */
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		@Override
+		public String toString() {
+			return uri + " (" + size + " bytes, modified " + lastModified + ")";
+		}
+	}
+
+	@Inject
+	private UriExtensions uriExtensions;
+
+	private List<PathMatcher> nameExcludes;
+
+	private List<PathMatcher> pathExcludes;
+
+	public ParallelFileSystemScanner() {
+		setExcludes(DEFAULT_EXCLUDES);
+	}
+
+	/**
+	 * Sets the glob patterns of the files and directories that should be skipped. A pattern that does not contain a
+	 * slash is matched against the name of each file and directory, e.g. {@code node_modules} or {@code *.bak}. All
+	 * other patterns are matched against the path relative to the scanned root, e.g. {@code build/**}.
+	 *
+	 * @see FileSystem#getPathMatcher(String)
+	 */
+	public void setExcludes(Collection<String> globs) {
+		List<PathMatcher> names = new ArrayList<PathMatcher>();
+		List<PathMatcher> paths = new ArrayList<PathMatcher>();
+		FileSystem fileSystem = Paths.get("").getFileSystem();
+		for (String glob : globs) {
+			PathMatcher matcher = fileSystem.getPathMatcher("glob:" + glob);
+			if (glob.indexOf('/') < 0) {
+				names.add(matcher);
+			} else {
+				paths.add(matcher);
+			}
+		}
+		this.nameExcludes = names;
+		this.pathExcludes = paths;
+	}
+
+	@Override
+	public void scan(URI root, final IAcceptor<URI> acceptor) {
+		scan(root, null, new IAcceptor<ScannedFile>() {
+			@Override
+			public void accept(ScannedFile file) {
+				acceptor.accept(file.getURI());
+			}
+		});
+	}
+
+	/**
+	 * Scans the given directory or file.
+	 *
+	 * @param fileExtensions
+	 *            the extensions of the files that should be reported or <code>null</code> to report all files.
+	 */
+	public void scan(URI root, Set<String> fileExtensions, IAcceptor<ScannedFile> acceptor) {
+		Path rootPath = Paths.get(root.toFileString()).toAbsolutePath();
+		BasicFileAttributes attributes = readAttributes(rootPath);
+		if (attributes == null) {
+			return;
+		}
+		List<ScannedFile> result;
+		if (attributes.isDirectory()) {
+			Path realRootPath = toRealPath(rootPath);
+			if (realRootPath == null) {
+				return;
+			}
+			result = new ScanTask(rootPath, realRootPath, rootPath, realRootPath, null, fileExtensions).invoke();
+		} else if (attributes.isRegularFile() && isIncluded(rootPath.getFileName(), fileExtensions)) {
+			result = Collections.singletonList(createScannedFile(rootPath, attributes));
+		} else {
+			result = Collections.emptyList();
+		}
+		for (ScannedFile file : result) {
+			acceptor.accept(file);
+		}
+	}
+
+	protected boolean isExcluded(Path relativePath) {
+		Path name = relativePath.getFileName();
+		for (PathMatcher matcher : nameExcludes) {
+			if (matcher.matches(name)) {
+				return true;
+			}
+		}
+		for (PathMatcher matcher : pathExcludes) {
+			if (matcher.matches(relativePath)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected boolean isIncluded(Path fileName, Set<String> fileExtensions) {
+		if (fileExtensions == null) {
+			return true;
+		}
+		String name = fileName.toString();
+		int dot = name.lastIndexOf('.');
+		return dot >= 0 && fileExtensions.contains(name.substring(dot + 1));
+	}
+
+	protected ScannedFile createScannedFile(Path file, BasicFileAttributes attributes) {
+		// we need to convert the given file to a decoded emf file uri
+		// e.g. file:///Users/x/y/z
+		// or file:///C:/x/y/z
+		URI uri = uriExtensions.toEmfUri(file.toUri());
+		return new ScannedFile(uri, attributes.size(), attributes.lastModifiedTime().toMillis());
+	}
+
+	/**
+	 * Follows symbolic links like {@link java.io.File#isDirectory()} does. Returns <code>null</code> if the file does
+	 * not exist or cannot be read.
+	 */
+	private BasicFileAttributes readAttributes(Path path) {
+		try {
+			return Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Resolves all symbolic links in the given path. Returns <code>null</code> if the file does not exist or cannot be
+	 * read.
+	 */
+	private Path toRealPath(Path path) {
+		try {
+			return path.toRealPath();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private class ScanTask extends RecursiveTask<List<ScannedFile>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Path root;
+
+		private final Path realRoot;
+
+		private final Path directory;
+
+		private final Path realDirectory;
+
+		private final ScanTask parent;
+
+		private final Set<String> fileExtensions;
+
+		ScanTask(Path root, Path realRoot, Path directory, Path realDirectory, ScanTask parent, Set<String> fileExtensions) {
+			this.root = root;
+			this.realRoot = realRoot;
+			this.directory = directory;
+			this.realDirectory = realDirectory;
+			this.parent = parent;
+			this.fileExtensions = fileExtensions;
+		}
+
+		@Override
+		protected List<ScannedFile> compute() {
+			Path[] children = listChildren();
+			List<Object> results = new ArrayList<Object>(children.length);
+			for (Path child : children) {
+				if (isExcluded(root.relativize(child))) {
+					continue;
+				}
+				BasicFileAttributes childAttributes = readAttributes(child);
+				if (childAttributes == null) {
+					continue;
+				}
+				if (childAttributes.isDirectory()) {
+					Path realChild = getRealDirectory(child);
+					if (realChild != null) {
+						ScanTask task = new ScanTask(root, realRoot, child, realChild, this, fileExtensions);
+						task.fork();
+						results.add(task);
+					}
+				} else if (childAttributes.isRegularFile() && isIncluded(child.getFileName(), fileExtensions)) {
+					results.add(createScannedFile(child, childAttributes));
+				}
+			}
+			List<ScannedFile> result = new ArrayList<ScannedFile>();
+			for (Object child : results) {
+				if (child instanceof ScannedFile) {
+					result.add((ScannedFile) child);
+				} else {
+					result.addAll(((ScanTask) child).join());
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the real path of the given child directory or <code>null</code> if it is a symbolic link that must
+		 * not be followed.
+		 */
+		private Path getRealDirectory(Path child) {
+			if (!Files.isSymbolicLink(child)) {
+				return realDirectory.resolve(child.getFileName());
+			}
+			Path target = toRealPath(child);
+			if (target == null || target.startsWith(realRoot)) {
+				return null;
+			}
+			for (ScanTask task = this; task != null; task = task.parent) {
+				// a link to the directory or one of its parents would lead into a loop
+				if (task.realDirectory.startsWith(target)) {
+					return null;
+				}
+			}
+			return target;
+		}
+
+		private Path[] listChildren() {
+			List<Path> children = new ArrayList<Path>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+				for (Path child : stream) {
+					children.add(child);
+				}
+			} catch (IOException e) {
+				LOG.warn("Cannot list the contents of " + directory, e);
+			}
+			Path[] result = children.toArray(new Path[children.size()]);
+			Arrays.sort(result, new Comparator<Path>() {
+				@Override
+				public int compare(Path o1, Path o2) {
+					return o1.getFileName().toString().compareTo(o2.getFileName().toString());
+				}
+			});
+			return result;
+		}
+	}
+
+}
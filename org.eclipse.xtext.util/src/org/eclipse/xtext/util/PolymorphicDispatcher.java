@@ -10,20 +10,30 @@ package org.eclipse.xtext.util;
 
 import static org.eclipse.xtext.util.ReflectionUtil.*;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.log4j.Logger;
 
-import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.collect.MapMaker;
 
 /**
+ * Dispatches to the best matching method for the runtime types of the arguments.
+ * 
+ * The resolved methods are cached in a tree that is keyed by the argument types, so a call with already seen argument
+ * types does not allocate. The methods are invoked through {@link MethodHandle method handles} that are created on
+ * first use.
+ * 
  * @author Sven Efftinge - Initial contribution and API
  */
 public class PolymorphicDispatcher<RT> {
@@ -169,6 +179,7 @@ public class PolymorphicDispatcher<RT> {
 	protected class MethodDesc {
 		private final Object target;
 		private final Method method;
+		private volatile MethodHandle handle;
 
 		protected MethodDesc(Object target, Method method) {
 			super();
@@ -192,6 +203,25 @@ public class PolymorphicDispatcher<RT> {
 			return target;
 		}
 
+		/**
+		 * @return a handle that takes the arguments as an {@code Object[]} and returns an {@code Object}.
+		 * @since 2.18
+		 */
+		protected MethodHandle getMethodHandle() throws IllegalAccessException {
+			MethodHandle result = handle;
+			if (result == null) {
+				method.setAccessible(true);
+				result = MethodHandles.lookup().unreflect(method).asFixedArity();
+				if (!Modifier.isStatic(method.getModifiers())) {
+					result = result.bindTo(target);
+				}
+				result = result.asSpreader(Object[].class, method.getParameterTypes().length)
+						.asType(MethodType.methodType(Object.class, Object[].class));
+				handle = result;
+			}
+			return result;
+		}
+
 		public boolean isInvokeable(final List<Class<?>> paramTypes) {
 			if (getParameterTypes().length != paramTypes.size())
 				return false;
@@ -246,39 +276,72 @@ public class PolymorphicDispatcher<RT> {
 		return compareTo;
 	}
 
-	private final SimpleCache<List<Class<?>>, List<MethodDesc>> cache =
-		new SimpleCache<List<Class<?>>, List<MethodDesc>>(
-			new Function<List<Class<?>>, List<MethodDesc>>() {
-				@Override
-				public List<MethodDesc> apply(List<Class<?>> paramTypes) {
-					// 'result' contains all best-matched MethodDesc for which 
-					// pairwise compare(m1, m2) == 0, meaning they're equal or unrelated. 
-					List<MethodDesc> result = new ArrayList<MethodDesc>();
-					Iterator<MethodDesc> iterator = methods.iterator();
-					NEXT: while (iterator.hasNext()) {
-						MethodDesc methodDesc = iterator.next();
-						if (methodDesc.isInvokeable(paramTypes)) {
-							if (result.isEmpty()) {
-								result.add(methodDesc);
-							} else {
-								Iterator<MethodDesc> it = result.iterator();
-								while(it.hasNext()) {
-									MethodDesc next = it.next();
-									int compare = compare(next, methodDesc);
-									if (compare < 0) {
-										it.remove();
-									} else if (compare > 0) {
-										continue NEXT;
-									}
-								}
-								result.add(methodDesc);
-							}
+	/**
+	 * A node in the dispatch cache. The children are keyed by the type of the next argument, the methods are the
+	 * resolved methods for the argument types on the path to this node. The types are weakly referenced, so the cache
+	 * does not keep their class loaders alive.
+	 */
+	private static class DispatchNode<M> {
+		private final ConcurrentMap<Class<?>, DispatchNode<M>> children = new MapMaker().weakKeys().initialCapacity(4).makeMap();
+		private volatile List<M> methods;
+
+		DispatchNode<M> getChild(Class<?> type) {
+			DispatchNode<M> result = children.get(type);
+			if (result == null) {
+				DispatchNode<M> newNode = new DispatchNode<M>();
+				result = children.putIfAbsent(type, newNode);
+				if (result == null) {
+					result = newNode;
+				}
+			}
+			return result;
+		}
+	}
+
+	private final DispatchNode<MethodDesc> cache = new DispatchNode<MethodDesc>();
+
+	private List<MethodDesc> getMethods(Object[] params) {
+		DispatchNode<MethodDesc> node = cache;
+		for (int i = 0; i < params.length; i++) {
+			Object param = params[i];
+			Class<?> type = param != null ? param.getClass() : getDefaultClass(i);
+			node = node.getChild(type != null ? type : Void.class);
+		}
+		List<MethodDesc> result = node.methods;
+		if (result == null) {
+			result = findMethods(getTypes(params));
+			node.methods = result;
+		}
+		return result;
+	}
+
+	private List<MethodDesc> findMethods(List<Class<?>> paramTypes) {
+		// 'result' contains all best-matched MethodDesc for which 
+		// pairwise compare(m1, m2) == 0, meaning they're equal or unrelated. 
+		List<MethodDesc> result = new ArrayList<MethodDesc>();
+		Iterator<MethodDesc> iterator = methods.iterator();
+		NEXT: while (iterator.hasNext()) {
+			MethodDesc methodDesc = iterator.next();
+			if (methodDesc.isInvokeable(paramTypes)) {
+				if (result.isEmpty()) {
+					result.add(methodDesc);
+				} else {
+					Iterator<MethodDesc> it = result.iterator();
+					while(it.hasNext()) {
+						MethodDesc next = it.next();
+						int compare = compare(next, methodDesc);
+						if (compare < 0) {
+							it.remove();
+						} else if (compare > 0) {
+							continue NEXT;
 						}
 					}
-					return result;
+					result.add(methodDesc);
 				}
 			}
-		);
+		}
+		return result;
+	}
 
 	@SuppressWarnings("unchecked")
 	public RT invoke(Object... params) {
@@ -288,7 +351,7 @@ public class PolymorphicDispatcher<RT> {
 				throw new IllegalArgumentException("Wrong number of arguments. Expected "+filter.getMinParams()+" to "+filter.getMaxParams()+".");
 			}
 		}
-		List<MethodDesc> result = cache.get(getTypes(params));
+		List<MethodDesc> result = getMethods(params);
 		// check if ambiguous
 		if (result.size()>1)
 			return handleAmbigousMethods(result, params);
@@ -296,19 +359,20 @@ public class PolymorphicDispatcher<RT> {
 		if (result.isEmpty())
 			return handleNoSuchMethod(params);
 
+		MethodHandle handle;
 		try {
-			MethodDesc current = result.get(0);
-			current.method.setAccessible(true);
-			return (RT) current.method.invoke(current.target, params);
-		} catch (InvocationTargetException e) {
-			if (e.getTargetException() instanceof Error)
-				throw (Error) e.getTargetException();
-			return handler.handle(params, e.getTargetException());
-		} catch (IllegalArgumentException e) {
-			return handler.handle(params, e);
+			handle = result.get(0).getMethodHandle();
 		} catch (IllegalAccessException e) {
 			return handler.handle(params, e);
 		}
+		try {
+			return (RT) (Object) handle.invokeExact(params);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			// exceptions of the target method as well as argument conversion failures, e.g. null for a primitive
+			return handler.handle(params, e);
+		}
 	}
 
 	protected RT handleNoSuchMethod(Object... params) {
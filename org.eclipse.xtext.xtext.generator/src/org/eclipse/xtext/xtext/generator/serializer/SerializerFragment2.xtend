@@ -11,6 +11,7 @@ import com.google.common.collect.ImmutableSet
 import com.google.common.collect.LinkedHashMultimap
 import com.google.common.collect.Multimap
 import com.google.inject.Inject
+import java.io.ByteArrayOutputStream
 import java.util.List
 import java.util.Map
 import java.util.Set
@@ -42,9 +43,11 @@ import org.eclipse.xtext.parser.antlr.AbstractSplittingTokenSource
 import org.eclipse.xtext.serializer.ISerializationContext
 import org.eclipse.xtext.serializer.ISerializer
 import org.eclipse.xtext.serializer.acceptor.SequenceFeeder
+import org.eclipse.xtext.serializer.analysis.ContextTypePDAStorage
 import org.eclipse.xtext.serializer.analysis.GrammarAlias.AbstractElementAlias
 import org.eclipse.xtext.serializer.analysis.IGrammarConstraintProvider
 import org.eclipse.xtext.serializer.analysis.IGrammarConstraintProvider.IConstraint
+import org.eclipse.xtext.serializer.analysis.IContextTypePDAProvider
 import org.eclipse.xtext.serializer.analysis.ISyntacticSequencerPDAProvider
 import org.eclipse.xtext.serializer.analysis.ISyntacticSequencerPDAProvider.ISynTransition
 import org.eclipse.xtext.serializer.analysis.SerializationContext
@@ -87,10 +90,19 @@ import static extension org.eclipse.xtext.xtext.generator.util.GenModelUtil2.*
 	@Inject extension IGrammarConstraintProvider
 	@Inject DebugGraphGenerator debugGraphGenerator
 	@Inject FileAccessFactory fileAccessFactory
+	@Inject IContextTypePDAProvider contextTypePDAProvider
+	@Inject ContextTypePDAStorage contextTypePDAStorage
 	
 	@Accessors boolean generateDebugData = false
 	@Accessors boolean generateSupportForDeprecatedContextEObject = false
 	
+	/**
+	 * Set to true to store the grammar analysis of the serializer next to the generated sources,
+	 * so the runtime can load it instead of computing it on first use.
+	 * @since 2.18
+	 */
+	@Accessors boolean generateContextTypePDAs = false
+	
 	boolean detectSyntheticTerminals = true
 	
 	/**
@@ -151,6 +163,9 @@ import static extension org.eclipse.xtext.xtext.generator.util.GenModelUtil2.*
 				projectConfig.runtime.srcGen.generateFile(fileToContent.key, fileToContent.value)
 			}
 		}
+		if (generateContextTypePDAs) {
+			writeContextTypePDAs()
+		}
 	}
 	
 	protected def generateSemanticSequencer() {
@@ -588,4 +603,15 @@ import static extension org.eclipse.xtext.xtext.generator.util.GenModelUtil2.*
 			ENDFOR
 		''').writeTo(projectConfig.runtime.srcGen)
 	}
+	
+	/**
+	 * @since 2.18
+	 */
+	protected def writeContextTypePDAs() {
+		val out = new ByteArrayOutputStream
+		contextTypePDAStorage.write(grammar, contextTypePDAProvider.getContextTypePDAs(grammar), out)
+		val file = fileAccessFactory.createBinaryFile(ContextTypePDAStorage.getClasspathRelativePath(grammar))
+		file.content = out.toByteArray
+		file.writeTo(projectConfig.runtime.srcGen)
+	}
 }
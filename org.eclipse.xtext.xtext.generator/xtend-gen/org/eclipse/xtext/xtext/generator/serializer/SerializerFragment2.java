@@ -13,6 +13,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.inject.Inject;
+import java.io.ByteArrayOutputStream;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -52,9 +53,12 @@ import org.eclipse.xtext.parser.antlr.AbstractSplittingTokenSource;
 import org.eclipse.xtext.serializer.ISerializationContext;
 import org.eclipse.xtext.serializer.ISerializer;
 import org.eclipse.xtext.serializer.acceptor.SequenceFeeder;
+import org.eclipse.xtext.serializer.analysis.ContextTypePDAStorage;
 import org.eclipse.xtext.serializer.analysis.GrammarAlias;
+import org.eclipse.xtext.serializer.analysis.IContextTypePDAProvider;
 import org.eclipse.xtext.serializer.analysis.IGrammarConstraintProvider;
 import org.eclipse.xtext.serializer.analysis.ISemanticSequencerNfaProvider;
+import org.eclipse.xtext.serializer.analysis.ISerState;
 import org.eclipse.xtext.serializer.analysis.ISyntacticSequencerPDAProvider;
 import org.eclipse.xtext.serializer.analysis.SerializationContext;
 import org.eclipse.xtext.serializer.analysis.SerializationContextMap;
@@ -65,8 +69,10 @@ import org.eclipse.xtext.serializer.sequencer.ISemanticSequencer;
 import org.eclipse.xtext.serializer.sequencer.ISyntacticSequencer;
 import org.eclipse.xtext.serializer.sequencer.ITransientValueService;
 import org.eclipse.xtext.util.Strings;
+import org.eclipse.xtext.util.formallang.Pda;
 import org.eclipse.xtext.util.internal.Log;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Extension;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
@@ -77,6 +83,7 @@ import org.eclipse.xtext.xbase.lib.StringExtensions;
 import org.eclipse.xtext.xtext.generator.AbstractStubGeneratingFragment;
 import org.eclipse.xtext.xtext.generator.XtextGeneratorNaming;
 import org.eclipse.xtext.xtext.generator.grammarAccess.GrammarAccessExtensions;
+import org.eclipse.xtext.xtext.generator.model.BinaryFileAccess;
 import org.eclipse.xtext.xtext.generator.model.FileAccessFactory;
 import org.eclipse.xtext.xtext.generator.model.GeneratedJavaFileAccess;
 import org.eclipse.xtext.xtext.generator.model.GuiceModuleAccess;
@@ -136,12 +143,26 @@ public class SerializerFragment2 extends AbstractStubGeneratingFragment {
   @Inject
   private FileAccessFactory fileAccessFactory;
   
+  @Inject
+  private IContextTypePDAProvider contextTypePDAProvider;
+  
+  @Inject
+  private ContextTypePDAStorage contextTypePDAStorage;
+  
   @Accessors
   private boolean generateDebugData = false;
   
   @Accessors
   private boolean generateSupportForDeprecatedContextEObject = false;
   
+  /**
+   * Set to true to store the grammar analysis of the serializer next to the generated sources,
+   * so the runtime can load it instead of computing it on first use.
+   * @since 2.18
+   */
+  @Accessors
+  private boolean generateContextTypePDAs = false;
+  
   private boolean detectSyntheticTerminals = true;
   
   /**
@@ -225,6 +246,9 @@ public class SerializerFragment2 extends AbstractStubGeneratingFragment {
         this.getProjectConfig().getRuntime().getSrcGen().generateFile(fileToContent.getKey(), fileToContent.getValue());
       }
     }
+    if (this.generateContextTypePDAs) {
+      this.writeContextTypePDAs();
+    }
   }
   
   protected void generateSemanticSequencer() {
@@ -1750,6 +1774,23 @@ public class SerializerFragment2 extends AbstractStubGeneratingFragment {
     this.fileAccessFactory.createTextFile(_grammarConstraintsPath, _client).writeTo(this.getProjectConfig().getRuntime().getSrcGen());
   }
   
+  /**
+   * @since 2.18
+   */
+  protected void writeContextTypePDAs() {
+    try {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Grammar _grammar = this.getGrammar();
+      SerializationContextMap<Pda<ISerState, RuleCall>> _contextTypePDAs = this.contextTypePDAProvider.getContextTypePDAs(this.getGrammar());
+      this.contextTypePDAStorage.write(_grammar, _contextTypePDAs, out);
+      final BinaryFileAccess file = this.fileAccessFactory.createBinaryFile(ContextTypePDAStorage.getClasspathRelativePath(this.getGrammar()));
+      file.setContent(out.toByteArray());
+      file.writeTo(this.getProjectConfig().getRuntime().getSrcGen());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
   private static final Logger LOG = Logger.getLogger(SerializerFragment2.class);
   
   @Pure
@@ -1769,4 +1810,13 @@ public class SerializerFragment2 extends AbstractStubGeneratingFragment {
   public void setGenerateSupportForDeprecatedContextEObject(final boolean generateSupportForDeprecatedContextEObject) {
     this.generateSupportForDeprecatedContextEObject = generateSupportForDeprecatedContextEObject;
   }
+  
+  @Pure
+  public boolean isGenerateContextTypePDAs() {
+    return this.generateContextTypePDAs;
+  }
+  
+  public void setGenerateContextTypePDAs(final boolean generateContextTypePDAs) {
+    this.generateContextTypePDAs = generateContextTypePDAs;
+  }
 }
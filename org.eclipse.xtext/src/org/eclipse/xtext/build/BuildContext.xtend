@@ -7,10 +7,12 @@
  *******************************************************************************/
 package org.eclipse.xtext.build
 
+import java.util.concurrent.ExecutorService
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+import org.eclipse.xtext.generator.AsynchronousOutputWriter
 import org.eclipse.xtext.resource.IResourceServiceProvider
 import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy
@@ -28,6 +30,21 @@ class BuildContext {
 	@Accessors val IResourceClusteringPolicy clusteringPolicy
 	@Accessors val CancelIndicator cancelIndicator
 	
+	/**
+	 * @since 2.18
+	 */
+	@Accessors ExecutorService executorService
+	
+	/**
+	 * @since 2.18
+	 */
+	@Accessors PipelineStage generatorStage
+	
+	/**
+	 * @since 2.18
+	 */
+	@Accessors AsynchronousOutputWriter outputWriter
+	
 	ClusteringStorageAwareResourceLoader loader
 	
 	def <T> Iterable<T> executeClustered(Iterable<URI> uri, (Resource)=>T operation) {
@@ -36,6 +53,18 @@ class BuildContext {
 		return loader.executeClustered(uri.filter[canHandle], operation)
 	}
 	
+	/**
+	 * Applies the concurrent operation to the resources on the {@link #getExecutorService() executor service}
+	 * if one is configured, and the sequential operation on the calling thread in the order of the given URIs.
+	 * 
+	 * @since 2.18
+	 */
+	def <T, R> Iterable<R> executeClustered(Iterable<URI> uri, (Resource)=>T concurrentOperation, (Resource, T)=>R sequentialOperation) {
+		if(loader === null) 
+			loader = new ClusteringStorageAwareResourceLoader(this)
+		return loader.executeClustered(uri.filter[canHandle], concurrentOperation, sequentialOperation)
+	}
+	
 	protected def boolean canHandle(URI uri) {
 		val resourceServiceProvider = resourceServiceProviderProvider.apply(uri)
 		if (resourceServiceProvider === null)
@@ -8,10 +8,13 @@
 package org.eclipse.xtext.build
 
 import java.io.File
+import java.util.concurrent.ExecutorService
 import java.util.List
 import org.eclipse.emf.common.util.URI
 import org.eclipse.xtend.lib.annotations.Accessors
+import org.eclipse.xtext.generator.AsynchronousOutputWriter
 import org.eclipse.xtext.resource.IResourceDescription
+import org.eclipse.xtext.resource.ISynchronizable
 import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.util.internal.Log
 import org.eclipse.xtext.validation.Issue
@@ -53,6 +56,48 @@ class BuildRequest {
 	XtextResourceSet resourceSet
 	CancelIndicator cancelIndicator = CancelIndicator.NullImpl
 	
+	/**
+	 * An optional executor that is used to load, index, resolve and validate the resources of a cluster
+	 * concurrently. It only takes effect if the resource set is {@link ISynchronizable synchronized}. Index
+	 * updates and code generation are still performed on the build thread in the order of the resources.
+	 * Resolving a cross reference may read other resources of the cluster while they are processed, see
+	 * {@link ClusteringStorageAwareResourceLoader}.
+	 * 
+	 * @since 2.18
+	 */
+	ExecutorService executorService
+	
+	/**
+	 * The number of resources whose code generation may be pending while the builder already processes the
+	 * next resources. If greater than zero and the resource set is {@link ISynchronizable synchronized}, the code
+	 * is generated on a dedicated thread. All resources of a cluster are resolved before the code generation for
+	 * the first of them starts, so generators only read resolved resources while the builder validates the next
+	 * ones. Generators must not modify the resources of the resource set. Pending generations are completed before
+	 * the clustering policy clears the resource set, so the number of loaded resources stays bounded by the
+	 * clustering policy.
+	 * 
+	 * @since 2.18
+	 */
+	int generatorQueueSize = 0
+	
+	/**
+	 * The number of threads that write the generated files. If greater than zero, generated files are handed
+	 * to an {@link AsynchronousOutputWriter} and the build waits for all of them to be written before it
+	 * returns.
+	 * 
+	 * @since 2.18
+	 */
+	int outputWriterThreads = 0
+	
+	/**
+	 * Whether generated files whose content did not change are left untouched. Skipping these writes keeps the
+	 * timestamps of the files, so downstream tools do not process them again. The previous content has to be read
+	 * for each generated file, though.
+	 * 
+	 * @since 2.18
+	 */
+	boolean skipUnchangedWrites = false
+	
 	interface IPostValidationCallback {
 		
 		/**
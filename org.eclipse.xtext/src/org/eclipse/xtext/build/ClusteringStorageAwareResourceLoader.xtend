@@ -7,10 +7,17 @@
  *******************************************************************************/
 package org.eclipse.xtext.build
 
+import java.io.IOException
+import java.util.List
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Future
 import org.eclipse.emf.common.util.URI
+import org.eclipse.emf.common.util.WrappedException
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import org.eclipse.xtext.resource.IResourceServiceProviderExtension
+import org.eclipse.xtext.resource.ISynchronizable
 import org.eclipse.xtext.resource.persistence.SourceLevelURIsAdapter
 import org.eclipse.xtext.resource.persistence.StorageAwareResource
 
@@ -50,6 +57,155 @@ class ClusteringStorageAwareResourceLoader {
 		result += resources.map[operation.apply(it)]
 		return result
 	}
+
+	/**
+	 * Like {@link #executeClustered(Iterable, Function1)}, but the resources of a cluster are loaded and passed to
+	 * the concurrent operation on the context's executor service. The sequential operation is applied on the calling
+	 * thread in the order of the given URIs. Falls back to sequential processing if no executor is configured or
+	 * if the resource set is not {@link ISynchronizable synchronized}.
+	 * 
+	 * The concurrent operation of one resource may resolve proxies into other resources of the same cluster while
+	 * their own operation is running. To keep this safe, all resources are loaded and their derived state is
+	 * installed before the first concurrent operation starts, so resolving a proxy only reads the target resource.
+	 * Languages whose {@link org.eclipse.xtext.resource.IFragmentProvider fragment provider} or
+	 * {@link Resource#getEObject(String) getEObject} modifies the target resource must not be built in parallel.
+	 * 
+	 * If the context has a {@link BuildContext#getGeneratorStage() generator stage}, the concurrent operation is
+	 * applied to all resources of a cluster before the first sequential operation starts, even without an executor.
+	 * 
+	 * @since 2.18
+	 */
+	def <T, R> Iterable<R> executeClustered(Iterable<URI> uris, (Resource)=>T concurrentOperation, (Resource, T)=>R sequentialOperation) {
+		if (!(resourceSet instanceof ISynchronizable<?>) || executorService === null && generatorStage === null) {
+			return executeClustered(uris) [
+				sequentialOperation.apply(it, concurrentOperation.apply(it))
+			]
+		}
+		var loadedURIsCount = 0
+		val sourceLevelURIs = <URI>newHashSet
+		val resources = <Resource>newArrayList
+		val result = <R>newArrayList
+		val iter = uris.iterator
+		while (iter.hasNext) {
+			val uri = iter.next
+			if (!clusteringPolicy.continueProcessing(resourceSet, uri, loadedURIsCount)) {
+				result += executeCluster(resources, concurrentOperation, sequentialOperation)
+				resources.clear
+				clearResourceSet
+				loadedURIsCount = 0
+			}
+			loadedURIsCount++;
+			if (uri.isSource) {
+				sourceLevelURIs.add(uri) 
+				val existingResource = resourceSet.getResource(uri, false)
+				if(existingResource instanceof StorageAwareResource) {
+					if(existingResource.isLoadedFromStorage)
+						existingResource.unload
+				}
+				SourceLevelURIsAdapter.setSourceLevelUrisWithoutCopy(resourceSet, sourceLevelURIs)
+			}
+			// the resources are created here but loaded concurrently
+			resources += resourceSet.getResource(uri, false) ?: resourceSet.createResource(uri) ?: resourceSet.getResource(uri, true)
+		}
+		result += executeCluster(resources, concurrentOperation, sequentialOperation)
+		return result
+	}
+
+	/**
+	 * Applies the concurrent operation to all resources of the cluster, then the sequential operation to each of
+	 * them. The sequential operation may submit the code generation for a resource to the generator stage, which
+	 * runs while the build thread proceeds with the next resources. Since the whole cluster is resolved at that
+	 * point, a generator that navigates into another resource of the cluster does not race with its resolution.
+	 * Generators must not modify the resources of the cluster, though.
+	 * 
+	 * @since 2.18
+	 */
+	protected def <T, R> List<R> executeCluster(List<Resource> resources, (Resource)=>T concurrentOperation, (Resource, T)=>R sequentialOperation) {
+		if (executorService !== null) {
+			return executeConcurrently(resources, concurrentOperation, sequentialOperation)
+		}
+		val loadOptions = resourceSet.loadOptions
+		for (resource : resources) {
+			if (!resource.isLoaded) {
+				try {
+					resource.load(loadOptions)
+				} catch (IOException e) {
+					throw new WrappedException(e)
+				}
+			}
+			// installs the derived state
+			resource.contents
+		}
+		val results = resources.map[concurrentOperation.apply(it)].toList
+		val result = <R>newArrayList
+		for (var i = 0; i < resources.size; i++) {
+			result += sequentialOperation.apply(resources.get(i), results.get(i))
+		}
+		return result
+	}
+
+	/**
+	 * Loads all resources and installs their derived state concurrently before any operation is applied, so the
+	 * concurrent operations will not trigger the demand loading or initialization of a resource that is currently
+	 * processed by another worker.
+	 */
+	protected def <T, R> List<R> executeConcurrently(List<Resource> resources, (Resource)=>T concurrentOperation, (Resource, T)=>R sequentialOperation) {
+		val loadOptions = resourceSet.loadOptions
+		awaitAll(resources.map [ resource |
+			val Callable<Object> load = [|
+				if (!resource.isLoaded) {
+					try {
+						resource.load(loadOptions)
+					} catch (IOException e) {
+						throw new WrappedException(e)
+					}
+				}
+				// installs the derived state
+				resource.contents
+				return null
+			]
+			executorService.submit(load)
+		].toList)
+		val results = awaitAll(resources.map [ resource |
+			val Callable<T> operation = [| concurrentOperation.apply(resource)]
+			executorService.submit(operation)
+		].toList)
+		val result = <R>newArrayList
+		for (var i = 0; i < resources.size; i++) {
+			result += sequentialOperation.apply(resources.get(i), results.get(i))
+		}
+		return result
+	}
+
+	/**
+	 * Waits for all futures to complete. If a task failed, the remaining ones are cancelled and the exception
+	 * is rethrown once no task is running anymore.
+	 */
+	protected def <T> List<T> awaitAll(List<Future<T>> futures) {
+		val result = <T>newArrayList
+		try {
+			for (future : futures) {
+				try {
+					result += future.get
+				} catch (ExecutionException e) {
+					throw e.cause
+				}
+			}
+			return result
+		} catch (Throwable t) {
+			for (future : futures) {
+				future.cancel(false)
+			}
+			for (future : futures) {
+				try {
+					future.get
+				} catch (Throwable ignored) {
+					// the first exception is rethrown
+				}
+			}
+			throw t
+		}
+	}
 	
 	protected def isSource(URI uri) {
 		val provider = context.getResourceServiceProvider(uri)
@@ -58,6 +214,8 @@ class ClusteringStorageAwareResourceLoader {
 	}
 
 	protected def void clearResourceSet() {
+		// pending generations still need their resources
+		generatorStage?.awaitCompletion
 		val wasDeliver = resourceSet.eDeliver();
 		try {
 			resourceSet.eSetDeliver(false);
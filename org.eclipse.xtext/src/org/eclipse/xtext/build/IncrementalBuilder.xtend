@@ -15,6 +15,7 @@ import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtend.lib.annotations.Data
 import org.eclipse.xtext.EcoreUtil2
+import org.eclipse.xtext.generator.AsynchronousOutputWriter
 import org.eclipse.xtext.generator.GeneratorDelegate
 import org.eclipse.xtext.generator.IContextualOutputConfigurationProvider
 import org.eclipse.xtext.generator.IContextualOutputConfigurationProvider2
@@ -26,6 +27,7 @@ import org.eclipse.xtext.generator.trace.TraceRegionSerializer
 import org.eclipse.xtext.parser.IEncodingProvider
 import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.IResourceServiceProvider
+import org.eclipse.xtext.resource.ISynchronizable
 import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy
 import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy
 import org.eclipse.xtext.resource.persistence.SerializableResourceDescription
@@ -33,6 +35,7 @@ import org.eclipse.xtext.resource.persistence.StorageAwareResource
 import org.eclipse.xtext.service.OperationCanceledManager
 import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.validation.CheckMode
+import org.eclipse.xtext.validation.Issue
 import org.eclipse.xtext.workspace.IProjectConfigProvider
 import org.eclipse.xtext.generator.GeneratorContext
 import org.eclipse.xtext.resource.XtextResource
@@ -103,32 +106,99 @@ class IncrementalBuilder {
 			// add deleted deltas
 			resolvedDeltas += result.resourceDeltas.filter[getNew === null]
 			// add changed and added as fully resolved
-			resolvedDeltas += result.resourceDeltas.filter[getNew !== null].map[uri]
-				.executeClustered [
-					Resource resource |
-					request.cancelIndicator.checkCanceled
-					resource.contents // fully initialize
-					EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl)
-					request.cancelIndicator.checkCanceled
-					val serviceProvider = resource.resourceServiceProvider
-					val manager = serviceProvider.resourceDescriptionManager
-					val description = manager.getResourceDescription(resource);
-					val copiedDescription = SerializableResourceDescription.createCopy(description);
-					result.newIndex.addDescription(resource.getURI, copiedDescription)
-					request.cancelIndicator.checkCanceled
-					if (!request.indexOnly 
-						&& resource.validate 
-						&& serviceProvider.get(IShouldGenerate).shouldGenerate(resource, CancelIndicator.NullImpl)
-					) {
+			// in parallel builds the validation is part of the concurrent stage, too
+			val validateConcurrently = executorService !== null && !request.indexOnly
+			// generation overlaps with the validation of the next resources if a generator queue is configured,
+			// each cluster is resolved completely before its first generation is submitted
+			val generatorStage = createGeneratorStage
+			context.generatorStage = generatorStage
+			// generated files are written in the background if an output writer is configured
+			val outputWriter = createOutputWriter
+			context.outputWriter = outputWriter
+			// generators on the stage may read the index, so it is only updated once they have finished
+			val deferredDescriptions = if (generatorStage !== null) <Pair<URI, SerializableResourceDescription>>newArrayList
+			try {
+				resolvedDeltas += result.resourceDeltas.filter[getNew !== null].map[uri]
+					.executeClustered([
+						Resource resource |
+						val copiedDescription = resource.resolveAndDescribe
+						val issues = if (validateConcurrently) resource.computeIssues
+						return copiedDescription -> issues
+					], [
+						Resource resource, Pair<SerializableResourceDescription, List<Issue>> described |
+						val copiedDescription = described.key
+						if (deferredDescriptions !== null) {
+							deferredDescriptions += resource.getURI -> copiedDescription
+						} else {
+							result.newIndex.addDescription(resource.getURI, copiedDescription)
+						}
 						request.cancelIndicator.checkCanceled
-						resource.generate(request, newSource2GeneratedMapping)
-					}
-					val old = oldState.resourceDescriptions.getResourceDescription(resource.getURI)
-					return manager.createDelta(old, copiedDescription)
-				]
+						val serviceProvider = resource.resourceServiceProvider
+						if (!request.indexOnly 
+							&& (if (validateConcurrently) resource.afterValidate(described.value) else resource.validate)
+							&& serviceProvider.get(IShouldGenerate).shouldGenerate(resource, CancelIndicator.NullImpl)
+						) {
+							request.cancelIndicator.checkCanceled
+							if (generatorStage !== null) {
+								generatorStage.submit[resource.generate(request, newSource2GeneratedMapping)]
+							} else {
+								resource.generate(request, newSource2GeneratedMapping)
+							}
+						}
+						val old = oldState.resourceDescriptions.getResourceDescription(resource.getURI)
+						return serviceProvider.resourceDescriptionManager.createDelta(old, copiedDescription)
+					])
+				generatorStage?.awaitCompletion
+				deferredDescriptions?.forEach[result.newIndex.addDescription(key, value)]
+				outputWriter?.flush
+			} finally {
+				generatorStage?.close
+				outputWriter?.close
+				context.generatorStage = null
+				context.outputWriter = null
+			}
 			return new Result(request.state, resolvedDeltas)
 		}
 		
+		/**
+		 * @return the stage that performs the code generation on a dedicated thread, or <code>null</code> if the
+		 *         code should be generated on the build thread.
+		 * @since 2.18
+		 */
+		protected def PipelineStage createGeneratorStage() {
+			if (request.indexOnly || request.generatorQueueSize <= 0 || !(resourceSet instanceof ISynchronizable<?>)) {
+				return null
+			}
+			return new PipelineStage('IncrementalBuilder-Generator-%d', request.generatorQueueSize)
+		}
+		
+		/**
+		 * @return the writer for the generated files, or <code>null</code> if they should be written on the
+		 *         generating thread.
+		 * @since 2.18
+		 */
+		protected def AsynchronousOutputWriter createOutputWriter() {
+			if (request.indexOnly || request.outputWriterThreads <= 0) {
+				return null
+			}
+			return new AsynchronousOutputWriter('IncrementalBuilder-Writer-%d', request.outputWriterThreads, request.outputWriterThreads * 64)
+		}
+		
+		/**
+		 * Fully resolves the given resource and returns a copy of its description.
+		 * 
+		 * @since 2.18
+		 */
+		protected def SerializableResourceDescription resolveAndDescribe(Resource resource) {
+			request.cancelIndicator.checkCanceled
+			resource.contents // fully initialize
+			EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl)
+			request.cancelIndicator.checkCanceled
+			val manager = resource.resourceServiceProvider.resourceDescriptionManager
+			val description = manager.getResourceDescription(resource);
+			return SerializableResourceDescription.createCopy(description);
+		}
+		
 		def private IResourceServiceProvider getResourceServiceProvider(Resource resource) {
 			if (resource instanceof XtextResource) {
 				return resource.resourceServiceProvider;
@@ -137,12 +207,30 @@ class IncrementalBuilder {
 		}
 		
 		def protected boolean validate(Resource resource) {
+			return resource.afterValidate(resource.computeIssues)
+		}
+		
+		/**
+		 * @return the issues of the given resource or <code>null</code> if the language does not have a validator.
+		 * @since 2.18
+		 */
+		def protected List<Issue> computeIssues(Resource resource) {
 			val resourceValidator = resource.resourceServiceProvider.resourceValidator;
 			if (resourceValidator === null) {
+				return null
+			}
+			return resourceValidator.validate(resource, CheckMode.ALL, null);
+		}
+		
+		/**
+		 * @return whether the build can proceed with the given resource.
+		 * @since 2.18
+		 */
+		def protected boolean afterValidate(Resource resource, List<Issue> issues) {
+			if (issues === null) {
 				return true
 			}
-			val validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
-			return request.afterValidate.afterValidate(resource.getURI, validationResult)
+			return request.afterValidate.afterValidate(resource.getURI, issues)
 		}
 	
 		protected def void generate(Resource resource, BuildRequest request, Source2GeneratedMapping newMappings) {
@@ -164,6 +252,7 @@ class IncrementalBuilder {
 					request.afterDeleteFile.apply(uri)
 					return true
 				]
+				outputWriter = context.outputWriter
 			]
 			fileSystemAccess.context = resource
 			if (request.isWriteStorageResources) {
@@ -178,6 +267,8 @@ class IncrementalBuilder {
 			generator.generate(resource, fileSystemAccess, generatorContext)
 			// delete everything that was previously generated, but not this time
 			previous.forEach[
+				// don't let a pending write recreate the file
+				context.outputWriter?.cancel(it)
 				context.resourceSet.getURIConverter.delete(it, emptyMap)
 				request.getAfterDeleteFile.apply(it)
 			]
@@ -202,6 +293,7 @@ class IncrementalBuilder {
 					it.traceFileNameProvider = traceFileNameProvider
 					it.traceRegionSerializer = traceRegionSerializer
 					generateTraces = true
+					skipUnchangedWrites = request.skipUnchangedWrites
 					
 					baseDir = request.baseDir
 					if (projectConfigProvider !== null) {
@@ -234,6 +326,7 @@ class IncrementalBuilder {
 									, oldState
 									, clusteringPolicy,
 									request.cancelIndicator)
+		context.executorService = request.executorService
 		val builder = provider.get
 		builder.setContext(context)
 		builder.setRequest(request)
@@ -14,6 +14,7 @@ import java.util.Collection
 import java.util.HashSet
 import java.util.List
 import java.util.Map
+import java.util.Set
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.InternalEObject
 import org.eclipse.emf.ecore.resource.Resource
@@ -30,6 +31,7 @@ import org.eclipse.xtext.resource.IResourceDescription.Delta
 import org.eclipse.xtext.resource.IResourceDescriptions
 import org.eclipse.xtext.resource.impl.AbstractResourceDescription
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionManager
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
 import org.eclipse.xtext.util.internal.Log
 import org.eclipse.xtext.service.OperationCanceledManager
@@ -57,21 +59,29 @@ class Indexer {
 		val List<Delta> deltas = newArrayList
 		deltas.addAll(getDeltasForDeletedResources(request, previousIndex, context))
 		deltas.addAll(getDeltasForChangedResources(request.dirtyFiles, previousIndex, context))
-		// update the index with the direct deltas
-		for (delta : deltas)
-			newIndex.register(delta)
 
 		// add external deltas
 		val allDeltas = new HashSet<Delta>(deltas)
 		if (!request.externalDeltas.empty)
 			allDeltas.addAll(request.externalDeltas)
 
-		val remainingURIs = previousIndex.allResourceDescriptions.map[getURI].toSet
-		remainingURIs.removeAll(deltas.map[uri])
+		// the new index still reflects the previous state here, so its reverse dependencies are up to date
+		val dependentURIs = getDependentURIs(allDeltas, newIndex)
 
-		val allAffected = remainingURIs.filter [
-			val manager = getResourceServiceProvider.resourceDescriptionManager
+		// update the index with the direct deltas
+		for (delta : deltas)
+			newIndex.register(delta)
+
+		val changedURIs = deltas.map[uri].toSet
+		val allAffected = getAffectionCandidates(dependentURIs, previousIndex, context).filter [
+			if (changedURIs.contains(it))
+				return false
 			val resourceDescription = previousIndex.getResourceDescription(it)
+			if (resourceDescription === null)
+				return false
+			val manager = getResourceServiceProvider?.resourceDescriptionManager
+			if (manager === null)
+				return false
 			val isAffected = resourceDescription.isAffected(manager, allDeltas, allDeltas, newIndex)
 			return isAffected
 		].toList
@@ -80,6 +90,56 @@ class Indexer {
 		return new IndexResult(deltas, newIndex)
 	}
 
+	/**
+	 * Collects the URIs of all resources in the given index that import a name exported by one of
+	 * the deltas or that refer to one of the changed resources.
+	 * 
+	 * @since 2.18
+	 */
+	protected def Set<URI> getDependentURIs(Collection<Delta> deltas, ResourceDescriptionsData index) {
+		val names = <QualifiedName>newHashSet
+		val targetURIs = <URI>newHashSet
+		for (delta : deltas) {
+			targetURIs += delta.uri
+			delta.old?.exportedObjects?.forEach[names += name.toLowerCase]
+			delta.^new?.exportedObjects?.forEach[names += name.toLowerCase]
+		}
+		return index.getDependentURIs(names, targetURIs)
+	}
+
+	/**
+	 * Returns the URIs of the resources that have to be checked with {@code isAffected}: the dependent URIs and
+	 * all resources of languages whose manager is not {@link #isReverseDependencyAware(IResourceDescription.Manager)
+	 * reverse dependency aware}. The manager is determined once per file extension.
+	 * 
+	 * @since 2.18
+	 */
+	protected def Set<URI> getAffectionCandidates(Set<URI> dependentURIs, ResourceDescriptionsData index,
+		extension BuildContext context) {
+		val result = new HashSet<URI>(dependentURIs)
+		for (fileExtension : index.fileExtensions) {
+			val uris = index.getAllURIs(fileExtension)
+			if (!uris.empty) {
+				val manager = uris.head.getResourceServiceProvider?.resourceDescriptionManager
+				if (!isReverseDependencyAware(manager))
+					result += uris
+			}
+		}
+		return result
+	}
+
+	/**
+	 * Whether the given manager only considers resources affected that import a changed name or refer to a
+	 * changed resource. Only resources of such managers may be skipped if they are not found in the
+	 * reverse dependency index.
+	 * 
+	 * @since 2.18
+	 */
+	protected def boolean isReverseDependencyAware(IResourceDescription.Manager manager) {
+		// subclasses may depend on more than the imported names and references
+		return manager !== null && manager.class == DefaultResourceDescriptionManager
+	}
+
 	protected def List<Delta> getDeltasForDeletedResources(BuildRequest request, ResourceDescriptionsData oldIndex,
 		extension BuildContext context) {
 		val deltas = <Delta>newArrayList()
@@ -98,9 +158,9 @@ class Indexer {
 		ResourceDescriptionsData oldIndex, extension BuildContext context) {
 		try {
 			compilerPhases.setIndexing(resourceSet, true)
-			return affectedUris.executeClustered [
+			return affectedUris.executeClustered([
 				addToIndex(true, oldIndex, context)
-			].toList
+			], [ resource, delta | delta ]).toList
 		} finally {
 			compilerPhases.setIndexing(resourceSet, false)
 		}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.build;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.xtext.util.Exceptions;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * A stage of the build pipeline that runs the submitted tasks one after another on a dedicated thread.
+ *
+ * The number of pending tasks is bounded: {@link #submit(Runnable)} blocks until a slot becomes available.
+ * If a task fails, all subsequent tasks are skipped and the failure is rethrown on the submitting thread.
+ *
+ * @since 2.18
+ */
+public class PipelineStage implements AutoCloseable {
+
+	private final ExecutorService executor;
+
+	private final Semaphore slots;
+
+	private volatile Throwable failure;
+
+	private volatile boolean closed;
+
+	private Future<?> lastTask;
+
+	/**
+	 * @param name
+	 *            the name of the thread that executes the tasks.
+	 * @param capacity
+	 *            the maximum number of pending tasks.
+	 */
+	public PipelineStage(String name, int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+		}
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(true).setNameFormat(name).build());
+		this.slots = new Semaphore(capacity);
+	}
+
+	/**
+	 * Enqueues the given task. Blocks while the maximum number of tasks is pending.
+	 */
+	public void submit(final Runnable task) {
+		rethrowFailure();
+		try {
+			slots.acquire();
+		} catch (InterruptedException e) {
+			Exceptions.throwUncheckedException(e);
+		}
+		lastTask = executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					if (failure == null && !closed) {
+						task.run();
+					}
+				} catch (Throwable t) {
+					failure = t;
+				} finally {
+					slots.release();
+				}
+			}
+		});
+	}
+
+	/**
+	 * Blocks until all submitted tasks have been executed.
+	 */
+	public void awaitCompletion() {
+		if (lastTask != null) {
+			try {
+				lastTask.get();
+			} catch (InterruptedException e) {
+				Exceptions.throwUncheckedException(e);
+			} catch (ExecutionException e) {
+				Exceptions.throwUncheckedException(e.getCause());
+			}
+			lastTask = null;
+		}
+		rethrowFailure();
+	}
+
+	protected void rethrowFailure() {
+		Throwable t = failure;
+		if (t != null) {
+			Exceptions.throwUncheckedException(t);
+		}
+	}
+
+	/**
+	 * Stops the thread of this stage. Pending tasks that did not start yet are skipped. Blocks until a
+	 * currently running task is finished.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -9,6 +9,9 @@ package org.eclipse.xtext.findReferences;
 
 import static com.google.common.collect.Iterables.*;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -23,14 +26,19 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.emf.ecore.util.InternalEList;
 import org.eclipse.xtext.EcoreUtil2;
+import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.resource.IReferenceDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.util.concurrent.IUnitOfWork;
 
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -170,7 +178,7 @@ public class ReferenceFinder implements IReferenceFinder {
 	public void findAllReferences(TargetURIs targetURIs, IResourceAccess resourceAccess,
 			IResourceDescriptions indexData, Acceptor acceptor, IProgressMonitor monitor) {
 		if (!targetURIs.isEmpty()) {
-			Iterable<IResourceDescription> allResourceDescriptions = indexData.getAllResourceDescriptions();
+			Iterable<IResourceDescription> allResourceDescriptions = getCandidateDescriptions(targetURIs, indexData);
 			SubMonitor subMonitor = SubMonitor.convert(monitor, size(allResourceDescriptions) / MONITOR_CHUNK_SIZE + 1);
 			IProgressMonitor useMe = subMonitor.newChild(1);
 			int i = 0;
@@ -187,6 +195,41 @@ public class ReferenceFinder implements IReferenceFinder {
 		}
 	}
 
+	/**
+	 * Returns the resource descriptions that may hold references to the given targets. If the index knows the
+	 * referencing resources, these are the resources that reference one of the target resources and the target
+	 * resources themselves, since their local references are not part of the index. They are looked up one by one
+	 * and returned in the order of their URIs per container, so the result does not depend on hashing. Otherwise all
+	 * resource descriptions of the index are returned.
+	 * 
+	 * @since 2.18
+	 */
+	protected Iterable<IResourceDescription> getCandidateDescriptions(TargetURIs targetURIs, IResourceDescriptions indexData) {
+		List<ResourceDescriptionsData> containers;
+		if (indexData instanceof ResourceDescriptionsData) {
+			containers = Collections.singletonList((ResourceDescriptionsData) indexData);
+		} else if (indexData instanceof ChunkedResourceDescriptions) {
+			containers = Lists.newArrayList(((ChunkedResourceDescriptions) indexData).getContainers());
+		} else {
+			return indexData.getAllResourceDescriptions();
+		}
+		Collection<URI> targetResourceURIs = targetURIs.getTargetResourceURIs();
+		List<IResourceDescription> result = Lists.newArrayList();
+		for (ResourceDescriptionsData container : containers) {
+			Set<URI> candidates = container.getDependentURIs(Collections.<QualifiedName>emptyList(), targetResourceURIs);
+			candidates.addAll(targetResourceURIs);
+			List<URI> sortedCandidates = Lists.newArrayList(candidates);
+			Collections.sort(sortedCandidates, Ordering.usingToString());
+			for (URI candidate : sortedCandidates) {
+				IResourceDescription description = container.getResourceDescription(candidate);
+				if (description != null) {
+					result.add(description);
+				}
+			}
+		}
+		return result;
+	}
+
 	protected void findLocalReferencesFromElement(
 			Predicate<URI> targetURIs, 
 			EObject sourceCandidate,
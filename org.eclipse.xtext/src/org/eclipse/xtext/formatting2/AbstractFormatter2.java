@@ -40,6 +40,7 @@ import org.eclipse.xtext.formatting2.regionaccess.ITextRegionAccess;
 import org.eclipse.xtext.formatting2.regionaccess.ITextRegionExtensions;
 import org.eclipse.xtext.formatting2.regionaccess.ITextReplacement;
 import org.eclipse.xtext.formatting2.regionaccess.ITextSegment;
+import org.eclipse.xtext.formatting2.regionaccess.internal.NodeModelBasedRegionAccess;
 import org.eclipse.xtext.formatting2.regionaccess.internal.TextRegions;
 import org.eclipse.xtext.formatting2.regionaccess.internal.TextReplacement;
 import org.eclipse.xtext.grammaranalysis.impl.GrammarElementTitleSwitch;
@@ -255,7 +256,11 @@ public abstract class AbstractFormatter2 implements IFormatter2 {
 	}
 
 	public ITextReplacerContext createTextReplacerContext(IFormattableDocument document) {
-		return new TextReplacerContext(document);
+		ITextReplacerContext context = new TextReplacerContext(document);
+		int indentation = getInitialIndentation();
+		if (indentation > 0)
+			return context.withIndentation(indentation);
+		return context;
 	}
 
 	public IMerger<ITextReplacer> createTextReplacerMerger() {
@@ -270,10 +275,10 @@ public abstract class AbstractFormatter2 implements IFormatter2 {
 	public final List<ITextReplacement> format(FormatterRequest request) {
 		try {
 			initialize(request);
-			XtextResource xtextResource = request.getTextRegionAccess().getResource();
+			Object root = getRootObject();
 			IFormattableDocument document = createFormattableRootDocument();
 			try {
-				format(xtextResource, document);
+				format(root, document);
 			} catch (RegionTraceMissingException e) {
 				document = handleTraceMissing(document, e);
 			}
@@ -290,12 +295,51 @@ public abstract class AbstractFormatter2 implements IFormatter2 {
 			return problematic;
 		}
 		request.setEnableDebugTracing(true);
-		XtextResource xtextResource = request.getTextRegionAccess().getResource();
 		IFormattableDocument document = createFormattableRootDocument();
-		format(xtextResource, document);
+		format(getRootObject(), document);
 		return document;
 	}
 
+	/**
+	 * @return the object that is formatted first. This is the resource, unless the {@link ITextRegionAccess} only
+	 *         covers the subtree of a single object.
+	 * @since 2.18
+	 */
+	protected Object getRootObject() {
+		ITextRegionAccess access = getTextRegionAccess();
+		if (access instanceof NodeModelBasedRegionAccess && ((NodeModelBasedRegionAccess) access).isSubtree())
+			return access.regionForRootEObject().getSemanticElement();
+		return access.getResource();
+	}
+
+	/**
+	 * @return the indentation level the formatted text starts with. If only a subtree is formatted, this is derived
+	 *         from the indentation of the line the subtree starts in, since the enclosing objects are not formatted.
+	 * @since 2.18
+	 */
+	protected int getInitialIndentation() {
+		ITextRegionAccess access = getTextRegionAccess();
+		if (!(access instanceof NodeModelBasedRegionAccess) || !((NodeModelBasedRegionAccess) access).isSubtree())
+			return 0;
+		int offset = access.regionForRootEObject().getOffset();
+		String indentation = access.regionForLineAtOffset(offset).getIndentation().getText();
+		int indentationWidth = getIndentationWidth(getPreference(FormatterPreferenceKeys.indentation));
+		if (indentationWidth == 0)
+			return 0;
+		return getIndentationWidth(indentation) / indentationWidth;
+	}
+
+	private int getIndentationWidth(String whitespace) {
+		int tabWidth = getPreference(FormatterPreferenceKeys.tabWidth);
+		int width = 0;
+		for (int i = 0; i < whitespace.length(); i++)
+			if (whitespace.charAt(i) == '\t')
+				width += tabWidth;
+			else
+				width++;
+		return width;
+	}
+
 	/**
 	 * Implement this method to create a language-specific formatter.
 	 * 
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.formatting2.internal;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import org.eclipse.xtext.formatting2.IMerger;
+import org.eclipse.xtext.formatting2.regionaccess.ITextSegment;
+
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+
+/**
+ * A {@link TextSegmentSet} that is backed by a balanced tree, so adding a segment, looking it up and detecting
+ * conflicts with its neighbors takes logarithmic time regardless of the order in which the segments are added.
+ *
+ * @since 2.18
+ */
+public class TreeSetTextSegmentSet<T> extends TextSegmentSet<T> {
+
+	private final NavigableSet<T> contents;
+
+	public TreeSetTextSegmentSet(Function<? super T, ? extends ITextSegment> region,
+			Function<? super T, String> title) {
+		this(region, title, true);
+	}
+
+	public TreeSetTextSegmentSet(Function<? super T, ? extends ITextSegment> region,
+			Function<? super T, String> title, boolean trace) {
+		super(region, title, trace);
+		this.contents = new TreeSet<T>(new RegionComparator<T>(region));
+	}
+
+	@Override
+	public void add(T segment, IMerger<T> merger) throws ConflictingRegionsException, RegionTraceMissingException {
+		Preconditions.checkNotNull(segment);
+		trace(segment);
+		T existing = get(segment);
+		if (existing != null)
+			replaceExistingEntry(segment, existing, merger);
+		else
+			insert(segment, merger);
+	}
+
+	@Override
+	public T get(T segment) {
+		T candidate = contents.ceiling(segment);
+		if (candidate != null && contents.comparator().compare(candidate, segment) == 0)
+			return candidate;
+		return null;
+	}
+
+	protected void insert(T segment, IMerger<T> merger)
+			throws ConflictingRegionsException, RegionTraceMissingException {
+		List<T> conflicting = null;
+		for (T item : contents.headSet(segment, false).descendingSet()) {
+			if (isConflict(item, segment)) {
+				if (conflicting == null)
+					conflicting = Lists.newArrayList();
+				conflicting.add(item);
+			} else
+				break;
+		}
+		for (T item : contents.tailSet(segment, false)) {
+			if (isConflict(item, segment)) {
+				if (conflicting == null)
+					conflicting = Lists.newArrayList();
+				conflicting.add(item);
+			} else
+				break;
+		}
+		if (conflicting == null) {
+			trace(segment);
+			contents.add(segment);
+		} else {
+			conflicting.add(0, segment);
+			try {
+				T merged = merger != null ? merger.merge(conflicting) : null;
+				if (merged != null) {
+					removeConflicting(conflicting);
+					trace(merged);
+					contents.add(merged);
+				} else {
+					int segmentLengh = getRegion(segment).getLength();
+					int totalLength = 0;
+					for (int i = 1; i < conflicting.size(); i++)
+						totalLength += getRegion(conflicting.get(i)).getLength();
+					if (segmentLengh >= totalLength)
+						removeConflicting(conflicting);
+					if (segmentLengh > totalLength) {
+						trace(segment);
+						contents.add(segment);
+					}
+					handleConflict(conflicting, null);
+				}
+			} catch (ConflictingRegionsException e) {
+				throw e;
+			} catch (Exception e) {
+				handleConflict(conflicting, e);
+			}
+		}
+	}
+
+	private void removeConflicting(List<T> conflicting) {
+		// the first element is the new segment, which is not yet contained
+		for (int i = 1; i < conflicting.size(); i++)
+			contents.remove(conflicting.get(i));
+	}
+
+	protected void replaceExistingEntry(T segment, T existing, IMerger<T> merger)
+			throws ConflictingRegionsException, RegionTraceMissingException {
+		List<T> conflicting = ImmutableList.of(segment, existing);
+		try {
+			T merged = merger != null ? merger.merge(conflicting) : null;
+			contents.remove(existing);
+			if (merged != null) {
+				trace(merged);
+				contents.add(merged);
+			} else {
+				handleConflict(conflicting, null);
+			}
+		} catch (ConflictingRegionsException e) {
+			throw e;
+		} catch (Exception e) {
+			handleConflict(conflicting, e);
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return Iterators.unmodifiableIterator(contents.iterator());
+	}
+
+	@Override
+	public Iterator<T> iteratorAfter(T segment) {
+		if (get(segment) == null) {
+			return Collections.emptyIterator();
+		}
+		return Iterators.unmodifiableIterator(contents.tailSet(segment, false).iterator());
+	}
+
+	@Override
+	public Iterable<T> reverseIterable() {
+		return new Iterable<T>() {
+			@Override
+			public Iterator<T> iterator() {
+				return Iterators.unmodifiableIterator(contents.descendingIterator());
+			}
+		};
+	}
+
+}
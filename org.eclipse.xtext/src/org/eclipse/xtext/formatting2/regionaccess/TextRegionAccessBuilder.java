@@ -13,6 +13,7 @@ import org.eclipse.xtext.formatting2.regionaccess.internal.TextRegionAccessBuild
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.serializer.ISerializationContext;
 import org.eclipse.xtext.serializer.acceptor.ISequenceAcceptor;
+import org.eclipse.xtext.util.ITextRegion;
 
 /**
  * @author Moritz Eysholdt - Initial contribution and API
@@ -28,6 +29,19 @@ public class TextRegionAccessBuilder {
 		return this;
 	}
 
+	/**
+	 * Creates a region access for the smallest subtree of the resource's semantic model that covers the given region.
+	 * The enclosing objects of the subtree are not part of the region access, so formatters that access their regions
+	 * or rely on their rules, e.g. for indentation, need the region access of the whole resource.
+	 * 
+	 * @see NodeModelBasedRegionAccessBuilder#withRegion(ITextRegion)
+	 * @since 2.18
+	 */
+	public TextRegionAccessBuilder forNodeModel(XtextResource resource, ITextRegion region) {
+		this.fromNodeModel = new NodeModelBasedRegionAccessBuilder().withResource(resource).withRegion(region);
+		return this;
+	}
+
 	public ISequenceAcceptor forSequence(ISerializationContext ctx, EObject root) {
 		return this.fromSequencer = new TextRegionAccessBuildingSequencer().withRoot(ctx, root);
 	}
@@ -14,10 +14,29 @@ import org.eclipse.xtext.formatting2.regionaccess.ITextRegionAccess;
  */
 public class NodeHiddenRegion extends AbstractHiddenRegion {
 
+	private int emptyOffset = 0;
+
 	protected NodeHiddenRegion(ITextRegionAccess access) {
 		super(access);
 	}
 
+	@Override
+	public int getOffset() {
+		if (getPreviousSemanticRegion() == null && getParts().isEmpty())
+			return emptyOffset;
+		return super.getOffset();
+	}
+
+	/**
+	 * Sets the offset of this hidden region in case it neither contains any parts nor follows a semantic region. This
+	 * is the case for the first hidden region of a region access that only covers a subtree.
+	 * 
+	 * @since 2.18
+	 */
+	protected void setEmptyOffset(int emptyOffset) {
+		this.emptyOffset = emptyOffset;
+	}
+
 	@Override
 	public boolean isUndefined() {
 		return false;
@@ -23,10 +23,12 @@ public class NodeModelBasedRegionAccess extends AbstractRegionAccess {
 
 	private final Map<EObject, AbstractEObjectRegion> eObjectToTokens;
 	private final XtextResource resource;
+	private final AbstractEObjectRegion subtreeRoot;
 
 	protected NodeModelBasedRegionAccess(NodeModelBasedRegionAccessBuilder builder) {
 		this.resource = builder.getXtextResource();
 		this.eObjectToTokens = ImmutableMap.copyOf(builder.getEObjectToTokensMap(this));
+		this.subtreeRoot = builder.getSubtreeRoot();
 	}
 
 	@Override
@@ -51,9 +53,21 @@ public class NodeModelBasedRegionAccess extends AbstractRegionAccess {
 
 	@Override
 	public IEObjectRegion regionForRootEObject() {
+		if (subtreeRoot != null)
+			return subtreeRoot;
 		return regionForEObject(resource.getContents().get(0));
 	}
 
+	/**
+	 * @return <code>true</code> if this region access only covers the subtree of {@link #regionForRootEObject()}
+	 *         instead of the whole resource.
+	 * @see NodeModelBasedRegionAccessBuilder#withRegion(org.eclipse.xtext.util.ITextRegion)
+	 * @since 2.18
+	 */
+	public boolean isSubtree() {
+		return subtreeRoot != null;
+	}
+
 	@Override
 	public ITextSegment regionForDocument() {
 		return new TextSegment(this, 0, resource.getParseResult().getRootNode().getTotalEndOffset());
@@ -23,7 +23,9 @@ import org.eclipse.xtext.nodemodel.BidiTreeIterator;
 import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.nodemodel.ILeafNode;
 import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
 import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.util.ITextRegion;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -34,6 +36,9 @@ public class NodeModelBasedRegionAccessBuilder {
 	private NodeHiddenRegion firstHidden;
 	private NodeHiddenRegion lastHidden;
 	private XtextResource resource;
+	private ITextRegion region;
+	private NodeEObjectRegion rootTokens;
+	private boolean subtree;
 	private LinkedList<NodeEObjectRegion> stack = new LinkedList<NodeEObjectRegion>();
 
 	protected void add(NodeModelBasedRegionAccess access, INode node) {
@@ -59,6 +64,35 @@ public class NodeModelBasedRegionAccessBuilder {
 		return access;
 	}
 
+	/**
+	 * Adds the hidden leafs that precede the given node up to the previous token, so the leading hidden region of a
+	 * subtree is complete.
+	 */
+	protected void addHiddenLeafsBefore(NodeModelBasedRegionAccess access, INode node) {
+		LinkedList<ILeafNode> hidden = new LinkedList<ILeafNode>();
+		ILeafNode leaf = previousLeaf(node);
+		while (leaf != null && !isToken(leaf)) {
+			if (leaf.isHidden())
+				hidden.addFirst(leaf);
+			leaf = previousLeaf(leaf);
+		}
+		for (ILeafNode h : hidden)
+			this.add(access, h);
+	}
+
+	/**
+	 * Adds the hidden leafs that follow the given node up to the next token, so the trailing hidden region of a
+	 * subtree is complete.
+	 */
+	protected void addHiddenLeafsAfter(NodeModelBasedRegionAccess access, INode node) {
+		ILeafNode leaf = nextLeaf(node);
+		while (leaf != null && !isToken(leaf)) {
+			if (leaf.isHidden())
+				this.add(access, leaf);
+			leaf = nextLeaf(leaf);
+		}
+	}
+
 	protected NodeHidden createHidden(NodeHiddenRegion hidden, ILeafNode node) {
 		if (isComment(node))
 			return new NodeComment(hidden, node);
@@ -84,10 +118,59 @@ public class NodeModelBasedRegionAccessBuilder {
 		this.lastHidden = this.firstHidden;
 		NodeModelBasedRegionAccess access = (NodeModelBasedRegionAccess) regionAccess;
 		ICompositeNode rootNode = resource.getParseResult().getRootNode();
-		process(rootNode, access);
+		INode node = region != null ? findSubtreeRoot(rootNode, region) : rootNode;
+		this.subtree = node != rootNode;
+		if (subtree) {
+			firstHidden.setEmptyOffset(node.getOffset());
+			addHiddenLeafsBefore(access, node);
+			process(node, access);
+			addHiddenLeafsAfter(access, node);
+		} else {
+			process(rootNode, access);
+		}
 		return ImmutableMap.<EObject, AbstractEObjectRegion>copyOf(this.eObjToTokens);
 	}
 
+	/**
+	 * Finds the node of the smallest subtree that covers the given region without fully containing one of the
+	 * surrounding hidden regions. Those hidden regions are usually formatted by the enclosing objects, so a subtree
+	 * only qualifies if the region starts after the end of the token before the subtree and ends before the token
+	 * after it. Returns the root node if there is no such subtree.
+	 * 
+	 * @since 2.18
+	 */
+	protected INode findSubtreeRoot(ICompositeNode rootNode, ITextRegion region) {
+		int offset = region.getOffset();
+		int endOffset = offset + region.getLength();
+		if (offset < 0 || endOffset >= rootNode.getTotalEndOffset())
+			return rootNode;
+		ILeafNode first = NodeModelUtils.findLeafNodeAtOffset(rootNode, offset > 0 ? offset - 1 : 0);
+		while (first != null && (!isToken(first) || first.getEndOffset() < offset))
+			first = nextLeaf(first);
+		ILeafNode last = NodeModelUtils.findLeafNodeAtOffset(rootNode, endOffset);
+		while (last != null && (!isToken(last) || last.getOffset() > endOffset))
+			last = previousLeaf(last);
+		if (first == null || last == null)
+			return rootNode;
+		int lastEndOffset = last.getEndOffset();
+		INode current = first.getParent();
+		while (current != null && current != rootNode) {
+			if (current.getEndOffset() >= lastEndOffset && isEObjectRoot(current))
+				return current;
+			current = current.getParent();
+		}
+		return rootNode;
+	}
+
+	/**
+	 * @return the region of the object whose subtree this builder is restricted to, or <code>null</code> if it covers
+	 *         the whole resource.
+	 * @since 2.18
+	 */
+	protected NodeEObjectRegion getSubtreeRoot() {
+		return subtree ? rootTokens : null;
+	}
+
 	protected XtextResource getXtextResource() {
 		return resource;
 	}
@@ -111,6 +194,32 @@ public class NodeModelBasedRegionAccessBuilder {
 		return false;
 	}
 
+	private boolean isToken(ILeafNode leaf) {
+		return !leaf.isHidden() && leaf.getLength() > 0;
+	}
+
+	private ILeafNode nextLeaf(INode node) {
+		for (INode current = node; current != null; current = current.getParent()) {
+			for (INode sibling = current.getNextSibling(); sibling != null; sibling = sibling.getNextSibling()) {
+				for (INode child : sibling.getAsTreeIterable())
+					if (child instanceof ILeafNode)
+						return (ILeafNode) child;
+			}
+		}
+		return null;
+	}
+
+	private ILeafNode previousLeaf(INode node) {
+		for (INode current = node; current != null; current = current.getParent()) {
+			for (INode sibling = current.getPreviousSibling(); sibling != null; sibling = sibling.getPreviousSibling()) {
+				for (INode child : sibling.getAsTreeIterable().reverse())
+					if (child instanceof ILeafNode)
+						return (ILeafNode) child;
+			}
+		}
+		return null;
+	}
+
 	protected boolean isEObjectRoot(INode node) {
 		if (node instanceof ICompositeNode) {
 			ICompositeNode parent = node.getParent();
@@ -234,6 +343,8 @@ public class NodeModelBasedRegionAccessBuilder {
 			NodeEObjectRegion old = eObjToTokens.put(semanticElement, popped);
 			if (old != null)
 				throw new IllegalStateException();
+			if (stack.isEmpty())
+				rootTokens = popped;
 		}
 	}
 
@@ -242,6 +353,18 @@ public class NodeModelBasedRegionAccessBuilder {
 		return this;
 	}
 
+	/**
+	 * Restricts the region access to the smallest subtree of the semantic model that covers the given region,
+	 * including the hidden regions that surround the subtree. Only the regions of the subtree are created, so the
+	 * effort is proportional to its size rather than to the size of the resource.
+	 * 
+	 * @since 2.18
+	 */
+	public NodeModelBasedRegionAccessBuilder withRegion(ITextRegion region) {
+		this.region = region;
+		return this;
+	}
+
 	protected NodeHiddenRegion getFirstHidden() {
 		return firstHidden;
 	}
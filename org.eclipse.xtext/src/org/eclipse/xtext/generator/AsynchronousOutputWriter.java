@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.generator;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.util.Exceptions;
+import org.eclipse.xtext.util.RuntimeIOException;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Writes generated files on a pool of background threads, so the generator does not wait for the disk.
+ *
+ * The number of pending files is bounded: {@link #write(URI, byte[], ContentWriter)} blocks while the maximum number
+ * of files is pending. Pending files are written in batches; if a file is written again before its previous content
+ * has been written, only the latest content is written. {@link #flush()} blocks until all pending files have been
+ * written and rethrows the first failure.
+ *
+ * @since 2.18
+ */
+public class AsynchronousOutputWriter implements AutoCloseable {
+
+	/**
+	 * Performs the actual write of a file.
+	 */
+	public interface ContentWriter {
+		void write(URI uri, byte[] content) throws IOException;
+	}
+
+	private static class PendingWrite {
+
+		private final byte[] content;
+
+		private final ContentWriter writer;
+
+		private PendingWrite(byte[] content, ContentWriter writer) {
+			this.content = content;
+			this.writer = writer;
+		}
+	}
+
+	private static final int BATCH_SIZE = 32;
+
+	private final ExecutorService executor;
+
+	private final int threads;
+
+	private final int capacity;
+
+	private final Map<URI, PendingWrite> pending = new LinkedHashMap<URI, PendingWrite>();
+
+	/**
+	 * The files that are currently written and their content, which stays visible to readers until the write has
+	 * finished. A file is never written by two threads at the same time.
+	 */
+	private final Map<URI, byte[]> writing = new HashMap<URI, byte[]>();
+
+	private int activeWorkers;
+
+	private Throwable failure;
+
+	private boolean closed;
+
+	/**
+	 * @param name
+	 *            the name format of the writer threads.
+	 * @param threads
+	 *            the maximum number of threads that write concurrently.
+	 * @param capacity
+	 *            the maximum number of pending files.
+	 */
+	public AsynchronousOutputWriter(String name, int threads, int capacity) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("threads must be positive but was " + threads);
+		}
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+		}
+		this.executor = Executors.newFixedThreadPool(threads,
+				new ThreadFactoryBuilder().setDaemon(true).setNameFormat(name).build());
+		this.threads = threads;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Enqueues the given content. Replaces the content of a pending write to the same URI. Blocks while the maximum
+	 * number of files is pending.
+	 */
+	public synchronized void write(URI uri, byte[] content, ContentWriter writer) {
+		if (closed) {
+			throw new IllegalStateException("The writer has been closed");
+		}
+		rethrowFailure();
+		while (pending.size() >= capacity && !pending.containsKey(uri)) {
+			await();
+		}
+		pending.put(uri, new PendingWrite(content, writer));
+		if (activeWorkers < threads) {
+			activeWorkers++;
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					drain();
+				}
+			});
+		}
+	}
+
+	/**
+	 * @return the content that is pending or currently being written to the given URI, or <code>null</code> if
+	 *         there is none. Clients should read the file itself only if this returns <code>null</code>.
+	 */
+	public synchronized byte[] getPendingContent(URI uri) {
+		PendingWrite write = pending.get(uri);
+		if (write != null) {
+			return write.content;
+		}
+		return writing.get(uri);
+	}
+
+	/**
+	 * Discards a pending write to the given URI, e.g. because the file is about to be deleted. Blocks while the file
+	 * is being written.
+	 */
+	public synchronized void cancel(URI uri) {
+		pending.remove(uri);
+		while (writing.containsKey(uri)) {
+			await();
+		}
+		notifyAll();
+	}
+
+	/**
+	 * Blocks until all pending files have been written. Rethrows the first failure since the last flush.
+	 */
+	public synchronized void flush() {
+		while (!pending.isEmpty() || !writing.isEmpty()) {
+			await();
+		}
+		Throwable t = failure;
+		failure = null;
+		if (t != null) {
+			Exceptions.throwUncheckedException(t);
+		}
+	}
+
+	protected void drain() {
+		List<Map.Entry<URI, PendingWrite>> batch;
+		while ((batch = nextBatch()) != null) {
+			for (Map.Entry<URI, PendingWrite> entry : batch) {
+				Throwable t = null;
+				try {
+					entry.getValue().writer.write(entry.getKey(), entry.getValue().content);
+				} catch (IOException e) {
+					t = new RuntimeIOException(e);
+				} catch (Throwable e) {
+					t = e;
+				}
+				done(entry.getKey(), t);
+			}
+		}
+	}
+
+	/**
+	 * @return the next files to write or <code>null</code> if there are none. Files that are currently written by
+	 *         another thread are skipped, that thread will pick up their new content.
+	 */
+	private synchronized List<Map.Entry<URI, PendingWrite>> nextBatch() {
+		List<Map.Entry<URI, PendingWrite>> result = null;
+		Iterator<Map.Entry<URI, PendingWrite>> iterator = pending.entrySet().iterator();
+		while (iterator.hasNext() && (result == null || result.size() < BATCH_SIZE)) {
+			Map.Entry<URI, PendingWrite> entry = iterator.next();
+			if (!writing.containsKey(entry.getKey())) {
+				writing.put(entry.getKey(), entry.getValue().content);
+				if (result == null) {
+					result = new ArrayList<Map.Entry<URI, PendingWrite>>();
+				}
+				result.add(new AbstractMap.SimpleImmutableEntry<URI, PendingWrite>(entry));
+				iterator.remove();
+			}
+		}
+		if (result == null) {
+			activeWorkers--;
+		}
+		// free slots for blocked writers
+		notifyAll();
+		return result;
+	}
+
+	private synchronized void done(URI uri, Throwable t) {
+		writing.remove(uri);
+		if (t != null && failure == null) {
+			failure = t;
+		}
+		notifyAll();
+	}
+
+	private void await() {
+		try {
+			wait();
+		} catch (InterruptedException e) {
+			Exceptions.throwUncheckedException(e);
+		}
+	}
+
+	protected synchronized void rethrowFailure() {
+		Throwable t = failure;
+		if (t != null) {
+			Exceptions.throwUncheckedException(t);
+		}
+	}
+
+	/**
+	 * Waits until all pending files have been written and stops the writer threads. Failures that have not been
+	 * reported by {@link #flush()} are dropped.
+	 */
+	@Override
+	public void close() {
+		synchronized (this) {
+			closed = true;
+			while (!pending.isEmpty() || !writing.isEmpty()) {
+				await();
+			}
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -14,7 +14,9 @@ import java.io.ByteArrayOutputStream
 import java.io.File
 import java.io.FileNotFoundException
 import java.io.InputStream
+import java.io.IOException
 import java.io.InputStreamReader
+import java.util.Arrays
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.URIConverter
 import org.eclipse.xtend.lib.annotations.Accessors
@@ -56,6 +58,18 @@ class URIBasedFileSystemAccess extends AbstractFileSystemAccess2 {
 	@Accessors BeforeDelete beforeDelete = [true]
 	@Accessors BeforeWrite beforeWrite = [$2]
 	@Accessors BeforeRead beforeRead = [$1]
+	/**
+	 * Whether files whose content would not change are left untouched. This keeps their time stamps, so tools that
+	 * watch the output folders are not triggered.
+	 * @since 2.18
+	 */
+	@Accessors boolean skipUnchangedWrites = false
+	/**
+	 * If set, files are written asynchronously by the given writer. Clients have to {@link AsynchronousOutputWriter#flush() flush}
+	 * the writer to make sure that all files have been written.
+	 * @since 2.18
+	 */
+	@Accessors AsynchronousOutputWriter outputWriter
 	
 	override void setPostProcessor(IFilePostProcessor filePostProcessor) {
 		super.postProcessor = filePostProcessor
@@ -80,7 +94,7 @@ class URIBasedFileSystemAccess extends AbstractFileSystemAccess2 {
 	
 	override generateFile(String fileName, String outputCfgName, CharSequence contents) {
 		val uri = getURI(fileName, outputCfgName)
-		if (!getOutputConfig(outputCfgName).isOverrideExistingResources && converter.exists(uri, emptyMap)) {
+		if (!getOutputConfig(outputCfgName).isOverrideExistingResources && exists(uri)) {
 			return;
 		}
 		val encoding = getEncoding(uri)
@@ -106,6 +120,15 @@ class URIBasedFileSystemAccess extends AbstractFileSystemAccess2 {
 	
 	override generateFile(String fileName, String outputCfgName, InputStream content) throws RuntimeIOException {
 		val uri = getURI(fileName, outputCfgName)
+		if (outputWriter !== null || skipUnchangedWrites) {
+			val newContent = ByteStreams.toByteArray(beforeWrite.beforeWrite(uri, outputCfgName, content))
+			if (outputWriter !== null) {
+				outputWriter.write(uri, newContent, [u, c|writeContent(u, c)])
+			} else {
+				writeContent(uri, newContent)
+			}
+			return
+		}
 		val out = converter.createOutputStream(uri)
 		try {
 			val processedContent = beforeWrite.beforeWrite(uri, outputCfgName, content)
@@ -115,9 +138,65 @@ class URIBasedFileSystemAccess extends AbstractFileSystemAccess2 {
 		}
 	}
 	
+	/**
+	 * Writes the content to the file. Does not touch the file if {@link #isSkipUnchangedWrites() skipUnchangedWrites}
+	 * is set and the file has this content already.
+	 * @since 2.18
+	 */
+	protected def void writeContent(URI uri, byte[] content) {
+		if (skipUnchangedWrites && hasContent(uri, content)) {
+			return
+		}
+		val out = converter.createOutputStream(uri)
+		try {
+			out.write(content)
+		} finally {
+			out.close
+		}
+	}
+	
+	/**
+	 * @return <code>true</code> if the file exists or is about to be written by the {@link #getOutputWriter() output writer}.
+	 * @since 2.18
+	 */
+	protected def boolean exists(URI uri) {
+		return outputWriter?.getPendingContent(uri) !== null || converter.exists(uri, emptyMap)
+	}
+	
+	/**
+	 * @return <code>true</code> if the file exists and has exactly the given content.
+	 * @since 2.18
+	 */
+	protected def boolean hasContent(URI uri, byte[] content) {
+		if (!converter.exists(uri, emptyMap)) {
+			return false
+		}
+		val attributes = converter.getAttributes(uri, #{
+			URIConverter.OPTION_REQUESTED_ATTRIBUTES -> #{URIConverter.ATTRIBUTE_LENGTH}
+		})
+		val length = attributes.get(URIConverter.ATTRIBUTE_LENGTH)
+		if (length instanceof Long && (length as Long).longValue != content.length) {
+			return false
+		}
+		try {
+			val in = converter.createInputStream(uri)
+			try {
+				return Arrays.equals(ByteStreams.toByteArray(in), content)
+			} finally {
+				in.close
+			}
+		} catch (IOException e) {
+			return false
+		}
+	}
+	
 	override readBinaryFile(String fileName, String outputCfgName) throws RuntimeIOException {
 		try {
 			val uri = getURI(fileName, outputCfgName)
+			val pendingContent = outputWriter?.getPendingContent(uri)
+			if (pendingContent !== null) {
+				return beforeRead.beforeRead(uri, new ByteArrayInputStream(pendingContent))
+			}
 			val input = converter.createInputStream(uri)
 			return beforeRead.beforeRead(uri, input)
 		} catch (FileNotFoundException e) {
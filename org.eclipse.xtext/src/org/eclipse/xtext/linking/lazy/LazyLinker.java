@@ -107,6 +107,68 @@ public class LazyLinker extends AbstractCleaningLinker {
 		installQueuedLinks(settingsToLink);
 	}
 
+	/**
+	 * Updates the lazy links of the given element, its contents and its containers after their nodes have been
+	 * replaced by a partial reparse that did not change the semantic model. Resolved cross references are kept. Only
+	 * objects with unresolved lazy links get new proxies, since these proxies point to the replaced nodes. All other
+	 * objects of the model are not touched and the cache of the resource is not cleared.
+	 * 
+	 * @since 2.18
+	 */
+	public void linkPreservedElement(final EObject element, IDiagnosticConsumer consumer) {
+		final Multimap<EStructuralFeature.Setting, INode> settingsToLink = ArrayListMultimap.create();
+		final LinkingDiagnosticProducer producer = new LinkingDiagnosticProducer(consumer);
+		cache.execWithoutCacheClear(element.eResource(), new IUnitOfWork.Void<Resource>() {
+			@Override
+			public void process(Resource state) throws Exception {
+				for (EObject container = element.eContainer(); container != null; container = container.eContainer()) {
+					relinkUnresolvedProxies(container, producer, settingsToLink);
+				}
+				TreeIterator<EObject> iterator = getAllLinkableContents(element);
+				while (iterator.hasNext()) {
+					relinkUnresolvedProxies(iterator.next(), producer, settingsToLink);
+				}
+			}
+		});
+		installQueuedLinks(settingsToLink);
+	}
+
+	private void relinkUnresolvedProxies(EObject obj, IDiagnosticProducer producer,
+			Multimap<EStructuralFeature.Setting, INode> settingsToLink) {
+		if (hasUnresolvedLazyLinks(obj)) {
+			clearReferences(obj);
+			installProxies(obj, producer, settingsToLink);
+		}
+	}
+
+	/**
+	 * @since 2.18
+	 */
+	protected boolean hasUnresolvedLazyLinks(EObject obj) {
+		for (EReference ref : obj.eClass().getEAllReferences()) {
+			if (!ref.isContainment() && !ref.isContainer() && !ref.isDerived() && obj.eIsSet(ref)) {
+				Object value = obj.eGet(ref, false);
+				if (ref.isMany()) {
+					for (Object element : ((InternalEList<?>) value).basicList()) {
+						if (isUnresolvedLazyLink(obj, element))
+							return true;
+					}
+				} else if (isUnresolvedLazyLink(obj, value)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean isUnresolvedLazyLink(EObject obj, Object value) {
+		if (value instanceof EObject && ((EObject) value).eIsProxy()) {
+			URI proxyURI = ((InternalEObject) value).eProxyURI();
+			return proxyURI.hasFragment() && encoder.isCrossLinkFragment(obj.eResource(), proxyURI.fragment());
+		}
+		return false;
+	}
+
 	protected void installProxies(EObject obj, IDiagnosticProducer producer,
 			Multimap<EStructuralFeature.Setting, INode> settingsToLink) {
 		ICompositeNode node = NodeModelUtils.getNode(obj);
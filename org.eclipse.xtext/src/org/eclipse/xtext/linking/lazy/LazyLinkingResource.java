@@ -35,6 +35,7 @@ import org.eclipse.emf.ecore.util.InternalEList;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.diagnostics.DiagnosticMessage;
 import org.eclipse.xtext.diagnostics.ExceptionDiagnostic;
+import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.linking.ILinkingDiagnosticMessageProvider;
 import org.eclipse.xtext.linking.ILinkingDiagnosticMessageProvider.ILinkingDiagnosticContext;
 import org.eclipse.xtext.linking.ILinkingService;
@@ -43,6 +44,7 @@ import org.eclipse.xtext.linking.impl.LinkingHelper;
 import org.eclipse.xtext.linking.impl.XtextLinkingDiagnostic;
 import org.eclipse.xtext.nodemodel.INode;
 import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.impl.ListBasedDiagnosticConsumer;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.Triple;
 import org.eclipse.xtext.util.Tuples;
@@ -123,6 +125,28 @@ public class LazyLinkingResource extends XtextResource {
 			EcoreUtil.resolveAll(this);
 	}
 
+	/**
+	 * Only updates the lazy links of the preserved semantic element, its contents and its containers if the linker
+	 * is a {@link LazyLinker}. The cross references of all other objects stay untouched.
+	 * 
+	 * @since 2.18
+	 */
+	@Override
+	protected void doLinking(EObject preservedSemanticElement) {
+		if (!(getLinker() instanceof LazyLinker)) {
+			super.doLinking(preservedSemanticElement);
+			return;
+		}
+		ListBasedDiagnosticConsumer consumer = new ListBasedDiagnosticConsumer();
+		((LazyLinker) getLinker()).linkPreservedElement(preservedSemanticElement, consumer);
+		if (!isValidationDisabled()) {
+			getErrors().addAll(consumer.getResult(Severity.ERROR));
+			getWarnings().addAll(consumer.getResult(Severity.WARNING));
+		}
+		if (isEagerLinking())
+			EcoreUtil.resolveAll(this);
+	}
+
 	/**
 	 * @since 2.4
 	 */
@@ -192,14 +192,14 @@ public class LazyURIEncoder {
 	 * @noreference This method is not intended to be referenced by clients.
 	 */
 	public void getRelativePath(StringBuilder result, INode parserNode, INode node) {
-		if (parserNode == node)
+		if (parserNode.equals(node))
 			return;
 		if (isAncestor(parserNode, node)) {
 			ICompositeNode parent = node.getParent();
 			getRelativePath(result, parserNode, parent);
 			int idx = 0;
 			INode child = parent.getFirstChild();
-			while(child != node && child.hasNextSibling()) {
+			while(!child.equals(node) && child.hasNextSibling()) {
 				idx++;
 				child = child.getNextSibling();
 			}
@@ -163,6 +163,10 @@ public class QualifiedName implements Comparable<QualifiedName> {
 			}
 		}
 
+		if (QualifiedNameTable.isEnabled()) {
+			QualifiedName result = readCanonicalName(eObjectInputStream, segmentCount, firstSegment);
+			return lowerCase ? result.toLowerCase() : result;
+		}
 		String[] segments = readSegmentArray(eObjectInputStream, segmentCount, firstSegment);
 		if (lowerCase) {
 			return new QualifiedNameLowerCase(segments);
@@ -171,6 +175,19 @@ public class QualifiedName implements Comparable<QualifiedName> {
 		}
 	}
 
+	private static QualifiedName readCanonicalName(EObjectInputStream from, int count, String first) throws IOException {
+		QualifiedNameTable table = QualifiedNameTable.getInstance();
+		QualifiedName result = table.append(EMPTY, first);
+		for (int i = 1; i < count; i++) {
+			String segment = from.readSegmentedString();
+			if(segment == null){
+				throw new IllegalStateException("Read unexpected segment (#" + i + ") from object stream");
+			}
+			result = table.append(result, segment);
+		}
+		return result;
+	}
+
 	private static String[] readSegmentArray(EObjectInputStream from, int count, String first) throws IOException {
 		String[] segments = new String[count];
 		segments[0] = intern(first);
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.naming;
+
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
+
+/**
+ * A concurrent table of canonical {@link QualifiedName qualified names} and their segments.
+ *
+ * Names are stored as a tree: each canonical name is registered as the child of its canonical prefix, so names that
+ * share a prefix share the prefix' instance and all names share their segment strings. Looking up an existing name
+ * segment by segment does not allocate any intermediate segment arrays. Since canonical names are shared, their
+ * {@link QualifiedName#toLowerCase() lower case} representation and its hash are computed only once.
+ *
+ * Canonical names and segments are only weakly referenced by the table.
+ *
+ * The table is used for the names in the index if the system property {@code xtext.qn.table} is set to
+ * {@code true}.
+ *
+ * @since 2.18
+ */
+public class QualifiedNameTable {
+
+	private static final boolean ENABLED = Boolean.getBoolean("xtext.qn.table");
+
+	private static final QualifiedNameTable INSTANCE = new QualifiedNameTable();
+
+	/**
+	 * @return <code>true</code> if the system property {@code xtext.qn.table} is set to {@code true}.
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	public static QualifiedNameTable getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Returns the key that should be used to register the given name in case insensitive lookup structures. The
+	 * result is the {@link QualifiedName#toLowerCase() lower case} representation of the given name, which is
+	 * canonical if the {@link #isEnabled() table is enabled}.
+	 */
+	public static QualifiedName toLowerCaseKey(QualifiedName name) {
+		QualifiedName result = name.toLowerCase();
+		if (ENABLED) {
+			result = INSTANCE.canonicalize(result);
+		}
+		return result;
+	}
+
+	private final Interner<String> segments = Interners.newWeakInterner();
+
+	private final ConcurrentMap<Key, QualifiedName> names = new MapMaker().weakValues().makeMap();
+
+	/**
+	 * @return the canonical instance that is equal to the given name.
+	 */
+	public QualifiedName canonicalize(QualifiedName name) {
+		QualifiedName result = QualifiedName.EMPTY;
+		for (int i = 0; i < name.getSegmentCount(); i++) {
+			result = append(result, name.getSegment(i));
+		}
+		return result;
+	}
+
+	/**
+	 * @param canonicalPrefix
+	 *            a name that was obtained from this table or {@link QualifiedName#EMPTY}.
+	 * @return the canonical instance of the name that consists of the given prefix and the given segment.
+	 */
+	public QualifiedName append(QualifiedName canonicalPrefix, String segment) {
+		if (segment == null) {
+			throw new IllegalArgumentException("Segment cannot be null");
+		}
+		QualifiedName result = names.get(new Key(canonicalPrefix, segment));
+		if (result == null) {
+			String canonicalSegment = segments.intern(segment);
+			int prefixLength = canonicalPrefix.getSegmentCount();
+			String[] newSegments = new String[prefixLength + 1];
+			for (int i = 0; i < prefixLength; i++) {
+				newSegments[i] = canonicalPrefix.getSegment(i);
+			}
+			newSegments[prefixLength] = canonicalSegment;
+			QualifiedName newName = new QualifiedName(newSegments);
+			result = names.putIfAbsent(new Key(canonicalPrefix, canonicalSegment), newName);
+			if (result == null) {
+				result = newName;
+			}
+		}
+		if (!result.hasLowerCase()) {
+			// compute the case folded representation and its hash once for all users of the canonical instance
+			result.toLowerCase();
+		}
+		return result;
+	}
+
+	/**
+	 * @return the canonical instance of the given segment.
+	 */
+	public String internSegment(String segment) {
+		return segments.intern(segment);
+	}
+
+	private static final class Key {
+
+		private final QualifiedName prefix;
+
+		private final String segment;
+
+		private final int hash;
+
+		Key(QualifiedName prefix, String segment) {
+			this.prefix = prefix;
+			this.segment = segment;
+			this.hash = 31 * System.identityHashCode(prefix) + segment.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return prefix == other.prefix && segment.equals(other.segment);
+		}
+	}
+
+}
@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel;
+
+/**
+ * A resource that creates its node model on demand, e.g. when the resource has been loaded from a storage.
+ * {@link org.eclipse.xtext.nodemodel.util.NodeModelUtils#getNode(org.eclipse.emf.ecore.EObject) NodeModelUtils.getNode}
+ * asks the resource to create the node model if an object has no node yet.
+ * 
+ * @since 2.18
+ */
+public interface ILazyNodeModelResource {
+
+	/**
+	 * Creates the node model of this resource if that has been deferred. Concurrent callers wait until the node
+	 * model has been created.
+	 * 
+	 * @return <code>true</code> if the node model has been created by this call.
+	 */
+	boolean loadNodeModel();
+
+}
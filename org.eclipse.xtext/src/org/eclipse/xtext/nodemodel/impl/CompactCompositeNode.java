@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.xtext.nodemodel.BidiIterable;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.util.EmptyBidiIterable;
+import org.eclipse.xtext.nodemodel.util.NodeIterable;
+import org.eclipse.xtext.nodemodel.util.SingletonBidiIterable;
+
+/**
+ * A view on a composite node of a {@link CompactNodeModel}. The views of nodes with a direct semantic element are
+ * installed as adapters of that element.
+ *
+ * @since 2.18
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class CompactCompositeNode extends CompactNode implements ICompositeNode, Adapter {
+
+	protected CompactCompositeNode(CompactNodeModel model, int index) {
+		super(model, index);
+	}
+
+	@Override
+	public BidiIterable<INode> getChildren() {
+		if (hasChildren()) {
+			INode firstChild = getFirstChild();
+			if (firstChild.hasSiblings()) {
+				return new NodeIterable(firstChild);
+			} else {
+				return SingletonBidiIterable.<INode>create(firstChild);
+			}
+		}
+		return EmptyBidiIterable.instance();
+	}
+
+	@Override
+	public boolean hasChildren() {
+		return getModel().getFirstChild(getIndex()) != CompactNodeModel.NO_NODE;
+	}
+
+	@Override
+	public INode getFirstChild() {
+		return getModel().getNode(getModel().getFirstChild(getIndex()));
+	}
+
+	@Override
+	public INode getLastChild() {
+		return getModel().getNode(getModel().getLastChild(getIndex()));
+	}
+
+	@Override
+	public int getLookAhead() {
+		return getModel().getLookAhead(getIndex());
+	}
+
+	@Override
+	public void notifyChanged(Notification notification) {
+		// ignore
+	}
+
+	@Override
+	public Notifier getTarget() {
+		return getModel().getDirectSemanticElement(getIndex());
+	}
+
+	@Override
+	public void setTarget(Notifier newTarget) {
+		// the semantic element is stored in the model
+	}
+
+	@Override
+	public boolean isAdapterForType(Object type) {
+		return type instanceof Class<?> && INode.class.isAssignableFrom((Class<?>) type);
+	}
+
+}
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import org.eclipse.xtext.nodemodel.ILeafNode;
+
+/**
+ * A view on a leaf node of a {@link CompactNodeModel}.
+ *
+ * @since 2.18
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class CompactLeafNode extends CompactNode implements ILeafNode {
+
+	protected CompactLeafNode(CompactNodeModel model, int index) {
+		super(model, index);
+	}
+
+	@Override
+	public boolean isHidden() {
+		return getModel().isHidden(getIndex());
+	}
+
+	@Override
+	public int getOffset() {
+		return getTotalOffset();
+	}
+
+	@Override
+	public int getLength() {
+		return getTotalLength();
+	}
+
+	@Override
+	public int getEndOffset() {
+		return getTotalEndOffset();
+	}
+
+}
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.BidiTreeIterable;
+import org.eclipse.xtext.nodemodel.BidiTreeIterator;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.ILeafNode;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+import org.eclipse.xtext.nodemodel.util.NodeTreeIterator;
+import org.eclipse.xtext.nodemodel.util.ReversedBidiTreeIterable;
+import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ITextRegionWithLineInformation;
+import org.eclipse.xtext.util.TextRegion;
+import org.eclipse.xtext.util.TextRegionWithLineInformation;
+
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * A view on a node of a {@link CompactNodeModel}. Nodes are equal if they denote the same index in the same model.
+ *
+ * @since 2.18
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public abstract class CompactNode implements INode, BidiTreeIterable<INode> {
+
+	private final CompactNodeModel model;
+
+	private final int index;
+
+	protected CompactNode(CompactNodeModel model, int index) {
+		this.model = model;
+		this.index = index;
+	}
+
+	public CompactNodeModel getModel() {
+		return model;
+	}
+
+	/**
+	 * @return the pre-order index of this node in its model.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public ICompositeNode getParent() {
+		return (ICompositeNode) model.getNode(model.getParent(index));
+	}
+
+	@Override
+	public boolean hasSiblings() {
+		return hasPreviousSibling() || hasNextSibling();
+	}
+
+	@Override
+	public boolean hasPreviousSibling() {
+		int parent = model.getParent(index);
+		return parent != CompactNodeModel.NO_NODE && index != parent + 1;
+	}
+
+	@Override
+	public boolean hasNextSibling() {
+		return model.getNextSibling(index) != CompactNodeModel.NO_NODE;
+	}
+
+	@Override
+	public INode getPreviousSibling() {
+		return model.getNode(model.getPreviousSibling(index));
+	}
+
+	@Override
+	public INode getNextSibling() {
+		return model.getNode(model.getNextSibling(index));
+	}
+
+	@Override
+	public ICompositeNode getRootNode() {
+		return model.getRootNode();
+	}
+
+	@Override
+	public Iterable<ILeafNode> getLeafNodes() {
+		return new Iterable<ILeafNode>() {
+			@Override
+			public Iterator<ILeafNode> iterator() {
+				return new UnmodifiableIterator<ILeafNode>() {
+					private final int end = model.getEnd(index);
+
+					private int next = nextLeaf(index);
+
+					private int nextLeaf(int from) {
+						int result = from;
+						while (result < end && !model.isLeaf(result)) {
+							result++;
+						}
+						return result;
+					}
+
+					@Override
+					public boolean hasNext() {
+						return next < end;
+					}
+
+					@Override
+					public ILeafNode next() {
+						if (!hasNext())
+							throw new NoSuchElementException();
+						ILeafNode result = (ILeafNode) model.getNode(next);
+						next = nextLeaf(next + 1);
+						return result;
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	public int getTotalOffset() {
+		return model.getTotalOffset(index);
+	}
+
+	@Override
+	public int getOffset() {
+		return model.getOffset(index);
+	}
+
+	@Override
+	public int getTotalLength() {
+		return model.getTotalLength(index);
+	}
+
+	@Override
+	public int getLength() {
+		int lastLeaf = model.getLastNonHiddenLeaf(index);
+		if (lastLeaf != CompactNodeModel.NO_NODE) {
+			return model.getTotalOffset(lastLeaf) + model.getTotalLength(lastLeaf) - getOffset();
+		}
+		return getTotalLength();
+	}
+
+	@Override
+	public int getTotalEndOffset() {
+		return getTotalOffset() + getTotalLength();
+	}
+
+	@Override
+	public int getEndOffset() {
+		int lastLeaf = model.getLastNonHiddenLeaf(index);
+		if (lastLeaf != CompactNodeModel.NO_NODE) {
+			return model.getTotalOffset(lastLeaf) + model.getTotalLength(lastLeaf);
+		}
+		return getTotalEndOffset();
+	}
+
+	@Override
+	public int getTotalStartLine() {
+		return getLineOfOffset(getTotalOffset());
+	}
+
+	@Override
+	public int getStartLine() {
+		return getLineOfOffset(getOffset());
+	}
+
+	@Override
+	public int getTotalEndLine() {
+		return getLineOfOffset(getTotalEndOffset());
+	}
+
+	@Override
+	public int getEndLine() {
+		return getLineOfOffset(getEndOffset());
+	}
+
+	protected int getLineOfOffset(int offset) {
+		return InternalNodeModelUtils.getLineAndColumn(model.getText(), model.getLineBreaks(), offset).getLine();
+	}
+
+	@Override
+	public String getText() {
+		int offset = getTotalOffset();
+		return model.getText().substring(offset, offset + getTotalLength());
+	}
+
+	@Override
+	public EObject getGrammarElement() {
+		return model.getGrammarElement(index);
+	}
+
+	@Override
+	public EObject getSemanticElement() {
+		return model.getSemanticElement(index);
+	}
+
+	@Override
+	public boolean hasDirectSemanticElement() {
+		return model.getDirectSemanticElement(index) != null;
+	}
+
+	@Override
+	public SyntaxErrorMessage getSyntaxErrorMessage() {
+		return model.getSyntaxErrorMessage(index);
+	}
+
+	/**
+	 * @return the leaf node in the subtree of this node that covers the given offset or <code>null</code>.
+	 * @see org.eclipse.xtext.nodemodel.util.NodeModelUtils#findLeafNodeAtOffset(INode, int)
+	 */
+	public ILeafNode findLeafNodeAtOffset(int offset) {
+		return (ILeafNode) model.getNode(model.findLeafAtOffset(index, offset));
+	}
+
+	@Override
+	public BidiTreeIterable<INode> getAsTreeIterable() {
+		return this;
+	}
+
+	@Override
+	public BidiTreeIterator<INode> iterator() {
+		return new NodeTreeIterator(this);
+	}
+
+	@Override
+	public BidiTreeIterable<INode> reverse() {
+		return new ReversedBidiTreeIterable<INode>(this);
+	}
+
+	@Override
+	public ITextRegion getTextRegion() {
+		int offset = getOffset();
+		return new TextRegion(offset, getEndOffset() - offset);
+	}
+
+	@Override
+	public ITextRegion getTotalTextRegion() {
+		return new TextRegion(getTotalOffset(), getTotalLength());
+	}
+
+	@Override
+	public ITextRegionWithLineInformation getTextRegionWithLineInformation() {
+		int offset = getOffset();
+		int endOffset = getEndOffset();
+		return new TextRegionWithLineInformation(offset, endOffset - offset, getLineOfOffset(offset),
+				getLineOfOffset(endOffset));
+	}
+
+	@Override
+	public ITextRegionWithLineInformation getTotalTextRegionWithLineInformation() {
+		int offset = getTotalOffset();
+		int endOffset = getTotalEndOffset();
+		return new TextRegionWithLineInformation(offset, endOffset - offset, getLineOfOffset(offset),
+				getLineOfOffset(endOffset));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || obj.getClass() != getClass())
+			return false;
+		CompactNode other = (CompactNode) obj;
+		return index == other.index && model == other.model;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * System.identityHashCode(model) + index;
+	}
+
+}
@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.util.Arrays;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+
+/**
+ * The storage of a node model that keeps its nodes in primitive arrays instead of one object per node.
+ *
+ * The nodes are numbered in pre-order, i.e. a composite node is followed by the nodes of its subtree. For each node,
+ * the index of its parent, the index after the end of its subtree, its total offset and length, the index of its
+ * grammar element in a table of all grammar elements and some flags are stored. Semantic elements and syntax errors are
+ * only known for few nodes, they are kept in sorted sparse arrays.
+ *
+ * {@link CompactNode Nodes} are created on demand as lightweight views on this storage. The root node and the nodes
+ * that are associated with a semantic element are canonical, i.e. they are created once and installed as adapters of
+ * their semantic element. All other nodes are compared by their index.
+ *
+ * Use the {@link CompactNodeModelBuilder} to create a compact node model.
+ *
+ * @since 2.18
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class CompactNodeModel {
+
+	static final int LEAF = 1;
+
+	static final int HIDDEN = 2;
+
+	static final int LOOK_AHEAD_SHIFT = 2;
+
+	static final int NO_NODE = -1;
+
+	private final String text;
+
+	private final int[] lineBreaks;
+
+	private final int[] parents;
+
+	private final int[] ends;
+
+	private final int[] totalOffsets;
+
+	private final int[] totalLengths;
+
+	private final int[] grammarElementIds;
+
+	private final int[] flags;
+
+	private final EObject[] grammarElements;
+
+	private final int[] semanticIndices;
+
+	private final EObject[] semanticElements;
+
+	private final CompactCompositeNode[] semanticNodes;
+
+	private final int[] errorIndices;
+
+	private final SyntaxErrorMessage[] syntaxErrors;
+
+	private final CompactCompositeNode rootNode;
+
+	/**
+	 * The index of the last leaf that is not hidden before each index, computed on first use.
+	 */
+	private volatile int[] lastNonHiddenLeaves;
+
+	CompactNodeModel(String text, int[] parents, int[] ends, int[] totalOffsets, int[] totalLengths,
+			int[] grammarElementIds, int[] flags, EObject[] grammarElements, int[] semanticIndices,
+			EObject[] semanticElements, int[] errorIndices, SyntaxErrorMessage[] syntaxErrors) {
+		this.text = text;
+		this.lineBreaks = InternalNodeModelUtils.computeLineBreaks(text);
+		this.parents = parents;
+		this.ends = ends;
+		this.totalOffsets = totalOffsets;
+		this.totalLengths = totalLengths;
+		this.grammarElementIds = grammarElementIds;
+		this.flags = flags;
+		this.grammarElements = grammarElements;
+		this.semanticIndices = semanticIndices;
+		this.semanticElements = semanticElements;
+		this.errorIndices = errorIndices;
+		this.syntaxErrors = syntaxErrors;
+		this.semanticNodes = new CompactCompositeNode[semanticIndices.length];
+		for (int i = 0; i < semanticIndices.length; i++) {
+			semanticNodes[i] = new CompactCompositeNode(this, semanticIndices[i]);
+		}
+		int rootSemanticIndex = Arrays.binarySearch(semanticIndices, 0);
+		this.rootNode = rootSemanticIndex >= 0 ? semanticNodes[rootSemanticIndex] : new CompactCompositeNode(this, 0);
+	}
+
+	/**
+	 * @return the number of nodes.
+	 */
+	public int getSize() {
+		return parents.length;
+	}
+
+	public CompactCompositeNode getRootNode() {
+		return rootNode;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	int[] getLineBreaks() {
+		return lineBreaks;
+	}
+
+	/**
+	 * @return the canonical nodes, i.e. the nodes that are associated with a semantic element, in pre-order.
+	 */
+	CompactCompositeNode[] getSemanticNodes() {
+		return semanticNodes;
+	}
+
+	/**
+	 * @return the node with the given index or <code>null</code> if the index is {@link #NO_NODE}.
+	 */
+	CompactNode getNode(int index) {
+		if (index == NO_NODE) {
+			return null;
+		}
+		if (index == 0) {
+			return rootNode;
+		}
+		if (isLeaf(index)) {
+			return new CompactLeafNode(this, index);
+		}
+		int semanticIndex = Arrays.binarySearch(semanticIndices, index);
+		if (semanticIndex >= 0) {
+			return semanticNodes[semanticIndex];
+		}
+		return new CompactCompositeNode(this, index);
+	}
+
+	boolean isLeaf(int index) {
+		return (flags[index] & LEAF) != 0;
+	}
+
+	boolean isHidden(int index) {
+		return (flags[index] & HIDDEN) != 0;
+	}
+
+	int getLookAhead(int index) {
+		return flags[index] >>> LOOK_AHEAD_SHIFT;
+	}
+
+	int getParent(int index) {
+		return parents[index];
+	}
+
+	/**
+	 * @return the index after the last node in the subtree of the given node.
+	 */
+	int getEnd(int index) {
+		return ends[index];
+	}
+
+	int getTotalOffset(int index) {
+		return totalOffsets[index];
+	}
+
+	int getTotalLength(int index) {
+		return totalLengths[index];
+	}
+
+	EObject getGrammarElement(int index) {
+		int id = grammarElementIds[index];
+		return id == NO_NODE ? null : grammarElements[id];
+	}
+
+	EObject getDirectSemanticElement(int index) {
+		int semanticIndex = Arrays.binarySearch(semanticIndices, index);
+		return semanticIndex >= 0 ? semanticElements[semanticIndex] : null;
+	}
+
+	EObject getSemanticElement(int index) {
+		for (int i = index; i != NO_NODE; i = parents[i]) {
+			EObject result = getDirectSemanticElement(i);
+			if (result != null) {
+				return result;
+			}
+		}
+		return null;
+	}
+
+	SyntaxErrorMessage getSyntaxErrorMessage(int index) {
+		int errorIndex = Arrays.binarySearch(errorIndices, index);
+		return errorIndex >= 0 ? syntaxErrors[errorIndex] : null;
+	}
+
+	int getNextSibling(int index) {
+		int parent = parents[index];
+		if (parent == NO_NODE) {
+			return NO_NODE;
+		}
+		int result = ends[index];
+		return result < ends[parent] ? result : NO_NODE;
+	}
+
+	int getPreviousSibling(int index) {
+		int parent = parents[index];
+		if (parent == NO_NODE || index == parent + 1) {
+			return NO_NODE;
+		}
+		int result = index - 1;
+		while (parents[result] != parent) {
+			result = parents[result];
+		}
+		return result;
+	}
+
+	int getFirstChild(int index) {
+		return ends[index] > index + 1 ? index + 1 : NO_NODE;
+	}
+
+	int getLastChild(int index) {
+		if (ends[index] == index + 1) {
+			return NO_NODE;
+		}
+		int result = ends[index] - 1;
+		while (parents[result] != index) {
+			result = parents[result];
+		}
+		return result;
+	}
+
+	/**
+	 * @see AbstractNode#getOffset()
+	 */
+	int getOffset(int index) {
+		int firstLeaf = NO_NODE;
+		for (int i = index; i < ends[index]; i++) {
+			if (isLeaf(i)) {
+				if (!isHidden(i)) {
+					return totalOffsets[i];
+				}
+				if (firstLeaf == NO_NODE) {
+					firstLeaf = i;
+				}
+			}
+		}
+		if (firstLeaf != NO_NODE) {
+			return totalOffsets[firstLeaf];
+		}
+		return totalOffsets[index];
+	}
+
+	/**
+	 * @return the index of the last leaf in the subtree of the given node that is not hidden, or {@link #NO_NODE}.
+	 */
+	int getLastNonHiddenLeaf(int index) {
+		int[] leaves = lastNonHiddenLeaves;
+		if (leaves == null) {
+			leaves = computeLastNonHiddenLeaves();
+			lastNonHiddenLeaves = leaves;
+		}
+		int result = leaves[ends[index]];
+		return result >= index ? result : NO_NODE;
+	}
+
+	/**
+	 * @return an array that holds for each index from 0 to {@link #getSize()} the index of the last leaf before it that
+	 *         is not hidden, or {@link #NO_NODE}.
+	 */
+	private int[] computeLastNonHiddenLeaves() {
+		int[] result = new int[parents.length + 1];
+		int last = NO_NODE;
+		for (int i = 0; i < parents.length; i++) {
+			result[i] = last;
+			if (isLeaf(i) && !isHidden(i)) {
+				last = i;
+			}
+		}
+		result[parents.length] = last;
+		return result;
+	}
+
+	/**
+	 * @return the index of the leaf in the subtree of the given node that covers the given offset, or
+	 *         {@link #NO_NODE}.
+	 * @see org.eclipse.xtext.nodemodel.util.NodeModelUtils#findLeafNodeAtOffset(org.eclipse.xtext.nodemodel.INode,
+	 *      int)
+	 */
+	int findLeafAtOffset(int index, int offset) {
+		int i = index;
+		int end = ends[index];
+		while (i < end) {
+			int totalOffset = totalOffsets[i];
+			if (totalOffset > offset) {
+				return NO_NODE;
+			}
+			if (offset < totalOffset + totalLengths[i]) {
+				if (isLeaf(i)) {
+					return i;
+				}
+				i++;
+			} else {
+				i = ends[i];
+			}
+		}
+		return NO_NODE;
+	}
+
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.ILeafNode;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+
+/**
+ * A stateful (!) builder that converts a node model into a {@link CompactNodeModel}. Folded composite nodes are
+ * expanded into one node per grammar element. The adapters of the semantic elements are replaced by the canonical
+ * nodes of the compact model, i.e. {@link org.eclipse.xtext.nodemodel.util.NodeModelUtils#getNode(EObject)} returns
+ * compact nodes afterwards.
+ *
+ * @since 2.18
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class CompactNodeModelBuilder {
+
+	private int size;
+
+	private int[] parents;
+
+	private int[] ends;
+
+	private int[] totalOffsets;
+
+	private int[] totalLengths;
+
+	private int[] grammarElementIds;
+
+	private int[] flags;
+
+	private final Map<EObject, Integer> grammarElementToId = Maps.newHashMap();
+
+	private final List<EObject> grammarElements = new ArrayList<EObject>();
+
+	private final List<Integer> semanticIndices = new ArrayList<Integer>();
+
+	private final List<EObject> semanticElements = new ArrayList<EObject>();
+
+	private final List<INode> replacedNodes = new ArrayList<INode>();
+
+	private final List<Integer> errorIndices = new ArrayList<Integer>();
+
+	private final List<SyntaxErrorMessage> syntaxErrors = new ArrayList<SyntaxErrorMessage>();
+
+	/**
+	 * Converts the node model with the given root node. The given node model must not be used afterwards.
+	 *
+	 * @return the root node of the compact model.
+	 */
+	public CompactCompositeNode compact(ICompositeNode rootNode) {
+		CompactNodeModel result = build(rootNode);
+		CompactCompositeNode[] semanticNodes = result.getSemanticNodes();
+		for (int i = 0; i < semanticNodes.length; i++) {
+			EObject semanticElement = semanticElements.get(i);
+			INode replaced = replacedNodes.get(i);
+			List<Adapter> adapters = semanticElement.eAdapters();
+			if (replaced instanceof Adapter) {
+				adapters.remove(replaced);
+			}
+			adapters.add(semanticNodes[i]);
+		}
+		return result.getRootNode();
+	}
+
+	protected CompactNodeModel build(ICompositeNode rootNode) {
+		int capacity = Math.max(16, rootNode.getTotalLength() / 2);
+		parents = new int[capacity];
+		ends = new int[capacity];
+		totalOffsets = new int[capacity];
+		totalLengths = new int[capacity];
+		grammarElementIds = new int[capacity];
+		flags = new int[capacity];
+		// iterative pre-order traversal since deeply nested expressions would overflow the stack
+		Deque<Iterator<INode>> children = new ArrayDeque<Iterator<INode>>();
+		Deque<Integer> composites = new ArrayDeque<Integer>();
+		composites.push(add(rootNode, CompactNodeModel.NO_NODE));
+		children.push(rootNode.getChildren().iterator());
+		while (!children.isEmpty()) {
+			Iterator<INode> iterator = children.peek();
+			if (iterator.hasNext()) {
+				INode child = iterator.next();
+				int index = add(child, composites.peek());
+				if (child instanceof ICompositeNode) {
+					composites.push(index);
+					children.push(((ICompositeNode) child).getChildren().iterator());
+				}
+			} else {
+				children.pop();
+				ends[composites.pop()] = size;
+			}
+		}
+		return new CompactNodeModel(rootNode.getText(), trim(parents), trim(ends), trim(totalOffsets),
+				trim(totalLengths), trim(grammarElementIds), trim(flags),
+				grammarElements.toArray(new EObject[grammarElements.size()]), Ints.toArray(semanticIndices),
+				semanticElements.toArray(new EObject[semanticElements.size()]), Ints.toArray(errorIndices),
+				syntaxErrors.toArray(new SyntaxErrorMessage[syntaxErrors.size()]));
+	}
+
+	protected int add(INode node, int parent) {
+		if (size == parents.length) {
+			int capacity = size * 2;
+			parents = Arrays.copyOf(parents, capacity);
+			ends = Arrays.copyOf(ends, capacity);
+			totalOffsets = Arrays.copyOf(totalOffsets, capacity);
+			totalLengths = Arrays.copyOf(totalLengths, capacity);
+			grammarElementIds = Arrays.copyOf(grammarElementIds, capacity);
+			flags = Arrays.copyOf(flags, capacity);
+		}
+		int index = size++;
+		parents[index] = parent;
+		ends[index] = index + 1;
+		totalOffsets[index] = node.getTotalOffset();
+		totalLengths[index] = node.getTotalLength();
+		grammarElementIds[index] = getGrammarElementId(node.getGrammarElement());
+		if (node instanceof ILeafNode) {
+			flags[index] = CompactNodeModel.LEAF | (((ILeafNode) node).isHidden() ? CompactNodeModel.HIDDEN : 0);
+		} else {
+			flags[index] = ((ICompositeNode) node).getLookAhead() << CompactNodeModel.LOOK_AHEAD_SHIFT;
+			if (node.hasDirectSemanticElement()) {
+				semanticIndices.add(index);
+				semanticElements.add(node.getSemanticElement());
+				replacedNodes.add(node);
+			}
+		}
+		SyntaxErrorMessage syntaxErrorMessage = node.getSyntaxErrorMessage();
+		if (syntaxErrorMessage != null) {
+			errorIndices.add(index);
+			syntaxErrors.add(syntaxErrorMessage);
+		}
+		return index;
+	}
+
+	protected int getGrammarElementId(EObject grammarElement) {
+		if (grammarElement == null) {
+			return CompactNodeModel.NO_NODE;
+		}
+		Integer result = grammarElementToId.get(grammarElement);
+		if (result == null) {
+			result = grammarElements.size();
+			grammarElements.add(grammarElement);
+			grammarElementToId.put(grammarElement, result);
+		}
+		return result;
+	}
+
+	private int[] trim(int[] array) {
+		return array.length == size ? array : Arrays.copyOf(array, size);
+	}
+
+}
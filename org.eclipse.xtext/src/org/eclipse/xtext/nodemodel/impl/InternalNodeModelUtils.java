@@ -141,6 +141,8 @@ public class InternalNodeModelUtils {
 	private static int[] getLineBreakOffsets(INode rootNode) {
 		if (rootNode instanceof RootNode) {
 			return ((RootNode) rootNode).basicGetLineBreakOffsets();
+		} else if (rootNode instanceof CompactNode) {
+			return ((CompactNode) rootNode).getModel().getLineBreaks();
 		} else {
 			String text = rootNode.getText();
 			return computeLineBreaks(text);
@@ -59,6 +59,10 @@ public class SerializationConversionContext {
 	protected void fillGrammarElementToIdMap(XtextResource r) {
 		IParseResult parseResult = r.getParseResult();
 		if (parseResult != null) {
+			if (!(parseResult.getRootNode() instanceof RootNode)) {
+				throw new IllegalArgumentException("Only node models that consist of a RootNode can be serialized. URI was "
+						+ r.getURI());
+			}
 			RootNode it = (RootNode) parseResult.getRootNode();
 			it.fillGrammarElementToIdMap(grammarElementToIdMap, grammarIdToURIMap);
 		}
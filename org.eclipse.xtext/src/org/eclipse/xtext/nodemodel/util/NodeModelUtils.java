@@ -14,6 +14,7 @@ import java.util.List;
 import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtext.AbstractRule;
 import org.eclipse.xtext.Action;
 import org.eclipse.xtext.Assignment;
@@ -25,10 +26,12 @@ import org.eclipse.xtext.grammaranalysis.impl.GrammarElementTitleSwitch;
 import org.eclipse.xtext.nodemodel.BidiIterator;
 import org.eclipse.xtext.nodemodel.BidiTreeIterator;
 import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.ILazyNodeModelResource;
 import org.eclipse.xtext.nodemodel.ILeafNode;
 import org.eclipse.xtext.nodemodel.INode;
 import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
 import org.eclipse.xtext.nodemodel.impl.AbstractNode;
+import org.eclipse.xtext.nodemodel.impl.CompactNode;
 import org.eclipse.xtext.nodemodel.impl.InternalNodeModelUtils;
 import org.eclipse.xtext.nodemodel.impl.RootNode;
 import org.eclipse.xtext.resource.EObjectAtOffsetHelper;
@@ -66,6 +69,9 @@ public class NodeModelUtils extends InternalNodeModelUtils {
 	 */
 	/* @Nullable */
 	public static ILeafNode findLeafNodeAtOffset(/* @NonNull */ INode node, int leafNodeOffset) {
+		if (node instanceof CompactNode) {
+			return ((CompactNode) node).findLeafNodeAtOffset(leafNodeOffset);
+		}
 		INode localNode = node;
 		while(!(localNode instanceof AbstractNode)) {
 			localNode = localNode.getParent();
@@ -124,7 +130,7 @@ public class NodeModelUtils extends InternalNodeModelUtils {
 	 */
 	public static LineAndColumn getLineAndColumn(INode anyNode, int documentOffset) {
 		// special treatment for inconsistent nodes such as SyntheticLinkingLeafNode
-		if (anyNode.getParent() == null && !(anyNode instanceof RootNode)) {
+		if (anyNode.getParent() == null && !(anyNode instanceof RootNode) && !(anyNode instanceof CompactNode)) {
 			return LineAndColumn.from(1,1);
 		}
 		return InternalNodeModelUtils.getLineAndColumn(anyNode, documentOffset);
@@ -138,6 +144,7 @@ public class NodeModelUtils extends InternalNodeModelUtils {
 
 	/**
 	 * Returns the node that is directly associated with the given object by means of an EMF-Adapter.
+	 * The node model of an {@link ILazyNodeModelResource} is created on demand.
 	 * 
 	 * @param object the semantic object whose direct node should be provided.
 	 * @return the node that is directly associated with the given object.
@@ -153,6 +160,10 @@ public class NodeModelUtils extends InternalNodeModelUtils {
 			if (adapter instanceof ICompositeNode)
 				return (ICompositeNode) adapter;
 		}
+		Resource resource = object.eResource();
+		if (resource instanceof ILazyNodeModelResource && ((ILazyNodeModelResource) resource).loadNodeModel()) {
+			return getNode(object);
+		}
 		return null;
 	}
 
@@ -201,7 +212,7 @@ public class NodeModelUtils extends InternalNodeModelUtils {
 						}
 					}
 					iterator.prune();
-				} else if (child != node) {
+				} else if (!child.equals(node)) {
 					Assignment assignment = GrammarUtil.containingAssignment(grammarElement);
 					if (assignment != null) {
 						if (featureName.equals(assignment.getFeature())) {
@@ -31,6 +31,7 @@ public class ParseResult implements IParseResult {
     private EObject rootAstElement;
     private ICompositeNode rootNode;
 	private final boolean hasErrors;
+	private EObject preservedSemanticElement;
     
     public ParseResult(/* @Nullable */ EObject rootAstElement, /* @NonNull */ ICompositeNode rootNode, boolean hasErrors) {
     	Preconditions.checkNotNull(rootNode);
@@ -58,6 +59,14 @@ public class ParseResult implements IParseResult {
 			@Override
 			@SuppressWarnings("unchecked")
 			public Iterator<INode> iterator() {
+				if (!(rootNode instanceof CompositeNode)) {
+					return Iterators.filter(rootNode.getAsTreeIterable().iterator(), new Predicate<INode>() {
+						@Override
+						public boolean apply(INode input) {
+							return input.getSyntaxErrorMessage() != null;
+						}
+					});
+				}
 				Iterator<? extends INode> result = Iterators.filter(((CompositeNode) rootNode).basicIterator(),
 						new Predicate<AbstractNode>() {
 					@Override
@@ -85,4 +94,24 @@ public class ParseResult implements IParseResult {
 	public boolean hasSyntaxErrors() {
 		return hasErrors;
 	}
+
+	/**
+	 * Returns the semantic element whose nodes have been replaced by a partial reparse that did not change the
+	 * semantic model, e.g. because only whitespace or comments were edited. The semantic elements of the previous
+	 * parse result have been kept in this case and only their lazy cross references have to be updated.
+	 * 
+	 * @return the preserved semantic element or <code>null</code> if the semantic model was (partially) recreated.
+	 * @since 2.18
+	 */
+	/* @Nullable */
+	public EObject getPreservedSemanticElement() {
+		return preservedSemanticElement;
+	}
+
+	/**
+	 * @since 2.18
+	 */
+	public void setPreservedSemanticElement(/* @Nullable */ EObject preservedSemanticElement) {
+		this.preservedSemanticElement = preservedSemanticElement;
+	}
 }
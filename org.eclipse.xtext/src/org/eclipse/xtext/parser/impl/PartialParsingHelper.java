@@ -17,6 +17,7 @@ import java.util.ListIterator;
 import java.util.Set;
 
 import org.apache.log4j.Logger;
+import org.eclipse.emf.common.notify.Adapter;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
@@ -86,7 +87,7 @@ public class PartialParsingHelper implements IPartialParsingHelper {
 		}
 		ReplaceRegion replaceRegion;
 		if (tokenRegionProvider != null) {
-			replaceRegion = tokenRegionProvider.getTokenReplaceRegion(insertChangeIntoReplaceRegion(oldRootNode, changedRegion), changedRegion);
+			replaceRegion = tokenRegionProvider.getTokenReplaceRegion(oldRootNode, changedRegion);
 		} else {
 			replaceRegion = changedRegion;
 		}
@@ -133,6 +134,18 @@ public class PartialParsingHelper implements IPartialParsingHelper {
 			unloadSemanticObject(previousParseResult.getRootASTElement());
 			return newParseResult;
 		}
+		if (isSemanticModelPreserved(oldCompositeNode, newParseResult)) {
+			EObject preservedSemanticElement = oldCompositeNode.getSemanticElement();
+			transferNodes(preservedSemanticElement, newParseResult.getRootASTElement());
+			nodeModelBuilder.replaceAndTransferLookAhead(oldCompositeNode, newParseResult.getRootNode());
+			((ParseResult) newParseResult).setRootNode(oldRootNode);
+			((ParseResult) newParseResult).setRootASTElement(previousParseResult.getRootASTElement());
+			((ParseResult) newParseResult).setPreservedSemanticElement(preservedSemanticElement);
+			StringBuilder builder = new StringBuilder(oldRootNode.getText());
+			replaceRegion.applyTo(builder);
+			nodeModelBuilder.setCompleteContent(oldRootNode, builder.toString());
+			return newParseResult;
+		}
 		EObject oldSemanticParentElement = oldCompositeNode.getParent().getSemanticElement();
 		EObject oldSemanticElement = null;
 		if (oldCompositeNode.hasDirectSemanticElement()) {
@@ -233,6 +246,85 @@ public class PartialParsingHelper implements IPartialParsingHelper {
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if the reparsed region yields the same semantic elements as the replaced node, i.e. if
+	 * the non-hidden tokens did not change and only whitespace or comments have been edited. 
+	 * 
+	 * @since 2.18
+	 */
+	protected boolean isSemanticModelPreserved(ICompositeNode oldCompositeNode, IParseResult newParseResult) {
+		if (!oldCompositeNode.hasDirectSemanticElement() || newParseResult.getRootASTElement() == null)
+			return false;
+		for (INode node : oldCompositeNode.getAsTreeIterable()) {
+			if (node.getSyntaxErrorMessage() != null)
+				return false;
+		}
+		Iterator<ILeafNode> oldLeafNodes = oldCompositeNode.getLeafNodes().iterator();
+		Iterator<ILeafNode> newLeafNodes = newParseResult.getRootNode().getLeafNodes().iterator();
+		ILeafNode oldLeafNode = nextNonHiddenLeafNode(oldLeafNodes);
+		ILeafNode newLeafNode = nextNonHiddenLeafNode(newLeafNodes);
+		while (oldLeafNode != null && newLeafNode != null) {
+			if (oldLeafNode.getGrammarElement() != newLeafNode.getGrammarElement()
+					|| !oldLeafNode.getText().equals(newLeafNode.getText()))
+				return false;
+			oldLeafNode = nextNonHiddenLeafNode(oldLeafNodes);
+			newLeafNode = nextNonHiddenLeafNode(newLeafNodes);
+		}
+		if (oldLeafNode != null || newLeafNode != null)
+			return false;
+		List<EObject> oldElements = getSemanticElements(oldCompositeNode.getSemanticElement());
+		List<EObject> newElements = getSemanticElements(newParseResult.getRootASTElement());
+		if (oldElements.size() != newElements.size())
+			return false;
+		for (int i = 0; i < oldElements.size(); i++) {
+			if (oldElements.get(i).eClass() != newElements.get(i).eClass())
+				return false;
+		}
+		return true;
+	}
+
+	private ILeafNode nextNonHiddenLeafNode(Iterator<ILeafNode> iterator) {
+		while (iterator.hasNext()) {
+			ILeafNode result = iterator.next();
+			if (!result.isHidden())
+				return result;
+		}
+		return null;
+	}
+
+	private List<EObject> getSemanticElements(EObject root) {
+		List<EObject> result = new ArrayList<EObject>();
+		result.add(root);
+		for (TreeIterator<EObject> iterator = root.eAllContents(); iterator.hasNext();) {
+			result.add(iterator.next());
+		}
+		return result;
+	}
+
+	/**
+	 * Associates the nodes of the new semantic elements with the corresponding old semantic elements. 
+	 * 
+	 * @since 2.18
+	 */
+	protected void transferNodes(EObject oldSemanticElement, EObject newSemanticElement) {
+		List<EObject> oldElements = getSemanticElements(oldSemanticElement);
+		List<EObject> newElements = getSemanticElements(newSemanticElement);
+		for (int i = 0; i < oldElements.size(); i++) {
+			List<Adapter> oldAdapters = oldElements.get(i).eAdapters();
+			for (Iterator<Adapter> iterator = oldAdapters.iterator(); iterator.hasNext();) {
+				if (iterator.next() instanceof INode)
+					iterator.remove();
+			}
+			List<Adapter> newAdapters = newElements.get(i).eAdapters();
+			for (Adapter adapter : new ArrayList<Adapter>(newAdapters)) {
+				if (adapter instanceof INode) {
+					newAdapters.remove(adapter);
+					oldAdapters.add(adapter);
+				}
+			}
+		}
+	}
+
 	public void unloadSemanticObject(EObject object) {
 		if (unloader != null && object != null)
 			unloader.unloadRoot(object);
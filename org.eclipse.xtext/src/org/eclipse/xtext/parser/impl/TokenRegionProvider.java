@@ -10,6 +10,9 @@ package org.eclipse.xtext.parser.impl;
 import org.antlr.runtime.ANTLRStringStream;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.ILeafNode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
 import org.eclipse.xtext.parser.antlr.Lexer;
 import org.eclipse.xtext.parser.antlr.LexerBindings;
 import org.eclipse.xtext.util.ITextRegion;
@@ -32,6 +35,8 @@ public class TokenRegionProvider {
 	@Named(LexerBindings.RUNTIME)
 	private Provider<Lexer> lexerProvider;
 
+	private volatile Boolean lexesChangedText;
+
 	public ITextRegion getTokenRegion(String text, ITextRegion region) {
 		Lexer lexer = lexerProvider.get();
 		lexer.setCharStream(new ANTLRStringStream(text));
@@ -68,4 +73,120 @@ public class TokenRegionProvider {
 					changedText.substring(tokenRegion.getOffset(), tokenRegion.getOffset() + tokenRegion.getLength()));
 	}
 
+	/**
+	 * Expands the given change of the document with the given root node such that it contains only complete lexer
+	 * tokens. In contrast to {@link #getTokenReplaceRegion(String, ReplaceRegion)}, the changed document is not lexed
+	 * from its beginning. The leaf nodes of the old node model are used as the previous token stream: lexing starts at
+	 * a {@link #getCheckpoint(ICompositeNode, int) checkpoint} before the change and stops as soon as a new token
+	 * behind the change ends at the boundary of an old leaf node, i.e. the token streams are in sync again. If the
+	 * tokens in front of the change do not match the old leaf nodes, the complete document is lexed.
+	 * 
+	 * If a subclass overrides {@link #getTokenReplaceRegion(String, ReplaceRegion)} or
+	 * {@link #getTokenRegion(String, ITextRegion)}, or if the lexer cannot {@link #canLexFromCheckpoint(Lexer) resume
+	 * at a checkpoint}, the changed document is computed and passed to
+	 * {@link #getTokenReplaceRegion(String, ReplaceRegion)} instead.
+	 * 
+	 * @since 2.18
+	 */
+	public ReplaceRegion getTokenReplaceRegion(ICompositeNode oldRootNode, ReplaceRegion replaceRegion) {
+		String oldText = oldRootNode.getText();
+		Lexer lexer = lexerProvider.get();
+		if (isLexingChangedText() || !canLexFromCheckpoint(lexer)) {
+			StringBuilder changedText = new StringBuilder(oldText);
+			replaceRegion.applyTo(changedText);
+			return getTokenReplaceRegion(changedText.toString(), replaceRegion);
+		}
+		String text = replaceRegion.getText();
+		int offset = replaceRegion.getOffset();
+		int lengthDelta = text.length() - replaceRegion.getLength();
+		int checkpoint = getCheckpoint(oldRootNode, offset);
+		char[] data = new char[oldText.length() + lengthDelta - checkpoint];
+		oldText.getChars(checkpoint, offset, data, 0);
+		text.getChars(0, text.length(), data, offset - checkpoint);
+		oldText.getChars(replaceRegion.getEndOffset(), oldText.length(), data, offset - checkpoint + text.length());
+		lexer.setCharStream(new ANTLRStringStream(data, data.length));
+		int newEndOffset = offset + text.length();
+		int currentStart = -1;
+		int currentEnd = -1;
+		CommonToken nextToken = (CommonToken) lexer.nextToken();
+		while (nextToken != Token.EOF_TOKEN) {
+			int tokenStart = checkpoint + nextToken.getStartIndex();
+			int tokenEnd = checkpoint + nextToken.getStopIndex() + 1;
+			// tokens in front of the change have to match the old leaf nodes
+			if (tokenEnd < offset && !isLeafBoundary(oldRootNode, tokenEnd)) {
+				return getTokenReplaceRegion(oldText.substring(0, checkpoint) + String.valueOf(data), replaceRegion);
+			}
+			if (currentEnd <= offset) {
+				currentStart = tokenStart;
+			}
+			currentEnd = tokenEnd;
+			if (tokenEnd > offset && tokenEnd >= newEndOffset && isLeafBoundary(oldRootNode, tokenEnd - lengthDelta)) {
+				break;
+			}
+			nextToken = (CommonToken) lexer.nextToken();
+		}
+		if (currentStart == -1 || currentStart == offset && currentEnd == newEndOffset)
+			return replaceRegion;
+		return new ReplaceRegion(currentStart, currentEnd - currentStart - lengthDelta,
+				String.valueOf(data, currentStart - checkpoint, currentEnd - currentStart));
+	}
+
+	private boolean isLexingChangedText() {
+		Boolean result = lexesChangedText;
+		if (result == null) {
+			try {
+				result = getClass().getMethod("getTokenReplaceRegion", String.class, ReplaceRegion.class)
+						.getDeclaringClass() != TokenRegionProvider.class
+						|| getClass().getMethod("getTokenRegion", String.class, ITextRegion.class)
+								.getDeclaringClass() != TokenRegionProvider.class;
+			} catch (NoSuchMethodException e) {
+				result = false;
+			}
+			lexesChangedText = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Whether lexing may resume at a {@link #getCheckpoint(ICompositeNode, int) checkpoint}. That requires a lexer that
+	 * does not carry state from one token to the next. By default, this is only assumed for the ANTLR lexers that are
+	 * generated by Xtext. Languages with a stateless custom lexer may return <code>true</code>, languages whose lexer
+	 * keeps state in custom members have to return <code>false</code>.
+	 * 
+	 * @since 2.18
+	 */
+	protected boolean canLexFromCheckpoint(Lexer lexer) {
+		Class<?> lexerClass = lexer.getClass();
+		return lexerClass.getSuperclass() == Lexer.class && lexerClass.getSimpleName().startsWith("Internal");
+	}
+
+	/**
+	 * Returns the offset where lexing is resumed for a change at the given offset. The result has to be the start
+	 * of a lexer token in the old and in the new document. The default implementation steps back to the start of the
+	 * token before the changed token, since the end of a token may depend on the characters that follow it. Languages
+	 * whose tokens depend on more context may override this method to step back further.
+	 * 
+	 * @since 2.18
+	 */
+	protected int getCheckpoint(ICompositeNode oldRootNode, int offset) {
+		int result = offset;
+		for (int i = 0; i < 2 && result > 0; i++) {
+			ILeafNode leaf = NodeModelUtils.findLeafNodeAtOffset(oldRootNode, result - 1);
+			if (leaf == null || leaf.getTotalOffset() >= result)
+				return 0;
+			result = leaf.getTotalOffset();
+		}
+		return result;
+	}
+
+	/**
+	 * @since 2.18
+	 */
+	protected boolean isLeafBoundary(ICompositeNode oldRootNode, int offset) {
+		if (offset <= 0 || offset >= oldRootNode.getTotalLength())
+			return true;
+		ILeafNode leaf = NodeModelUtils.findLeafNodeAtOffset(oldRootNode, offset);
+		return leaf != null && leaf.getTotalOffset() == offset;
+	}
+
 }
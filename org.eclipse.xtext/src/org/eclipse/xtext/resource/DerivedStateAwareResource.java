@@ -193,7 +193,7 @@ public class DerivedStateAwareResource extends StorageAwareResource {
 	@Override
 	protected String getURIFragmentRootSegment(EObject eObject) {
 		if (unloadingContents == null) {
-			IParseResult parseResult = getParseResult();
+			IParseResult parseResult = basicGetParseResult();
 			if (parseResult != null && eObject == parseResult.getRootASTElement()) {
 				return "0"; 
 			}
@@ -30,12 +30,17 @@ import org.eclipse.xtext.Constants;
 import org.eclipse.xtext.ParserRule;
 import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.linking.ILinker;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.nodemodel.INode;
 import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+import org.eclipse.xtext.nodemodel.impl.CompactNode;
+import org.eclipse.xtext.nodemodel.impl.CompactNodeModel;
+import org.eclipse.xtext.nodemodel.impl.CompactNodeModelBuilder;
 import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
 import org.eclipse.xtext.parser.IEncodingProvider;
 import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.parser.ParseResult;
 import org.eclipse.xtext.parser.antlr.IReferableElementsUnloader;
 import org.eclipse.xtext.resource.impl.ListBasedDiagnosticConsumer;
 import org.eclipse.xtext.serializer.ISerializer;
@@ -78,7 +83,19 @@ public class XtextResource extends ResourceImpl {
 
 	public static final String OPTION_ENCODING = XtextResource.class.getName() + ".DEFAULT_ENCODING";
 
+	/**
+	 * Load option that enables the {@link CompactNodeModel compact node model} if set to {@link Boolean#TRUE}. It
+	 * reduces the memory that is retained by the node model of a loaded resource. A compact node model is not
+	 * updated incrementally, i.e. {@link #update(int, int, String)} reparses the complete document. It cannot be
+	 * {@link org.eclipse.xtext.resource.persistence.ResourceStorageFacade#setStoreNodeModel(boolean) stored} either.
+	 * 
+	 * @since 2.18
+	 */
+	public static final String OPTION_COMPACT_NODE_MODEL = XtextResource.class.getName() + ".COMPACT_NODE_MODEL";
+
 	private boolean validationDisabled;
+
+	private boolean compactNodeModel;
 	
 	/**
 	 * @since 2.1
@@ -171,13 +188,43 @@ public class XtextResource extends ResourceImpl {
 	@Override
 	protected void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
 		setEncodingFromOptions(options);
+		setCompactNodeModelFromOptions(options);
 		IParseResult result;
 		if (entryPoint == null) {
 			result = parser.parse(createReader(inputStream));
 		} else {
 			result = parser.parse(entryPoint, createReader(inputStream));
 		}
-		updateInternalState(this.parseResult, result);
+		updateInternalState(this.parseResult, compactNodeModel(result));
+	}
+
+	/**
+	 * Applies the {@link #OPTION_COMPACT_NODE_MODEL} if it is contained in the options. Otherwise the current setting
+	 * is kept.
+	 * 
+	 * @since 2.18
+	 */
+	protected void setCompactNodeModelFromOptions(Map<?, ?> options) {
+		if (options != null) {
+			Object compactNodeModelOption = options.get(OPTION_COMPACT_NODE_MODEL);
+			if (compactNodeModelOption instanceof Boolean) {
+				compactNodeModel = (Boolean) compactNodeModelOption;
+			}
+		}
+	}
+
+	/**
+	 * Replaces the node model of the given parse result with a {@link CompactNodeModel compact node model} if that is
+	 * {@link #isCompactNodeModel() enabled}.
+	 * 
+	 * @since 2.18
+	 */
+	protected IParseResult compactNodeModel(IParseResult result) {
+		if (!compactNodeModel || result.getRootNode() == null) {
+			return result;
+		}
+		ICompositeNode rootNode = new CompactNodeModelBuilder().compact(result.getRootNode());
+		return new ParseResult(result.getRootASTElement(), rootNode, result.hasSyntaxErrors());
 	}
 	
 	/**
@@ -245,6 +292,10 @@ public class XtextResource extends ResourceImpl {
 		}
 		try {
 			isUpdating = true;
+			IParseResult parseResult = getParseResult();
+			if (parseResult instanceof ParseResult) {
+				((ParseResult) parseResult).setPreservedSemanticElement(null);
+			}
 			updateInternalState(parseResult, parseResult);
 		} finally {
 			isUpdating = false;
@@ -257,11 +308,21 @@ public class XtextResource extends ResourceImpl {
 		}
 		try {
 			isUpdating = true;
-			IParseResult oldParseResult = parseResult;
+			IParseResult oldParseResult = getParseResult();
 			ReplaceRegion replaceRegion = new ReplaceRegion(new TextRegion(offset, replacedTextLength), newText);
 			IParseResult newParseResult;
 			ParserRule oldEntryPoint = NodeModelUtils.getEntryParserRule(oldParseResult.getRootNode());
-			if (entryPoint == null || entryPoint == oldEntryPoint) {
+			if (oldParseResult.getRootNode() instanceof CompactNode) {
+				// the compact node model does not support partial parsing
+				StringBuilder builder = new StringBuilder(oldParseResult.getRootNode().getText());
+				replaceRegion.applyTo(builder);
+				if (entryPoint == null) {
+					newParseResult = parser.parse(new StringReader(builder.toString()));
+				} else {
+					newParseResult = parser.parse(entryPoint, new StringReader(builder.toString()));
+				}
+				newParseResult = compactNodeModel(newParseResult);
+			} else if (entryPoint == null || entryPoint == oldEntryPoint) {
 				newParseResult = parser.reparse(oldParseResult, replaceRegion);
 			} else {
 				StringBuilder builder = new StringBuilder(oldParseResult.getRootNode().getText());
@@ -298,7 +359,15 @@ public class XtextResource extends ResourceImpl {
 		reattachModificationTracker(newRootASTElement);
 		clearErrorsAndWarnings();
 		addSyntaxErrors();
-		doLinking();
+		EObject preservedSemanticElement = null;
+		if (newParseResult instanceof ParseResult) {
+			preservedSemanticElement = ((ParseResult) newParseResult).getPreservedSemanticElement();
+		}
+		if (preservedSemanticElement != null) {
+			doLinking(preservedSemanticElement);
+		} else {
+			doLinking();
+		}
 	}
 
 	/*
@@ -344,6 +413,17 @@ public class XtextResource extends ResourceImpl {
 		}
 	}
 
+	/**
+	 * Links the model after a partial reparse that did not change the semantic model but replaced the nodes of the
+	 * given semantic element. The default implementation links the complete model again.
+	 * 
+	 * @see ParseResult#getPreservedSemanticElement()
+	 * @since 2.18
+	 */
+	protected void doLinking(EObject preservedSemanticElement) {
+		doLinking();
+	}
+
 	@Override
 	public EObject getEObject(String uriFragment) {
 		return basicGetEObject(uriFragment);
@@ -485,6 +565,21 @@ public class XtextResource extends ResourceImpl {
 		return validationDisabled;
 	}
 
+	/**
+	 * @since 2.18
+	 */
+	public boolean isCompactNodeModel() {
+		return compactNodeModel;
+	}
+
+	/**
+	 * @see #OPTION_COMPACT_NODE_MODEL
+	 * @since 2.18
+	 */
+	public void setCompactNodeModel(boolean compactNodeModel) {
+		this.compactNodeModel = compactNodeModel;
+	}
+
 	public void setValidationDisabled(boolean validationDisabled) {
 		this.validationDisabled = validationDisabled;
 		if (validationDisabled) {
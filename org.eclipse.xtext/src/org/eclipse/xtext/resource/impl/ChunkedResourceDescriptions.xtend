@@ -14,6 +14,7 @@ import java.io.ObjectInput
 import java.io.ObjectOutput
 import java.io.Serializable
 import java.util.ArrayList
+import java.util.Collection
 import java.util.HashMap
 import java.util.Map
 import java.util.concurrent.ConcurrentHashMap
@@ -41,6 +42,21 @@ import org.eclipse.xtext.util.internal.EmfAdaptable
 	
 	protected ConcurrentHashMap<String, ResourceDescriptionsData> chunk2resourceDescriptions = new ConcurrentHashMap;
 	
+	/**
+	 * Caches the name of the chunk that holds the description of a URI. Entries are added when a URI is looked up
+	 * and validated on each access since the chunks may be modified in place, e.g. by a running build.
+	 * 
+	 * @since 2.18
+	 */
+	protected ConcurrentHashMap<URI, String> uri2chunk = new ConcurrentHashMap
+	
+	static val MIN_PRUNE_THRESHOLD = 1024
+	
+	/**
+	 * The size of {@link #uri2chunk} at which the entries of URIs that are no longer held by their chunk are dropped.
+	 */
+	volatile int uri2chunkPruneThreshold = MIN_PRUNE_THRESHOLD
+	
 	protected ResourceSet resourceSet
 	
 	new() {}
@@ -82,7 +98,13 @@ import org.eclipse.xtext.util.internal.EmfAdaptable
 	}
 	
 	def ResourceDescriptionsData removeContainer(String name) {
-		return chunk2resourceDescriptions.remove(name)
+		val result = chunk2resourceDescriptions.remove(name)
+		if (result !== null) {
+			for (uri : result.allURIs) {
+				uri2chunk.remove(uri, name)
+			}
+		}
+		return result
 	}
 	
 	override protected getSelectables() {
@@ -94,27 +116,66 @@ import org.eclipse.xtext.util.internal.EmfAdaptable
 	}
 	
 	override getResourceDescription(URI uri) {
-		for (selectable : chunk2resourceDescriptions.values) {
-			val result = selectable.getResourceDescription(uri)
-			if (result !== null)
-				return result
-		}
-		return null
+		return getContainer(uri)?.getResourceDescription(uri)
 	}
 	
 	def ResourceDescriptionsData getContainer(URI uri) {
-		for (container : chunk2resourceDescriptions.values) {
-			val result = container.getResourceDescription(uri)
-			if (result !== null)
-				return container
+		val chunkName = getChunkName(uri)
+		if (chunkName === null)
+			return null
+		return chunk2resourceDescriptions.get(chunkName)
+	}
+	
+	/**
+	 * Returns the name of the chunk that holds the description of the given URI or <code>null</code> if there is none.
+	 * Known URIs are resolved in constant time, all other URIs require a lookup in each chunk. Misses are not cached,
+	 * since a description for the URI may be added to a chunk in place at any time.
+	 * 
+	 * @since 2.18
+	 */
+	protected def String getChunkName(URI uri) {
+		val cached = uri2chunk.get(uri)
+		if (cached !== null && chunk2resourceDescriptions.get(cached)?.getResourceDescription(uri) !== null)
+			return cached
+		for (entry : chunk2resourceDescriptions.entrySet) {
+			if (entry.value.getResourceDescription(uri) !== null) {
+				uri2chunk.put(uri, entry.key)
+				if (uri2chunk.size >= uri2chunkPruneThreshold)
+					pruneChunkNames
+				return entry.key
+			}
 		}
+		if (cached !== null)
+			uri2chunk.remove(uri, cached)
 		return null
 	}
 	
+	/**
+	 * Drops the cached chunk names of URIs that are no longer held by their chunk, e.g. because their description was
+	 * removed from the chunk or the chunk was replaced. This happens whenever the table has doubled in size since it
+	 * was pruned last, so it stays proportional to the number of indexed URIs.
+	 * 
+	 * @since 2.18
+	 */
+	protected def void pruneChunkNames() {
+		for (entry : uri2chunk.entrySet) {
+			if (chunk2resourceDescriptions.get(entry.value)?.getResourceDescription(entry.key) === null)
+				uri2chunk.remove(entry.key, entry.value)
+		}
+		uri2chunkPruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, 2 * uri2chunk.size)
+	}
+	
 	def ResourceDescriptionsData getContainer(String containerHandle) {
 		return chunk2resourceDescriptions.get(containerHandle)
 	}
 	
+	/**
+	 * @since 2.18
+	 */
+	def Collection<ResourceDescriptionsData> getContainers() {
+		return chunk2resourceDescriptions.values
+	}
+	
 	override readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
 		val numChunks = in.readInt
 		for(i: 0..<numChunks) {
@@ -17,6 +17,7 @@ import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.naming.QualifiedNameTable;
 import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.ISelectable;
 
@@ -134,7 +135,7 @@ public class EObjectDescriptionLookUp implements ISelectable {
 
 	protected void putIntoMap(Map<QualifiedName, List<IEObjectDescription>> nameToObjects,
 			IEObjectDescription description) {
-		QualifiedName indexKey = description.getName().toLowerCase();
+		QualifiedName indexKey = QualifiedNameTable.toLowerCaseKey(description.getName());
 		List<IEObjectDescription> values = nameToObjects.get(indexKey);
 		if (values == null) {
 			values = Lists.newArrayListWithExpectedSize(2);
@@ -7,10 +7,13 @@
  *******************************************************************************/
 package org.eclipse.xtext.resource.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -22,13 +25,14 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.naming.QualifiedNameTable;
 import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescription.Delta;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 
 import com.google.common.annotations.Beta;
-import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -82,13 +86,51 @@ import com.google.common.collect.Sets;
 
 	private final Map<URI, IResourceDescription> resourceDescriptionMap;
 	/**
-	 * The lookup map contains either a single {@link IResourceDescription} or a 
-	 * {@link Set Set&lt;IResourceDescription&gt;} as values. It is maintained by 
-	 * {@link #removeDescription(URI)} and {@link #addDescription(URI, IResourceDescription)} 
-	 * which take care of creating the {@link Set Sets} and discarding them if the number
-	 * of elements becomes small enough.  
+	 * The lookup table maps the lower case names of the exported objects to the ids of the
+	 * resource descriptions that export them. It is maintained by {@link #removeDescription(URI)}
+	 * and {@link #addDescription(URI, IResourceDescription)}.
 	 */
-	private final Map<QualifiedName, Object> lookupMap;
+	private final ResourceDescriptionsLookupTable lookupTable;
+	
+	/**
+	 * Groups the URIs of the resource descriptions by their file extension, so clients can find the resources
+	 * of a language without iterating all URIs.
+	 */
+	private final Map<String, Set<URI>> urisByFileExtension;
+	
+	/**
+	 * The reverse dependency index maps imported names to the URIs of the importing resources and
+	 * target resource URIs to the URIs of the referencing resources. It is <code>null</code> until
+	 * it is queried for the first time. Afterwards it is maintained by {@link #removeDescription(URI)}
+	 * and {@link #addDescription(URI, IResourceDescription)}. Newly added descriptions are only recorded
+	 * as {@link #pendingReverseDependencies pending} and indexed on the next query since descriptions
+	 * that are registered during indexing do not yet provide their imported names and references.
+	 */
+	private Map<QualifiedName, URISet> importingURIs;
+	private Map<URI, URISet> referencingURIs;
+	private Set<URI> pendingReverseDependencies;
+	
+	/**
+	 * The owner of the {@link URISet URISets} that may be modified in place. The sets of the reverse dependency
+	 * index are shared with a {@link #copy() copy}, so both get a new owner and copy a set before they modify it.
+	 */
+	private Object reverseDependencyOwner = new Object();
+	
+	private static class URISet extends HashSet<URI> {
+		private static final long serialVersionUID = 1L;
+		
+		private final Object owner;
+		
+		URISet(Object owner) {
+			super(4);
+			this.owner = owner;
+		}
+		
+		URISet(Object owner, Set<URI> uris) {
+			super(uris);
+			this.owner = owner;
+		}
+	}
 
 	public ResourceDescriptionsData(Iterable<IResourceDescription> descriptions) {
 		int expectedSize = 500; // magic number in case it's not a Collection
@@ -99,35 +141,77 @@ import com.google.common.collect.Sets;
 		for (IResourceDescription desc : descriptions) {
 			resourceDescriptionMap.put(desc.getURI(), desc);
 		}
-		// magic number - it is assumend that we export at least 2 entries per resource description
-		lookupMap = new LinkedHashMap<>(resourceDescriptionMap.size() * 2);
-	    for (IResourceDescription description: descriptions) {
-	    	registerDescription(description, lookupMap);
-	    }
+		lookupTable = createLookupTable(resourceDescriptionMap);
+		urisByFileExtension = createURIsByFileExtension(resourceDescriptionMap);
 	}
 
+	/**
+	 * @deprecated the lookup map is no longer used. The index is rebuilt from the given resource descriptions.
+	 */
+	@Deprecated
 	protected ResourceDescriptionsData(Map<URI, IResourceDescription> resourceDescriptionMap, Map<QualifiedName, Object> lookupMap) {
 		this.resourceDescriptionMap = resourceDescriptionMap;
-		this.lookupMap = lookupMap;
+		this.lookupTable = createLookupTable(resourceDescriptionMap);
+		this.urisByFileExtension = createURIsByFileExtension(resourceDescriptionMap);
+	}
+
+	private ResourceDescriptionsData(Map<URI, IResourceDescription> resourceDescriptionMap, ResourceDescriptionsLookupTable lookupTable) {
+		this.resourceDescriptionMap = resourceDescriptionMap;
+		this.lookupTable = lookupTable;
+		this.urisByFileExtension = createURIsByFileExtension(resourceDescriptionMap);
+	}
+
+	private static Map<String, Set<URI>> createURIsByFileExtension(Map<URI, IResourceDescription> resourceDescriptionMap) {
+		Map<String, Set<URI>> result = new HashMap<String, Set<URI>>();
+		for (URI uri : resourceDescriptionMap.keySet()) {
+			addURIByFileExtension(result, uri);
+		}
+		return result;
+	}
+
+	private static void addURIByFileExtension(Map<String, Set<URI>> urisByFileExtension, URI uri) {
+		Set<URI> uris = urisByFileExtension.get(uri.fileExtension());
+		if (uris == null) {
+			uris = new LinkedHashSet<URI>();
+			urisByFileExtension.put(uri.fileExtension(), uris);
+		}
+		uris.add(uri);
+	}
+
+	private static ResourceDescriptionsLookupTable createLookupTable(Map<URI, IResourceDescription> resourceDescriptionMap) {
+		// magic number - it is assumend that we export at least 2 entries per resource description
+		ResourceDescriptionsLookupTable result = new ResourceDescriptionsLookupTable(resourceDescriptionMap.size(), resourceDescriptionMap.size() * 2);
+		for (Map.Entry<URI, IResourceDescription> entry : resourceDescriptionMap.entrySet()) {
+			result.add(entry.getKey(), entry.getValue());
+		}
+		return result;
 	}
 	
-	public ResourceDescriptionsData copy() {
-		return new ResourceDescriptionsData(
+	/**
+	 * Creates a copy of this index. The reverse dependency index is copied as well, the sets of dependent URIs are
+	 * shared until either of the indexes modifies them.
+	 */
+	public synchronized ResourceDescriptionsData copy() {
+		ResourceDescriptionsData result = new ResourceDescriptionsData(
 				Maps.newLinkedHashMap(resourceDescriptionMap),
-				copyLookupMap());
+				new ResourceDescriptionsLookupTable(lookupTable));
+		if (pendingReverseDependencies != null) {
+			result.importingURIs = new HashMap<QualifiedName, URISet>(importingURIs);
+			result.referencingURIs = new HashMap<URI, URISet>(referencingURIs);
+			result.pendingReverseDependencies = new HashSet<URI>(pendingReverseDependencies);
+			reverseDependencyOwner = new Object();
+		}
+		return result;
 	}
 	
+	/**
+	 * @deprecated the index no longer uses a lookup map. The result is computed from the current resource descriptions.
+	 */
+	@Deprecated
 	protected Map<QualifiedName, Object> copyLookupMap() {
-		Map<QualifiedName, Object> result = Maps.newLinkedHashMap(lookupMap);
-		for(Map.Entry<QualifiedName, Object> entry: result.entrySet()) {
-			Object value = entry.getValue();
-			if (value instanceof Set<?>) {
-				@SuppressWarnings("unchecked")
-				Set<IResourceDescription> copiedValue = new LinkedHashSet<IResourceDescription>((Set<? extends IResourceDescription>) value);
-				if (copiedValue.size() <= 1)
-					throw new IllegalStateException("Unexpected number of elements in the value set: " + copiedValue.size() + " for " + entry.getKey());
-				entry.setValue(copiedValue);
-			}
+		Map<QualifiedName, Object> result = new LinkedHashMap<>(resourceDescriptionMap.size() * 2);
+		for (IResourceDescription description : resourceDescriptionMap.values()) {
+			registerDescription(description, result);
 		}
 		return result;
 	}
@@ -145,44 +229,38 @@ import com.google.common.collect.Sets;
 	public void removeDescription(URI uri) {
 		IResourceDescription oldDescription = resourceDescriptionMap.remove(uri);
 		if (oldDescription != null) {
-			for(IEObjectDescription object: oldDescription.getExportedObjects()) {
-				QualifiedName objectName = object.getName().toLowerCase();
-				Object existing = lookupMap.get(objectName);
-				if (existing == oldDescription) {
-					lookupMap.remove(objectName);
-				} else if (existing instanceof Set<?>) {
-					Set<?> casted = (Set<?>) existing;
-					if (casted.remove(oldDescription)) {
-						if (casted.size() == 1) {
-							lookupMap.put(objectName, casted.iterator().next());
-						} else if (casted.isEmpty()) {
-							lookupMap.remove(objectName);
-						}
-					}
-				}
+			unregisterReverseDependencies(uri, oldDescription);
+			lookupTable.remove(uri);
+			Set<URI> uris = urisByFileExtension.get(uri.fileExtension());
+			if (uris != null && uris.remove(uri) && uris.isEmpty()) {
+				urisByFileExtension.remove(uri.fileExtension());
 			}
 		}
 	}
 	
 	@Override
 	public Iterable<IEObjectDescription> getExportedObjects(final EClass type, final QualifiedName qualifiedName, final boolean ignoreCase) {
-		Object existing = lookupMap.get(qualifiedName.toLowerCase());
-		if (existing instanceof IResourceDescription) {
-			return ((IResourceDescription) existing).getExportedObjects(type, qualifiedName, ignoreCase);
-		} else if (existing instanceof Set<?>) {
-			@SuppressWarnings("unchecked")
-			Set<IResourceDescription> casted = (Set<IResourceDescription>) existing;
-			return Iterables.concat(Iterables.transform(casted, new Function<IResourceDescription, Iterable<IEObjectDescription>>() {
-				@Override
-				public Iterable<IEObjectDescription> apply(IResourceDescription from) {
-					if (from != null) {
-						return from.getExportedObjects(type, qualifiedName, ignoreCase);
-					}
-					return Collections.emptyList();
-				}
-			}));
+		int slot = lookupTable.indexOf(qualifiedName.toLowerCase());
+		if (slot < 0) {
+			return Collections.emptyList();
 		}
-		return Collections.emptyList();
+		int[] ids = lookupTable.getMultipleIds(slot);
+		if (ids == null) {
+			return lookupTable.getDescription(lookupTable.getSingleId(slot)).getExportedObjects(type, qualifiedName, ignoreCase);
+		}
+		int count = ids[0];
+		List<Iterable<IEObjectDescription>> result = new ArrayList<Iterable<IEObjectDescription>>(count);
+		for (int i = 1; i <= count; i++) {
+			Iterable<IEObjectDescription> exported = lookupTable.getDescription(ids[i]).getExportedObjects(type, qualifiedName, ignoreCase);
+			// skip descriptions that are known to have no matches without triggering lazy filters
+			if (!(exported instanceof Collection<?>) || !((Collection<?>) exported).isEmpty()) {
+				result.add(exported);
+			}
+		}
+		if (result.size() == 1) {
+			return result.get(0);
+		}
+		return Iterables.concat(result);
 	}
 	
 	@Override
@@ -203,18 +281,47 @@ import com.google.common.collect.Sets;
 		return resourceDescriptionMap.keySet();
 	}
 
+	/**
+	 * @return the file extensions of the resources in this index. URIs without a file extension are represented by
+	 *         <code>null</code>.
+	 * @since 2.18
+	 */
+	public Set<String> getFileExtensions() {
+		return Collections.unmodifiableSet(urisByFileExtension.keySet());
+	}
+
+	/**
+	 * @return the URIs of the resources in this index that have the given file extension.
+	 * @since 2.18
+	 */
+	public Set<URI> getAllURIs(String fileExtension) {
+		Set<URI> result = urisByFileExtension.get(fileExtension);
+		if (result == null) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(result);
+	}
+
 	public void addDescription(URI uri, IResourceDescription newDescription) {
 		removeDescription(uri);
 		if (newDescription != null) {
 			resourceDescriptionMap.put(uri, newDescription);
-			registerDescription(newDescription, lookupMap);
+			lookupTable.add(uri, newDescription);
+			addURIByFileExtension(urisByFileExtension, uri);
+			if (pendingReverseDependencies != null) {
+				pendingReverseDependencies.add(uri);
+			}
 		}
 	}
 
+	/**
+	 * @deprecated the index no longer uses a lookup map.
+	 */
+	@Deprecated
 	@SuppressWarnings("unchecked")
 	protected void registerDescription(IResourceDescription description, Map<QualifiedName, Object> target) {
 		for(IEObjectDescription object: description.getExportedObjects()) {
-			QualifiedName lowerCase = object.getName().toLowerCase();
+			QualifiedName lowerCase = QualifiedNameTable.toLowerCaseKey(object.getName());
 			Object existing = target.put(lowerCase, description);
 			if (existing != null && existing != description) {
 				Set<IResourceDescription> set = null;
@@ -246,4 +353,122 @@ import com.google.common.collect.Sets;
 			addDescription(delta.getUri(), newDesc);
 		}
 	}
+
+	/**
+	 * Returns the URIs of all resource descriptions in this index that import at least one of the given
+	 * names or that hold a reference to an object in one of the given resources. The result is a superset of
+	 * the resources that may be affected by changes to the exported objects of the given resources, so it can be
+	 * used to narrow down the candidates that have to be checked with
+	 * {@link IResourceDescription.Manager#isAffected(Collection, IResourceDescription, org.eclipse.xtext.resource.IResourceDescriptions)
+	 * IResourceDescription.Manager#isAffected}.
+	 * 
+	 * The index is built on the first invocation and maintained incrementally afterwards. Concurrent queries are
+	 * allowed as long as the data is not modified at the same time.
+	 * 
+	 * @param importedNames
+	 *            the names to look for. They are expected to be {@link QualifiedName#toLowerCase() lower case} like
+	 *            the {@link IResourceDescription#getImportedNames() imported names}.
+	 * @param targetURIs
+	 *            the URIs of the referenced resources, without fragments.
+	 * @since 2.18
+	 */
+	public synchronized Set<URI> getDependentURIs(Collection<QualifiedName> importedNames, Collection<URI> targetURIs) {
+		updateReverseDependencies();
+		Set<URI> result = new HashSet<URI>();
+		for (QualifiedName name : importedNames) {
+			Set<URI> importing = importingURIs.get(QualifiedNameTable.toLowerCaseKey(name));
+			if (importing != null) {
+				result.addAll(importing);
+			}
+		}
+		for (URI targetURI : targetURIs) {
+			Set<URI> referencing = referencingURIs.get(targetURI);
+			if (referencing != null) {
+				result.addAll(referencing);
+			}
+		}
+		return result;
+	}
+
+	private void updateReverseDependencies() {
+		if (pendingReverseDependencies == null) {
+			importingURIs = new HashMap<QualifiedName, URISet>();
+			referencingURIs = new HashMap<URI, URISet>();
+			pendingReverseDependencies = new HashSet<URI>(resourceDescriptionMap.keySet());
+		}
+		if (pendingReverseDependencies.isEmpty()) {
+			return;
+		}
+		for (URI uri : pendingReverseDependencies) {
+			IResourceDescription description = resourceDescriptionMap.get(uri);
+			if (description != null) {
+				registerReverseDependencies(uri, description);
+			}
+		}
+		pendingReverseDependencies.clear();
+	}
+
+	/**
+	 * @since 2.18
+	 */
+	protected void registerReverseDependencies(URI uri, IResourceDescription description) {
+		for (QualifiedName importedName : description.getImportedNames()) {
+			addDependentURI(importingURIs, QualifiedNameTable.toLowerCaseKey(importedName), uri);
+		}
+		for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+			URI targetEObjectUri = reference.getTargetEObjectUri();
+			if (targetEObjectUri != null) {
+				addDependentURI(referencingURIs, targetEObjectUri.trimFragment(), uri);
+			}
+		}
+	}
+
+	/**
+	 * @since 2.18
+	 */
+	protected void unregisterReverseDependencies(URI uri, IResourceDescription oldDescription) {
+		if (pendingReverseDependencies == null || pendingReverseDependencies.remove(uri)) {
+			return;
+		}
+		for (QualifiedName importedName : oldDescription.getImportedNames()) {
+			removeDependentURI(importingURIs, QualifiedNameTable.toLowerCaseKey(importedName), uri);
+		}
+		for (IReferenceDescription reference : oldDescription.getReferenceDescriptions()) {
+			URI targetEObjectUri = reference.getTargetEObjectUri();
+			if (targetEObjectUri != null) {
+				removeDependentURI(referencingURIs, targetEObjectUri.trimFragment(), uri);
+			}
+		}
+	}
+
+	private <K> void addDependentURI(Map<K, URISet> map, K key, URI uri) {
+		URISet dependents = map.get(key);
+		if (dependents == null) {
+			dependents = new URISet(reverseDependencyOwner);
+			map.put(key, dependents);
+		} else if (dependents.owner != reverseDependencyOwner) {
+			if (dependents.contains(uri)) {
+				return;
+			}
+			dependents = new URISet(reverseDependencyOwner, dependents);
+			map.put(key, dependents);
+		}
+		dependents.add(uri);
+	}
+
+	private <K> void removeDependentURI(Map<K, URISet> map, K key, URI uri) {
+		URISet dependents = map.get(key);
+		if (dependents == null || !dependents.contains(uri)) {
+			return;
+		}
+		if (dependents.size() == 1) {
+			map.remove(key);
+		} else if (dependents.owner != reverseDependencyOwner) {
+			dependents = new URISet(reverseDependencyOwner, dependents);
+			dependents.remove(uri);
+			map.put(key, dependents);
+		} else {
+			dependents.remove(uri);
+		}
+	}
 }
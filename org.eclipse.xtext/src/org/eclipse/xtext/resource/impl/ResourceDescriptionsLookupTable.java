@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.naming.QualifiedNameTable;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+
+/**
+ * Maps the {@link QualifiedName#toLowerCase() lower case} names of exported objects to the resource descriptions
+ * that export them.
+ *
+ * Resource descriptions are identified by dense integer ids that are reused after a description was removed. The names
+ * are kept in an open addressing hash table with linear probing. Each slot holds the id of the only description that
+ * exports the name or, if there is more than one, an array with the ids of all of them. The first element of such an
+ * array is the number of ids that follow it. The arrays grow geometrically and are modified in place, so adding and
+ * removing an exporter does not copy the ids of the others.
+ *
+ * Looking up a name does not allocate.
+ *
+ * @since 2.18
+ */
+final class ResourceDescriptionsLookupTable {
+
+	static final int NO_ID = -1;
+
+	private static final int MIN_CAPACITY = 16;
+
+	private static final int MIN_IDS_CAPACITY = 4;
+
+	private final Map<URI, Integer> ids;
+
+	private IResourceDescription[] descriptions;
+
+	private int[] freeIds;
+
+	private int freeIdCount;
+
+	private int nextId;
+
+	private QualifiedName[] keys;
+
+	private int[] singleIds;
+
+	private int[][] multipleIds;
+
+	private int size;
+
+	ResourceDescriptionsLookupTable(int expectedDescriptions, int expectedNames) {
+		ids = new HashMap<URI, Integer>(expectedDescriptions * 4 / 3 + 1);
+		descriptions = new IResourceDescription[Math.max(expectedDescriptions, MIN_CAPACITY)];
+		freeIds = new int[MIN_CAPACITY];
+		int capacity = capacityFor(expectedNames);
+		keys = new QualifiedName[capacity];
+		singleIds = new int[capacity];
+		multipleIds = new int[capacity][];
+	}
+
+	ResourceDescriptionsLookupTable(ResourceDescriptionsLookupTable copyFrom) {
+		ids = new HashMap<URI, Integer>(copyFrom.ids);
+		descriptions = copyFrom.descriptions.clone();
+		freeIds = copyFrom.freeIds.clone();
+		freeIdCount = copyFrom.freeIdCount;
+		nextId = copyFrom.nextId;
+		keys = copyFrom.keys.clone();
+		singleIds = copyFrom.singleIds.clone();
+		// the id arrays are modified in place so they cannot be shared
+		multipleIds = copyFrom.multipleIds.clone();
+		for (int i = 0; i < multipleIds.length; i++) {
+			if (multipleIds[i] != null) {
+				multipleIds[i] = multipleIds[i].clone();
+			}
+		}
+		size = copyFrom.size;
+	}
+
+	/**
+	 * @return the slot of the given lower case name or a negative value if no description exports that name.
+	 */
+	int indexOf(QualifiedName lowerCaseName) {
+		int mask = keys.length - 1;
+		for (int slot = slotOf(lowerCaseName, mask);; slot = (slot + 1) & mask) {
+			QualifiedName key = keys[slot];
+			if (key == null) {
+				return -1;
+			}
+			if (key.equals(lowerCaseName)) {
+				return slot;
+			}
+		}
+	}
+
+	/**
+	 * @return the id of the only description that exports the name in the given slot or {@link #NO_ID} if there is
+	 *         more than one.
+	 */
+	int getSingleId(int slot) {
+		return singleIds[slot];
+	}
+
+	/**
+	 * @return the ids of the descriptions that export the name in the given slot if there is more than one or
+	 *         <code>null</code>. The first element is the number of ids that follow it. The array must not be
+	 *         modified and is only valid until the table is changed.
+	 */
+	int[] getMultipleIds(int slot) {
+		return multipleIds[slot];
+	}
+
+	IResourceDescription getDescription(int id) {
+		return descriptions[id];
+	}
+
+	void add(URI uri, IResourceDescription description) {
+		int id = allocateId();
+		descriptions[id] = description;
+		ids.put(uri, id);
+		for (IEObjectDescription object : description.getExportedObjects()) {
+			addName(QualifiedNameTable.toLowerCaseKey(object.getName()), id);
+		}
+	}
+
+	void remove(URI uri) {
+		Integer boxedId = ids.remove(uri);
+		if (boxedId == null) {
+			return;
+		}
+		int id = boxedId;
+		IResourceDescription description = descriptions[id];
+		for (IEObjectDescription object : description.getExportedObjects()) {
+			removeName(object.getName().toLowerCase(), id);
+		}
+		descriptions[id] = null;
+		if (freeIdCount == freeIds.length) {
+			freeIds = Arrays.copyOf(freeIds, freeIdCount * 2);
+		}
+		freeIds[freeIdCount++] = id;
+	}
+
+	private int allocateId() {
+		if (freeIdCount > 0) {
+			return freeIds[--freeIdCount];
+		}
+		if (nextId == descriptions.length) {
+			descriptions = Arrays.copyOf(descriptions, nextId * 2);
+		}
+		return nextId++;
+	}
+
+	private void addName(QualifiedName lowerCaseName, int id) {
+		int mask = keys.length - 1;
+		int slot = slotOf(lowerCaseName, mask);
+		for (QualifiedName key = keys[slot]; key != null; key = keys[slot]) {
+			if (key.equals(lowerCaseName)) {
+				int[] existing = multipleIds[slot];
+				if (existing == null) {
+					if (singleIds[slot] != id) {
+						int[] newIds = new int[MIN_IDS_CAPACITY];
+						newIds[0] = 2;
+						newIds[1] = singleIds[slot];
+						newIds[2] = id;
+						multipleIds[slot] = newIds;
+						singleIds[slot] = NO_ID;
+					}
+					return;
+				}
+				int count = existing[0];
+				// a description registers all its names at once, so a duplicate name would be the last id
+				if (existing[count] != id) {
+					if (count + 1 == existing.length) {
+						existing = Arrays.copyOf(existing, existing.length * 2);
+						multipleIds[slot] = existing;
+					}
+					existing[++count] = id;
+					existing[0] = count;
+				}
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = lowerCaseName;
+		singleIds[slot] = id;
+		if (++size * 3 >= keys.length * 2) {
+			rehash(keys.length * 2);
+		}
+	}
+
+	private void removeName(QualifiedName lowerCaseName, int id) {
+		int slot = indexOf(lowerCaseName);
+		if (slot < 0) {
+			return;
+		}
+		int[] existing = multipleIds[slot];
+		if (existing == null) {
+			if (singleIds[slot] == id) {
+				removeSlot(slot);
+			}
+			return;
+		}
+		int count = existing[0];
+		int index = indexOf(existing, count, id);
+		if (index < 0) {
+			return;
+		}
+		if (count == 2) {
+			singleIds[slot] = existing[3 - index];
+			multipleIds[slot] = null;
+			return;
+		}
+		System.arraycopy(existing, index + 1, existing, index, count - index);
+		existing[0] = --count;
+		if (existing.length > MIN_IDS_CAPACITY && count * 4 < existing.length) {
+			multipleIds[slot] = Arrays.copyOf(existing, existing.length / 2);
+		}
+	}
+
+	/**
+	 * Removes the entry in the given slot and moves subsequent entries of the same probe sequence into the gap, so
+	 * the table does not need any tombstones.
+	 */
+	private void removeSlot(int slot) {
+		int mask = keys.length - 1;
+		int gap = slot;
+		for (int i = (slot + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+			int home = slotOf(keys[i], mask);
+			boolean reachable = gap <= i ? gap < home && home <= i : gap < home || home <= i;
+			if (!reachable) {
+				keys[gap] = keys[i];
+				singleIds[gap] = singleIds[i];
+				multipleIds[gap] = multipleIds[i];
+				gap = i;
+			}
+		}
+		keys[gap] = null;
+		singleIds[gap] = 0;
+		multipleIds[gap] = null;
+		size--;
+	}
+
+	private void rehash(int capacity) {
+		QualifiedName[] oldKeys = keys;
+		int[] oldSingleIds = singleIds;
+		int[][] oldMultipleIds = multipleIds;
+		keys = new QualifiedName[capacity];
+		singleIds = new int[capacity];
+		multipleIds = new int[capacity][];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			QualifiedName key = oldKeys[i];
+			if (key != null) {
+				int slot = slotOf(key, mask);
+				while (keys[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				singleIds[slot] = oldSingleIds[i];
+				multipleIds[slot] = oldMultipleIds[i];
+			}
+		}
+	}
+
+	private static int slotOf(QualifiedName name, int mask) {
+		int hash = name.hashCode() * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	private static int capacityFor(int expectedNames) {
+		int capacity = MIN_CAPACITY;
+		while (capacity * 2 <= expectedNames * 3) {
+			capacity *= 2;
+		}
+		return capacity;
+	}
+
+	private static int indexOf(int[] ids, int count, int id) {
+		for (int i = 1; i <= count; i++) {
+			if (ids[i] == id) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+}
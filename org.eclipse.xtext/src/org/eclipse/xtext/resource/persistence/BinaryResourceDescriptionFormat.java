@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A compact binary encoding for {@link SerializableResourceDescription resource descriptions} in the resource storage.
+ *
+ * All strings (name segments, URIs without fragment, fragments, user data and Ecore element URIs) are written once into a
+ * string table and referenced by their index afterwards. Numbers are written as variable length integers.
+ *
+ * The data starts with a {@link #MAGIC_NUMBER magic number} and a {@link #VERSION version}, so it can be told apart
+ * from descriptions that have been written with an {@link java.io.ObjectOutputStream}.
+ *
+ * @since 2.18
+ */
+public class BinaryResourceDescriptionFormat {
+
+	/**
+	 * Does not collide with the stream magic of the Java serialization (0xACED).
+	 */
+	public static final int MAGIC_NUMBER = 0x58524400; // 'XRD\0'
+
+	public static final int VERSION = 1;
+
+	/**
+	 * @return whether the given header has been written by this format.
+	 */
+	public boolean isCompatible(byte[] header) {
+		if (header.length < 4) {
+			return false;
+		}
+		int magic = ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16) | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+		return magic == MAGIC_NUMBER;
+	}
+
+	public void write(SerializableResourceDescription description, OutputStream outputStream) throws IOException {
+		Writer writer = new Writer();
+		writer.writeDescription(description);
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(MAGIC_NUMBER);
+		writeVarInt(out, VERSION);
+		writeVarInt(out, writer.strings.size());
+		for (String string : writer.strings) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(out, bytes.length);
+			out.write(bytes);
+		}
+		writer.body.writeTo(out);
+		out.flush();
+	}
+
+	public SerializableResourceDescription read(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		int magic = in.readInt();
+		if (magic != MAGIC_NUMBER) {
+			throw new IOException("Unexpected magic number " + Integer.toHexString(magic));
+		}
+		int version = readVarInt(in);
+		if (version != VERSION) {
+			throw new IOException("Unsupported version " + version);
+		}
+		int stringCount = readVarInt(in);
+		String[] strings = new String[stringCount];
+		byte[] buffer = new byte[64];
+		for (int i = 0; i < stringCount; i++) {
+			int length = readVarInt(in);
+			if (buffer.length < length) {
+				buffer = new byte[Math.max(length, buffer.length * 2)];
+			}
+			in.readFully(buffer, 0, length);
+			strings[i] = new String(buffer, 0, length, StandardCharsets.UTF_8);
+		}
+		return new Reader(in, strings).readDescription();
+	}
+
+	protected static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	protected static int readVarInt(DataInputStream in) throws IOException {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			result |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new IOException("Malformed variable length integer");
+	}
+
+	private static class Writer {
+		private final List<String> strings = new ArrayList<String>();
+		private final Map<String, Integer> stringIds = new HashMap<String, Integer>();
+		private final Map<URI, Integer> uriIds = new HashMap<URI, Integer>();
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+		private final DataOutputStream out = new DataOutputStream(body);
+
+		void writeDescription(SerializableResourceDescription description) throws IOException {
+			writeURI(description.getURI());
+			List<SerializableEObjectDescription> descriptions = description.getDescriptions();
+			writeVarInt(out, descriptions.size());
+			for (SerializableEObjectDescription desc : descriptions) {
+				writeURI(desc.getEObjectURI());
+				writeEcoreElement(desc.getEClass());
+				writeQualifiedName(desc.getQualifiedName());
+				Map<String, String> userData = desc.getUserData();
+				if (userData == null) {
+					writeVarInt(out, 0);
+				} else {
+					writeVarInt(out, userData.size() + 1);
+					for (Map.Entry<String, String> entry : userData.entrySet()) {
+						writeNullableString(entry.getKey());
+						writeNullableString(entry.getValue());
+					}
+				}
+			}
+			List<SerializableReferenceDescription> references = description.getReferences();
+			writeVarInt(out, references.size());
+			for (SerializableReferenceDescription ref : references) {
+				writeURI(ref.getSourceEObjectUri());
+				writeURI(ref.getTargetEObjectUri());
+				writeURI(ref.getContainerEObjectURI());
+				writeEcoreElement(ref.getEReference());
+				// zig-zag encoding since the index may be -1
+				int index = ref.getIndexInList();
+				writeVarInt(out, (index << 1) ^ (index >> 31));
+			}
+			List<QualifiedName> importedNames = Lists.newArrayList(description.getImportedNames());
+			writeVarInt(out, importedNames.size());
+			for (QualifiedName name : importedNames) {
+				writeQualifiedName(name);
+			}
+		}
+
+		/**
+		 * Strings are referenced by their index plus one, zero denotes <code>null</code>.
+		 */
+		void writeNullableString(String string) throws IOException {
+			if (string == null) {
+				writeVarInt(out, 0);
+			} else {
+				writeVarInt(out, stringId(string) + 1);
+			}
+		}
+
+		int stringId(String string) {
+			Integer result = stringIds.get(string);
+			if (result == null) {
+				result = strings.size();
+				strings.add(string);
+				stringIds.put(string, result);
+			}
+			return result;
+		}
+
+		void writeURI(URI uri) throws IOException {
+			if (uri == null) {
+				writeVarInt(out, 0);
+				return;
+			}
+			URI trimmed = uri.trimFragment();
+			Integer id = uriIds.get(trimmed);
+			if (id == null) {
+				id = stringId(trimmed.toString());
+				uriIds.put(trimmed, id);
+			}
+			writeVarInt(out, id + 1);
+			writeNullableString(uri.fragment());
+		}
+
+		void writeEcoreElement(ENamedElement element) throws IOException {
+			writeURI(EcoreUtil.getURI(element));
+		}
+
+		void writeQualifiedName(QualifiedName name) throws IOException {
+			int segmentCount = name.getSegmentCount();
+			writeVarInt(out, segmentCount);
+			for (int i = 0; i < segmentCount; i++) {
+				writeVarInt(out, stringId(name.getSegment(i)));
+			}
+		}
+	}
+
+	private static class Reader {
+		private final DataInputStream in;
+		private final String[] strings;
+		private final URI[] uris;
+		private final Map<URI, ENamedElement> ecoreElements = new HashMap<URI, ENamedElement>();
+
+		Reader(DataInputStream in, String[] strings) {
+			this.in = in;
+			this.strings = strings;
+			this.uris = new URI[strings.length];
+		}
+
+		SerializableResourceDescription readDescription() throws IOException {
+			SerializableResourceDescription result = new SerializableResourceDescription();
+			result.setURI(readURI());
+			int descriptionsSize = readVarInt(in);
+			List<SerializableEObjectDescription> descriptions = new ArrayList<SerializableEObjectDescription>(descriptionsSize);
+			for (int i = 0; i < descriptionsSize; i++) {
+				SerializableEObjectDescription desc = new SerializableEObjectDescription();
+				desc.setEObjectURI(readURI());
+				desc.setEClass((EClass) readEcoreElement());
+				desc.setQualifiedName(readQualifiedName());
+				int userDataSize = readVarInt(in);
+				if (userDataSize > 0) {
+					HashMap<String, String> userData = new HashMap<String, String>(userDataSize - 1);
+					for (int j = 1; j < userDataSize; j++) {
+						userData.put(readNullableString(), readNullableString());
+					}
+					desc.setUserData(userData);
+				}
+				descriptions.add(desc);
+			}
+			result.setDescriptions(descriptions);
+			int referencesSize = readVarInt(in);
+			List<SerializableReferenceDescription> references = new ArrayList<SerializableReferenceDescription>(referencesSize);
+			for (int i = 0; i < referencesSize; i++) {
+				SerializableReferenceDescription ref = new SerializableReferenceDescription();
+				ref.setSourceEObjectUri(readURI());
+				ref.setTargetEObjectUri(readURI());
+				ref.setContainerEObjectURI(readURI());
+				ref.setEReference((EReference) readEcoreElement());
+				int index = readVarInt(in);
+				ref.setIndexInList((index >>> 1) ^ -(index & 1));
+				references.add(ref);
+			}
+			result.setReferences(references);
+			int importedNamesSize = readVarInt(in);
+			List<QualifiedName> importedNames = new ArrayList<QualifiedName>(importedNamesSize);
+			for (int i = 0; i < importedNamesSize; i++) {
+				importedNames.add(readQualifiedName());
+			}
+			result.setImportedNames(importedNames);
+			return result;
+		}
+
+		String readNullableString() throws IOException {
+			int id = readVarInt(in);
+			if (id == 0) {
+				return null;
+			}
+			return strings[id - 1];
+		}
+
+		URI readURI() throws IOException {
+			int id = readVarInt(in);
+			if (id == 0) {
+				return null;
+			}
+			URI result = uris[id - 1];
+			if (result == null) {
+				result = URI.createURI(strings[id - 1]);
+				uris[id - 1] = result;
+			}
+			String fragment = readNullableString();
+			if (fragment != null) {
+				return result.appendFragment(fragment);
+			}
+			return result;
+		}
+
+		ENamedElement readEcoreElement() throws IOException {
+			URI uri = readURI();
+			if (uri == null) {
+				return null;
+			}
+			ENamedElement result = ecoreElements.get(uri);
+			if (result == null && !ecoreElements.containsKey(uri)) {
+				EPackage ePackage = EPackage.Registry.INSTANCE.getEPackage(uri.trimFragment().toString());
+				Resource resource = ePackage != null ? ePackage.eResource() : null;
+				result = resource != null ? (ENamedElement) resource.getEObject(uri.fragment()) : null;
+				ecoreElements.put(uri, result);
+			}
+			return result;
+		}
+
+		QualifiedName readQualifiedName() throws IOException {
+			int segmentCount = readVarInt(in);
+			if (segmentCount == 0) {
+				return QualifiedName.EMPTY;
+			}
+			QualifiedName.Builder builder = new QualifiedName.Builder(segmentCount);
+			for (int i = 0; i < segmentCount; i++) {
+				builder.add(strings[readVarInt(in)]);
+			}
+			return builder.build();
+		}
+	}
+
+}
@@ -7,13 +7,16 @@
  *******************************************************************************/
 package org.eclipse.xtext.resource.persistence
 
+import com.google.common.io.ByteStreams
 import com.google.common.io.CharStreams
 import java.io.BufferedInputStream
+import java.io.ByteArrayInputStream
 import java.io.DataInputStream
 import java.io.IOException
 import java.io.InputStream
 import java.io.InputStreamReader
 import java.io.ObjectInputStream
+import java.nio.charset.StandardCharsets
 import java.util.zip.ZipInputStream
 import org.apache.log4j.Logger
 import org.eclipse.emf.ecore.InternalEObject
@@ -58,8 +61,21 @@ import org.eclipse.xtext.parser.ParseResult
 		readResourceDescription(resource, new BufferedInputStream(zipIn))
 
 		if (storeNodeModel) {
-			zipIn.nextEntry
-			readNodeModel(resource, new BufferedInputStream(zipIn))
+			val entry = zipIn.nextEntry
+			// storages that have been written before 2.18 do not contain the text of the node model
+			val completeContent = if (entry?.name == "node-model-text") {
+				val text = CharStreams.toString(new InputStreamReader(zipIn, StandardCharsets.UTF_8))
+				zipIn.nextEntry
+				text
+			}
+			// most resources that are loaded from storage are only linked against, so the node model is deserialized on demand
+			val nodeModel = ByteStreams.toByteArray(zipIn)
+			// the entry is empty if the node model could not be stored
+			if (nodeModel.length > 0) {
+				resource.nodeModelLoader = [
+					readNodeModel(resource, new ByteArrayInputStream(nodeModel), completeContent)
+				]
+			}
 		}
 	}
 	
@@ -87,12 +103,30 @@ import org.eclipse.xtext.parser.ParseResult
 	}
 	
 	protected def void readResourceDescription(StorageAwareResource resource, InputStream inputStream) throws IOException {
-		val objectIn = new ObjectInputStream(inputStream)
-		val description = objectIn.readObject as SerializableResourceDescription
+		val in = if (inputStream.markSupported) inputStream else new BufferedInputStream(inputStream)
+		val format = createResourceDescriptionFormat
+		val header = newByteArrayOfSize(4)
+		in.mark(header.length)
+		val read = ByteStreams.read(in, header, 0, header.length)
+		in.reset
+		val description = if (read == header.length && format.isCompatible(header)) {
+			format.read(in)
+		} else {
+			// storages that have been written before the binary format was introduced
+			val objectIn = new ObjectInputStream(in)
+			objectIn.readObject as SerializableResourceDescription
+		}
 		description.updateResourceURI(resource.URI)
 		resource.resourceDescription = description
 	}
 	
+	/**
+	 * @since 2.18
+	 */
+	protected def BinaryResourceDescriptionFormat createResourceDescriptionFormat() {
+		return new BinaryResourceDescriptionFormat
+	}
+	
 	protected def void readNodeModel(StorageAwareResource resource, InputStream inputStream) throws IOException {
 		val serializableNodeModel = new SerializableNodeModel(resource)
 		// if this is a synthetic resource (i.e. tests or so, don't load the node model)
@@ -109,4 +143,22 @@ import org.eclipse.xtext.parser.ParseResult
 		resource.parseResult = new ParseResult(resource.contents.head,serializableNodeModel.root, deserializationContext.hasErrors)
 	}
 	
+	/**
+	 * Reads the node model that refers to the given text. If the storage does not contain the text, it is read from
+	 * the source file by {@link #readNodeModel(StorageAwareResource, InputStream)}.
+	 * 
+	 * @since 2.18
+	 */
+	protected def void readNodeModel(StorageAwareResource resource, InputStream inputStream, String completeContent) throws IOException {
+		if (completeContent === null) {
+			readNodeModel(resource, inputStream)
+			return
+		}
+		val serializableNodeModel = new SerializableNodeModel(resource)
+		val deserializationContext = new DeserializationConversionContext(resource, completeContent)
+		val dataIn = new DataInputStream(inputStream)
+		serializableNodeModel.readObjectData(dataIn, deserializationContext)
+		resource.parseResult = new ParseResult(resource.contents.head, serializableNodeModel.root, deserializationContext.hasErrors)
+	}
+	
 }
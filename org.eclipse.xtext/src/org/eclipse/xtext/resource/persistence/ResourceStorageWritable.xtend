@@ -8,10 +8,13 @@
 package org.eclipse.xtext.resource.persistence
 
 import java.io.BufferedOutputStream
+import java.io.ByteArrayOutputStream
 import java.io.DataOutputStream
 import java.io.IOException
-import java.io.ObjectOutputStream
 import java.io.OutputStream
+import java.io.OutputStreamWriter
+import java.nio.charset.StandardCharsets
+import java.util.zip.CRC32
 import java.util.zip.ZipEntry
 import java.util.zip.ZipOutputStream
 import org.eclipse.emf.common.util.URI
@@ -19,6 +22,7 @@ import org.eclipse.emf.ecore.InternalEObject
 import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl
 import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+import org.eclipse.xtext.nodemodel.impl.CompactNode
 import org.eclipse.xtext.nodemodel.impl.SerializableNodeModel
 import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext
 
@@ -65,11 +69,35 @@ import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext
 		}
 		
 		if (storeNodeModel) {
-			zipOut.putNextEntry(new ZipEntry("node-model"))
+			val canWriteNodeModel = canWriteNodeModel(resource)
+			if (canWriteNodeModel) {
+				// the source file may have changed by the time the node model is loaded on demand
+				zipOut.putNextEntry(new ZipEntry("node-model-text"))
+				try {
+					writeNodeModelText(resource, bufferedOutput)
+				} finally {
+					bufferedOutput.flush
+					zipOut.closeEntry
+				}
+			}
+			// the node model is stored uncompressed since it is read as is and deserialized on demand
+			val nodeModel = new ByteArrayOutputStream
+			// the entry is left empty if the node model cannot be serialized
+			if (canWriteNodeModel) {
+				writeNodeModel(resource, nodeModel)
+			}
+			val bytes = nodeModel.toByteArray
+			val crc = new CRC32
+			crc.update(bytes)
+			val entry = new ZipEntry("node-model")
+			entry.method = ZipEntry.STORED
+			entry.size = bytes.length
+			entry.compressedSize = bytes.length
+			entry.crc = crc.value
+			zipOut.putNextEntry(entry)
 			try {
-				writeNodeModel(resource, bufferedOutput)
+				zipOut.write(bytes)
 			} finally {
-				bufferedOutput.flush
 				zipOut.closeEntry
 			}
 		}
@@ -112,12 +140,14 @@ import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext
 		val description = resource.resourceServiceProvider.resourceDescriptionManager.getResourceDescription(resource);
 		val serializableDescription = SerializableResourceDescription.createCopy(description)
 		convertExternalURIsToPortableURIs(serializableDescription, resource) 
-		val out = new ObjectOutputStream(outputStream);
-		try {
-			out.writeObject(serializableDescription);
-		} finally {
-			out.flush
-		}
+		createResourceDescriptionFormat.write(serializableDescription, outputStream)
+	}
+	
+	/**
+	 * @since 2.18
+	 */
+	protected def BinaryResourceDescriptionFormat createResourceDescriptionFormat() {
+		return new BinaryResourceDescriptionFormat
 	}
 	
 	def protected void convertExternalURIsToPortableURIs(SerializableResourceDescription description, StorageAwareResource resource) {
@@ -136,4 +166,25 @@ import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext
 		out.flush
 	}
 	
+	/**
+	 * Writes the text that the node model refers to, so loading the node model does not depend on the source file.
+	 * 
+	 * @since 2.18
+	 */
+	protected def void writeNodeModelText(StorageAwareResource resource, OutputStream outputStream) throws IOException {
+		val writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)
+		writer.write(resource.parseResult.rootNode.text)
+		writer.flush
+	}
+	
+	/**
+	 * Whether the node model of the resource can be serialized. A {@link CompactNode compact node model} cannot, so
+	 * it is not stored and the node model of the loaded resource is not available.
+	 * 
+	 * @since 2.18
+	 */
+	protected def boolean canWriteNodeModel(StorageAwareResource resource) {
+		return !(resource.parseResult?.rootNode instanceof CompactNode)
+	}
+	
 }
\ No newline at end of file
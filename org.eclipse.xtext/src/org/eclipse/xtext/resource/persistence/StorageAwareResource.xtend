@@ -13,6 +13,8 @@ import java.util.Map
 import org.apache.log4j.Logger
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtext.linking.lazy.LazyLinkingResource
+import org.eclipse.xtext.nodemodel.ILazyNodeModelResource
+import org.eclipse.xtext.parser.IParseResult
 import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.util.internal.Stopwatches
 
@@ -21,7 +23,7 @@ import org.eclipse.xtext.util.internal.Stopwatches
  * 
  * @author Sven Efftinge - Initial contribution and API
  */
-class StorageAwareResource extends LazyLinkingResource {
+class StorageAwareResource extends LazyLinkingResource implements ILazyNodeModelResource {
 	public static val UNRESOLVABLE_FRAGMENT = "UNRESOLVABLE"
 	static val Logger LOG = Logger.getLogger(StorageAwareResource)
 	
@@ -33,6 +35,16 @@ class StorageAwareResource extends LazyLinkingResource {
 	
 	@Accessors IResourceDescription resourceDescription = null;
 	
+	/**
+	 * Deserializes the node model that has been loaded from storage when it is requested for the first time.
+	 */
+	volatile ()=>void nodeModelLoader
+	
+	/**
+	 * Whether the node model is being deserialized by the thread that holds the lock of this resource.
+	 */
+	boolean isLoadingNodeModel = false
+	
 	override load(Map<?, ?> options) throws IOException {
 		if (!isLoaded && !isLoading && resourceStorageFacade !== null && resourceStorageFacade.shouldLoadFromStorage(this)) {
 			if (LOG.isDebugEnabled) {
@@ -69,13 +81,70 @@ class StorageAwareResource extends LazyLinkingResource {
 		}
 	}
 	
+	/**
+	 * Defers deserializing the node model of this resource until it is requested for the first time, i.e. until
+	 * {@link #getParseResult()} or {@link org.eclipse.xtext.nodemodel.util.NodeModelUtils#getNode(org.eclipse.emf.ecore.EObject)}
+	 * is called.
+	 * 
+	 * @since 2.18
+	 */
+	def void setNodeModelLoader(()=>void nodeModelLoader) {
+		this.nodeModelLoader = nodeModelLoader
+	}
+	
+	/**
+	 * Deserializes the node model of this resource if that has been deferred. Other threads wait until the node model
+	 * is complete. Calls from the loading thread itself return immediately.
+	 * 
+	 * @return <code>true</code> if the node model has been deserialized by this call.
+	 * @since 2.18
+	 */
+	override boolean loadNodeModel() {
+		if (nodeModelLoader === null) {
+			return false
+		}
+		synchronized (this) {
+			val loader = nodeModelLoader
+			if (loader === null || isLoadingNodeModel) {
+				return false
+			}
+			isLoadingNodeModel = true
+			try {
+				loader.apply
+				return true
+			} catch (Exception e) {
+				LOG.error("Cannot load the node model of " + URI, e)
+				return false
+			} finally {
+				// the loader is cleared only now, so concurrent readers never see a partial node model
+				nodeModelLoader = null
+				isLoadingNodeModel = false
+			}
+		}
+	}
+	
+	override getParseResult() {
+		loadNodeModel
+		return super.getParseResult
+	}
+	
+	/**
+	 * @return the parse result without deserializing a deferred node model.
+	 * @since 2.18
+	 */
+	protected def IParseResult basicGetParseResult() {
+		return super.getParseResult
+	}
+	
 	override protected doUnload() {
 		super.doUnload
 		isLoadedFromStorage = false;
+		nodeModelLoader = null
 	}
 	
 	override protected clearInternalState() {
 		isLoadedFromStorage = false;
+		nodeModelLoader = null
 		super.clearInternalState();
 	}
 	
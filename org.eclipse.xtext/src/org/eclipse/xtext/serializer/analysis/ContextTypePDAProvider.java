@@ -236,6 +236,12 @@ public class ContextTypePDAProvider implements IContextTypePDAProvider {
 	@Inject
 	protected NfaUtil nfaUtil;
 
+	/**
+	 * @since 2.18
+	 */
+	@Inject
+	protected ContextTypePDAStorage storage;
+
 	protected Set<EClass> collectTypes(Pda<ISerState, RuleCall> contextPda, Map<ISerState, Integer> distances) {
 		TypeCollector collector = newTypeCollector();
 		pdaUtil.filterEdges(contextPda, collector, distances, null);
@@ -253,6 +259,19 @@ public class ContextTypePDAProvider implements IContextTypePDAProvider {
 		SerializationContextMap<Pda<ISerState, RuleCall>> cached = cache.get(grammar);
 		if (cached != null)
 			return cached;
+		SerializationContextMap<Pda<ISerState, RuleCall>> result = storage.load(grammar);
+		if (result == null)
+			result = computeContextTypePDAs(grammar);
+		cache.put(grammar, result);
+		return result;
+	}
+
+	/**
+	 * Computes the PDAs if they were not {@link ContextTypePDAStorage persisted} by the generator.
+	 * 
+	 * @since 2.18
+	 */
+	protected SerializationContextMap<Pda<ISerState, RuleCall>> computeContextTypePDAs(Grammar grammar) {
 		SerializationContextMap.Builder<Pda<ISerState, RuleCall>> builder = SerializationContextMap.builder();
 
 		SerializationContextMap<Pda<ISerState, RuleCall>> contextPDAs = pdaProvider.getContextPDAs(grammar);
@@ -280,9 +299,7 @@ public class ContextTypePDAProvider implements IContextTypePDAProvider {
 				LOG.error("Error extracting PDAs for types for context '" + parents + "': " + x.getMessage(), x);
 			}
 		}
-		SerializationContextMap<Pda<ISerState, RuleCall>> result = builder.create();
-		cache.put(grammar, result);
-		return result;
+		return builder.create();
 	}
 
 	protected TypeCollector newTypeCollector() {
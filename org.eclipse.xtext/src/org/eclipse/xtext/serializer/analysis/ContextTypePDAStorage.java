@@ -0,0 +1,451 @@
+/*******************************************************************************
+ * Copyright (c) 2019 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.serializer.analysis;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.AbstractElement;
+import org.eclipse.xtext.AbstractMetamodelDeclaration;
+import org.eclipse.xtext.Action;
+import org.eclipse.xtext.Grammar;
+import org.eclipse.xtext.GrammarUtil;
+import org.eclipse.xtext.Parameter;
+import org.eclipse.xtext.ParserRule;
+import org.eclipse.xtext.RuleCall;
+import org.eclipse.xtext.serializer.ISerializationContext;
+import org.eclipse.xtext.serializer.analysis.ISerState.SerStateType;
+import org.eclipse.xtext.serializer.analysis.SerializationContext.ActionContext;
+import org.eclipse.xtext.serializer.analysis.SerializationContext.ParameterValueContext;
+import org.eclipse.xtext.serializer.analysis.SerializationContext.RuleContext;
+import org.eclipse.xtext.serializer.analysis.SerializationContext.TypeContext;
+import org.eclipse.xtext.serializer.analysis.SerializerPDA.SerializerPDAState;
+import org.eclipse.xtext.util.formallang.Pda;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Reads and writes the {@link IContextTypePDAProvider#getContextTypePDAs(Grammar) context type PDAs} of a grammar in a
+ * compact binary format, so they don't have to be computed when a language is used for the first time.
+ *
+ * The generator writes the file next to the binary grammar if the serializer fragment is configured to do so. Grammar
+ * elements are stored as URI fragment paths relative to their grammar and types as the namespace URI and name of their
+ * package and class. Loading fails if the file doesn't match the {@link #getFingerprint(Grammar) fingerprint} of the
+ * grammar it is read for, in which case the PDAs are computed as usual.
+ *
+ * @since 2.18
+ */
+@Singleton
+public class ContextTypePDAStorage {
+
+	private static final Logger LOG = Logger.getLogger(ContextTypePDAStorage.class);
+
+	private static final int MAGIC = 0x58504441;
+
+	private static final int VERSION = 1;
+
+	private static final byte NO_CONTEXT = 0;
+
+	private static final byte RULE_CONTEXT = 1;
+
+	private static final byte ACTION_CONTEXT = 2;
+
+	private static final byte PARAMETER_VALUE_CONTEXT = 3;
+
+	private static final byte TYPE_CONTEXT = 4;
+
+	private static final SerStateType[] STATE_TYPES = SerStateType.values();
+
+	@Inject(optional = true)
+	private ClassLoader classLoader;
+
+	public static String getClasspathRelativePath(Grammar grammar) {
+		return GrammarUtil.getLanguageId(grammar).replace('.', '/') + ".serializerbin";
+	}
+
+	/**
+	 * @return the PDAs that were persisted for the given grammar or <code>null</code> if there are none or if they
+	 *         cannot be read.
+	 */
+	public SerializationContextMap<Pda<ISerState, RuleCall>> load(Grammar grammar) {
+		ClassLoader loader = classLoader != null ? classLoader : getClass().getClassLoader();
+		InputStream in = loader.getResourceAsStream(getClasspathRelativePath(grammar));
+		if (in == null) {
+			return null;
+		}
+		try {
+			try {
+				return read(grammar, in);
+			} finally {
+				in.close();
+			}
+		} catch (Exception e) {
+			LOG.warn("Cannot load the serializer PDAs of " + grammar.getName() + ", they will be computed: " + e.getMessage());
+			return null;
+		}
+	}
+
+	public void write(Grammar grammar, SerializationContextMap<Pda<ISerState, RuleCall>> pdas, OutputStream out)
+			throws IOException {
+		Writer writer = new Writer();
+		for (SerializationContextMap.Entry<Pda<ISerState, RuleCall>> entry : pdas.values()) {
+			writer.collect(entry);
+		}
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeUTF(grammar.getName());
+		data.writeInt(getFingerprint(grammar));
+		data.writeInt(writer.objects.size());
+		for (EObject object : writer.objects.keySet()) {
+			Grammar containingGrammar = GrammarUtil.getGrammar(object);
+			data.writeUTF(containingGrammar.getName());
+			data.writeUTF(EcoreUtil.getRelativeURIFragmentPath(containingGrammar, object));
+			data.writeUTF(object.eClass().getName());
+		}
+		data.writeInt(writer.types.size());
+		for (EClass type : writer.types.keySet()) {
+			data.writeUTF(type.getEPackage().getNsURI());
+			data.writeUTF(type.getName());
+		}
+		data.writeInt(pdas.values().size());
+		for (SerializationContextMap.Entry<Pda<ISerState, RuleCall>> entry : pdas.values()) {
+			data.writeInt(entry.getContexts().size());
+			for (ISerializationContext context : entry.getContexts()) {
+				writer.writeContext(data, context);
+			}
+			writer.writePda(data, entry.getValue());
+		}
+		data.flush();
+	}
+
+	public SerializationContextMap<Pda<ISerState, RuleCall>> read(Grammar grammar, InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+			throw new IOException("Unsupported format");
+		}
+		String grammarName = data.readUTF();
+		if (!grammarName.equals(grammar.getName())) {
+			throw new IOException("The file was written for " + grammarName);
+		}
+		if (data.readInt() != getFingerprint(grammar)) {
+			throw new IOException("The file was written for a different version of the grammar");
+		}
+		Map<String, Grammar> grammars = new LinkedHashMap<String, Grammar>();
+		grammars.put(grammar.getName(), grammar);
+		for (Grammar used : GrammarUtil.allUsedGrammars(grammar)) {
+			grammars.put(used.getName(), used);
+		}
+		EObject[] objects = new EObject[data.readInt()];
+		for (int i = 0; i < objects.length; i++) {
+			Grammar containingGrammar = grammars.get(data.readUTF());
+			String path = data.readUTF();
+			String eClassName = data.readUTF();
+			EObject object = containingGrammar != null ? EcoreUtil.getEObject(containingGrammar, path) : null;
+			if (object == null || !object.eClass().getName().equals(eClassName)) {
+				throw new IOException("Cannot resolve " + path);
+			}
+			objects[i] = object;
+		}
+		EClass[] types = new EClass[data.readInt()];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = findType(grammar, data.readUTF(), data.readUTF());
+		}
+		ImmutableList.Builder<SerializationContextMap.Entry<Pda<ISerState, RuleCall>>> entries = ImmutableList.builder();
+		int entryCount = data.readInt();
+		for (int i = 0; i < entryCount; i++) {
+			List<ISerializationContext> contexts = new ArrayList<ISerializationContext>();
+			int contextCount = data.readInt();
+			for (int j = 0; j < contextCount; j++) {
+				contexts.add(readContext(data, objects, types));
+			}
+			Pda<ISerState, RuleCall> pda = readPda(data, objects);
+			entries.add(new SerializationContextMap.Entry<Pda<ISerState, RuleCall>>(pda, contexts));
+		}
+		return new SerializationContextMap<Pda<ISerState, RuleCall>>(entries.build());
+	}
+
+	/**
+	 * Computes a hash of the given grammar and the grammars it uses, so outdated files are not used. The hash covers
+	 * every grammar element with all its attributes and the targets of its references, e.g. the rule of a rule call,
+	 * the parameters and values of guard conditions and arguments, and the terminals of cross references.
+	 */
+	protected int getFingerprint(Grammar grammar) {
+		int result = 1;
+		List<Grammar> grammars = new ArrayList<Grammar>();
+		grammars.add(grammar);
+		grammars.addAll(GrammarUtil.allUsedGrammars(grammar));
+		for (Grammar g : grammars) {
+			result = 31 * result + getFingerprint(g, g);
+			TreeIterator<EObject> iterator = g.eAllContents();
+			while (iterator.hasNext()) {
+				result = 31 * result + getFingerprint(g, iterator.next());
+			}
+		}
+		return result;
+	}
+
+	private int getFingerprint(Grammar grammar, EObject object) {
+		EClass eClass = object.eClass();
+		int result = eClass.getName().hashCode();
+		for (EStructuralFeature feature : eClass.getEAllStructuralFeatures()) {
+			if (feature.isDerived() || feature.isTransient()
+					|| feature instanceof EReference && ((EReference) feature).isContainment()) {
+				// contained elements are hashed by the caller
+				continue;
+			}
+			Object value = object.eGet(feature);
+			if (value instanceof List<?>) {
+				for (Object element : (List<?>) value) {
+					result = 31 * result + getValueFingerprint(element);
+				}
+			} else {
+				result = 31 * result + getValueFingerprint(value);
+			}
+		}
+		return result;
+	}
+
+	private int getValueFingerprint(Object value) {
+		if (value instanceof Grammar) {
+			return ((Grammar) value).getName().hashCode();
+		} else if (value instanceof EClassifier) {
+			EClassifier classifier = (EClassifier) value;
+			EPackage pkg = classifier.getEPackage();
+			return Objects.hashCode(pkg != null ? pkg.getNsURI() : null, classifier.getName());
+		} else if (value instanceof EPackage) {
+			return Objects.hashCode(((EPackage) value).getNsURI());
+		} else if (value instanceof EObject) {
+			EObject object = (EObject) value;
+			Grammar containingGrammar = GrammarUtil.getGrammar(object);
+			if (containingGrammar != null) {
+				return Objects.hashCode(containingGrammar.getName(),
+						EcoreUtil.getRelativeURIFragmentPath(containingGrammar, object));
+			}
+			return EcoreUtil.getURI(object).toString().hashCode();
+		}
+		// enumerators and other values don't have a stable hash code
+		return value != null ? value.toString().hashCode() : 0;
+	}
+
+	protected EClass findType(Grammar grammar, String nsURI, String name) throws IOException {
+		EPackage pkg = null;
+		for (AbstractMetamodelDeclaration declaration : GrammarUtil.allMetamodelDeclarations(grammar)) {
+			EPackage candidate = declaration.getEPackage();
+			if (candidate != null && nsURI.equals(candidate.getNsURI())) {
+				pkg = candidate;
+				break;
+			}
+		}
+		if (pkg == null) {
+			pkg = EPackage.Registry.INSTANCE.getEPackage(nsURI);
+		}
+		EClassifier classifier = pkg != null ? pkg.getEClassifier(name) : null;
+		if (!(classifier instanceof EClass)) {
+			throw new IOException("Cannot resolve " + nsURI + "#" + name);
+		}
+		return (EClass) classifier;
+	}
+
+	private ISerializationContext readContext(DataInputStream data, EObject[] objects, EClass[] types)
+			throws IOException {
+		byte kind = data.readByte();
+		switch (kind) {
+			case NO_CONTEXT:
+				return null;
+			case RULE_CONTEXT: {
+				ParserRule rule = (ParserRule) objects[data.readInt()];
+				return new RuleContext(readContext(data, objects, types), rule);
+			}
+			case ACTION_CONTEXT: {
+				Action action = (Action) objects[data.readInt()];
+				return new ActionContext(readContext(data, objects, types), action);
+			}
+			case PARAMETER_VALUE_CONTEXT: {
+				Set<Parameter> parameters = new LinkedHashSet<Parameter>();
+				int count = data.readInt();
+				for (int i = 0; i < count; i++) {
+					parameters.add((Parameter) objects[data.readInt()]);
+				}
+				return new ParameterValueContext(readContext(data, objects, types), parameters);
+			}
+			case TYPE_CONTEXT: {
+				int type = data.readInt();
+				return new TypeContext(readContext(data, objects, types), type < 0 ? null : types[type]);
+			}
+			default:
+				throw new IOException("Unknown context " + kind);
+		}
+	}
+
+	private Pda<ISerState, RuleCall> readPda(DataInputStream data, EObject[] objects) throws IOException {
+		SerializerPDAState[] states = new SerializerPDAState[data.readInt()];
+		for (int i = 0; i < states.length; i++) {
+			SerStateType type = STATE_TYPES[data.readByte()];
+			int element = data.readInt();
+			states[i] = new SerializerPDAState(element < 0 ? null : (AbstractElement) objects[element], type);
+		}
+		for (SerializerPDAState state : states) {
+			int followerCount = data.readInt();
+			List<ISerState> followers = new ArrayList<ISerState>(followerCount);
+			for (int i = 0; i < followerCount; i++) {
+				followers.add(states[data.readInt()]);
+			}
+			state.followers = followers;
+			int precedentCount = data.readInt();
+			for (int i = 0; i < precedentCount; i++) {
+				state.precedents.add(states[data.readInt()]);
+			}
+		}
+		SerializerPDAState start = states[data.readInt()];
+		SerializerPDAState stop = states[data.readInt()];
+		return new SerializerPDA(start, stop);
+	}
+
+	private static class Writer {
+
+		private final Map<EObject, Integer> objects = new LinkedHashMap<EObject, Integer>();
+
+		private final Map<EClass, Integer> types = new LinkedHashMap<EClass, Integer>();
+
+		void collect(SerializationContextMap.Entry<Pda<ISerState, RuleCall>> entry) {
+			for (ISerializationContext context : entry.getContexts()) {
+				for (ISerializationContext c = context; c != null; c = ((SerializationContext) c).getParent()) {
+					if (c instanceof RuleContext) {
+						add(c.getParserRule());
+					} else if (c instanceof ActionContext) {
+						add(c.getAssignedAction());
+					} else if (c instanceof ParameterValueContext) {
+						for (Parameter parameter : c.getEnabledBooleanParameters()) {
+							add(parameter);
+						}
+					} else if (c instanceof TypeContext) {
+						EClass type = c.getType();
+						if (type != null && !types.containsKey(type)) {
+							types.put(type, types.size());
+						}
+					} else {
+						throw new IllegalArgumentException("Unsupported context " + c.getClass().getName());
+					}
+				}
+			}
+			for (ISerState state : getStates(entry.getValue())) {
+				if (state.getGrammarElement() != null) {
+					add(state.getGrammarElement());
+				}
+			}
+		}
+
+		private void add(EObject object) {
+			if (!objects.containsKey(object)) {
+				objects.put(object, objects.size());
+			}
+		}
+
+		void writeContext(DataOutputStream data, ISerializationContext context) throws IOException {
+			if (context == null) {
+				data.writeByte(NO_CONTEXT);
+				return;
+			}
+			if (context instanceof RuleContext) {
+				data.writeByte(RULE_CONTEXT);
+				data.writeInt(objects.get(context.getParserRule()));
+			} else if (context instanceof ActionContext) {
+				data.writeByte(ACTION_CONTEXT);
+				data.writeInt(objects.get(context.getAssignedAction()));
+			} else if (context instanceof ParameterValueContext) {
+				data.writeByte(PARAMETER_VALUE_CONTEXT);
+				Set<Parameter> parameters = context.getEnabledBooleanParameters();
+				data.writeInt(parameters.size());
+				for (Parameter parameter : parameters) {
+					data.writeInt(objects.get(parameter));
+				}
+			} else {
+				data.writeByte(TYPE_CONTEXT);
+				EClass type = context.getType();
+				data.writeInt(type != null ? types.get(type) : -1);
+			}
+			writeContext(data, ((SerializationContext) context).getParent());
+		}
+
+		void writePda(DataOutputStream data, Pda<ISerState, RuleCall> pda) throws IOException {
+			List<ISerState> states = getStates(pda);
+			Map<ISerState, Integer> ids = new IdentityHashMap<ISerState, Integer>();
+			for (ISerState state : states) {
+				ids.put(state, ids.size());
+			}
+			data.writeInt(states.size());
+			for (ISerState state : states) {
+				data.writeByte(state.getType().ordinal());
+				AbstractElement element = state.getGrammarElement();
+				data.writeInt(element != null ? objects.get(element) : -1);
+			}
+			for (ISerState state : states) {
+				List<ISerState> followers = ImmutableList.copyOf(pda.getFollowers(state));
+				data.writeInt(followers.size());
+				for (ISerState follower : followers) {
+					data.writeInt(ids.get(follower));
+				}
+				data.writeInt(state.getPrecedents().size());
+				for (ISerState precedent : state.getPrecedents()) {
+					data.writeInt(ids.get(precedent));
+				}
+			}
+			data.writeInt(ids.get(pda.getStart()));
+			data.writeInt(ids.get(pda.getStop()));
+		}
+
+		/**
+		 * Collects the states by identity, since the states of a PDA may be equal to each other.
+		 */
+		private List<ISerState> getStates(Pda<ISerState, RuleCall> pda) {
+			Map<ISerState, Boolean> visited = new IdentityHashMap<ISerState, Boolean>();
+			List<ISerState> result = new ArrayList<ISerState>();
+			Deque<ISerState> todo = new ArrayDeque<ISerState>();
+			todo.add(pda.getStart());
+			todo.add(pda.getStop());
+			while (!todo.isEmpty()) {
+				ISerState state = todo.removeFirst();
+				if (visited.put(state, Boolean.TRUE) == null) {
+					result.add(state);
+					for (ISerState follower : pda.getFollowers(state)) {
+						todo.add(follower);
+					}
+					todo.addAll(state.getPrecedents());
+				}
+			}
+			return result;
+		}
+	}
+
+}
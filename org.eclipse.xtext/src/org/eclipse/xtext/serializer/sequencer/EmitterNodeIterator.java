@@ -42,7 +42,7 @@ public class EmitterNodeIterator implements Iterator<INode> {
 			this.iterator = new NodeIterator(fromNode);
 			this.passAbsorber = passAbsorber;
 			if (toNode != null) {
-				if (toNode == fromNode)
+				if (toNode.equals(fromNode))
 					this.end = toNode.getOffset() + toNode.getLength();
 				else if (toNode.getOffset() < fromNode.getOffset())
 					this.end = toNode.getOffset() + toNode.getLength();
@@ -217,7 +217,7 @@ public class HiddenTokenSequencer implements IHiddenTokenSequencer, ISyntacticSe
 				if (next.getTotalOffset() > rootEndOffset) {
 					break;
 				}
-				if (next == lastEmittedNode) {
+				if (next.equals(lastEmittedNode)) {
 					break;
 				} else if (tokenUtil.isWhitespaceOrCommentNode(next)) {
 					out.add(next);
@@ -235,7 +235,7 @@ public class HiddenTokenSequencer implements IHiddenTokenSequencer, ISyntacticSe
 				if (prev.getTotalEndOffset()  < rootOffset) {
 					break;
 				}
-				if (prev == lastEmittedNode) {
+				if (prev.equals(lastEmittedNode)) {
 					break;
 				} else if (tokenUtil.isWhitespaceOrCommentNode(prev)) {
 					out.add(0, prev);
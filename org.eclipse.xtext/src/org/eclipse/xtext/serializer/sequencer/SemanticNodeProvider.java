@@ -154,7 +154,7 @@ public class SemanticNodeProvider implements ISemanticNodeProvider {
 								last = add(assignment.getFeature(), child, last);
 						}
 						iterator.prune();
-					} else if (child != node) {
+					} else if (!child.equals(node)) {
 						Assignment assignment = GrammarUtil.containingAssignment(grammarElement);
 						if (assignment != null) {
 							last = add(assignment.getFeature(), child, last);
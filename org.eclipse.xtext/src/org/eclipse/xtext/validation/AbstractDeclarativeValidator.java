@@ -7,7 +7,9 @@
  *******************************************************************************/
 package org.eclipse.xtext.validation;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -15,6 +17,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.Diagnostic;
@@ -25,9 +29,7 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.util.Exceptions;
-import org.eclipse.xtext.util.SimpleCache;
 
-import com.google.common.base.Function;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
@@ -51,6 +53,11 @@ import com.google.inject.Injector;
  * This behavior can be switched by overriding {@link #handleExceptionDuringValidation(Throwable)}.
  * </p>
  * 
+ * <p>
+ * The check methods that apply to a type of validated objects are computed once per type and {@link CheckMode} and
+ * invoked through {@link MethodHandle method handles}.
+ * </p>
+ * 
  * @author Sven Efftinge - Initial contribution and API
  * @author Michael Clay
  * @author Karsten Thoms
@@ -92,6 +99,7 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		private final String s;
 		private final AbstractDeclarativeValidator instance;
 		private final CheckType checkType;
+		private volatile MethodHandle handle;
 
 		protected MethodWrapper(AbstractDeclarativeValidator instance, Method m) {
 			this.instance = instance;
@@ -110,6 +118,28 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 			return method.getParameterTypes()[0].isAssignableFrom(param);
 		}
 
+		/**
+		 * @since 2.18
+		 */
+		public CheckType getCheckType() {
+			return checkType;
+		}
+
+		/**
+		 * @return a handle that takes the validated object and is bound to the validator instance.
+		 * @since 2.18
+		 */
+		protected MethodHandle getMethodHandle() throws IllegalAccessException {
+			MethodHandle result = handle;
+			if (result == null) {
+				method.setAccessible(true);
+				result = MethodHandles.lookup().unreflect(method).bindTo(instance)
+						.asType(MethodType.methodType(void.class, EObject.class));
+				handle = result;
+			}
+			return result;
+		}
+
 		public void invoke(State state) {
 			State instanceState = instance.state.get();
 			if (instanceState != null && instanceState != state)
@@ -120,17 +150,18 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 			try {
 				if (!state.checkMode.shouldCheck(checkType))
 					return;
+				MethodHandle methodHandle;
+				try {
+					methodHandle = getMethodHandle();
+				} catch (IllegalAccessException | RuntimeException e) {
+					log.error(e.getMessage(), e);
+					return;
+				}
 				try {
 					state.currentMethod = method;
 					state.currentCheckType = checkType;
-					method.setAccessible(true);
-					method.invoke(instance, state.currentObject);
-				} catch (IllegalArgumentException e) {
-					log.error(e.getMessage(), e);
-				} catch (IllegalAccessException e) {
-					log.error(e.getMessage(), e);
-				} catch (InvocationTargetException e) {
-					Throwable targetException = e.getTargetException();
+					methodHandle.invokeExact(state.currentObject);
+				} catch (Throwable targetException) {
 					handleInvocationTargetException(targetException, state);
 				}
 			} finally {
@@ -249,18 +280,61 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		return instanceToUse;
 	}
 
-	private final SimpleCache<Class<?>, List<MethodWrapper>> methodsForType = new SimpleCache<Class<?>, List<MethodWrapper>>(
-			new Function<Class<?>, List<MethodWrapper>>() {
-				@Override
-				public List<MethodWrapper> apply(Class<?> param) {
-					List<MethodWrapper> result = new ArrayList<MethodWrapper>();
-					for (MethodWrapper mw : checkMethods) {
-						if (mw.isMatching(param))
-							result.add(mw);
-					}
-					return result;
+	/**
+	 * The check methods that match a type of validated objects, and the subsets of them that are run in the check modes
+	 * that have been requested so far.
+	 */
+	private static class CheckMethodTable {
+
+		/**
+		 * Custom check modes may be created per validation run, so the number of cached subsets is limited.
+		 */
+		private static final int MAX_CACHED_MODES = 8;
+
+		private final MethodWrapper[] methods;
+
+		private final ConcurrentMap<CheckMode, MethodWrapper[]> methodsByMode = new ConcurrentHashMap<CheckMode, MethodWrapper[]>(4);
+
+		CheckMethodTable(List<MethodWrapper> methods) {
+			this.methods = methods.toArray(new MethodWrapper[methods.size()]);
+		}
+
+		MethodWrapper[] getMethods(CheckMode checkMode) {
+			if (checkMode == CheckMode.ALL) {
+				return methods;
+			}
+			MethodWrapper[] result = methodsByMode.get(checkMode);
+			if (result == null) {
+				List<MethodWrapper> filtered = new ArrayList<MethodWrapper>(methods.length);
+				for (MethodWrapper mw : methods) {
+					if (checkMode.shouldCheck(mw.getCheckType()))
+						filtered.add(mw);
 				}
-			});
+				result = filtered.toArray(new MethodWrapper[filtered.size()]);
+				if (methodsByMode.size() < MAX_CACHED_MODES)
+					methodsByMode.putIfAbsent(checkMode, result);
+			}
+			return result;
+		}
+	}
+
+	private final ConcurrentMap<Class<?>, CheckMethodTable> methodsForType = new ConcurrentHashMap<Class<?>, CheckMethodTable>();
+
+	private CheckMethodTable getCheckMethodTable(Class<?> type) {
+		CheckMethodTable result = methodsForType.get(type);
+		if (result == null) {
+			List<MethodWrapper> matching = new ArrayList<MethodWrapper>();
+			for (MethodWrapper mw : checkMethods) {
+				if (mw.isMatching(type))
+					matching.add(mw);
+			}
+			result = new CheckMethodTable(matching);
+			CheckMethodTable existing = methodsForType.putIfAbsent(type, result);
+			if (existing != null)
+				result = existing;
+		}
+		return result;
+	}
 
 	public static class State {
 		public DiagnosticChain chain = null;
@@ -314,7 +388,7 @@ public abstract class AbstractDeclarativeValidator extends AbstractInjectableVal
 		state.checkMode = checkMode;
 		state.context = context;
 
-		for (MethodWrapper method : methodsForType.get(object.getClass())) {
+		for (MethodWrapper method : getCheckMethodTable(object.getClass()).getMethods(checkMode)) {
 			method.invoke(state);
 		}
 
@@ -26,6 +26,14 @@ public class CancelableDiagnostician extends Diagnostician {
 	
 	public static final String CANCEL_INDICATOR = CancelableDiagnostician.class + ".CANCEL_INDICATOR";
 	
+	/**
+	 * The context key for an {@link EObject} whose contents are not validated. Used to validate a root element
+	 * separately from its children.
+	 * 
+	 * @since 2.18
+	 */
+	public static final String SKIP_CONTENTS_OF = CancelableDiagnostician.class + ".SKIP_CONTENTS_OF";
+	
 	@Inject
 	private OperationCanceledManager operationCanceledManager;
 	
@@ -40,6 +48,17 @@ public class CancelableDiagnostician extends Diagnostician {
 		return super.validate(eClass, eObject, diagnostics, context);
 	}
 	
+	/**
+	 * @since 2.18
+	 */
+	@Override
+	protected boolean doValidateContents(EObject eObject, DiagnosticChain diagnostics, Map<Object, Object> context) {
+		if (context != null && context.get(SKIP_CONTENTS_OF) == eObject) {
+			return true;
+		}
+		return super.doValidateContents(eObject, diagnostics, context);
+	}
+	
 	/**
 	 * @since 2.9
 	 */
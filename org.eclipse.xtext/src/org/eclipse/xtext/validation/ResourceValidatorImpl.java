@@ -8,10 +8,17 @@
  *******************************************************************************/
 package org.eclipse.xtext.validation;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.BasicDiagnostic;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EValidator;
@@ -33,6 +40,11 @@ import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 
 /**
+ * Validates a resource and converts the diagnostics to {@link Issue issues}.
+ * 
+ * If an {@link #setExecutor(ExecutorService) executor} is set, the children of a root element are validated
+ * concurrently. All validators of the language have to be thread-safe in that case.
+ * 
  * @author Dennis Hbner - Initial contribution and API
  */
 public class ResourceValidatorImpl implements IResourceValidator {
@@ -65,6 +77,8 @@ public class ResourceValidatorImpl implements IResourceValidator {
 	@Inject
 	private OperationCanceledManager operationCanceledManager;
 	
+	private ExecutorService executor;
+	
 	@Override
 	public List<Issue> validate(Resource resource, final CheckMode mode, CancelIndicator mon) throws OperationCanceledError {
 		StoppedTask task = Stopwatches.forTask("ResourceValidatorImpl.validation");
@@ -121,28 +135,117 @@ public class ResourceValidatorImpl implements IResourceValidator {
 			IAcceptor<Issue> acceptor) {
 		for (EObject ele : resource.getContents()) {
 			operationCanceledManager.checkCanceled(monitor);
-			validate(resource, ele, mode, monitor, acceptor);
+			if (isValidateInParallel(ele)) {
+				validateInParallel(resource, ele, mode, monitor, acceptor);
+			} else {
+				validate(resource, ele, mode, monitor, acceptor);
+			}
 		}
 	}
 
+	/**
+	 * @since 2.18
+	 */
+	protected boolean isValidateInParallel(EObject root) {
+		return executor != null && diagnostician instanceof CancelableDiagnostician && root.eContents().size() > 1;
+	}
+
+	/**
+	 * Validates the given root element on the current thread and its children in batches on the {@link #getExecutor()
+	 * executor}. All validations share one synchronized context, such that checks that are performed once per
+	 * resource are not repeated. The issues are passed to the acceptor in the same order as by a sequential
+	 * validation.
+	 * 
+	 * @since 2.18
+	 */
+	protected void validateInParallel(Resource resource, EObject root, CheckMode mode, final CancelIndicator monitor,
+			IAcceptor<Issue> acceptor) {
+		final Map<Object, Object> context = Collections.synchronizedMap(diagnostician.createDefaultContext());
+		context.putAll(createValidationOptions(resource, mode, monitor));
+		context.put(CancelableDiagnostician.SKIP_CONTENTS_OF, root);
+		for (Issue issue : validateElement(root, context)) {
+			acceptor.accept(issue);
+		}
+		List<EObject> children = Lists.newArrayList(root.eContents());
+		int parallelism = executor instanceof ForkJoinPool ? ((ForkJoinPool) executor).getParallelism()
+				: Runtime.getRuntime().availableProcessors();
+		int batchSize = Math.max(1, children.size() / (4 * parallelism));
+		List<Future<List<Issue>>> futures = Lists.newArrayList();
+		boolean done = false;
+		try {
+			for (final List<EObject> batch : Lists.partition(children, batchSize)) {
+				futures.add(executor.submit(new Callable<List<Issue>>() {
+					@Override
+					public List<Issue> call() {
+						List<Issue> result = Lists.newArrayList();
+						for (EObject element : batch) {
+							operationCanceledManager.checkCanceled(monitor);
+							result.addAll(validateElement(element, context));
+						}
+						return result;
+					}
+				}));
+			}
+			for (Future<List<Issue>> future : futures) {
+				for (Issue issue : getResult(future)) {
+					acceptor.accept(issue);
+				}
+			}
+			done = true;
+		} finally {
+			if (!done) {
+				for (Future<List<Issue>> future : futures) {
+					future.cancel(false);
+				}
+			}
+		}
+	}
+
+	private List<Issue> getResult(Future<List<Issue>> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			operationCanceledManager.throwOperationCanceledException();
+			return Collections.emptyList();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Validates a single element with the given context. Must be thread-safe.
+	 */
+	private List<Issue> validateElement(EObject element, Map<Object, Object> context) {
+		List<Issue> result = Lists.newArrayList();
+		try {
+			BasicDiagnostic diagnostic = new BasicDiagnostic();
+			diagnostician.validate(element, diagnostic, context);
+			IAcceptor<Issue> acceptor = new ListBasedMarkerAcceptor(result);
+			for (Diagnostic childDiagnostic : diagnostic.getChildren()) {
+				issueFromEValidatorDiagnostic(childDiagnostic, acceptor);
+			}
+		} catch (RuntimeException e) {
+			operationCanceledManager.propagateAsErrorIfCancelException(e);
+			log.error(e.getMessage(), e);
+		}
+		return result;
+	}
+
 	/**
 	 * @since 2.4
 	 */
 	protected void validate(Resource resource, EObject element, final CheckMode mode, final CancelIndicator monitor,
 			IAcceptor<Issue> acceptor) {
 		try {
-			Map<Object, Object> options = Maps.newHashMap();
-			options.put(CheckMode.KEY, mode);
-			options.put(CancelableDiagnostician.CANCEL_INDICATOR, monitor);
-			// disable concrete syntax validation, since a semantic model that has been parsed 
-			// from the concrete syntax always complies with it - otherwise there are parse errors.
-			options.put(ConcreteSyntaxEValidator.DISABLE_CONCRETE_SYNTAX_EVALIDATOR, Boolean.TRUE);
-			// see EObjectValidator.getRootEValidator(Map<Object, Object>)
-			options.put(EValidator.class, diagnostician);
-			if (resource instanceof XtextResource) {
-				options.put(AbstractInjectableValidator.CURRENT_LANGUAGE_NAME,
-						((XtextResource) resource).getLanguageName());
-			}
+			Map<Object, Object> options = createValidationOptions(resource, mode, monitor);
 			Diagnostic diagnostic = diagnostician.validate(element, options);
 			if (!diagnostic.getChildren().isEmpty()) {
 				for (Diagnostic childDiagnostic : diagnostic.getChildren()) {
@@ -157,6 +260,25 @@ public class ResourceValidatorImpl implements IResourceValidator {
 		}
 	}
 
+	/**
+	 * @since 2.18
+	 */
+	protected Map<Object, Object> createValidationOptions(Resource resource, CheckMode mode, CancelIndicator monitor) {
+		Map<Object, Object> options = Maps.newHashMap();
+		options.put(CheckMode.KEY, mode);
+		options.put(CancelableDiagnostician.CANCEL_INDICATOR, monitor);
+		// disable concrete syntax validation, since a semantic model that has been parsed 
+		// from the concrete syntax always complies with it - otherwise there are parse errors.
+		options.put(ConcreteSyntaxEValidator.DISABLE_CONCRETE_SYNTAX_EVALIDATOR, Boolean.TRUE);
+		// see EObjectValidator.getRootEValidator(Map<Object, Object>)
+		options.put(EValidator.class, diagnostician);
+		if (resource instanceof XtextResource) {
+			options.put(AbstractInjectableValidator.CURRENT_LANGUAGE_NAME,
+					((XtextResource) resource).getLanguageName());
+		}
+		return options;
+	}
+
 	protected void resolveProxies(final Resource resource, final CancelIndicator monitor) {
 		EcoreUtil2.resolveLazyCrossReferences(resource, monitor);
 	}
@@ -195,6 +317,24 @@ public class ResourceValidatorImpl implements IResourceValidator {
 	public IDiagnosticConverter getDiagnosticConverter() {
 		return converter;
 	}
+
+	/**
+	 * Enables the parallel validation of the children of root elements, e.g. with the {@link ForkJoinPool#commonPool()
+	 * common pool}. The lazy links of the resource are resolved before. Pass <code>null</code> to validate sequentially,
+	 * which is the default.
+	 * 
+	 * @since 2.18
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * @since 2.18
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
 	
 	/**
 	 * @since 2.9
@@ -7,17 +7,21 @@
  */
 package org.eclipse.xtext.build;
 
+import java.util.concurrent.ExecutorService;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
 import org.eclipse.xtext.build.ClusteringStorageAwareResourceLoader;
 import org.eclipse.xtext.build.IndexState;
+import org.eclipse.xtext.build.PipelineStage;
+import org.eclipse.xtext.generator.AsynchronousOutputWriter;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.Pure;
 
@@ -42,6 +46,24 @@ public class BuildContext {
   @Accessors
   private final CancelIndicator cancelIndicator;
   
+  /**
+   * @since 2.18
+   */
+  @Accessors
+  private ExecutorService executorService;
+  
+  /**
+   * @since 2.18
+   */
+  @Accessors
+  private PipelineStage generatorStage;
+  
+  /**
+   * @since 2.18
+   */
+  @Accessors
+  private AsynchronousOutputWriter outputWriter;
+  
   private ClusteringStorageAwareResourceLoader loader;
   
   public <T extends Object> Iterable<T> executeClustered(final Iterable<URI> uri, final Function1<? super Resource, ? extends T> operation) {
@@ -55,6 +77,23 @@ public class BuildContext {
     return this.loader.<T>executeClustered(IterableExtensions.<URI>filter(uri, _function), operation);
   }
   
+  /**
+   * Applies the concurrent operation to the resources on the {@link #getExecutorService() executor service}
+   * if one is configured, and the sequential operation on the calling thread in the order of the given URIs.
+   * 
+   * @since 2.18
+   */
+  public <T extends Object, R extends Object> Iterable<R> executeClustered(final Iterable<URI> uri, final Function1<? super Resource, ? extends T> concurrentOperation, final Function2<? super Resource, ? super T, ? extends R> sequentialOperation) {
+    if ((this.loader == null)) {
+      ClusteringStorageAwareResourceLoader _clusteringStorageAwareResourceLoader = new ClusteringStorageAwareResourceLoader(this);
+      this.loader = _clusteringStorageAwareResourceLoader;
+    }
+    final Function1<URI, Boolean> _function = (URI it) -> {
+      return Boolean.valueOf(this.canHandle(it));
+    };
+    return this.loader.<T, R>executeClustered(IterableExtensions.<URI>filter(uri, _function), concurrentOperation, sequentialOperation);
+  }
+  
   protected boolean canHandle(final URI uri) {
     final IResourceServiceProvider resourceServiceProvider = this.resourceServiceProviderProvider.apply(uri);
     if ((resourceServiceProvider == null)) {
@@ -96,4 +135,31 @@ public class BuildContext {
   public CancelIndicator getCancelIndicator() {
     return this.cancelIndicator;
   }
+  
+  @Pure
+  public ExecutorService getExecutorService() {
+    return this.executorService;
+  }
+  
+  public void setExecutorService(final ExecutorService executorService) {
+    this.executorService = executorService;
+  }
+  
+  @Pure
+  public PipelineStage getGeneratorStage() {
+    return this.generatorStage;
+  }
+  
+  public void setGeneratorStage(final PipelineStage generatorStage) {
+    this.generatorStage = generatorStage;
+  }
+  
+  @Pure
+  public AsynchronousOutputWriter getOutputWriter() {
+    return this.outputWriter;
+  }
+  
+  public void setOutputWriter(final AsynchronousOutputWriter outputWriter) {
+    this.outputWriter = outputWriter;
+  }
 }
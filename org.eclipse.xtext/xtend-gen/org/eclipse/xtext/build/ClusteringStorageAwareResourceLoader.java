@@ -8,21 +8,33 @@
 package org.eclipse.xtext.build;
 
 import com.google.common.collect.Iterables;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
 import org.eclipse.xtext.build.BuildContext;
+import org.eclipse.xtext.build.PipelineStage;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.IResourceServiceProviderExtension;
+import org.eclipse.xtext.resource.ISynchronizable;
 import org.eclipse.xtext.resource.persistence.SourceLevelURIsAdapter;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Extension;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ListExtensions;
 
 /**
@@ -79,6 +91,233 @@ public class ClusteringStorageAwareResourceLoader {
     return result;
   }
   
+  /**
+   * Like {@link #executeClustered(Iterable, Function1)}, but the resources of a cluster are loaded and passed to
+   * the concurrent operation on the context's executor service. The sequential operation is applied on the calling
+   * thread in the order of the given URIs. Falls back to sequential processing if no executor is configured or
+   * if the resource set is not {@link ISynchronizable synchronized}.
+   * 
+   * The concurrent operation of one resource may resolve proxies into other resources of the same cluster while
+   * their own operation is running. To keep this safe, all resources are loaded and their derived state is
+   * installed before the first concurrent operation starts, so resolving a proxy only reads the target resource.
+   * Languages whose {@link org.eclipse.xtext.resource.IFragmentProvider fragment provider} or
+   * {@link Resource#getEObject(String) getEObject} modifies the target resource must not be built in parallel.
+   * 
+   * If the context has a {@link BuildContext#getGeneratorStage() generator stage}, the concurrent operation is
+   * applied to all resources of a cluster before the first sequential operation starts, even without an executor.
+   * 
+   * @since 2.18
+   */
+  public <T extends Object, R extends Object> Iterable<R> executeClustered(final Iterable<URI> uris, final Function1<? super Resource, ? extends T> concurrentOperation, final Function2<? super Resource, ? super T, ? extends R> sequentialOperation) {
+    if (((!(this.context.getResourceSet() instanceof ISynchronizable<?>)) || ((this.context.getExecutorService() == null) && (this.context.getGeneratorStage() == null)))) {
+      final Function1<Resource, R> _function = (Resource it) -> {
+        return sequentialOperation.apply(it, concurrentOperation.apply(it));
+      };
+      return this.<R>executeClustered(uris, _function);
+    }
+    int loadedURIsCount = 0;
+    final HashSet<URI> sourceLevelURIs = CollectionLiterals.<URI>newHashSet();
+    final ArrayList<Resource> resources = CollectionLiterals.<Resource>newArrayList();
+    final ArrayList<R> result = CollectionLiterals.<R>newArrayList();
+    final Iterator<URI> iter = uris.iterator();
+    while (iter.hasNext()) {
+      {
+        final URI uri = iter.next();
+        boolean _continueProcessing = this.context.getClusteringPolicy().continueProcessing(this.context.getResourceSet(), uri, loadedURIsCount);
+        boolean _not = (!_continueProcessing);
+        if (_not) {
+          List<R> _executeCluster = this.<T, R>executeCluster(resources, concurrentOperation, sequentialOperation);
+          Iterables.<R>addAll(result, _executeCluster);
+          resources.clear();
+          this.clearResourceSet();
+          loadedURIsCount = 0;
+        }
+        loadedURIsCount++;
+        boolean _isSource = this.isSource(uri);
+        if (_isSource) {
+          sourceLevelURIs.add(uri);
+          final Resource existingResource = this.context.getResourceSet().getResource(uri, false);
+          if ((existingResource instanceof StorageAwareResource)) {
+            boolean _isLoadedFromStorage = ((StorageAwareResource)existingResource).isLoadedFromStorage();
+            if (_isLoadedFromStorage) {
+              ((StorageAwareResource)existingResource).unload();
+            }
+          }
+          SourceLevelURIsAdapter.setSourceLevelUrisWithoutCopy(this.context.getResourceSet(), sourceLevelURIs);
+        }
+        Resource _elvis = null;
+        Resource _elvis_1 = null;
+        Resource _resource = this.context.getResourceSet().getResource(uri, false);
+        if (_resource != null) {
+          _elvis_1 = _resource;
+        } else {
+          Resource _createResource = this.context.getResourceSet().createResource(uri);
+          _elvis_1 = _createResource;
+        }
+        if (_elvis_1 != null) {
+          _elvis = _elvis_1;
+        } else {
+          Resource _resource_1 = this.context.getResourceSet().getResource(uri, true);
+          _elvis = _resource_1;
+        }
+        resources.add(_elvis);
+      }
+    }
+    List<R> _executeCluster = this.<T, R>executeCluster(resources, concurrentOperation, sequentialOperation);
+    Iterables.<R>addAll(result, _executeCluster);
+    return result;
+  }
+  
+  /**
+   * Applies the concurrent operation to all resources of the cluster, then the sequential operation to each of
+   * them. The sequential operation may submit the code generation for a resource to the generator stage, which
+   * runs while the build thread proceeds with the next resources. Since the whole cluster is resolved at that
+   * point, a generator that navigates into another resource of the cluster does not race with its resolution.
+   * Generators must not modify the resources of the cluster, though.
+   * 
+   * @since 2.18
+   */
+  protected <T extends Object, R extends Object> List<R> executeCluster(final List<Resource> resources, final Function1<? super Resource, ? extends T> concurrentOperation, final Function2<? super Resource, ? super T, ? extends R> sequentialOperation) {
+    ExecutorService _executorService = this.context.getExecutorService();
+    boolean _tripleNotEquals = (_executorService != null);
+    if (_tripleNotEquals) {
+      return this.<T, R>executeConcurrently(resources, concurrentOperation, sequentialOperation);
+    }
+    final Map<Object, Object> loadOptions = this.context.getResourceSet().getLoadOptions();
+    for (final Resource resource : resources) {
+      {
+        boolean _isLoaded = resource.isLoaded();
+        boolean _not = (!_isLoaded);
+        if (_not) {
+          try {
+            resource.load(loadOptions);
+          } catch (final Throwable _t) {
+            if (_t instanceof IOException) {
+              final IOException e = (IOException)_t;
+              throw new WrappedException(e);
+            } else {
+              throw Exceptions.sneakyThrow(_t);
+            }
+          }
+        }
+        resource.getContents();
+      }
+    }
+    final Function1<Resource, T> _function = (Resource it) -> {
+      return concurrentOperation.apply(it);
+    };
+    final List<T> results = IterableExtensions.<T>toList(ListExtensions.<Resource, T>map(resources, _function));
+    final ArrayList<R> result = CollectionLiterals.<R>newArrayList();
+    for (int i = 0; (i < resources.size()); i++) {
+      R _apply = sequentialOperation.apply(resources.get(i), results.get(i));
+      result.add(_apply);
+    }
+    return result;
+  }
+  
+  /**
+   * Loads all resources and installs their derived state concurrently before any operation is applied, so the
+   * concurrent operations will not trigger the demand loading or initialization of a resource that is currently
+   * processed by another worker.
+   */
+  protected <T extends Object, R extends Object> List<R> executeConcurrently(final List<Resource> resources, final Function1<? super Resource, ? extends T> concurrentOperation, final Function2<? super Resource, ? super T, ? extends R> sequentialOperation) {
+    final Map<Object, Object> loadOptions = this.context.getResourceSet().getLoadOptions();
+    final Function1<Resource, Future<Object>> _function = (Resource resource) -> {
+      Future<Object> _xblockexpression = null;
+      {
+        final Callable<Object> _function_1 = () -> {
+          boolean _isLoaded = resource.isLoaded();
+          boolean _not = (!_isLoaded);
+          if (_not) {
+            try {
+              resource.load(loadOptions);
+            } catch (final Throwable _t) {
+              if (_t instanceof IOException) {
+                final IOException e = (IOException)_t;
+                throw new WrappedException(e);
+              } else {
+                throw Exceptions.sneakyThrow(_t);
+              }
+            }
+          }
+          resource.getContents();
+          return null;
+        };
+        final Callable<Object> load = _function_1;
+        _xblockexpression = this.context.getExecutorService().<Object>submit(load);
+      }
+      return _xblockexpression;
+    };
+    this.<Object>awaitAll(IterableExtensions.<Future<Object>>toList(ListExtensions.<Resource, Future<Object>>map(resources, _function)));
+    final Function1<Resource, Future<T>> _function_1 = (Resource resource) -> {
+      Future<T> _xblockexpression = null;
+      {
+        final Callable<T> _function_2 = () -> {
+          return concurrentOperation.apply(resource);
+        };
+        final Callable<T> operation = _function_2;
+        _xblockexpression = this.context.getExecutorService().<T>submit(operation);
+      }
+      return _xblockexpression;
+    };
+    final List<T> results = this.<T>awaitAll(IterableExtensions.<Future<T>>toList(ListExtensions.<Resource, Future<T>>map(resources, _function_1)));
+    final ArrayList<R> result = CollectionLiterals.<R>newArrayList();
+    for (int i = 0; (i < resources.size()); i++) {
+      R _apply = sequentialOperation.apply(resources.get(i), results.get(i));
+      result.add(_apply);
+    }
+    return result;
+  }
+  
+  /**
+   * Waits for all futures to complete. If a task failed, the remaining ones are cancelled and the exception
+   * is rethrown once no task is running anymore.
+   */
+  protected <T extends Object> List<T> awaitAll(final List<Future<T>> futures) {
+    try {
+      final ArrayList<T> result = CollectionLiterals.<T>newArrayList();
+      try {
+        for (final Future<T> future : futures) {
+          try {
+            T _get = future.get();
+            result.add(_get);
+          } catch (final Throwable _t) {
+            if (_t instanceof ExecutionException) {
+              final ExecutionException e = (ExecutionException)_t;
+              throw e.getCause();
+            } else {
+              throw Exceptions.sneakyThrow(_t);
+            }
+          }
+        }
+        return result;
+      } catch (final Throwable _t_1) {
+        if (_t_1 instanceof Throwable) {
+          final Throwable t = (Throwable)_t_1;
+          for (final Future<T> future_1 : futures) {
+            future_1.cancel(false);
+          }
+          for (final Future<T> future_2 : futures) {
+            try {
+              future_2.get();
+            } catch (final Throwable _t_2) {
+              if (_t_2 instanceof Throwable) {
+                final Throwable ignored = (Throwable)_t_2;
+              } else {
+                throw Exceptions.sneakyThrow(_t_2);
+              }
+            }
+          }
+          throw t;
+        } else {
+          throw Exceptions.sneakyThrow(_t_1);
+        }
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
   protected boolean isSource(final URI uri) {
     final IResourceServiceProvider provider = this.context.getResourceServiceProvider(uri);
     return ((provider instanceof IResourceServiceProviderExtension) && 
@@ -86,6 +325,10 @@ public class ClusteringStorageAwareResourceLoader {
   }
   
   protected void clearResourceSet() {
+    PipelineStage _generatorStage = this.context.getGeneratorStage();
+    if (_generatorStage!=null) {
+      _generatorStage.awaitCompletion();
+    }
     final boolean wasDeliver = this.context.getResourceSet().eDeliver();
     try {
       this.context.getResourceSet().eSetDeliver(false);
@@ -28,7 +28,9 @@ import org.eclipse.xtext.build.BuildContext;
 import org.eclipse.xtext.build.BuildRequest;
 import org.eclipse.xtext.build.IndexState;
 import org.eclipse.xtext.build.Indexer;
+import org.eclipse.xtext.build.PipelineStage;
 import org.eclipse.xtext.build.Source2GeneratedMapping;
+import org.eclipse.xtext.generator.AsynchronousOutputWriter;
 import org.eclipse.xtext.generator.GeneratorContext;
 import org.eclipse.xtext.generator.GeneratorDelegate;
 import org.eclipse.xtext.generator.IContextualOutputConfigurationProvider;
@@ -42,6 +44,7 @@ import org.eclipse.xtext.generator.trace.TraceRegionSerializer;
 import org.eclipse.xtext.parser.IEncodingProvider;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.ISynchronizable;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy;
@@ -62,8 +65,10 @@ import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Extension;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Pair;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Pure;
 import org.eclipse.xtext.xbase.lib.util.ToStringBuilder;
@@ -173,6 +178,7 @@ public class IncrementalBuilder {
           it.setTraceFileNameProvider(this.traceFileNameProvider);
           it.setTraceRegionSerializer(this.traceRegionSerializer);
           it.setGenerateTraces(true);
+          it.setSkipUnchangedWrites(request.isSkipUnchangedWrites());
           it.setBaseDir(request.getBaseDir());
           if ((this.projectConfigProvider != null)) {
             IProjectConfig _projectConfig = this.projectConfigProvider.getProjectConfig(resource.getResourceSet());
@@ -271,37 +277,129 @@ public class IncrementalBuilder {
       };
       Iterable<IResourceDescription.Delta> _filter = IterableExtensions.<IResourceDescription.Delta>filter(result.getResourceDeltas(), _function_1);
       Iterables.<IResourceDescription.Delta>addAll(resolvedDeltas, _filter);
-      final Function1<IResourceDescription.Delta, Boolean> _function_2 = (IResourceDescription.Delta it) -> {
-        IResourceDescription _new = it.getNew();
-        return Boolean.valueOf((_new != null));
-      };
-      final Function1<IResourceDescription.Delta, URI> _function_3 = (IResourceDescription.Delta it) -> {
-        return it.getUri();
-      };
-      final Function1<Resource, IResourceDescription.Delta> _function_4 = (Resource resource) -> {
-        this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
-        resource.getContents();
-        EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
-        this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
-        final IResourceServiceProvider serviceProvider = this.getResourceServiceProvider(resource);
-        final IResourceDescription.Manager manager = serviceProvider.getResourceDescriptionManager();
-        final IResourceDescription description = manager.getResourceDescription(resource);
-        final SerializableResourceDescription copiedDescription = SerializableResourceDescription.createCopy(description);
-        result.getNewIndex().addDescription(resource.getURI(), copiedDescription);
-        this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
-        if ((((!this.request.isIndexOnly()) && this.validate(resource)) && serviceProvider.<IShouldGenerate>get(IShouldGenerate.class).shouldGenerate(resource, CancelIndicator.NullImpl))) {
+      final boolean validateConcurrently = ((this.context.getExecutorService() != null) && (!this.request.isIndexOnly()));
+      final PipelineStage generatorStage = this.createGeneratorStage();
+      this.context.setGeneratorStage(generatorStage);
+      final AsynchronousOutputWriter outputWriter = this.createOutputWriter();
+      this.context.setOutputWriter(outputWriter);
+      ArrayList<Pair<URI, SerializableResourceDescription>> _xifexpression = null;
+      if ((generatorStage != null)) {
+        _xifexpression = CollectionLiterals.<Pair<URI, SerializableResourceDescription>>newArrayList();
+      }
+      final ArrayList<Pair<URI, SerializableResourceDescription>> deferredDescriptions = _xifexpression;
+      try {
+        final Function1<IResourceDescription.Delta, Boolean> _function_2 = (IResourceDescription.Delta it) -> {
+          IResourceDescription _new = it.getNew();
+          return Boolean.valueOf((_new != null));
+        };
+        final Function1<IResourceDescription.Delta, URI> _function_3 = (IResourceDescription.Delta it) -> {
+          return it.getUri();
+        };
+        final Function1<Resource, Pair<SerializableResourceDescription, List<Issue>>> _function_4 = (Resource resource) -> {
+          final SerializableResourceDescription copiedDescription = this.resolveAndDescribe(resource);
+          List<Issue> _xifexpression = null;
+          if (validateConcurrently) {
+            _xifexpression = this.computeIssues(resource);
+          }
+          final List<Issue> issues = _xifexpression;
+          return Pair.<SerializableResourceDescription, List<Issue>>of(copiedDescription, issues);
+        };
+        final Function2<Resource, Pair<SerializableResourceDescription, List<Issue>>, IResourceDescription.Delta> _function_5 = (Resource resource, Pair<SerializableResourceDescription, List<Issue>> described) -> {
+          final SerializableResourceDescription copiedDescription = described.getKey();
+          if ((deferredDescriptions != null)) {
+            URI _uRI = resource.getURI();
+            Pair<URI, SerializableResourceDescription> _mappedTo = Pair.<URI, SerializableResourceDescription>of(_uRI, copiedDescription);
+            deferredDescriptions.add(_mappedTo);
+          } else {
+            result.getNewIndex().addDescription(resource.getURI(), copiedDescription);
+          }
           this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
-          this.generate(resource, this.request, newSource2GeneratedMapping);
+          final IResourceServiceProvider serviceProvider = this.getResourceServiceProvider(resource);
+          if ((((!this.request.isIndexOnly()) && (validateConcurrently ? this.afterValidate(resource, described.getValue()) : this.validate(resource))) && serviceProvider.<IShouldGenerate>get(IShouldGenerate.class).shouldGenerate(resource, CancelIndicator.NullImpl))) {
+            this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+            if ((generatorStage != null)) {
+              final Runnable _function_6 = () -> {
+                this.generate(resource, this.request, newSource2GeneratedMapping);
+              };
+              generatorStage.submit(_function_6);
+            } else {
+              this.generate(resource, this.request, newSource2GeneratedMapping);
+            }
+          }
+          final IResourceDescription old = this.context.getOldState().getResourceDescriptions().getResourceDescription(resource.getURI());
+          return serviceProvider.getResourceDescriptionManager().createDelta(old, copiedDescription);
+        };
+        Iterable<IResourceDescription.Delta> _executeClustered = this.context.<Pair<SerializableResourceDescription, List<Issue>>, IResourceDescription.Delta>executeClustered(IterableExtensions.<IResourceDescription.Delta, URI>map(IterableExtensions.<IResourceDescription.Delta>filter(result.getResourceDeltas(), _function_2), _function_3), _function_4, _function_5);
+        Iterables.<IResourceDescription.Delta>addAll(resolvedDeltas, _executeClustered);
+        if (generatorStage!=null) {
+          generatorStage.awaitCompletion();
         }
-        final IResourceDescription old = this.context.getOldState().getResourceDescriptions().getResourceDescription(resource.getURI());
-        return manager.createDelta(old, copiedDescription);
-      };
-      Iterable<IResourceDescription.Delta> _executeClustered = this.context.<IResourceDescription.Delta>executeClustered(IterableExtensions.<IResourceDescription.Delta, URI>map(IterableExtensions.<IResourceDescription.Delta>filter(result.getResourceDeltas(), _function_2), _function_3), _function_4);
-      Iterables.<IResourceDescription.Delta>addAll(resolvedDeltas, _executeClustered);
+        if (deferredDescriptions!=null) {
+          final Consumer<Pair<URI, SerializableResourceDescription>> _function_7 = (Pair<URI, SerializableResourceDescription> it) -> {
+            result.getNewIndex().addDescription(it.getKey(), it.getValue());
+          };
+          deferredDescriptions.forEach(_function_7);
+        }
+        if (outputWriter!=null) {
+          outputWriter.flush();
+        }
+      } finally {
+        if (generatorStage!=null) {
+          generatorStage.close();
+        }
+        if (outputWriter!=null) {
+          outputWriter.close();
+        }
+        this.context.setGeneratorStage(null);
+        this.context.setOutputWriter(null);
+      }
       IndexState _state = this.request.getState();
       return new IncrementalBuilder.Result(_state, resolvedDeltas);
     }
     
+    /**
+     * @return the stage that performs the code generation on a dedicated thread, or <code>null</code> if the
+     *         code should be generated on the build thread.
+     * @since 2.18
+     */
+    protected PipelineStage createGeneratorStage() {
+      if (((this.request.isIndexOnly() || (this.request.getGeneratorQueueSize() <= 0)) || (!(this.context.getResourceSet() instanceof ISynchronizable<?>)))) {
+        return null;
+      }
+      int _generatorQueueSize = this.request.getGeneratorQueueSize();
+      return new PipelineStage("IncrementalBuilder-Generator-%d", _generatorQueueSize);
+    }
+    
+    /**
+     * @return the writer for the generated files, or <code>null</code> if they should be written on the
+     *         generating thread.
+     * @since 2.18
+     */
+    protected AsynchronousOutputWriter createOutputWriter() {
+      if ((this.request.isIndexOnly() || (this.request.getOutputWriterThreads() <= 0))) {
+        return null;
+      }
+      int _outputWriterThreads = this.request.getOutputWriterThreads();
+      int _outputWriterThreads_1 = this.request.getOutputWriterThreads();
+      int _multiply = (_outputWriterThreads_1 * 64);
+      return new AsynchronousOutputWriter("IncrementalBuilder-Writer-%d", _outputWriterThreads, _multiply);
+    }
+    
+    /**
+     * Fully resolves the given resource and returns a copy of its description.
+     * 
+     * @since 2.18
+     */
+    protected SerializableResourceDescription resolveAndDescribe(final Resource resource) {
+      this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+      resource.getContents();
+      EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
+      this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+      final IResourceDescription.Manager manager = this.getResourceServiceProvider(resource).getResourceDescriptionManager();
+      final IResourceDescription description = manager.getResourceDescription(resource);
+      return SerializableResourceDescription.createCopy(description);
+    }
+    
     private IResourceServiceProvider getResourceServiceProvider(final Resource resource) {
       if ((resource instanceof XtextResource)) {
         return ((XtextResource)resource).getResourceServiceProvider();
@@ -310,12 +408,30 @@ public class IncrementalBuilder {
     }
     
     protected boolean validate(final Resource resource) {
+      return this.afterValidate(resource, this.computeIssues(resource));
+    }
+    
+    /**
+     * @return the issues of the given resource or <code>null</code> if the language does not have a validator.
+     * @since 2.18
+     */
+    protected List<Issue> computeIssues(final Resource resource) {
       final IResourceValidator resourceValidator = this.getResourceServiceProvider(resource).getResourceValidator();
       if ((resourceValidator == null)) {
+        return null;
+      }
+      return resourceValidator.validate(resource, CheckMode.ALL, null);
+    }
+    
+    /**
+     * @return whether the build can proceed with the given resource.
+     * @since 2.18
+     */
+    protected boolean afterValidate(final Resource resource, final List<Issue> issues) {
+      if ((issues == null)) {
         return true;
       }
-      final List<Issue> validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
-      return this.request.getAfterValidate().afterValidate(resource.getURI(), validationResult);
+      return this.request.getAfterValidate().afterValidate(resource.getURI(), issues);
     }
     
     protected void generate(final Resource resource, final BuildRequest request, final Source2GeneratedMapping newMappings) {
@@ -340,6 +456,7 @@ public class IncrementalBuilder {
           return true;
         };
         it.setBeforeDelete(_function_2);
+        it.setOutputWriter(this.context.getOutputWriter());
       };
       final URIBasedFileSystemAccess fileSystemAccess = ObjectExtensions.<URIBasedFileSystemAccess>operator_doubleArrow(_createFileSystemAccess, _function);
       fileSystemAccess.setContext(resource);
@@ -360,6 +477,10 @@ public class IncrementalBuilder {
       generator.generate(resource, fileSystemAccess, generatorContext);
       final Consumer<URI> _function_1 = (URI it) -> {
         try {
+          AsynchronousOutputWriter _outputWriter = this.context.getOutputWriter();
+          if (_outputWriter!=null) {
+            _outputWriter.cancel(it);
+          }
           this.context.getResourceSet().getURIConverter().delete(it, CollectionLiterals.<Object, Object>emptyMap());
           request.getAfterDeleteFile().apply(it);
         } catch (Throwable _e) {
@@ -412,6 +533,7 @@ public class IncrementalBuilder {
       final IndexState oldState = new IndexState(_copy, _copy_1);
       CancelIndicator _cancelIndicator = request.getCancelIndicator();
       final BuildContext context = new BuildContext(languages, resourceSet, oldState, clusteringPolicy, _cancelIndicator);
+      context.setExecutorService(request.getExecutorService());
       final IncrementalBuilder.InternalStatefulIncrementalBuilder builder = this.provider.get();
       builder.setContext(context);
       builder.setRequest(request);
@@ -7,7 +7,9 @@
  */
 package org.eclipse.xtext.build;
 
+import com.google.common.base.Objects;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 import java.util.ArrayList;
@@ -39,6 +41,7 @@ import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.impl.AbstractResourceDescription;
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionManager;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.resource.persistence.SerializableEObjectDescriptionProvider;
 import org.eclipse.xtext.service.OperationCanceledManager;
@@ -46,6 +49,7 @@ import org.eclipse.xtext.util.internal.Log;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Extension;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ListExtensions;
 import org.eclipse.xtext.xbase.lib.Pure;
@@ -203,34 +207,132 @@ public class Indexer {
     final List<IResourceDescription.Delta> deltas = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
     deltas.addAll(this.getDeltasForDeletedResources(request, previousIndex, context));
     deltas.addAll(this.getDeltasForChangedResources(request.getDirtyFiles(), previousIndex, context));
-    for (final IResourceDescription.Delta delta : deltas) {
-      newIndex.register(delta);
-    }
     final HashSet<IResourceDescription.Delta> allDeltas = new HashSet<IResourceDescription.Delta>(deltas);
     boolean _isEmpty = request.getExternalDeltas().isEmpty();
     boolean _not = (!_isEmpty);
     if (_not) {
       allDeltas.addAll(request.getExternalDeltas());
     }
-    final Function1<IResourceDescription, URI> _function = (IResourceDescription it) -> {
-      return it.getURI();
-    };
-    final Set<URI> remainingURIs = IterableExtensions.<URI>toSet(IterableExtensions.<IResourceDescription, URI>map(previousIndex.getAllResourceDescriptions(), _function));
-    final Function1<IResourceDescription.Delta, URI> _function_1 = (IResourceDescription.Delta it) -> {
+    final Set<URI> dependentURIs = this.getDependentURIs(allDeltas, newIndex);
+    for (final IResourceDescription.Delta delta : deltas) {
+      newIndex.register(delta);
+    }
+    final Function1<IResourceDescription.Delta, URI> _function = (IResourceDescription.Delta it) -> {
       return it.getUri();
     };
-    remainingURIs.removeAll(ListExtensions.<IResourceDescription.Delta, URI>map(deltas, _function_1));
-    final Function1<URI, Boolean> _function_2 = (URI it) -> {
-      final IResourceDescription.Manager manager = context.getResourceServiceProvider(it).getResourceDescriptionManager();
+    final Set<URI> changedURIs = IterableExtensions.<URI>toSet(ListExtensions.<IResourceDescription.Delta, URI>map(deltas, _function));
+    final Function1<URI, Boolean> _function_1 = (URI it) -> {
+      boolean _contains = changedURIs.contains(it);
+      if (_contains) {
+        return Boolean.valueOf(false);
+      }
       final IResourceDescription resourceDescription = previousIndex.getResourceDescription(it);
+      if ((resourceDescription == null)) {
+        return Boolean.valueOf(false);
+      }
+      IResourceServiceProvider _resourceServiceProvider = context.getResourceServiceProvider(it);
+      IResourceDescription.Manager _resourceDescriptionManager = null;
+      if (_resourceServiceProvider!=null) {
+        _resourceDescriptionManager=_resourceServiceProvider.getResourceDescriptionManager();
+      }
+      final IResourceDescription.Manager manager = _resourceDescriptionManager;
+      if ((manager == null)) {
+        return Boolean.valueOf(false);
+      }
       final boolean isAffected = this.isAffected(resourceDescription, manager, allDeltas, allDeltas, newIndex);
       return Boolean.valueOf(isAffected);
     };
-    final List<URI> allAffected = IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(remainingURIs, _function_2));
+    final List<URI> allAffected = IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(this.getAffectionCandidates(dependentURIs, previousIndex, context), _function_1));
     deltas.addAll(this.getDeltasForChangedResources(allAffected, previousIndex, context));
     return new Indexer.IndexResult(deltas, newIndex);
   }
   
+  /**
+   * Collects the URIs of all resources in the given index that import a name exported by one of
+   * the deltas or that refer to one of the changed resources.
+   * 
+   * @since 2.18
+   */
+  protected Set<URI> getDependentURIs(final Collection<IResourceDescription.Delta> deltas, final ResourceDescriptionsData index) {
+    final HashSet<QualifiedName> names = CollectionLiterals.<QualifiedName>newHashSet();
+    final HashSet<URI> targetURIs = CollectionLiterals.<URI>newHashSet();
+    for (final IResourceDescription.Delta delta : deltas) {
+      {
+        URI _uri = delta.getUri();
+        targetURIs.add(_uri);
+        IResourceDescription _old = delta.getOld();
+        Iterable<IEObjectDescription> _exportedObjects = null;
+        if (_old!=null) {
+          _exportedObjects=_old.getExportedObjects();
+        }
+        if (_exportedObjects!=null) {
+          final Consumer<IEObjectDescription> _function = (IEObjectDescription it) -> {
+            QualifiedName _lowerCase = it.getName().toLowerCase();
+            names.add(_lowerCase);
+          };
+          _exportedObjects.forEach(_function);
+        }
+        IResourceDescription _new = delta.getNew();
+        Iterable<IEObjectDescription> _exportedObjects_1 = null;
+        if (_new!=null) {
+          _exportedObjects_1=_new.getExportedObjects();
+        }
+        if (_exportedObjects_1!=null) {
+          final Consumer<IEObjectDescription> _function_1 = (IEObjectDescription it) -> {
+            QualifiedName _lowerCase = it.getName().toLowerCase();
+            names.add(_lowerCase);
+          };
+          _exportedObjects_1.forEach(_function_1);
+        }
+      }
+    }
+    return index.getDependentURIs(names, targetURIs);
+  }
+  
+  /**
+   * Returns the URIs of the resources that have to be checked with {@code isAffected}: the dependent URIs and
+   * all resources of languages whose manager is not {@link #isReverseDependencyAware(IResourceDescription.Manager)
+   * reverse dependency aware}. The manager is determined once per file extension.
+   * 
+   * @since 2.18
+   */
+  protected Set<URI> getAffectionCandidates(final Set<URI> dependentURIs, final ResourceDescriptionsData index, @Extension final BuildContext context) {
+    final HashSet<URI> result = new HashSet<URI>(dependentURIs);
+    Set<String> _fileExtensions = index.getFileExtensions();
+    for (final String fileExtension : _fileExtensions) {
+      {
+        final Set<URI> uris = index.getAllURIs(fileExtension);
+        boolean _isEmpty = uris.isEmpty();
+        boolean _not = (!_isEmpty);
+        if (_not) {
+          IResourceServiceProvider _resourceServiceProvider = context.getResourceServiceProvider(IterableExtensions.<URI>head(uris));
+          IResourceDescription.Manager _resourceDescriptionManager = null;
+          if (_resourceServiceProvider!=null) {
+            _resourceDescriptionManager=_resourceServiceProvider.getResourceDescriptionManager();
+          }
+          final IResourceDescription.Manager manager = _resourceDescriptionManager;
+          boolean _isReverseDependencyAware = this.isReverseDependencyAware(manager);
+          boolean _not_1 = (!_isReverseDependencyAware);
+          if (_not_1) {
+            Iterables.<URI>addAll(result, uris);
+          }
+        }
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Whether the given manager only considers resources affected that import a changed name or refer to a
+   * changed resource. Only resources of such managers may be skipped if they are not found in the
+   * reverse dependency index.
+   * 
+   * @since 2.18
+   */
+  protected boolean isReverseDependencyAware(final IResourceDescription.Manager manager) {
+    return ((manager != null) && Objects.equal(manager.getClass(), DefaultResourceDescriptionManager.class));
+  }
+  
   protected List<IResourceDescription.Delta> getDeltasForDeletedResources(final BuildRequest request, final ResourceDescriptionsData oldIndex, @Extension final BuildContext context) {
     final ArrayList<IResourceDescription.Delta> deltas = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
     final Function1<URI, Boolean> _function = (URI it) -> {
@@ -259,7 +361,10 @@ public class Indexer {
       final Function1<Resource, IResourceDescription.Delta> _function = (Resource it) -> {
         return this.addToIndex(it, true, oldIndex, context);
       };
-      return IterableExtensions.<IResourceDescription.Delta>toList(context.<IResourceDescription.Delta>executeClustered(affectedUris, _function));
+      final Function2<Resource, IResourceDescription.Delta, IResourceDescription.Delta> _function_1 = (Resource resource, IResourceDescription.Delta delta) -> {
+        return delta;
+      };
+      return IterableExtensions.<IResourceDescription.Delta>toList(context.<IResourceDescription.Delta, IResourceDescription.Delta>executeClustered(affectedUris, _function, _function_1));
     } finally {
       this.compilerPhases.setIndexing(context.getResourceSet(), false);
     }
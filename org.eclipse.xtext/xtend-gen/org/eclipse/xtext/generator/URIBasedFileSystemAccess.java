@@ -13,13 +13,19 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.URIConverter;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.generator.AbstractFileSystemAccess2;
+import org.eclipse.xtext.generator.AsynchronousOutputWriter;
 import org.eclipse.xtext.generator.IFilePostProcessor;
 import org.eclipse.xtext.generator.trace.AbstractTraceRegion;
 import org.eclipse.xtext.generator.trace.ITraceRegionProvider;
@@ -30,6 +36,7 @@ import org.eclipse.xtext.parser.IEncodingProvider;
 import org.eclipse.xtext.util.RuntimeIOException;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Pair;
 import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
@@ -86,6 +93,22 @@ public class URIBasedFileSystemAccess extends AbstractFileSystemAccess2 {
     return $1;
   });
   
+  /**
+   * Whether files whose content would not change are left untouched. This keeps their time stamps, so tools that
+   * watch the output folders are not triggered.
+   * @since 2.18
+   */
+  @Accessors
+  private boolean skipUnchangedWrites = false;
+  
+  /**
+   * If set, files are written asynchronously by the given writer. Clients have to {@link AsynchronousOutputWriter#flush() flush}
+   * the writer to make sure that all files have been written.
+   * @since 2.18
+   */
+  @Accessors
+  private AsynchronousOutputWriter outputWriter;
+  
   @Override
   public void setPostProcessor(final IFilePostProcessor filePostProcessor) {
     super.setPostProcessor(filePostProcessor);
@@ -114,7 +137,7 @@ public class URIBasedFileSystemAccess extends AbstractFileSystemAccess2 {
   public void generateFile(final String fileName, final String outputCfgName, final CharSequence contents) {
     try {
       final URI uri = this.getURI(fileName, outputCfgName);
-      if (((!this.getOutputConfig(outputCfgName).isOverrideExistingResources()) && this.converter.exists(uri, CollectionLiterals.<Object, Object>emptyMap()))) {
+      if (((!this.getOutputConfig(outputCfgName).isOverrideExistingResources()) && this.exists(uri))) {
         return;
       }
       final String encoding = this.getEncoding(uri);
@@ -155,6 +178,18 @@ public class URIBasedFileSystemAccess extends AbstractFileSystemAccess2 {
   public void generateFile(final String fileName, final String outputCfgName, final InputStream content) throws RuntimeIOException {
     try {
       final URI uri = this.getURI(fileName, outputCfgName);
+      if (((this.outputWriter != null) || this.skipUnchangedWrites)) {
+        final byte[] newContent = ByteStreams.toByteArray(this.beforeWrite.beforeWrite(uri, outputCfgName, content));
+        if ((this.outputWriter != null)) {
+          final AsynchronousOutputWriter.ContentWriter _function = (URI u, byte[] c) -> {
+            this.writeContent(u, c);
+          };
+          this.outputWriter.write(uri, newContent, _function);
+        } else {
+          this.writeContent(uri, newContent);
+        }
+        return;
+      }
       final OutputStream out = this.converter.createOutputStream(uri);
       try {
         final InputStream processedContent = this.beforeWrite.beforeWrite(uri, outputCfgName, content);
@@ -167,11 +202,86 @@ public class URIBasedFileSystemAccess extends AbstractFileSystemAccess2 {
     }
   }
   
+  /**
+   * Writes the content to the file. Does not touch the file if {@link #isSkipUnchangedWrites() skipUnchangedWrites}
+   * is set and the file has this content already.
+   * @since 2.18
+   */
+  protected void writeContent(final URI uri, final byte[] content) {
+    try {
+      if ((this.skipUnchangedWrites && this.hasContent(uri, content))) {
+        return;
+      }
+      final OutputStream out = this.converter.createOutputStream(uri);
+      try {
+        out.write(content);
+      } finally {
+        out.close();
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * @return <code>true</code> if the file exists or is about to be written by the {@link #getOutputWriter() output writer}.
+   * @since 2.18
+   */
+  protected boolean exists(final URI uri) {
+    byte[] _pendingContent = null;
+    if (this.outputWriter!=null) {
+      _pendingContent=this.outputWriter.getPendingContent(uri);
+    }
+    return ((_pendingContent != null) || this.converter.exists(uri, CollectionLiterals.<Object, Object>emptyMap()));
+  }
+  
+  /**
+   * @return <code>true</code> if the file exists and has exactly the given content.
+   * @since 2.18
+   */
+  protected boolean hasContent(final URI uri, final byte[] content) {
+    boolean _exists = this.converter.exists(uri, CollectionLiterals.<Object, Object>emptyMap());
+    boolean _not = (!_exists);
+    if (_not) {
+      return false;
+    }
+    Pair<String, Set<String>> _mappedTo = Pair.<String, Set<String>>of(URIConverter.OPTION_REQUESTED_ATTRIBUTES, Collections.<String>unmodifiableSet(CollectionLiterals.<String>newHashSet(URIConverter.ATTRIBUTE_LENGTH)));
+    final Map<String, ?> attributes = this.converter.getAttributes(uri, Collections.<String, Set<String>>unmodifiableMap(CollectionLiterals.<String, Set<String>>newHashMap(_mappedTo)));
+    final Object length = attributes.get(URIConverter.ATTRIBUTE_LENGTH);
+    if (((length instanceof Long) && (((Long) length).longValue() != content.length))) {
+      return false;
+    }
+    try {
+      final InputStream in = this.converter.createInputStream(uri);
+      try {
+        byte[] _byteArray = ByteStreams.toByteArray(in);
+        return Arrays.equals(_byteArray, content);
+      } finally {
+        in.close();
+      }
+    } catch (final Throwable _t) {
+      if (_t instanceof IOException) {
+        return false;
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    }
+  }
+  
   @Override
   public InputStream readBinaryFile(final String fileName, final String outputCfgName) throws RuntimeIOException {
     try {
       try {
         final URI uri = this.getURI(fileName, outputCfgName);
+        byte[] _pendingContent = null;
+        if (this.outputWriter!=null) {
+          _pendingContent=this.outputWriter.getPendingContent(uri);
+        }
+        final byte[] pendingContent = _pendingContent;
+        if ((pendingContent != null)) {
+          ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(pendingContent);
+          return this.beforeRead.beforeRead(uri, _byteArrayInputStream);
+        }
         final InputStream input = this.converter.createInputStream(uri);
         return this.beforeRead.beforeRead(uri, input);
       } catch (final Throwable _t) {
@@ -280,4 +390,22 @@ public class URIBasedFileSystemAccess extends AbstractFileSystemAccess2 {
   public void setBeforeRead(final URIBasedFileSystemAccess.BeforeRead beforeRead) {
     this.beforeRead = beforeRead;
   }
+  
+  @Pure
+  public boolean isSkipUnchangedWrites() {
+    return this.skipUnchangedWrites;
+  }
+  
+  public void setSkipUnchangedWrites(final boolean skipUnchangedWrites) {
+    this.skipUnchangedWrites = skipUnchangedWrites;
+  }
+  
+  @Pure
+  public AsynchronousOutputWriter getOutputWriter() {
+    return this.outputWriter;
+  }
+  
+  public void setOutputWriter(final AsynchronousOutputWriter outputWriter) {
+    this.outputWriter = outputWriter;
+  }
 }
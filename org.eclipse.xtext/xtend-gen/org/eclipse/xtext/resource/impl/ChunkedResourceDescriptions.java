@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import org.eclipse.emf.common.notify.Adapter;
@@ -73,6 +74,21 @@ public class ChunkedResourceDescriptions extends AbstractCompoundSelectable impl
   
   protected ConcurrentHashMap<String, ResourceDescriptionsData> chunk2resourceDescriptions = new ConcurrentHashMap<String, ResourceDescriptionsData>();
   
+  /**
+   * Caches the name of the chunk that holds the description of a URI. Entries are added when a URI is looked up
+   * and validated on each access since the chunks may be modified in place, e.g. by a running build.
+   * 
+   * @since 2.18
+   */
+  protected ConcurrentHashMap<URI, String> uri2chunk = new ConcurrentHashMap<URI, String>();
+  
+  private static final int MIN_PRUNE_THRESHOLD = 1024;
+  
+  /**
+   * The size of {@link #uri2chunk} at which the entries of URIs that are no longer held by their chunk are dropped.
+   */
+  private volatile int uri2chunkPruneThreshold = ChunkedResourceDescriptions.MIN_PRUNE_THRESHOLD;
+  
   protected ResourceSet resourceSet;
   
   public ChunkedResourceDescriptions() {
@@ -122,7 +138,14 @@ public class ChunkedResourceDescriptions extends AbstractCompoundSelectable impl
   }
   
   public ResourceDescriptionsData removeContainer(final String name) {
-    return this.chunk2resourceDescriptions.remove(name);
+    final ResourceDescriptionsData result = this.chunk2resourceDescriptions.remove(name);
+    if ((result != null)) {
+      Set<URI> _allURIs = result.getAllURIs();
+      for (final URI uri : _allURIs) {
+        this.uri2chunk.remove(uri, name);
+      }
+    }
+    return result;
   }
   
   @Override
@@ -140,35 +163,102 @@ public class ChunkedResourceDescriptions extends AbstractCompoundSelectable impl
   
   @Override
   public IResourceDescription getResourceDescription(final URI uri) {
-    Collection<ResourceDescriptionsData> _values = this.chunk2resourceDescriptions.values();
-    for (final ResourceDescriptionsData selectable : _values) {
-      {
-        final IResourceDescription result = selectable.getResourceDescription(uri);
-        if ((result != null)) {
-          return result;
-        }
-      }
+    ResourceDescriptionsData _container = this.getContainer(uri);
+    IResourceDescription _resourceDescription = null;
+    if (_container!=null) {
+      _resourceDescription=_container.getResourceDescription(uri);
     }
-    return null;
+    return _resourceDescription;
   }
   
   public ResourceDescriptionsData getContainer(final URI uri) {
-    Collection<ResourceDescriptionsData> _values = this.chunk2resourceDescriptions.values();
-    for (final ResourceDescriptionsData container : _values) {
-      {
-        final IResourceDescription result = container.getResourceDescription(uri);
-        if ((result != null)) {
-          return container;
+    final String chunkName = this.getChunkName(uri);
+    if ((chunkName == null)) {
+      return null;
+    }
+    return this.chunk2resourceDescriptions.get(chunkName);
+  }
+  
+  /**
+   * Returns the name of the chunk that holds the description of the given URI or <code>null</code> if there is none.
+   * Known URIs are resolved in constant time, all other URIs require a lookup in each chunk. Misses are not cached,
+   * since a description for the URI may be added to a chunk in place at any time.
+   * 
+   * @since 2.18
+   */
+  protected String getChunkName(final URI uri) {
+    final String cached = this.uri2chunk.get(uri);
+    boolean _and = false;
+    if (!(cached != null)) {
+      _and = false;
+    } else {
+      ResourceDescriptionsData _get = this.chunk2resourceDescriptions.get(cached);
+      IResourceDescription _resourceDescription = null;
+      if (_get!=null) {
+        _resourceDescription=_get.getResourceDescription(uri);
+      }
+      boolean _tripleNotEquals = (_resourceDescription != null);
+      _and = _tripleNotEquals;
+    }
+    if (_and) {
+      return cached;
+    }
+    Set<Map.Entry<String, ResourceDescriptionsData>> _entrySet = this.chunk2resourceDescriptions.entrySet();
+    for (final Map.Entry<String, ResourceDescriptionsData> entry : _entrySet) {
+      IResourceDescription _resourceDescription_1 = entry.getValue().getResourceDescription(uri);
+      boolean _tripleNotEquals_1 = (_resourceDescription_1 != null);
+      if (_tripleNotEquals_1) {
+        this.uri2chunk.put(uri, entry.getKey());
+        int _size = this.uri2chunk.size();
+        boolean _greaterEqualsThan = (_size >= this.uri2chunkPruneThreshold);
+        if (_greaterEqualsThan) {
+          this.pruneChunkNames();
         }
+        return entry.getKey();
       }
     }
+    if ((cached != null)) {
+      this.uri2chunk.remove(uri, cached);
+    }
     return null;
   }
   
+  /**
+   * Drops the cached chunk names of URIs that are no longer held by their chunk, e.g. because their description was
+   * removed from the chunk or the chunk was replaced. This happens whenever the table has doubled in size since it
+   * was pruned last, so it stays proportional to the number of indexed URIs.
+   * 
+   * @since 2.18
+   */
+  protected void pruneChunkNames() {
+    Set<Map.Entry<URI, String>> _entrySet = this.uri2chunk.entrySet();
+    for (final Map.Entry<URI, String> entry : _entrySet) {
+      ResourceDescriptionsData _get = this.chunk2resourceDescriptions.get(entry.getValue());
+      IResourceDescription _resourceDescription = null;
+      if (_get!=null) {
+        _resourceDescription=_get.getResourceDescription(entry.getKey());
+      }
+      boolean _tripleEquals = (_resourceDescription == null);
+      if (_tripleEquals) {
+        this.uri2chunk.remove(entry.getKey(), entry.getValue());
+      }
+    }
+    int _size = this.uri2chunk.size();
+    int _multiply = (2 * _size);
+    this.uri2chunkPruneThreshold = Math.max(ChunkedResourceDescriptions.MIN_PRUNE_THRESHOLD, _multiply);
+  }
+  
   public ResourceDescriptionsData getContainer(final String containerHandle) {
     return this.chunk2resourceDescriptions.get(containerHandle);
   }
   
+  /**
+   * @since 2.18
+   */
+  public Collection<ResourceDescriptionsData> getContainers() {
+    return this.chunk2resourceDescriptions.values();
+  }
+  
   @Override
   public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
     final int numChunks = in.readInt();
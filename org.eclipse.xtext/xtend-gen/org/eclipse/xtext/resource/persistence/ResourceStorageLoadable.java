@@ -7,14 +7,19 @@
  */
 package org.eclipse.xtext.resource.persistence;
 
+import com.google.common.base.Objects;
+import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
@@ -25,11 +30,13 @@ import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
 import org.eclipse.xtext.nodemodel.impl.SerializableNodeModel;
 import org.eclipse.xtext.nodemodel.serialization.DeserializationConversionContext;
 import org.eclipse.xtext.parser.ParseResult;
+import org.eclipse.xtext.resource.persistence.BinaryResourceDescriptionFormat;
 import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
 
 /**
  * @author Sven Efftinge - Initial contribution and API
@@ -69,9 +76,38 @@ public class ResourceStorageLoadable {
     BufferedInputStream _bufferedInputStream_1 = new BufferedInputStream(zipIn);
     this.readResourceDescription(resource, _bufferedInputStream_1);
     if (this.storeNodeModel) {
-      zipIn.getNextEntry();
-      BufferedInputStream _bufferedInputStream_2 = new BufferedInputStream(zipIn);
-      this.readNodeModel(resource, _bufferedInputStream_2);
+      final ZipEntry entry = zipIn.getNextEntry();
+      String _xifexpression = null;
+      String _name = null;
+      if (entry!=null) {
+        _name=entry.getName();
+      }
+      boolean _equals = Objects.equal(_name, "node-model-text");
+      if (_equals) {
+        String _xblockexpression = null;
+        {
+          InputStreamReader _inputStreamReader = new InputStreamReader(zipIn, StandardCharsets.UTF_8);
+          final String text = CharStreams.toString(_inputStreamReader);
+          zipIn.getNextEntry();
+          _xblockexpression = text;
+        }
+        _xifexpression = _xblockexpression;
+      }
+      final String completeContent = _xifexpression;
+      final byte[] nodeModel = ByteStreams.toByteArray(zipIn);
+      int _length = nodeModel.length;
+      boolean _greaterThan = (_length > 0);
+      if (_greaterThan) {
+        final Procedure0 _function = () -> {
+          try {
+            ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(nodeModel);
+            this.readNodeModel(resource, _byteArrayInputStream, completeContent);
+          } catch (Throwable _e) {
+            throw Exceptions.sneakyThrow(_e);
+          }
+        };
+        resource.setNodeModelLoader(_function);
+      }
     }
   }
   
@@ -104,9 +140,32 @@ public class ResourceStorageLoadable {
   
   protected void readResourceDescription(final StorageAwareResource resource, final InputStream inputStream) throws IOException {
     try {
-      final ObjectInputStream objectIn = new ObjectInputStream(inputStream);
-      Object _readObject = objectIn.readObject();
-      final SerializableResourceDescription description = ((SerializableResourceDescription) _readObject);
+      InputStream _xifexpression = null;
+      boolean _markSupported = inputStream.markSupported();
+      if (_markSupported) {
+        _xifexpression = inputStream;
+      } else {
+        _xifexpression = new BufferedInputStream(inputStream);
+      }
+      final InputStream in = _xifexpression;
+      final BinaryResourceDescriptionFormat format = this.createResourceDescriptionFormat();
+      final byte[] header = new byte[4];
+      in.mark(header.length);
+      final int read = ByteStreams.read(in, header, 0, header.length);
+      in.reset();
+      SerializableResourceDescription _xifexpression_1 = null;
+      if (((read == header.length) && format.isCompatible(header))) {
+        _xifexpression_1 = format.read(in);
+      } else {
+        SerializableResourceDescription _xblockexpression = null;
+        {
+          final ObjectInputStream objectIn = new ObjectInputStream(in);
+          Object _readObject = objectIn.readObject();
+          _xblockexpression = ((SerializableResourceDescription) _readObject);
+        }
+        _xifexpression_1 = _xblockexpression;
+      }
+      final SerializableResourceDescription description = _xifexpression_1;
       description.updateResourceURI(resource.getURI());
       resource.setResourceDescription(description);
     } catch (Throwable _e) {
@@ -114,6 +173,13 @@ public class ResourceStorageLoadable {
     }
   }
   
+  /**
+   * @since 2.18
+   */
+  protected BinaryResourceDescriptionFormat createResourceDescriptionFormat() {
+    return new BinaryResourceDescriptionFormat();
+  }
+  
   protected void readNodeModel(final StorageAwareResource resource, final InputStream inputStream) throws IOException {
     final SerializableNodeModel serializableNodeModel = new SerializableNodeModel(resource);
     boolean _exists = resource.getResourceSet().getURIConverter().exists(resource.getURI(), resource.getResourceSet().getLoadOptions());
@@ -137,6 +203,27 @@ public class ResourceStorageLoadable {
     resource.setParseResult(_parseResult);
   }
   
+  /**
+   * Reads the node model that refers to the given text. If the storage does not contain the text, it is read from
+   * the source file by {@link #readNodeModel(StorageAwareResource, InputStream)}.
+   * 
+   * @since 2.18
+   */
+  protected void readNodeModel(final StorageAwareResource resource, final InputStream inputStream, final String completeContent) throws IOException {
+    if ((completeContent == null)) {
+      this.readNodeModel(resource, inputStream);
+      return;
+    }
+    final SerializableNodeModel serializableNodeModel = new SerializableNodeModel(resource);
+    final DeserializationConversionContext deserializationContext = new DeserializationConversionContext(resource, completeContent);
+    final DataInputStream dataIn = new DataInputStream(inputStream);
+    serializableNodeModel.readObjectData(dataIn, deserializationContext);
+    EObject _head = IterableExtensions.<EObject>head(resource.getContents());
+    boolean _hasErrors = deserializationContext.hasErrors();
+    ParseResult _parseResult = new ParseResult(_head, serializableNodeModel.root, _hasErrors);
+    resource.setParseResult(_parseResult);
+  }
+  
   public ResourceStorageLoadable(final InputStream in, final boolean storeNodeModel) {
     super();
     this.in = in;
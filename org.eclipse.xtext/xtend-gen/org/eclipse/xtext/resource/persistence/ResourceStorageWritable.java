@@ -9,21 +9,28 @@ package org.eclipse.xtext.resource.persistence;
 
 import com.google.common.base.Objects;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.impl.CompactNode;
 import org.eclipse.xtext.nodemodel.impl.SerializableNodeModel;
 import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.IReferenceDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.persistence.BinaryResourceDescriptionFormat;
 import org.eclipse.xtext.resource.persistence.SerializableReferenceDescription;
 import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
@@ -77,12 +84,33 @@ public class ResourceStorageWritable {
       zipOut.closeEntry();
     }
     if (this.storeNodeModel) {
-      ZipEntry _zipEntry_2 = new ZipEntry("node-model");
-      zipOut.putNextEntry(_zipEntry_2);
+      final boolean canWriteNodeModel = this.canWriteNodeModel(resource);
+      if (canWriteNodeModel) {
+        ZipEntry _zipEntry_2 = new ZipEntry("node-model-text");
+        zipOut.putNextEntry(_zipEntry_2);
+        try {
+          this.writeNodeModelText(resource, bufferedOutput);
+        } finally {
+          bufferedOutput.flush();
+          zipOut.closeEntry();
+        }
+      }
+      final ByteArrayOutputStream nodeModel = new ByteArrayOutputStream();
+      if (canWriteNodeModel) {
+        this.writeNodeModel(resource, nodeModel);
+      }
+      final byte[] bytes = nodeModel.toByteArray();
+      final CRC32 crc = new CRC32();
+      crc.update(bytes);
+      final ZipEntry entry = new ZipEntry("node-model");
+      entry.setMethod(ZipEntry.STORED);
+      entry.setSize(bytes.length);
+      entry.setCompressedSize(bytes.length);
+      entry.setCrc(crc.getValue());
+      zipOut.putNextEntry(entry);
       try {
-        this.writeNodeModel(resource, bufferedOutput);
+        zipOut.write(bytes);
       } finally {
-        bufferedOutput.flush();
         zipOut.closeEntry();
       }
     }
@@ -130,12 +158,14 @@ public class ResourceStorageWritable {
     final IResourceDescription description = resource.getResourceServiceProvider().getResourceDescriptionManager().getResourceDescription(resource);
     final SerializableResourceDescription serializableDescription = SerializableResourceDescription.createCopy(description);
     this.convertExternalURIsToPortableURIs(serializableDescription, resource);
-    final ObjectOutputStream out = new ObjectOutputStream(outputStream);
-    try {
-      out.writeObject(serializableDescription);
-    } finally {
-      out.flush();
-    }
+    this.createResourceDescriptionFormat().write(serializableDescription, outputStream);
+  }
+  
+  /**
+   * @since 2.18
+   */
+  protected BinaryResourceDescriptionFormat createResourceDescriptionFormat() {
+    return new BinaryResourceDescriptionFormat();
   }
   
   protected void convertExternalURIsToPortableURIs(final SerializableResourceDescription description, final StorageAwareResource resource) {
@@ -166,6 +196,32 @@ public class ResourceStorageWritable {
     out.flush();
   }
   
+  /**
+   * Writes the text that the node model refers to, so loading the node model does not depend on the source file.
+   * 
+   * @since 2.18
+   */
+  protected void writeNodeModelText(final StorageAwareResource resource, final OutputStream outputStream) throws IOException {
+    final OutputStreamWriter writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+    writer.write(resource.getParseResult().getRootNode().getText());
+    writer.flush();
+  }
+  
+  /**
+   * Whether the node model of the resource can be serialized. A {@link CompactNode compact node model} cannot, so
+   * it is not stored and the node model of the loaded resource is not available.
+   * 
+   * @since 2.18
+   */
+  protected boolean canWriteNodeModel(final StorageAwareResource resource) {
+    IParseResult _parseResult = resource.getParseResult();
+    ICompositeNode _rootNode = null;
+    if (_parseResult!=null) {
+      _rootNode=_parseResult.getRootNode();
+    }
+    return (!(_rootNode instanceof CompactNode));
+  }
+  
   public ResourceStorageWritable(final OutputStream out, final boolean storeNodeModel) {
     super();
     this.out = out;
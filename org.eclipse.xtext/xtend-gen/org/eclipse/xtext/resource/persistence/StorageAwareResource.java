@@ -18,6 +18,8 @@ import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtend.lib.annotations.AccessorType;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.linking.lazy.LazyLinkingResource;
+import org.eclipse.xtext.nodemodel.ILazyNodeModelResource;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.persistence.IResourceStorageFacade;
 import org.eclipse.xtext.resource.persistence.PortableURIs;
@@ -25,6 +27,7 @@ import org.eclipse.xtext.resource.persistence.ResourceStorageLoadable;
 import org.eclipse.xtext.util.internal.Stopwatches;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
 import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
@@ -33,7 +36,7 @@ import org.eclipse.xtext.xbase.lib.Pure;
  * @author Sven Efftinge - Initial contribution and API
  */
 @SuppressWarnings("all")
-public class StorageAwareResource extends LazyLinkingResource {
+public class StorageAwareResource extends LazyLinkingResource implements ILazyNodeModelResource {
   public static final String UNRESOLVABLE_FRAGMENT = "UNRESOLVABLE";
   
   private static final Logger LOG = Logger.getLogger(StorageAwareResource.class);
@@ -52,6 +55,16 @@ public class StorageAwareResource extends LazyLinkingResource {
   @Accessors
   private IResourceDescription resourceDescription = null;
   
+  /**
+   * Deserializes the node model that has been loaded from storage when it is requested for the first time.
+   */
+  private volatile Procedure0 nodeModelLoader;
+  
+  /**
+   * Whether the node model is being deserialized by the thread that holds the lock of this resource.
+   */
+  private boolean isLoadingNodeModel = false;
+  
   @Override
   public void load(final Map<?, ?> options) throws IOException {
     if (((((!this.isLoaded) && (!this.isLoading)) && (this.resourceStorageFacade != null)) && this.resourceStorageFacade.shouldLoadFromStorage(this))) {
@@ -96,15 +109,80 @@ public class StorageAwareResource extends LazyLinkingResource {
     }
   }
   
+  /**
+   * Defers deserializing the node model of this resource until it is requested for the first time, i.e. until
+   * {@link #getParseResult()} or {@link org.eclipse.xtext.nodemodel.util.NodeModelUtils#getNode(org.eclipse.emf.ecore.EObject)}
+   * is called.
+   * 
+   * @since 2.18
+   */
+  public void setNodeModelLoader(final Procedure0 nodeModelLoader) {
+    this.nodeModelLoader = nodeModelLoader;
+  }
+  
+  /**
+   * Deserializes the node model of this resource if that has been deferred. Other threads wait until the node model
+   * is complete. Calls from the loading thread itself return immediately.
+   * 
+   * @return <code>true</code> if the node model has been deserialized by this call.
+   * @since 2.18
+   */
+  @Override
+  public boolean loadNodeModel() {
+    if ((this.nodeModelLoader == null)) {
+      return false;
+    }
+    synchronized (this) {
+      final Procedure0 loader = this.nodeModelLoader;
+      if (((loader == null) || this.isLoadingNodeModel)) {
+        return false;
+      }
+      this.isLoadingNodeModel = true;
+      try {
+        loader.apply();
+        return true;
+      } catch (final Throwable _t) {
+        if (_t instanceof Exception) {
+          final Exception e = (Exception)_t;
+          URI _uRI = this.getURI();
+          String _plus = ("Cannot load the node model of " + _uRI);
+          StorageAwareResource.LOG.error(_plus, e);
+          return false;
+        } else {
+          throw Exceptions.sneakyThrow(_t);
+        }
+      } finally {
+        this.nodeModelLoader = null;
+        this.isLoadingNodeModel = false;
+      }
+    }
+  }
+  
+  @Override
+  public IParseResult getParseResult() {
+    this.loadNodeModel();
+    return super.getParseResult();
+  }
+  
+  /**
+   * @return the parse result without deserializing a deferred node model.
+   * @since 2.18
+   */
+  protected IParseResult basicGetParseResult() {
+    return super.getParseResult();
+  }
+  
   @Override
   protected void doUnload() {
     super.doUnload();
     this.isLoadedFromStorage = false;
+    this.nodeModelLoader = null;
   }
   
   @Override
   protected void clearInternalState() {
     this.isLoadedFromStorage = false;
+    this.nodeModelLoader = null;
     super.clearInternalState();
   }
   